@@ -8,6 +8,7 @@ import hera.annotation.ApiAudience;
 import hera.annotation.ApiStability;
 import hera.api.model.AccountAddress;
 import hera.api.model.AccountState;
+import hera.api.model.AccountStateResult;
 import hera.api.model.AccountTotalVote;
 import hera.api.model.Block;
 import hera.api.model.BlockHash;
@@ -33,6 +34,8 @@ import hera.api.model.StakeInfo;
 import hera.api.model.Subscription;
 import hera.api.model.Transaction;
 import hera.api.model.TxHash;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 
 @ApiAudience.Public
@@ -47,6 +50,36 @@ public interface QueryApi {
    */
   AccountState getAccountState(AccountAddress accountAddress);
 
+  /**
+   * Get account states of accounts. Requests are sent concurrently up to a configured limit. A
+   * failure of an account is reported as its result and doesn't fail others.
+   *
+   * @param accountAddresses account addresses
+   * @return results in an order of {@code accountAddresses}
+   */
+  List<AccountStateResult> getAccountStates(Collection<AccountAddress> accountAddresses);
+
+  /**
+   * Get account states of accounts. An observer gets a result as soon as it's fetched. It returns
+   * after every result is delivered.
+   *
+   * @param accountAddresses account addresses
+   * @param observer a stream observer getting results
+   */
+  void getAccountStates(Collection<AccountAddress> accountAddresses,
+      hera.api.model.StreamObserver<AccountStateResult> observer);
+
+  /**
+   * Watch states of accounts. An observer gets current states first and then a state whenever it's
+   * changed by a transaction in a new block.
+   *
+   * @param accountAddresses account addresses to watch
+   * @param observer a stream observer which is invoked on a changed account state
+   * @return a watch subscription
+   */
+  Subscription<AccountState> watchAccountStates(List<AccountAddress> accountAddresses,
+      hera.api.model.StreamObserver<AccountState> observer);
+
   /**
    * Get owner of an account name.
    *
@@ -235,6 +268,16 @@ public interface QueryApi {
    */
   Block getBlock(long height);
 
+  /**
+   * Get blocks from {@code fromHeight} to {@code toHeight} in height order. Blocks ahead are
+   * fetched concurrently while iterating.
+   *
+   * @param fromHeight a first block height (inclusive)
+   * @param toHeight a last block height (inclusive)
+   * @return an iterator of blocks
+   */
+  Iterator<Block> listBlocks(long fromHeight, long toHeight);
+
   /**
    * Subscribe block metadata stream which is triggered everytime new block is generated.
    *
@@ -292,6 +335,15 @@ public interface QueryApi {
    */
   List<Event> listEvents(EventFilter filter);
 
+  /**
+   * Scan events corresponding to an event filter over its block range. Chunks of a range are
+   * requested concurrently and events are delivered in block and index order while iterating.
+   *
+   * @param filter an event filter with {@code fromBlockNumber} and {@code toBlockNumber}
+   * @return an iterator of events
+   */
+  Iterator<Event> scanEvents(EventFilter filter);
+
   /**
    * Subscribe event corresponding with event filter.
    *
@@ -302,4 +354,16 @@ public interface QueryApi {
   Subscription<Event> subscribeEvent(EventFilter filter,
       hera.api.model.StreamObserver<Event> observer);
 
+  /**
+   * Subscribe event corresponding with event filter from a past block. Events from
+   * {@code fromBlockNumber} are replayed and then live events follow without a duplicate or a gap.
+   *
+   * @param filter an event filter
+   * @param fromBlockNumber a block number to replay from (inclusive)
+   * @param observer a stream observer which is invoked on event
+   * @return a subscription
+   */
+  Subscription<Event> subscribeEvent(EventFilter filter, long fromBlockNumber,
+      hera.api.model.StreamObserver<Event> observer);
+
 }
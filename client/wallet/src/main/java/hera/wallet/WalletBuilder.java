@@ -11,6 +11,7 @@ import hera.api.model.internal.TryCountAndInterval;
 import hera.client.AergoClient;
 import hera.client.AergoClientBuilder;
 import hera.client.ClientConfiguer;
+import hera.client.stream.OverflowPolicy;
 import hera.keystore.InMemoryKeyStore;
 import hera.keystore.KeyStore;
 import java.io.InputStream;
@@ -45,6 +46,12 @@ public class WalletBuilder implements ClientConfiguer<WalletBuilder> {
     return this;
   }
 
+  @Override
+  public WalletBuilder withEndpoints(final String... endpoints) {
+    clientBuilder.withEndpoints(endpoints);
+    return this;
+  }
+
   @Override
   public WalletBuilder withNonBlockingConnect() {
     clientBuilder.withNonBlockingConnect();
@@ -63,12 +70,116 @@ public class WalletBuilder implements ClientConfiguer<WalletBuilder> {
     return this;
   }
 
+  @Override
+  public WalletBuilder withDeadline(final long timeout, final TimeUnit unit) {
+    clientBuilder.withDeadline(timeout, unit);
+    return this;
+  }
+
   @Override
   public WalletBuilder withRetry(final int count, final long interval, final TimeUnit unit) {
     clientBuilder.withRetry(count, interval, unit);
     return this;
   }
 
+  @Override
+  public WalletBuilder withBackoffRetry(final int count, final long baseInterval,
+      final long maxInterval, final TimeUnit unit) {
+    clientBuilder.withBackoffRetry(count, baseInterval, maxInterval, unit);
+    return this;
+  }
+
+  @Override
+  public WalletBuilder withCircuitBreaker(final double failureRateThreshold,
+      final double slowCallRateThreshold, final long slowCallDuration, final long openDuration,
+      final TimeUnit unit) {
+    clientBuilder.withCircuitBreaker(failureRateThreshold, slowCallRateThreshold,
+        slowCallDuration, openDuration, unit);
+    return this;
+  }
+
+  @Override
+  public WalletBuilder withHedging(final double percentile, final long minDelay,
+      final TimeUnit unit) {
+    clientBuilder.withHedging(percentile, minDelay, unit);
+    return this;
+  }
+
+  @Override
+  public WalletBuilder withCommitBatching(final int maxBatchSize, final long window,
+      final TimeUnit unit) {
+    clientBuilder.withCommitBatching(maxBatchSize, window, unit);
+    return this;
+  }
+
+  @Override
+  public WalletBuilder withBlockCache(final int maxEntries, final long maxBytes) {
+    clientBuilder.withBlockCache(maxEntries, maxBytes);
+    return this;
+  }
+
+  @Override
+  public WalletBuilder withContractInterfaceCache(final boolean deduplicate) {
+    clientBuilder.withContractInterfaceCache(deduplicate);
+    return this;
+  }
+
+  @Override
+  public WalletBuilder withAccountStateCache(final int maxEntries) {
+    clientBuilder.withAccountStateCache(maxEntries);
+    return this;
+  }
+
+  @Override
+  public WalletBuilder withAccountStateFetchConcurrency(final int maxInFlight) {
+    clientBuilder.withAccountStateFetchConcurrency(maxInFlight);
+    return this;
+  }
+
+  @Override
+  public WalletBuilder withChainIdHashTracking() {
+    clientBuilder.withChainIdHashTracking();
+    return this;
+  }
+
+  @Override
+  public WalletBuilder withChainIdHashTracking(final long interval, final TimeUnit unit) {
+    clientBuilder.withChainIdHashTracking(interval, unit);
+    return this;
+  }
+
+  @Override
+  public WalletBuilder withStreamBuffer(final int bufferSize,
+      final OverflowPolicy overflowPolicy) {
+    clientBuilder.withStreamBuffer(bufferSize, overflowPolicy);
+    return this;
+  }
+
+  @Override
+  public WalletBuilder withStreamResubscription(final long initialInterval,
+      final long maxInterval, final TimeUnit unit) {
+    clientBuilder.withStreamResubscription(initialInterval, maxInterval, unit);
+    return this;
+  }
+
+  @Override
+  public WalletBuilder withEventHub() {
+    clientBuilder.withEventHub();
+    return this;
+  }
+
+  @Override
+  public WalletBuilder withBlockHub(final int queueSize, final OverflowPolicy overflowPolicy) {
+    clientBuilder.withBlockHub(queueSize, overflowPolicy);
+    return this;
+  }
+
+  @Override
+  public WalletBuilder withBlockStore(final String directory, final int segmentSize) {
+    clientBuilder.withBlockStore(directory, segmentSize);
+    return this;
+  }
+
   @Override
   public WalletBuilder withPlainText() {
     clientBuilder.withPlainText();
@@ -6,6 +6,7 @@ package hera.wallet.internal;
 
 import hera.api.model.AccountAddress;
 import hera.api.model.AccountState;
+import hera.api.model.AccountStateResult;
 import hera.api.model.AccountTotalVote;
 import hera.api.model.Block;
 import hera.api.model.BlockHash;
@@ -37,6 +38,8 @@ import hera.exception.WalletException;
 import hera.exception.WalletExceptionConverter;
 import hera.util.ExceptionConverter;
 import hera.wallet.QueryApi;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import lombok.NoArgsConstructor;
 import lombok.NonNull;
@@ -60,6 +63,36 @@ public class QueryApiImpl implements QueryApi, ClientInjectable {
     }
   }
 
+  @Override
+  public List<AccountStateResult> getAccountStates(
+      final Collection<AccountAddress> accountAddresses) {
+    try {
+      return getClient().getAccountOperation().getStates(accountAddresses);
+    } catch (Exception e) {
+      throw converter.convert(e);
+    }
+  }
+
+  @Override
+  public void getAccountStates(final Collection<AccountAddress> accountAddresses,
+      final StreamObserver<AccountStateResult> observer) {
+    try {
+      getClient().getAccountOperation().getStates(accountAddresses, observer);
+    } catch (Exception e) {
+      throw converter.convert(e);
+    }
+  }
+
+  @Override
+  public Subscription<AccountState> watchAccountStates(
+      final List<AccountAddress> accountAddresses, final StreamObserver<AccountState> observer) {
+    try {
+      return getClient().getAccountOperation().watchStates(accountAddresses, observer);
+    } catch (Exception e) {
+      throw converter.convert(e);
+    }
+  }
+
   @Override
   public AccountAddress getNameOwner(final String name) {
     try {
@@ -277,6 +310,15 @@ public class QueryApiImpl implements QueryApi, ClientInjectable {
     }
   }
 
+  @Override
+  public Iterator<Block> listBlocks(final long fromHeight, final long toHeight) {
+    try {
+      return getClient().getBlockOperation().listBlocks(fromHeight, toHeight);
+    } catch (Exception e) {
+      throw converter.convert(e);
+    }
+  }
+
   @Override
   public Subscription<BlockMetadata> subscribeNewBlockMetadata(
       final StreamObserver<BlockMetadata> observer) {
@@ -341,6 +383,15 @@ public class QueryApiImpl implements QueryApi, ClientInjectable {
     }
   }
 
+  @Override
+  public Iterator<Event> scanEvents(final EventFilter filter) {
+    try {
+      return getClient().getContractOperation().scanEvents(filter);
+    } catch (Exception e) {
+      throw converter.convert(e);
+    }
+  }
+
   @Override
   public Subscription<Event> subscribeEvent(final EventFilter filter,
       final StreamObserver<Event> observer) {
@@ -351,6 +402,16 @@ public class QueryApiImpl implements QueryApi, ClientInjectable {
     }
   }
 
+  @Override
+  public Subscription<Event> subscribeEvent(final EventFilter filter, final long fromBlockNumber,
+      final StreamObserver<Event> observer) {
+    try {
+      return getClient().getContractOperation().subscribeEvent(filter, fromBlockNumber, observer);
+    } catch (Exception e) {
+      throw converter.convert(e);
+    }
+  }
+
   protected AergoClient getClient() {
     if (null == this.client) {
       throw new WalletException("Aergo client isn't binded yet");
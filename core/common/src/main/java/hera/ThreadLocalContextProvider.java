@@ -18,7 +18,10 @@ public class ThreadLocalContextProvider implements ContextProvider {
 
   protected final Object cabinetKey;
 
-  protected Context baseContext;
+  protected volatile Context baseContext;
+
+  // a base context from which a context of current thread is taken
+  protected final ThreadLocal<Context> takenBase = new ThreadLocal<>();
 
   public ThreadLocalContextProvider(final Context baseContext, final Object cabinetKey) {
     this.baseContext = baseContext;
@@ -28,10 +31,14 @@ public class ThreadLocalContextProvider implements ContextProvider {
   @Override
   public Context get() {
     final Context context = ContextHolder.get(cabinetKey);
+    final Context base = this.baseContext;
     if (context.equals(EmptyContext.getInstance())) {
-      logger.debug("Context in current thread is empty. Set context from base: {}",
-          this.baseContext);
-      ContextHolder.set(cabinetKey, this.baseContext);
+      logger.debug("Context in current thread is empty. Set context from base: {}", base);
+      take(base);
+    } else if (null != base && context == takenBase.get() && context != base) {
+      // a base is replaced by another thread after current thread took it
+      logger.debug("Base context is updated. Set context from base: {}", base);
+      take(base);
     }
     return ContextHolder.get(cabinetKey);
   }
@@ -39,7 +46,12 @@ public class ThreadLocalContextProvider implements ContextProvider {
   @Override
   public void put(final Context context) {
     this.baseContext = context;
-    ContextHolder.set(cabinetKey, context);
+    take(context);
+  }
+
+  protected void take(final Context base) {
+    ContextHolder.set(cabinetKey, base);
+    takenBase.set(base);
   }
 
 }
@@ -9,15 +9,19 @@ import hera.annotation.ApiStability;
 import hera.api.model.Account;
 import hera.api.model.AccountAddress;
 import hera.api.model.AccountState;
+import hera.api.model.AccountStateResult;
 import hera.api.model.AccountTotalVote;
 import hera.api.model.Aer;
 import hera.api.model.ElectedCandidate;
 import hera.api.model.RawTransaction;
 import hera.api.model.StakeInfo;
+import hera.api.model.StreamObserver;
+import hera.api.model.Subscription;
 import hera.api.model.Transaction;
 import hera.api.model.TxHash;
 import hera.key.AergoSignVerifier;
 import hera.key.Signer;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -54,6 +58,36 @@ public interface AccountOperation {
    */
   AccountState getState(AccountAddress address);
 
+  /**
+   * Get account states of addresses. Requests are sent concurrently up to a configured limit. A
+   * failure of an address is reported as its result and doesn't fail others.
+   *
+   * @param addresses account addresses
+   * @return results in an order of {@code addresses}
+   */
+  List<AccountStateResult> getStates(Collection<AccountAddress> addresses);
+
+  /**
+   * Get account states of addresses. An observer gets a result as soon as it's fetched, so an
+   * order of results differs from an order of {@code addresses}. It returns after
+   * {@link StreamObserver#onCompleted()} is invoked.
+   *
+   * @param addresses account addresses
+   * @param observer an observer getting results
+   */
+  void getStates(Collection<AccountAddress> addresses, StreamObserver<AccountStateResult> observer);
+
+  /**
+   * Watch states of accounts. An observer gets current states first and then a state whenever it's
+   * changed by a transaction in a new block. A new block stream is shared by every watch.
+   *
+   * @param addresses account addresses to watch
+   * @param observer a stream observer which is invoked on a changed account state
+   * @return a watch subscription
+   */
+  Subscription<AccountState> watchStates(List<AccountAddress> addresses,
+      StreamObserver<AccountState> observer);
+
   /**
    * Use {@link #createName(Signer, String, long)} instead.
    *
@@ -11,6 +11,7 @@ import hera.api.model.BlockHash;
 import hera.api.model.BlockMetadata;
 import hera.api.model.StreamObserver;
 import hera.api.model.Subscription;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -79,6 +80,17 @@ public interface BlockOperation {
    */
   Block getBlock(long height);
 
+  /**
+   * Get blocks from {@code fromHeight} to {@code toHeight} in height order. Blocks ahead are
+   * fetched concurrently while iterating, holding a bounded number of blocks at a time. A failure
+   * on fetching a block is thrown on its turn and ends an iteration.
+   *
+   * @param fromHeight a first block height (inclusive)
+   * @param toHeight a last block height (inclusive)
+   * @return an iterator of blocks
+   */
+  Iterator<Block> listBlocks(long fromHeight, long toHeight);
+
   /**
    * Subscribe block metadata stream which is triggered everytime new block is generated.
    *
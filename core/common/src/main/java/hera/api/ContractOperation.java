@@ -20,6 +20,7 @@ import hera.api.model.Fee;
 import hera.api.model.StreamObserver;
 import hera.api.model.Subscription;
 import hera.key.Signer;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -157,6 +158,17 @@ public interface ContractOperation {
    */
   List<Event> listEvents(EventFilter filter);
 
+  /**
+   * Scan events corresponding to an event filter over its block range. A range is split into
+   * chunks requested concurrently and events are delivered in block and index order while
+   * iterating, holding a bounded number of chunks at a time. A chunk failing by a timeout or a
+   * result limit is halved and requested again.
+   *
+   * @param filter an event filter with {@code fromBlockNumber} and {@code toBlockNumber}
+   * @return an iterator of events
+   */
+  Iterator<Event> scanEvents(EventFilter filter);
+
   /**
    * Subscribe event corresponding to an event filter.
    *
@@ -166,4 +178,17 @@ public interface ContractOperation {
    */
   Subscription<Event> subscribeEvent(EventFilter filter, StreamObserver<Event> observer);
 
+  /**
+   * Subscribe event corresponding to an event filter from a past block. A live stream is
+   * subscribed first and held while events from {@code fromBlockNumber} are replayed, and then
+   * live events follow without a duplicate or a gap. A block range of a filter is ignored.
+   *
+   * @param filter an event filter
+   * @param fromBlockNumber a block number to replay from (inclusive)
+   * @param observer a stream observer which is invoked on event
+   * @return a subscription
+   */
+  Subscription<Event> subscribeEvent(EventFilter filter, long fromBlockNumber,
+      StreamObserver<Event> observer);
+
 }
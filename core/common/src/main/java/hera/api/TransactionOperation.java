@@ -9,7 +9,9 @@ import hera.annotation.ApiStability;
 import hera.api.model.AccountAddress;
 import hera.api.model.Aer;
 import hera.api.model.Transaction;
+import hera.api.model.TxCommitResult;
 import hera.api.model.TxHash;
+import java.util.List;
 
 /**
  * Provide transaction related operations. It provides followings:
@@ -43,6 +45,15 @@ public interface TransactionOperation {
    */
   TxHash commit(Transaction transaction);
 
+  /**
+   * Commit transactions in a single request. A transaction rejected by a server doesn't fail
+   * others. Check {@link TxCommitResult#isSuccess()} of each result.
+   *
+   * @param transactions transactions to commit
+   * @return commit results in the same order as {@code transactions}
+   */
+  List<TxCommitResult> commit(List<Transaction> transactions);
+
   /**
    * Send transaction. This method automatically fill nonce, sign and commit in a server. This
    * method is valid only if sender is stored in a server key store. Make sure that {@code sender}
@@ -0,0 +1,39 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.api.model;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * A result of fetching an account state in a batch.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+@Value
+@Builder(builderMethodName = "newBuilder")
+public class AccountStateResult {
+
+  @NonNull
+  AccountAddress address;
+
+  /**
+   * An account state. It's null on a failure.
+   */
+  AccountState state;
+
+  /**
+   * A cause of a failure. It's null on a success.
+   */
+  Exception error;
+
+  public boolean isSuccess() {
+    return null == error;
+  }
+
+}
@@ -23,4 +23,18 @@ public interface Subscription<T> {
    */
   boolean isUnsubscribed();
 
+  /**
+   * Get a number of items received but not delivered to an observer yet.
+   *
+   * @return a queue depth
+   */
+  int getQueueDepth();
+
+  /**
+   * Get a number of items dropped by an overflow policy since subscribed.
+   *
+   * @return a number of dropped items
+   */
+  long getDropCount();
+
 }
@@ -0,0 +1,52 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.api.model;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import lombok.Builder;
+import lombok.Builder.Default;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * A result of committing a transaction in a batch.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+@Value
+@Builder(builderMethodName = "newBuilder")
+public class TxCommitResult {
+
+  public enum Status {
+    OK,
+    NONCE_TOO_LOW,
+    TX_ALREADY_EXISTS,
+    TX_INVALID_HASH,
+    TX_INVALID_SIGNATURE,
+    TX_INVALID_FORMAT,
+    INSUFFICIENT_BALANCE,
+    TX_HAS_SAME_NONCE,
+    INTERNAL_ERROR,
+    UNRECOGNIZED
+  }
+
+  @NonNull
+  @Default
+  TxHash txHash = new TxHash(BytesValue.EMPTY);
+
+  @NonNull
+  @Default
+  Status status = Status.UNRECOGNIZED;
+
+  @NonNull
+  @Default
+  String message = "";
+
+  public boolean isSuccess() {
+    return Status.OK == status;
+  }
+
+}
@@ -0,0 +1,41 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.api.model;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * A transaction found in a block, with its receipt if it's a contract transaction.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+@Value
+@Builder(builderMethodName = "newBuilder")
+public class TxConfirmation {
+
+  /**
+   * A transaction with a hash of a block and an index in it.
+   */
+  @NonNull
+  Transaction transaction;
+
+  /**
+   * A receipt of a contract transaction. It's null for a transfer.
+   */
+  ContractTxReceipt receipt;
+
+  public TxHash getTxHash() {
+    return transaction.getHash();
+  }
+
+  public BlockHash getBlockHash() {
+    return transaction.getBlockHash();
+  }
+
+}
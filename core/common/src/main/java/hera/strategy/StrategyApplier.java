@@ -17,10 +17,13 @@ import hera.api.function.Function4;
 import hera.api.function.Function5;
 import hera.api.function.FunctionDecorator;
 import hera.api.function.WithIdentity;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.PriorityQueue;
+import java.util.Queue;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.slf4j.Logger;
@@ -54,7 +57,7 @@ public class StrategyApplier implements FunctionDecorator {
    * @param priorityConfig priority config
    */
   public StrategyApplier(final Context context, final PriorityConfig priorityConfig) {
-    this.chain = new PriorityQueue<FunctionDecorator>(INITIAL_QUEUE_SIZE,
+    final Queue<FunctionDecorator> queue = new PriorityQueue<FunctionDecorator>(INITIAL_QUEUE_SIZE,
         new Comparator<FunctionDecorator>() {
 
           protected final Map<Class<? extends Strategy>, Integer> inner =
@@ -80,9 +83,15 @@ public class StrategyApplier implements FunctionDecorator {
 
     for (final Strategy strategy : context.getStrategies()) {
       if (strategy instanceof FunctionDecorator) {
-        chain.add((FunctionDecorator) strategy);
+        queue.add((FunctionDecorator) strategy);
       }
     }
+    // iterator of priority queue doesn't keep an order
+    final List<FunctionDecorator> ordered = new ArrayList<FunctionDecorator>(queue.size());
+    while (!queue.isEmpty()) {
+      ordered.add(queue.poll());
+    }
+    this.chain = ordered;
     logger.debug("Build strategy chain in order: {}", chain);
   }
 
@@ -27,4 +27,40 @@ public class ThreadLocalContextProviderTest extends AbstractTestCase {
     assertEquals(originScope, provider.get().getScope());
   }
 
+  @Test
+  public void shouldFollowBaseUpdatedByAnotherThread() throws Exception {
+    final ContextProvider provider =
+        new ThreadLocalContextProvider(EmptyContext.getInstance().withScope("origin"), this);
+    assertEquals("origin", provider.get().getScope());
+
+    final Thread thread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        provider.put(provider.get().withScope("updated"));
+      }
+    });
+    thread.start();
+    thread.join();
+
+    assertEquals("updated", provider.get().getScope());
+  }
+
+  @Test
+  public void shouldKeepPreScopeOnBaseUpdate() throws Exception {
+    ContextHolder.set(this, EmptyContext.getInstance().withScope("pre"));
+    final ContextProvider provider =
+        new ThreadLocalContextProvider(EmptyContext.getInstance().withScope("origin"), this);
+
+    final Thread thread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        provider.put(provider.get().withScope("updated"));
+      }
+    });
+    thread.start();
+    thread.join();
+
+    assertEquals("pre", provider.get().getScope());
+  }
+
 }
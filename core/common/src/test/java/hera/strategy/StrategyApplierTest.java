@@ -0,0 +1,90 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.strategy;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+
+import hera.AbstractTestCase;
+import hera.Context;
+import hera.ContextProvider;
+import hera.Strategy;
+import hera.api.function.Function;
+import hera.api.function.Function0;
+import hera.api.function.Functions;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import org.junit.Test;
+
+public class StrategyApplierTest extends AbstractTestCase {
+
+  protected static final List<Integer> invoked = new ArrayList<>();
+
+  protected abstract static class RecordingStrategy extends InvocationStrategy {
+    @Override
+    protected <R> R wrap(final Function<R> f, final List<Object> args) {
+      invoked.add(priority());
+      return Functions.invoke(f, args);
+    }
+
+    protected abstract int priority();
+  }
+
+  protected static class First extends RecordingStrategy {
+    @Override
+    protected int priority() {
+      return 1;
+    }
+  }
+
+  protected static class Second extends RecordingStrategy {
+    @Override
+    protected int priority() {
+      return 2;
+    }
+  }
+
+  protected static class Third extends RecordingStrategy {
+    @Override
+    protected int priority() {
+      return 3;
+    }
+  }
+
+  protected static class Fourth extends RecordingStrategy {
+    @Override
+    protected int priority() {
+      return 4;
+    }
+  }
+
+  @Test
+  public void testApplyInPriority() {
+    final PriorityConfig priorityConfig = new PriorityConfig()
+        .set(First.class, 1)
+        .set(Second.class, 2)
+        .set(Third.class, 3)
+        .set(Fourth.class, 4);
+    for (int i = 0; i < N_TEST; ++i) {
+      invoked.clear();
+      final Context context = ContextProvider.defaultProvider.get()
+          .withStrategies(new HashSet<Strategy>(
+              asList(new Fourth(), new Second(), new First(), new Third())));
+      final Function0<Integer> applied = StrategyApplier.of(context, priorityConfig)
+          .apply(new Function0<Integer>() {
+            @Override
+            public Integer apply() {
+              return 0;
+            }
+          });
+      applied.apply();
+
+      // a strategy with lower priority is applied first, that is, invoked last
+      assertEquals(asList(4, 3, 2, 1), invoked);
+    }
+  }
+
+}
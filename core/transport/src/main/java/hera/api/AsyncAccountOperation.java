@@ -0,0 +1,127 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.api;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.model.AccountAddress;
+import hera.api.model.AccountState;
+import hera.api.model.AccountTotalVote;
+import hera.api.model.Aer;
+import hera.api.model.ElectedCandidate;
+import hera.api.model.StakeInfo;
+import hera.api.model.TxHash;
+import hera.key.Signer;
+import java.util.List;
+
+/**
+ * Provide account related operations without blocking a caller thread. A returned future fails
+ * with {@link hera.exception.RpcException} on error.
+ *
+ * @see AccountOperation
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public interface AsyncAccountOperation {
+
+  /**
+   * Get account state by address.
+   *
+   * @param address an account address
+   * @return a future of account state
+   */
+  ListenableFuture<AccountState> getState(AccountAddress address);
+
+  /**
+   * Create name info of a current account.
+   *
+   * @param signer a signer whose principal is an owner of name
+   * @param name an new name
+   * @param nonce an nonce which is used in a transaction
+   * @return a future of create name transaction hash
+   */
+  ListenableFuture<TxHash> createName(Signer signer, String name, long nonce);
+
+  /**
+   * Update an name owner to new owner.
+   *
+   * @param signer a signer whose principal is an owner of name
+   * @param name an already binded name
+   * @param newOwner an new owner of name
+   * @param nonce an nonce which is used in a transaction
+   * @return a future of update name transaction hash
+   */
+  ListenableFuture<TxHash> updateName(Signer signer, String name, AccountAddress newOwner,
+      long nonce);
+
+  /**
+   * Get owner of an account name at a block of {@code blockNumber}. If {@code blockNumber} is 0,
+   * it's a latest one.
+   *
+   * @param name an name of account
+   * @param blockNumber a block number
+   * @return a future of an account address binded with name
+   */
+  ListenableFuture<AccountAddress> getNameOwner(String name, long blockNumber);
+
+  /**
+   * Stake an aergo.
+   *
+   * @param signer a signer whose principal is an account to stake
+   * @param amount an amount to stake
+   * @param nonce an nonce which is used in a transaction
+   * @return a future of staking transaction hash
+   */
+  ListenableFuture<TxHash> stake(Signer signer, Aer amount, long nonce);
+
+  /**
+   * Unstake an aergo.
+   *
+   * @param signer a signer whose principal is an account to unstake
+   * @param amount an amount to unstake
+   * @param nonce an nonce which is used in a transaction
+   * @return a future of unstaking transaction hash
+   */
+  ListenableFuture<TxHash> unstake(Signer signer, Aer amount, long nonce);
+
+  /**
+   * Get staking information of {@code accountAddress}.
+   *
+   * @param accountAddress an account address to check staking information
+   * @return a future of staking information
+   */
+  ListenableFuture<StakeInfo> getStakingInfo(AccountAddress accountAddress);
+
+  /**
+   * Vote candidate to a vote id.
+   *
+   * @param signer a signer whose principal is an account to vote
+   * @param voteId a vote id
+   * @param candidates a candidates to vote
+   * @param nonce an nonce which is used in a transaction
+   * @return a future of voting transaction hash
+   */
+  ListenableFuture<TxHash> vote(Signer signer, String voteId, List<String> candidates,
+      long nonce);
+
+  /**
+   * Get votes which {@code accountAddress} votes for.
+   *
+   * @param accountAddress an account address
+   * @return a future of voting info
+   */
+  ListenableFuture<AccountTotalVote> getVotesOf(AccountAddress accountAddress);
+
+  /**
+   * Get elected candidates for {@code voteId} for current round.
+   *
+   * @param voteId a vote id
+   * @param showCount a maximum count of result
+   * @return a future of elected candidates
+   */
+  ListenableFuture<List<ElectedCandidate>> listElected(String voteId, int showCount);
+
+}
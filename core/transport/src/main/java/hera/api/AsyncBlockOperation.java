@@ -0,0 +1,75 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.api;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.model.Block;
+import hera.api.model.BlockHash;
+import hera.api.model.BlockMetadata;
+import java.util.List;
+
+/**
+ * Provide block related operations without blocking a caller thread. A returned future fails with
+ * {@link hera.exception.RpcException} on error.
+ *
+ * @see BlockOperation
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public interface AsyncBlockOperation {
+
+  /**
+   * Get block meta data by hash.
+   *
+   * @param blockHash block hash
+   * @return a future of block meta data
+   */
+  ListenableFuture<BlockMetadata> getBlockMetadata(BlockHash blockHash);
+
+  /**
+   * Get block meta data by height.
+   *
+   * @param height block's height
+   * @return a future of block meta data
+   */
+  ListenableFuture<BlockMetadata> getBlockMetadata(long height);
+
+  /**
+   * Get list of block meta data of {@code size} backward starting from block for provided hash.
+   *
+   * @param blockHash block hash
+   * @param size block list size whose upper bound is 1000
+   * @return a future of list of block meta data
+   */
+  ListenableFuture<List<BlockMetadata>> listBlockMetadatas(BlockHash blockHash, int size);
+
+  /**
+   * Get list of block meta data of {@code size} backward starting from block for provided height.
+   *
+   * @param height block's height
+   * @param size block list size whose upper bound is 1000
+   * @return a future of list of block meta data
+   */
+  ListenableFuture<List<BlockMetadata>> listBlockMetadatas(long height, int size);
+
+  /**
+   * Get block by hash.
+   *
+   * @param blockHash block hash
+   * @return a future of block
+   */
+  ListenableFuture<Block> getBlock(BlockHash blockHash);
+
+  /**
+   * Get block by height.
+   *
+   * @param height block's height
+   * @return a future of block
+   */
+  ListenableFuture<Block> getBlock(long height);
+
+}
@@ -0,0 +1,81 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.api;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.model.BlockchainStatus;
+import hera.api.model.ChainInfo;
+import hera.api.model.ChainStats;
+import hera.api.model.NodeStatus;
+import hera.api.model.Peer;
+import hera.api.model.PeerMetric;
+import hera.api.model.ServerInfo;
+import java.util.List;
+
+/**
+ * Provide blockchain related operations without blocking a caller thread. A returned future fails
+ * with {@link hera.exception.RpcException} on error.
+ *
+ * @see BlockchainOperation
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public interface AsyncBlockchainOperation {
+
+  /**
+   * Get blockchain status.
+   *
+   * @return a future of blockchain status
+   */
+  ListenableFuture<BlockchainStatus> getBlockchainStatus();
+
+  /**
+   * Get chain info of current node.
+   *
+   * @return a future of chain info
+   */
+  ListenableFuture<ChainInfo> getChainInfo();
+
+  /**
+   * Get chain statistics of current node.
+   *
+   * @return a future of chain statistics
+   */
+  ListenableFuture<ChainStats> getChainStats();
+
+  /**
+   * Get blockchain peer addresses.
+   *
+   * @param showHidden whether to show hidden peers
+   * @param showSelf whether to show node which receives request itself
+   * @return a future of peer addresses
+   */
+  ListenableFuture<List<Peer>> listPeers(boolean showHidden, boolean showSelf);
+
+  /**
+   * Get peers metrics.
+   *
+   * @return a future of peer metrics
+   */
+  ListenableFuture<List<PeerMetric>> listPeerMetrics();
+
+  /**
+   * Get server info.
+   *
+   * @param categories a categories
+   * @return a future of server info
+   */
+  ListenableFuture<ServerInfo> getServerInfo(List<String> categories);
+
+  /**
+   * Get node status.
+   *
+   * @return a future of node status
+   */
+  ListenableFuture<NodeStatus> getNodeStatus();
+
+}
@@ -0,0 +1,102 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.api;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.model.ContractAddress;
+import hera.api.model.ContractDefinition;
+import hera.api.model.ContractInterface;
+import hera.api.model.ContractInvocation;
+import hera.api.model.ContractResult;
+import hera.api.model.ContractTxHash;
+import hera.api.model.ContractTxReceipt;
+import hera.api.model.Event;
+import hera.api.model.EventFilter;
+import hera.api.model.Fee;
+import hera.key.Signer;
+import java.util.List;
+
+/**
+ * Provide contract related operations without blocking a caller thread. A returned future fails
+ * with {@link hera.exception.RpcException} on error.
+ *
+ * @see ContractOperation
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public interface AsyncContractOperation {
+
+  /**
+   * Get receipt of transaction.
+   *
+   * @param contractTxHash contract transaction hash
+   * @return a future of receipt of transaction
+   */
+  ListenableFuture<ContractTxReceipt> getReceipt(ContractTxHash contractTxHash);
+
+  /**
+   * Deploy smart contract.
+   *
+   * @param signer a signer whose principal is a contract creator
+   * @param contractDefinition contract definition
+   * @param nonce an nonce used in making transaction
+   * @param fee transaction fee
+   * @return a future of contract definition transaction hash
+   */
+  ListenableFuture<ContractTxHash> deploy(Signer signer, ContractDefinition contractDefinition,
+      long nonce, Fee fee);
+
+  /**
+   * Re-deploy an new contract to already deployed one. It only works on a private mode.
+   *
+   * @param signer a signer whose principal is a contract creator
+   * @param existingContract an contract address of already deployed one
+   * @param contractDefinition contract definition to re-deploy
+   * @param nonce an nonce used in making transaction
+   * @param fee transaction fee
+   * @return a future of contract definition transaction hash
+   */
+  ListenableFuture<ContractTxHash> redeploy(Signer signer, ContractAddress existingContract,
+      ContractDefinition contractDefinition, long nonce, Fee fee);
+
+  /**
+   * Get smart contract interface corresponding to contract address.
+   *
+   * @param contractAddress contract address
+   * @return a future of contract interface
+   */
+  ListenableFuture<ContractInterface> getContractInterface(ContractAddress contractAddress);
+
+  /**
+   * Execute the smart contract.
+   *
+   * @param signer a signer whose principal is a contract executor
+   * @param contractInvocation {@link ContractInvocation}
+   * @param nonce an nonce used in making transaction
+   * @param fee transaction fee
+   * @return a future of contract execution transaction hash
+   */
+  ListenableFuture<ContractTxHash> execute(Signer signer, ContractInvocation contractInvocation,
+      long nonce, Fee fee);
+
+  /**
+   * Query the smart contract state by calling smart contract function.
+   *
+   * @param contractInvocation {@link ContractInvocation}
+   * @return a future of contract result
+   */
+  ListenableFuture<ContractResult> query(ContractInvocation contractInvocation);
+
+  /**
+   * Get event infos at some block.
+   *
+   * @param filter an event filter
+   * @return a future of event list
+   */
+  ListenableFuture<List<Event>> listEvents(EventFilter filter);
+
+}
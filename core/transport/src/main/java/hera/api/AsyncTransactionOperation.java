@@ -0,0 +1,77 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.api;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.model.AccountAddress;
+import hera.api.model.Aer;
+import hera.api.model.Transaction;
+import hera.api.model.TxCommitResult;
+import hera.api.model.TxConfirmation;
+import hera.api.model.TxHash;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Provide transaction related operations without blocking a caller thread. A returned future fails
+ * with {@link hera.exception.RpcException} on error.
+ *
+ * @see TransactionOperation
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public interface AsyncTransactionOperation {
+
+  /**
+   * Get transaction.
+   *
+   * @param txHash transaction's hash
+   * @return a future of transaction
+   */
+  ListenableFuture<Transaction> getTransaction(TxHash txHash);
+
+  /**
+   * Commit a signed transaction.
+   *
+   * @param transaction signed transaction
+   * @return a future of transaction hash
+   */
+  ListenableFuture<TxHash> commit(Transaction transaction);
+
+  /**
+   * Commit signed transactions in a single request.
+   *
+   * @param transactions signed transactions
+   * @return a future of commit results in the same order as {@code transactions}
+   *
+   * @see TransactionOperation#commit(List)
+   */
+  ListenableFuture<List<TxCommitResult>> commit(List<Transaction> transactions);
+
+  /**
+   * Send <b>aer</b> with key stored in server keystore.
+   *
+   * @param sender aergo sender
+   * @param recipient aergo recipient
+   * @param amount an amount
+   * @return a future of transaction hash
+   */
+  ListenableFuture<TxHash> send(AccountAddress sender, AccountAddress recipient, Aer amount);
+
+  /**
+   * Wait for a transaction to be included in a block. Every pending wait of a client shares one
+   * block stream instead of polling, and a receipt is requested only for a contract transaction.
+   * A returned future fails on timeout and cancelling it stops waiting.
+   *
+   * @param txHash a hash of a committed transaction
+   * @param timeout a timeout
+   * @param unit a unit of a timeout
+   * @return a future of a transaction in a block with its receipt if any
+   */
+  ListenableFuture<TxConfirmation> awaitConfirmation(TxHash txHash, long timeout, TimeUnit unit);
+
+}
@@ -12,11 +12,15 @@ import static hera.client.ClientConstants.ACCOUNT_GETSTATE;
 import static hera.client.ClientConstants.ACCOUNT_LIST_ELECTED;
 import static hera.client.ClientConstants.ACCOUNT_SIGN;
 import static hera.client.ClientConstants.ACCOUNT_STAKING;
+import static hera.client.ClientConstants.ACCOUNT_STATE_CACHE_SIZE;
+import static hera.client.ClientConstants.ACCOUNT_STATE_FETCH_CONCURRENCY;
 import static hera.client.ClientConstants.ACCOUNT_UNSTAKING;
 import static hera.client.ClientConstants.ACCOUNT_UPDATE_NAME;
 import static hera.client.ClientConstants.ACCOUNT_VERIFY;
 import static hera.client.ClientConstants.ACCOUNT_VOTE;
 import static hera.client.ClientConstants.ACCOUNT_VOTESOF;
+import static hera.client.ClientConstants.DEFAULT_ACCOUNT_STATE_FETCH_CONCURRENCY;
+import static hera.client.internal.HerajFutures.withTimeout;
 
 import hera.ContextProvider;
 import hera.ContextProviderInjectable;
@@ -30,14 +34,21 @@ import hera.api.function.Function4;
 import hera.api.model.Account;
 import hera.api.model.AccountAddress;
 import hera.api.model.AccountState;
+import hera.api.model.AccountStateResult;
 import hera.api.model.AccountTotalVote;
 import hera.api.model.Aer;
 import hera.api.model.ElectedCandidate;
 import hera.api.model.RawTransaction;
 import hera.api.model.StakeInfo;
+import hera.api.model.StreamObserver;
+import hera.api.model.Subscription;
 import hera.api.model.Transaction;
 import hera.api.model.TxHash;
 import hera.client.internal.AccountBaseTemplate;
+import hera.client.internal.AccountStateCache;
+import hera.client.internal.AccountStateFetcher;
+import hera.client.internal.BlockBaseTemplate;
+import hera.client.internal.HerajFutures;
 import hera.exception.RpcException;
 import hera.exception.RpcExceptionConverter;
 import hera.key.Signer;
@@ -45,6 +56,7 @@ import hera.strategy.PriorityProvider;
 import hera.strategy.StrategyApplier;
 import hera.util.ExceptionConverter;
 import io.grpc.ManagedChannel;
+import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.Future;
 import lombok.AccessLevel;
@@ -59,6 +71,8 @@ public class AccountTemplate
 
   protected AccountBaseTemplate accountBaseTemplate = new AccountBaseTemplate();
 
+  protected BlockBaseTemplate blockBaseTemplate = new BlockBaseTemplate();
+
   protected ContextProvider contextProvider;
 
   @Getter(lazy = true, value = AccessLevel.PROTECTED)
@@ -68,12 +82,64 @@ public class AccountTemplate
   @Override
   public void setChannel(final ManagedChannel channel) {
     this.accountBaseTemplate.setChannel(channel);;
+    this.blockBaseTemplate.setChannel(channel);
   }
 
   @Override
   public void setContextProvider(final ContextProvider contextProvider) {
     this.contextProvider = contextProvider;
     this.accountBaseTemplate.setContextProvider(contextProvider);
+    this.blockBaseTemplate.setContextProvider(contextProvider);
+  }
+
+  @Getter(lazy = true, value = AccessLevel.PROTECTED)
+  private final AccountStateCache accountStateCache = createAccountStateCache();
+
+  protected AccountStateCache createAccountStateCache() {
+    final int maxEntries =
+        contextProvider.get().getConfiguration().getAsInt(ACCOUNT_STATE_CACHE_SIZE, 0);
+    // a function with strategies blocks until done, so take a raw one for concurrent refreshes
+    final Function1<AccountAddress, Future<AccountState>> refreshFunction =
+        new Function1<AccountAddress, Future<AccountState>>() {
+          @Override
+          public Future<AccountState> apply(final AccountAddress address) {
+            return withTimeout(contextProvider.get(),
+                accountBaseTemplate.getStateFunction().apply(address));
+          }
+        };
+    return new AccountStateCache(refreshFunction, blockBaseTemplate.getSubscribeBlockFunction(),
+        Math.max(0, maxEntries));
+  }
+
+  @Getter(lazy = true, value = AccessLevel.PROTECTED)
+  private final AccountStateFetcher accountStateFetcher = createAccountStateFetcher();
+
+  protected AccountStateFetcher createAccountStateFetcher() {
+    final int maxInFlight = contextProvider.get().getConfiguration()
+        .getAsInt(ACCOUNT_STATE_FETCH_CONCURRENCY, DEFAULT_ACCOUNT_STATE_FETCH_CONCURRENCY);
+    // a function with strategies blocks until done, so take a raw one to keep requests in flight
+    final Function1<AccountAddress, Future<AccountState>> fetchFunction =
+        new Function1<AccountAddress, Future<AccountState>>() {
+          @Override
+          public Future<AccountState> apply(final AccountAddress address) {
+            final AccountStateCache accountStateCache = getAccountStateCache();
+            final AccountState cached = accountStateCache.get(address);
+            if (null != cached) {
+              return HerajFutures.success(cached);
+            }
+            final long generation = accountStateCache.getGeneration();
+            return HerajFutures.transform(withTimeout(contextProvider.get(),
+                accountBaseTemplate.getStateFunction().apply(address)),
+                new Function1<AccountState, AccountState>() {
+                  @Override
+                  public AccountState apply(final AccountState fetched) {
+                    accountStateCache.put(fetched, generation);
+                    return fetched;
+                  }
+                });
+          }
+        };
+    return new AccountStateFetcher(fetchFunction, Math.max(1, maxInFlight));
   }
 
   @Getter(lazy = true, value = AccessLevel.PROTECTED)
@@ -151,7 +217,44 @@ public class AccountTemplate
   @Override
   public AccountState getState(final AccountAddress address) {
     try {
-      return getStateFunction().apply(address).get();
+      final AccountStateCache accountStateCache = getAccountStateCache();
+      final AccountState cached = accountStateCache.get(address);
+      if (null != cached) {
+        return cached;
+      }
+      final long generation = accountStateCache.getGeneration();
+      final AccountState fetched = getStateFunction().apply(address).get();
+      accountStateCache.put(fetched, generation);
+      return fetched;
+    } catch (Exception e) {
+      throw exceptionConverter.convert(e);
+    }
+  }
+
+  @Override
+  public List<AccountStateResult> getStates(final Collection<AccountAddress> addresses) {
+    try {
+      return getAccountStateFetcher().fetch(addresses);
+    } catch (Exception e) {
+      throw exceptionConverter.convert(e);
+    }
+  }
+
+  @Override
+  public void getStates(final Collection<AccountAddress> addresses,
+      final StreamObserver<AccountStateResult> observer) {
+    try {
+      getAccountStateFetcher().fetch(addresses, observer);
+    } catch (Exception e) {
+      throw exceptionConverter.convert(e);
+    }
+  }
+
+  @Override
+  public Subscription<AccountState> watchStates(final List<AccountAddress> addresses,
+      final StreamObserver<AccountState> observer) {
+    try {
+      return getAccountStateCache().watch(addresses, observer);
     } catch (Exception e) {
       throw exceptionConverter.convert(e);
     }
@@ -4,6 +4,14 @@
 
 package hera.client;
 
+import static hera.client.ClientConstants.BLOCK_STORE_DIRECTORY;
+import static hera.client.ClientConstants.BLOCK_STORE_FINALITY_REFRESH_INTERVAL;
+import static hera.client.ClientConstants.BLOCK_STORE_SEGMENT_SIZE;
+import static hera.client.ClientConstants.CHAIN_ID_HASH_TRACKING;
+import static hera.client.ClientConstants.CHAIN_ID_HASH_TRACKING_INTERVAL;
+import static hera.client.ClientConstants.CHAIN_ID_HASH_TRACKING_POLLING;
+import static hera.client.ClientConstants.DEFAULT_CHAIN_ID_HASH_TRACKING_INTERVAL;
+import static hera.client.internal.HerajFutures.withTimeout;
 import static hera.util.ValidationUtils.assertNotNull;
 
 import hera.Context;
@@ -14,17 +22,31 @@ import hera.annotation.ApiAudience;
 import hera.annotation.ApiStability;
 import hera.api.AbstractAergoApi;
 import hera.api.AccountOperation;
+import hera.api.AsyncAccountOperation;
+import hera.api.AsyncBlockOperation;
+import hera.api.AsyncBlockchainOperation;
+import hera.api.AsyncContractOperation;
+import hera.api.AsyncTransactionOperation;
 import hera.api.BlockOperation;
 import hera.api.BlockchainOperation;
 import hera.api.ChainIdHashHolder;
 import hera.api.ContractOperation;
 import hera.api.KeyStoreOperation;
 import hera.api.TransactionOperation;
+import hera.api.function.Function0;
+import hera.api.model.BlockchainStatus;
 import hera.api.model.ChainIdHash;
+import hera.client.internal.BlockBaseTemplate;
+import hera.client.internal.BlockchainBaseTemplate;
+import hera.client.internal.ChainIdHashTracker;
 import hera.client.internal.ManagedChannelFactory;
+import hera.client.internal.MappedBlockStore;
 import hera.exception.RpcException;
+import hera.util.Configuration;
 import io.grpc.ManagedChannel;
 import java.io.Closeable;
+import java.nio.file.Paths;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import lombok.Getter;
 
@@ -36,6 +58,12 @@ public class AergoClient extends AbstractAergoApi implements ChainIdHashHolder,
 
   protected ManagedChannel channel;
 
+  // null if chain id hash tracking isn't configured
+  protected ChainIdHashTracker chainIdHashTracker;
+
+  // null if block store isn't configured
+  protected MappedBlockStore blockStore;
+
   @Getter(lazy = true)
   private final AccountOperation accountOperation = resolveInjection(new AccountTemplate());
 
@@ -56,6 +84,29 @@ public class AergoClient extends AbstractAergoApi implements ChainIdHashHolder,
   @Getter(lazy = true)
   private final ContractOperation contractOperation = resolveInjection(new ContractTemplate());
 
+  @Getter(lazy = true)
+  private final ReactiveTemplate reactiveTemplate = resolveInjection(new ReactiveTemplate());
+
+  @Getter(lazy = true)
+  private final AsyncAccountOperation asyncAccountOperation =
+      resolveInjection(new AsyncAccountTemplate());
+
+  @Getter(lazy = true)
+  private final AsyncBlockOperation asyncBlockOperation =
+      resolveInjection(new AsyncBlockTemplate());
+
+  @Getter(lazy = true)
+  private final AsyncBlockchainOperation asyncBlockchainOperation =
+      resolveInjection(new AsyncBlockchainTemplate());
+
+  @Getter(lazy = true)
+  private final AsyncTransactionOperation asyncTransactionOperation =
+      resolveInjection(new AsyncTransactionTemplate());
+
+  @Getter(lazy = true)
+  private final AsyncContractOperation asyncContractOperation =
+      resolveInjection(new AsyncContractTemplate());
+
   /**
    * AergoClient constructor.
    *
@@ -80,9 +131,40 @@ public class AergoClient extends AbstractAergoApi implements ChainIdHashHolder,
     if (target instanceof ChannelInjectable) {
       ((ChannelInjectable) target).setChannel(getChannel());
     }
+    if (target instanceof BlockStoreInjectable) {
+      final MappedBlockStore blockStore = getBlockStore();
+      if (null != blockStore) {
+        ((BlockStoreInjectable) target).setBlockStore(blockStore);
+      }
+    }
     return target;
   }
 
+  protected synchronized MappedBlockStore getBlockStore() {
+    if (null == this.blockStore) {
+      final Configuration configuration = contextProvider.get().getConfiguration();
+      final String directory = configuration.getAsString(BLOCK_STORE_DIRECTORY, null);
+      if (null == directory) {
+        return null;
+      }
+      final int segmentSize = configuration.getAsInt(BLOCK_STORE_SEGMENT_SIZE,
+          MappedBlockStore.DEFAULT_SEGMENT_SIZE);
+      final BlockchainBaseTemplate blockchainBaseTemplate =
+          resolveInjection(new BlockchainBaseTemplate());
+      final Function0<Future<BlockchainStatus>> blockchainStatusFunction =
+          new Function0<Future<BlockchainStatus>>() {
+            @Override
+            public Future<BlockchainStatus> apply() {
+              return withTimeout(contextProvider.get(),
+                  blockchainBaseTemplate.getBlockchainStatusFunction().apply());
+            }
+          };
+      this.blockStore = new MappedBlockStore(Paths.get(directory), segmentSize,
+          blockchainStatusFunction, BLOCK_STORE_FINALITY_REFRESH_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+    return this.blockStore;
+  }
+
   @Override
   public ChainIdHash getCachedChainIdHash() {
     return contextProvider.get().getChainIdHash();
@@ -94,8 +176,46 @@ public class AergoClient extends AbstractAergoApi implements ChainIdHashHolder,
     contextProvider.put(context.withChainIdHash(chainIdHash));
   }
 
+  /**
+   * Start to keep a cached chain id hash current in background if it's configured.
+   */
+  protected void trackChainIdHash() {
+    final Configuration configuration = contextProvider.get().getConfiguration();
+    final String tracking = configuration.getAsString(CHAIN_ID_HASH_TRACKING, null);
+    if (null == tracking) {
+      return;
+    }
+    final long interval = configuration.getAsLong(CHAIN_ID_HASH_TRACKING_INTERVAL,
+        DEFAULT_CHAIN_ID_HASH_TRACKING_INTERVAL);
+    final BlockchainBaseTemplate blockchainBaseTemplate =
+        resolveInjection(new BlockchainBaseTemplate());
+    final BlockBaseTemplate blockBaseTemplate = resolveInjection(new BlockBaseTemplate());
+    final Function0<Future<BlockchainStatus>> blockchainStatusFunction =
+        new Function0<Future<BlockchainStatus>>() {
+          @Override
+          public Future<BlockchainStatus> apply() {
+            return withTimeout(contextProvider.get(),
+                blockchainBaseTemplate.getBlockchainStatusFunction().apply());
+          }
+        };
+    this.chainIdHashTracker = new ChainIdHashTracker(blockchainStatusFunction,
+        blockBaseTemplate.getSubscribeBlockMetadataFunction(), this, interval,
+        TimeUnit.MILLISECONDS);
+    if (CHAIN_ID_HASH_TRACKING_POLLING.equals(tracking)) {
+      this.chainIdHashTracker.trackWithPolling();
+    } else {
+      this.chainIdHashTracker.trackWithStream();
+    }
+  }
+
   @Override
   public void close() {
+    if (null != this.chainIdHashTracker) {
+      this.chainIdHashTracker.close();
+    }
+    if (null != this.blockStore) {
+      this.blockStore.close();
+    }
     try {
       if (null != this.channel) {
         this.channel.shutdown().awaitTermination(3, TimeUnit.SECONDS);
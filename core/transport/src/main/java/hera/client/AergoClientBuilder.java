@@ -4,6 +4,30 @@
 
 package hera.client;
 
+import static hera.client.ClientConstants.ACCOUNT_STATE_CACHE_SIZE;
+import static hera.client.ClientConstants.ACCOUNT_STATE_FETCH_CONCURRENCY;
+import static hera.client.ClientConstants.BLOCK_CACHE_BYTES;
+import static hera.client.ClientConstants.BLOCK_CACHE_SIZE;
+import static hera.client.ClientConstants.BLOCK_HUB_OVERFLOW_POLICY;
+import static hera.client.ClientConstants.BLOCK_HUB_QUEUE_SIZE;
+import static hera.client.ClientConstants.BLOCK_STORE_DIRECTORY;
+import static hera.client.ClientConstants.BLOCK_STORE_SEGMENT_SIZE;
+import static hera.client.ClientConstants.CHAIN_ID_HASH_TRACKING;
+import static hera.client.ClientConstants.CHAIN_ID_HASH_TRACKING_INTERVAL;
+import static hera.client.ClientConstants.CHAIN_ID_HASH_TRACKING_POLLING;
+import static hera.client.ClientConstants.CHAIN_ID_HASH_TRACKING_STREAM;
+import static hera.client.ClientConstants.COMMIT_BATCH_SIZE;
+import static hera.client.ClientConstants.COMMIT_BATCH_WINDOW;
+import static hera.client.ClientConstants.CONTRACT_INTERFACE_CACHE;
+import static hera.client.ClientConstants.CONTRACT_INTERFACE_DEDUPLICATION;
+import static hera.client.ClientConstants.ENDPOINT_SEPARATOR;
+import static hera.client.ClientConstants.EVENT_HUB;
+import static hera.client.ClientConstants.STREAM_BUFFER_SIZE;
+import static hera.client.ClientConstants.STREAM_OVERFLOW_POLICY;
+import static hera.client.ClientConstants.STREAM_RESUBSCRIPTION_INTERVAL;
+import static hera.client.ClientConstants.STREAM_RESUBSCRIPTION_MAX_INTERVAL;
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import hera.Context;
@@ -13,8 +37,13 @@ import hera.Strategy;
 import hera.annotation.ApiAudience;
 import hera.annotation.ApiStability;
 import hera.api.model.internal.Time;
+import hera.client.stream.OverflowPolicy;
 import hera.exception.RpcException;
+import hera.strategy.BackoffRetryStrategy;
+import hera.strategy.CircuitBreakerStrategy;
 import hera.strategy.ConnectStrategy;
+import hera.strategy.DeadlineStrategy;
+import hera.strategy.HedgingStrategy;
 import hera.strategy.JustRetryStrategy;
 import hera.strategy.NettyConnectStrategy;
 import hera.strategy.OkHttpConnectStrategy;
@@ -68,6 +97,21 @@ public class AergoClientBuilder implements ClientConfiguer<AergoClientBuilder> {
     return this;
   }
 
+  @Override
+  public AergoClientBuilder withEndpoints(final String... endpoints) {
+    assertNotNull(endpoints, "Endpoints must not null");
+    assertTrue(0 != endpoints.length, "Endpoints must not empty");
+    final StringBuilder joined = new StringBuilder();
+    for (final String endpoint : endpoints) {
+      if (0 != joined.length()) {
+        joined.append(ENDPOINT_SEPARATOR);
+      }
+      joined.append(endpoint);
+    }
+    configuration.define("endpoint", joined.toString());
+    return this;
+  }
+
   @Override
   public AergoClientBuilder withNonBlockingConnect() {
     strategyMap.put(ConnectStrategy.class, new NettyConnectStrategy());
@@ -86,12 +130,145 @@ public class AergoClientBuilder implements ClientConfiguer<AergoClientBuilder> {
     return this;
   }
 
+  @Override
+  public AergoClientBuilder withDeadline(final long timeout, final TimeUnit unit) {
+    strategyMap.put(TimeoutStrategy.class, new DeadlineStrategy(timeout, unit));
+    return this;
+  }
+
   @Override
   public AergoClientBuilder withRetry(final int count, final long interval, final TimeUnit unit) {
     strategyMap.put(JustRetryStrategy.class, new JustRetryStrategy(count, Time.of(interval, unit)));
     return this;
   }
 
+  @Override
+  public AergoClientBuilder withBackoffRetry(final int count, final long baseInterval,
+      final long maxInterval, final TimeUnit unit) {
+    strategyMap.put(BackoffRetryStrategy.class, new BackoffRetryStrategy(count,
+        Time.of(baseInterval, unit), Time.of(maxInterval, unit)));
+    return this;
+  }
+
+  @Override
+  public AergoClientBuilder withCircuitBreaker(final double failureRateThreshold,
+      final double slowCallRateThreshold, final long slowCallDuration, final long openDuration,
+      final TimeUnit unit) {
+    strategyMap.put(CircuitBreakerStrategy.class, new CircuitBreakerStrategy(failureRateThreshold,
+        slowCallRateThreshold, Time.of(slowCallDuration, unit), Time.of(openDuration, unit)));
+    return this;
+  }
+
+  @Override
+  public AergoClientBuilder withHedging(final double percentile, final long minDelay,
+      final TimeUnit unit) {
+    strategyMap.put(HedgingStrategy.class,
+        new HedgingStrategy(percentile, Time.of(minDelay, unit)));
+    return this;
+  }
+
+  @Override
+  public AergoClientBuilder withCommitBatching(final int maxBatchSize, final long window,
+      final TimeUnit unit) {
+    assertTrue(0 < maxBatchSize, "Max batch size must be positive");
+    assertTrue(0 <= window, "Window must not negative");
+    configuration.define(COMMIT_BATCH_SIZE, Integer.toString(maxBatchSize));
+    configuration.define(COMMIT_BATCH_WINDOW, Long.toString(unit.toMillis(window)));
+    return this;
+  }
+
+  @Override
+  public AergoClientBuilder withBlockCache(final int maxEntries, final long maxBytes) {
+    assertTrue(0 < maxEntries, "Max entries must be positive");
+    assertTrue(0L <= maxBytes, "Max bytes must not negative");
+    configuration.define(BLOCK_CACHE_SIZE, Integer.toString(maxEntries));
+    configuration.define(BLOCK_CACHE_BYTES, Long.toString(maxBytes));
+    return this;
+  }
+
+  @Override
+  public AergoClientBuilder withContractInterfaceCache(final boolean deduplicate) {
+    configuration.define(CONTRACT_INTERFACE_CACHE, Boolean.toString(true));
+    configuration.define(CONTRACT_INTERFACE_DEDUPLICATION, Boolean.toString(deduplicate));
+    return this;
+  }
+
+  @Override
+  public AergoClientBuilder withAccountStateCache(final int maxEntries) {
+    assertTrue(0 < maxEntries, "Max entries must be positive");
+    configuration.define(ACCOUNT_STATE_CACHE_SIZE, Integer.toString(maxEntries));
+    return this;
+  }
+
+  @Override
+  public AergoClientBuilder withAccountStateFetchConcurrency(final int maxInFlight) {
+    assertTrue(0 < maxInFlight, "Max in flight must be positive");
+    configuration.define(ACCOUNT_STATE_FETCH_CONCURRENCY, Integer.toString(maxInFlight));
+    return this;
+  }
+
+  @Override
+  public AergoClientBuilder withChainIdHashTracking() {
+    configuration.define(CHAIN_ID_HASH_TRACKING, CHAIN_ID_HASH_TRACKING_STREAM);
+    return this;
+  }
+
+  @Override
+  public AergoClientBuilder withChainIdHashTracking(final long interval, final TimeUnit unit) {
+    assertTrue(0L < interval, "Interval must be positive");
+    configuration.define(CHAIN_ID_HASH_TRACKING, CHAIN_ID_HASH_TRACKING_POLLING);
+    configuration.define(CHAIN_ID_HASH_TRACKING_INTERVAL, Long.toString(unit.toMillis(interval)));
+    return this;
+  }
+
+  @Override
+  public AergoClientBuilder withStreamBuffer(final int bufferSize,
+      final OverflowPolicy overflowPolicy) {
+    assertTrue(0 < bufferSize, "Buffer size must be positive");
+    assertNotNull(overflowPolicy, "Overflow policy must not null");
+    configuration.define(STREAM_BUFFER_SIZE, Integer.toString(bufferSize));
+    configuration.define(STREAM_OVERFLOW_POLICY, overflowPolicy.name());
+    return this;
+  }
+
+  @Override
+  public AergoClientBuilder withStreamResubscription(final long initialInterval,
+      final long maxInterval, final TimeUnit unit) {
+    assertTrue(0L < initialInterval, "Initial interval must be positive");
+    assertTrue(initialInterval <= maxInterval, "Max interval must not less than initial one");
+    configuration.define(STREAM_RESUBSCRIPTION_INTERVAL,
+        Long.toString(unit.toMillis(initialInterval)));
+    configuration.define(STREAM_RESUBSCRIPTION_MAX_INTERVAL,
+        Long.toString(unit.toMillis(maxInterval)));
+    return this;
+  }
+
+  @Override
+  public AergoClientBuilder withEventHub() {
+    configuration.define(EVENT_HUB, Boolean.TRUE.toString());
+    return this;
+  }
+
+  @Override
+  public AergoClientBuilder withBlockHub(final int queueSize,
+      final OverflowPolicy overflowPolicy) {
+    assertTrue(0 < queueSize, "Queue size must be positive");
+    assertNotNull(overflowPolicy, "Overflow policy must not null");
+    assertTrue(OverflowPolicy.BLOCK != overflowPolicy, "Block hub can't block a stream");
+    configuration.define(BLOCK_HUB_QUEUE_SIZE, Integer.toString(queueSize));
+    configuration.define(BLOCK_HUB_OVERFLOW_POLICY, overflowPolicy.name());
+    return this;
+  }
+
+  @Override
+  public AergoClientBuilder withBlockStore(final String directory, final int segmentSize) {
+    assertNotNull(directory, "Directory must not null");
+    assertTrue(0 < segmentSize, "Segment size must be positive");
+    configuration.define(BLOCK_STORE_DIRECTORY, directory);
+    configuration.define(BLOCK_STORE_SEGMENT_SIZE, Integer.toString(segmentSize));
+    return this;
+  }
+
   @Override
   public AergoClientBuilder withPlainText() {
     strategyMap.put(SecurityConfigurationStrategy.class, new PlainTextChannelStrategy());
@@ -126,6 +303,7 @@ public class AergoClientBuilder implements ClientConfiguer<AergoClientBuilder> {
    */
   public AergoClient build() {
     final AergoClient client = new AergoClient(buildContext());
+    client.trackChainIdHash();
     return client;
   }
 
@@ -0,0 +1,158 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static com.google.common.util.concurrent.Futures.immediateFailedFuture;
+import static hera.client.internal.HerajFutures.convertFailure;
+import static hera.client.internal.HerajFutures.withTimeout;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import hera.ContextProvider;
+import hera.ContextProviderInjectable;
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.AsyncAccountOperation;
+import hera.api.model.AccountAddress;
+import hera.api.model.AccountState;
+import hera.api.model.AccountTotalVote;
+import hera.api.model.Aer;
+import hera.api.model.ElectedCandidate;
+import hera.api.model.StakeInfo;
+import hera.api.model.TxHash;
+import hera.client.internal.AccountBaseTemplate;
+import hera.exception.RpcException;
+import hera.exception.RpcExceptionConverter;
+import hera.key.Signer;
+import hera.util.ExceptionConverter;
+import io.grpc.ManagedChannel;
+import java.util.List;
+import java.util.concurrent.Future;
+
+@ApiAudience.Private
+@ApiStability.Unstable
+public class AsyncAccountTemplate
+    implements AsyncAccountOperation, ChannelInjectable, ContextProviderInjectable {
+
+  protected final ExceptionConverter<RpcException> exceptionConverter = new RpcExceptionConverter();
+
+  protected AccountBaseTemplate accountBaseTemplate = new AccountBaseTemplate();
+
+  protected ContextProvider contextProvider;
+
+  @Override
+  public void setChannel(final ManagedChannel channel) {
+    this.accountBaseTemplate.setChannel(channel);
+  }
+
+  @Override
+  public void setContextProvider(final ContextProvider contextProvider) {
+    this.contextProvider = contextProvider;
+    this.accountBaseTemplate.setContextProvider(contextProvider);
+  }
+
+  protected <T> ListenableFuture<T> decorate(final Future<T> future) {
+    return convertFailure(withTimeout(contextProvider.get(), future), exceptionConverter);
+  }
+
+  @Override
+  public ListenableFuture<AccountState> getState(final AccountAddress address) {
+    try {
+      return decorate(accountBaseTemplate.getStateFunction().apply(address));
+    } catch (Exception e) {
+      return immediateFailedFuture(exceptionConverter.convert(e));
+    }
+  }
+
+  @Override
+  public ListenableFuture<TxHash> createName(final Signer signer, final String name,
+      final long nonce) {
+    try {
+      return decorate(accountBaseTemplate.getCreateNameFunction().apply(signer, name, nonce));
+    } catch (Exception e) {
+      return immediateFailedFuture(exceptionConverter.convert(e));
+    }
+  }
+
+  @Override
+  public ListenableFuture<TxHash> updateName(final Signer signer, final String name,
+      final AccountAddress newOwner, final long nonce) {
+    try {
+      return decorate(accountBaseTemplate.getUpdateNameFunction()
+          .apply(signer, name, newOwner, nonce));
+    } catch (Exception e) {
+      return immediateFailedFuture(exceptionConverter.convert(e));
+    }
+  }
+
+  @Override
+  public ListenableFuture<AccountAddress> getNameOwner(final String name,
+      final long blockNumber) {
+    try {
+      return decorate(accountBaseTemplate.getGetNameOwnerFunction().apply(name, blockNumber));
+    } catch (Exception e) {
+      return immediateFailedFuture(exceptionConverter.convert(e));
+    }
+  }
+
+  @Override
+  public ListenableFuture<TxHash> stake(final Signer signer, final Aer amount,
+      final long nonce) {
+    try {
+      return decorate(accountBaseTemplate.getStakingFunction().apply(signer, amount, nonce));
+    } catch (Exception e) {
+      return immediateFailedFuture(exceptionConverter.convert(e));
+    }
+  }
+
+  @Override
+  public ListenableFuture<TxHash> unstake(final Signer signer, final Aer amount,
+      final long nonce) {
+    try {
+      return decorate(accountBaseTemplate.getUnstakingFunction().apply(signer, amount, nonce));
+    } catch (Exception e) {
+      return immediateFailedFuture(exceptionConverter.convert(e));
+    }
+  }
+
+  @Override
+  public ListenableFuture<StakeInfo> getStakingInfo(final AccountAddress accountAddress) {
+    try {
+      return decorate(accountBaseTemplate.getStakingInfoFunction().apply(accountAddress));
+    } catch (Exception e) {
+      return immediateFailedFuture(exceptionConverter.convert(e));
+    }
+  }
+
+  @Override
+  public ListenableFuture<TxHash> vote(final Signer signer, final String voteId,
+      final List<String> candidates, final long nonce) {
+    try {
+      return decorate(accountBaseTemplate.getVoteFunction()
+          .apply(signer, voteId, candidates, nonce));
+    } catch (Exception e) {
+      return immediateFailedFuture(exceptionConverter.convert(e));
+    }
+  }
+
+  @Override
+  public ListenableFuture<AccountTotalVote> getVotesOf(final AccountAddress accountAddress) {
+    try {
+      return decorate(accountBaseTemplate.getVotesOfFunction().apply(accountAddress));
+    } catch (Exception e) {
+      return immediateFailedFuture(exceptionConverter.convert(e));
+    }
+  }
+
+  @Override
+  public ListenableFuture<List<ElectedCandidate>> listElected(final String voteId,
+      final int showCount) {
+    try {
+      return decorate(accountBaseTemplate.getListElectedFunction().apply(voteId, showCount));
+    } catch (Exception e) {
+      return immediateFailedFuture(exceptionConverter.convert(e));
+    }
+  }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static com.google.common.util.concurrent.Futures.immediateFailedFuture;
+import static hera.client.internal.HerajFutures.convertFailure;
+import static hera.client.internal.HerajFutures.withTimeout;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import hera.ContextProvider;
+import hera.ContextProviderInjectable;
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.AsyncBlockOperation;
+import hera.api.model.Block;
+import hera.api.model.BlockHash;
+import hera.api.model.BlockMetadata;
+import hera.client.internal.BlockBaseTemplate;
+import hera.exception.RpcException;
+import hera.exception.RpcExceptionConverter;
+import hera.util.ExceptionConverter;
+import io.grpc.ManagedChannel;
+import java.util.List;
+import java.util.concurrent.Future;
+
+@ApiAudience.Private
+@ApiStability.Unstable
+public class AsyncBlockTemplate
+    implements AsyncBlockOperation, ChannelInjectable, ContextProviderInjectable {
+
+  protected final ExceptionConverter<RpcException> exceptionConverter = new RpcExceptionConverter();
+
+  protected BlockBaseTemplate blockBaseTemplate = new BlockBaseTemplate();
+
+  protected ContextProvider contextProvider;
+
+  @Override
+  public void setChannel(final ManagedChannel channel) {
+    this.blockBaseTemplate.setChannel(channel);
+  }
+
+  @Override
+  public void setContextProvider(final ContextProvider contextProvider) {
+    this.contextProvider = contextProvider;
+    this.blockBaseTemplate.setContextProvider(contextProvider);
+  }
+
+  protected <T> ListenableFuture<T> decorate(final Future<T> future) {
+    return convertFailure(withTimeout(contextProvider.get(), future), exceptionConverter);
+  }
+
+  @Override
+  public ListenableFuture<BlockMetadata> getBlockMetadata(final BlockHash blockHash) {
+    try {
+      return decorate(blockBaseTemplate.getBlockMetatdataByHashFunction().apply(blockHash));
+    } catch (Exception e) {
+      return immediateFailedFuture(exceptionConverter.convert(e));
+    }
+  }
+
+  @Override
+  public ListenableFuture<BlockMetadata> getBlockMetadata(final long height) {
+    try {
+      return decorate(blockBaseTemplate.getBlockMetadataByHeightFunction().apply(height));
+    } catch (Exception e) {
+      return immediateFailedFuture(exceptionConverter.convert(e));
+    }
+  }
+
+  @Override
+  public ListenableFuture<List<BlockMetadata>> listBlockMetadatas(final BlockHash blockHash,
+      final int size) {
+    try {
+      return decorate(blockBaseTemplate.getListBlockMetadatasByHashFunction()
+          .apply(blockHash, size));
+    } catch (Exception e) {
+      return immediateFailedFuture(exceptionConverter.convert(e));
+    }
+  }
+
+  @Override
+  public ListenableFuture<List<BlockMetadata>> listBlockMetadatas(final long height,
+      final int size) {
+    try {
+      return decorate(blockBaseTemplate.getListBlockMetadatasByHeightFunction()
+          .apply(height, size));
+    } catch (Exception e) {
+      return immediateFailedFuture(exceptionConverter.convert(e));
+    }
+  }
+
+  @Override
+  public ListenableFuture<Block> getBlock(final BlockHash blockHash) {
+    try {
+      return decorate(blockBaseTemplate.getBlockByHashFunction().apply(blockHash));
+    } catch (Exception e) {
+      return immediateFailedFuture(exceptionConverter.convert(e));
+    }
+  }
+
+  @Override
+  public ListenableFuture<Block> getBlock(final long height) {
+    try {
+      return decorate(blockBaseTemplate.getBlockByHeightFunction().apply(height));
+    } catch (Exception e) {
+      return immediateFailedFuture(exceptionConverter.convert(e));
+    }
+  }
+
+}
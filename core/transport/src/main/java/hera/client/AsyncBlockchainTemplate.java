@@ -0,0 +1,122 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static com.google.common.util.concurrent.Futures.immediateFailedFuture;
+import static hera.client.internal.HerajFutures.convertFailure;
+import static hera.client.internal.HerajFutures.withTimeout;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import hera.ContextProvider;
+import hera.ContextProviderInjectable;
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.AsyncBlockchainOperation;
+import hera.api.model.BlockchainStatus;
+import hera.api.model.ChainInfo;
+import hera.api.model.ChainStats;
+import hera.api.model.NodeStatus;
+import hera.api.model.Peer;
+import hera.api.model.PeerMetric;
+import hera.api.model.ServerInfo;
+import hera.client.internal.BlockchainBaseTemplate;
+import hera.exception.RpcException;
+import hera.exception.RpcExceptionConverter;
+import hera.util.ExceptionConverter;
+import io.grpc.ManagedChannel;
+import java.util.List;
+import java.util.concurrent.Future;
+
+@ApiAudience.Private
+@ApiStability.Unstable
+public class AsyncBlockchainTemplate
+    implements AsyncBlockchainOperation, ChannelInjectable, ContextProviderInjectable {
+
+  protected final ExceptionConverter<RpcException> exceptionConverter = new RpcExceptionConverter();
+
+  protected BlockchainBaseTemplate blockchainBaseTemplate = new BlockchainBaseTemplate();
+
+  protected ContextProvider contextProvider;
+
+  @Override
+  public void setChannel(final ManagedChannel channel) {
+    this.blockchainBaseTemplate.setChannel(channel);
+  }
+
+  @Override
+  public void setContextProvider(final ContextProvider contextProvider) {
+    this.contextProvider = contextProvider;
+    this.blockchainBaseTemplate.setContextProvider(contextProvider);
+  }
+
+  protected <T> ListenableFuture<T> decorate(final Future<T> future) {
+    return convertFailure(withTimeout(contextProvider.get(), future), exceptionConverter);
+  }
+
+  @Override
+  public ListenableFuture<BlockchainStatus> getBlockchainStatus() {
+    try {
+      return decorate(blockchainBaseTemplate.getBlockchainStatusFunction().apply());
+    } catch (Exception e) {
+      return immediateFailedFuture(exceptionConverter.convert(e));
+    }
+  }
+
+  @Override
+  public ListenableFuture<ChainInfo> getChainInfo() {
+    try {
+      return decorate(blockchainBaseTemplate.getChainInfoFunction().apply());
+    } catch (Exception e) {
+      return immediateFailedFuture(exceptionConverter.convert(e));
+    }
+  }
+
+  @Override
+  public ListenableFuture<ChainStats> getChainStats() {
+    try {
+      return decorate(blockchainBaseTemplate.getChainStatsFunction().apply());
+    } catch (Exception e) {
+      return immediateFailedFuture(exceptionConverter.convert(e));
+    }
+  }
+
+  @Override
+  public ListenableFuture<List<Peer>> listPeers(final boolean showHidden,
+      final boolean showSelf) {
+    try {
+      return decorate(blockchainBaseTemplate.getListPeersFunction().apply(showHidden, showSelf));
+    } catch (Exception e) {
+      return immediateFailedFuture(exceptionConverter.convert(e));
+    }
+  }
+
+  @Override
+  public ListenableFuture<List<PeerMetric>> listPeerMetrics() {
+    try {
+      return decorate(blockchainBaseTemplate.getListPeersMetricsFunction().apply());
+    } catch (Exception e) {
+      return immediateFailedFuture(exceptionConverter.convert(e));
+    }
+  }
+
+  @Override
+  public ListenableFuture<ServerInfo> getServerInfo(final List<String> categories) {
+    try {
+      return decorate(blockchainBaseTemplate.getServerInfoFunction().apply(categories));
+    } catch (Exception e) {
+      return immediateFailedFuture(exceptionConverter.convert(e));
+    }
+  }
+
+  @Override
+  public ListenableFuture<NodeStatus> getNodeStatus() {
+    try {
+      return decorate(blockchainBaseTemplate.getNodeStatusFunction().apply());
+    } catch (Exception e) {
+      return immediateFailedFuture(exceptionConverter.convert(e));
+    }
+  }
+
+}
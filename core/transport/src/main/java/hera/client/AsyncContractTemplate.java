@@ -0,0 +1,133 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static com.google.common.util.concurrent.Futures.immediateFailedFuture;
+import static hera.client.internal.HerajFutures.convertFailure;
+import static hera.client.internal.HerajFutures.withTimeout;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import hera.ContextProvider;
+import hera.ContextProviderInjectable;
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.AsyncContractOperation;
+import hera.api.model.ContractAddress;
+import hera.api.model.ContractDefinition;
+import hera.api.model.ContractInterface;
+import hera.api.model.ContractInvocation;
+import hera.api.model.ContractResult;
+import hera.api.model.ContractTxHash;
+import hera.api.model.ContractTxReceipt;
+import hera.api.model.Event;
+import hera.api.model.EventFilter;
+import hera.api.model.Fee;
+import hera.client.internal.ContractBaseTemplate;
+import hera.exception.RpcException;
+import hera.exception.RpcExceptionConverter;
+import hera.key.Signer;
+import hera.util.ExceptionConverter;
+import io.grpc.ManagedChannel;
+import java.util.List;
+import java.util.concurrent.Future;
+
+@ApiAudience.Private
+@ApiStability.Unstable
+public class AsyncContractTemplate
+    implements AsyncContractOperation, ChannelInjectable, ContextProviderInjectable {
+
+  protected final ExceptionConverter<RpcException> exceptionConverter = new RpcExceptionConverter();
+
+  protected ContractBaseTemplate contractBaseTemplate = new ContractBaseTemplate();
+
+  protected ContextProvider contextProvider;
+
+  @Override
+  public void setChannel(final ManagedChannel channel) {
+    this.contractBaseTemplate.setChannel(channel);
+  }
+
+  @Override
+  public void setContextProvider(final ContextProvider contextProvider) {
+    this.contextProvider = contextProvider;
+    this.contractBaseTemplate.setContextProvider(contextProvider);
+  }
+
+  protected <T> ListenableFuture<T> decorate(final Future<T> future) {
+    return convertFailure(withTimeout(contextProvider.get(), future), exceptionConverter);
+  }
+
+  @Override
+  public ListenableFuture<ContractTxReceipt> getReceipt(final ContractTxHash contractTxHash) {
+    try {
+      return decorate(contractBaseTemplate.getReceiptFunction().apply(contractTxHash));
+    } catch (Exception e) {
+      return immediateFailedFuture(exceptionConverter.convert(e));
+    }
+  }
+
+  @Override
+  public ListenableFuture<ContractTxHash> deploy(final Signer signer,
+      final ContractDefinition contractDefinition, final long nonce, final Fee fee) {
+    try {
+      return decorate(contractBaseTemplate.getDeployFunction()
+          .apply(signer, contractDefinition, nonce, fee));
+    } catch (Exception e) {
+      return immediateFailedFuture(exceptionConverter.convert(e));
+    }
+  }
+
+  @Override
+  public ListenableFuture<ContractTxHash> redeploy(final Signer signer,
+      final ContractAddress existingContract, final ContractDefinition contractDefinition,
+      final long nonce, final Fee fee) {
+    try {
+      return decorate(contractBaseTemplate.getReDeployFunction().apply(signer, existingContract,
+          contractDefinition, nonce, fee));
+    } catch (Exception e) {
+      return immediateFailedFuture(exceptionConverter.convert(e));
+    }
+  }
+
+  @Override
+  public ListenableFuture<ContractInterface> getContractInterface(
+      final ContractAddress contractAddress) {
+    try {
+      return decorate(contractBaseTemplate.getContractInterfaceFunction().apply(contractAddress));
+    } catch (Exception e) {
+      return immediateFailedFuture(exceptionConverter.convert(e));
+    }
+  }
+
+  @Override
+  public ListenableFuture<ContractTxHash> execute(final Signer signer,
+      final ContractInvocation contractInvocation, final long nonce, final Fee fee) {
+    try {
+      return decorate(contractBaseTemplate.getExecuteFunction()
+          .apply(signer, contractInvocation, nonce, fee));
+    } catch (Exception e) {
+      return immediateFailedFuture(exceptionConverter.convert(e));
+    }
+  }
+
+  @Override
+  public ListenableFuture<ContractResult> query(final ContractInvocation contractInvocation) {
+    try {
+      return decorate(contractBaseTemplate.getQueryFunction().apply(contractInvocation));
+    } catch (Exception e) {
+      return immediateFailedFuture(exceptionConverter.convert(e));
+    }
+  }
+
+  @Override
+  public ListenableFuture<List<Event>> listEvents(final EventFilter filter) {
+    try {
+      return decorate(contractBaseTemplate.getListEventFunction().apply(filter));
+    } catch (Exception e) {
+      return immediateFailedFuture(exceptionConverter.convert(e));
+    }
+  }
+
+}
@@ -0,0 +1,162 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static com.google.common.util.concurrent.Futures.immediateFailedFuture;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static hera.client.internal.HerajFutures.convertFailure;
+import static hera.client.internal.HerajFutures.listenable;
+import static hera.client.internal.HerajFutures.withTimeout;
+
+import com.google.common.util.concurrent.AsyncFunction;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import hera.ContextProvider;
+import hera.ContextProviderInjectable;
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.AsyncTransactionOperation;
+import hera.api.function.Function1;
+import hera.api.model.AccountAddress;
+import hera.api.model.Aer;
+import hera.api.model.ContractTxHash;
+import hera.api.model.ContractTxReceipt;
+import hera.api.model.Transaction;
+import hera.api.model.TxCommitResult;
+import hera.api.model.TxConfirmation;
+import hera.api.model.TxHash;
+import hera.client.internal.BlockBaseTemplate;
+import hera.client.internal.ContractBaseTemplate;
+import hera.client.internal.ReceiptWaiter;
+import hera.client.internal.TransactionBaseTemplate;
+import hera.exception.RpcException;
+import hera.exception.RpcExceptionConverter;
+import hera.util.ExceptionConverter;
+import io.grpc.ManagedChannel;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+@ApiAudience.Private
+@ApiStability.Unstable
+public class AsyncTransactionTemplate
+    implements AsyncTransactionOperation, ChannelInjectable, ContextProviderInjectable {
+
+  protected final ExceptionConverter<RpcException> exceptionConverter = new RpcExceptionConverter();
+
+  protected TransactionBaseTemplate transactionBaseTemplate = new TransactionBaseTemplate();
+
+  protected BlockBaseTemplate blockBaseTemplate = new BlockBaseTemplate();
+
+  protected ContractBaseTemplate contractBaseTemplate = new ContractBaseTemplate();
+
+  protected ContextProvider contextProvider;
+
+  // made on a first wait
+  protected ReceiptWaiter receiptWaiter;
+
+  @Override
+  public void setChannel(final ManagedChannel channel) {
+    this.transactionBaseTemplate.setChannel(channel);
+    this.blockBaseTemplate.setChannel(channel);
+    this.contractBaseTemplate.setChannel(channel);
+  }
+
+  @Override
+  public void setContextProvider(final ContextProvider contextProvider) {
+    this.contextProvider = contextProvider;
+    this.transactionBaseTemplate.setContextProvider(contextProvider);
+    this.blockBaseTemplate.setContextProvider(contextProvider);
+    this.contractBaseTemplate.setContextProvider(contextProvider);
+  }
+
+  protected synchronized ReceiptWaiter getReceiptWaiter() {
+    if (null == this.receiptWaiter) {
+      this.receiptWaiter = new ReceiptWaiter(blockBaseTemplate.getSubscribeBlockFunction(),
+          new Function1<TxHash, Future<Transaction>>() {
+            @Override
+            public Future<Transaction> apply(final TxHash txHash) {
+              return withTimeout(contextProvider.get(),
+                  transactionBaseTemplate.getTransactionInBlockFunction().apply(txHash));
+            }
+          },
+          new Function1<ContractTxHash, Future<ContractTxReceipt>>() {
+            @Override
+            public Future<ContractTxReceipt> apply(final ContractTxHash contractTxHash) {
+              return withTimeout(contextProvider.get(),
+                  contractBaseTemplate.getReceiptFunction().apply(contractTxHash));
+            }
+          });
+    }
+    return this.receiptWaiter;
+  }
+
+  protected <T> ListenableFuture<T> decorate(final Future<T> future) {
+    return convertFailure(withTimeout(contextProvider.get(), future), exceptionConverter);
+  }
+
+  protected ListenableFuture<Transaction> getTransactionInMemoryOrBlock(final TxHash txHash) {
+    final ListenableFuture<Transaction> txInMemory =
+        listenable(transactionBaseTemplate.getTransactionFunction().apply(txHash));
+    return Futures.catchingAsync(txInMemory, Throwable.class,
+        new AsyncFunction<Throwable, Transaction>() {
+
+          @Override
+          public ListenableFuture<Transaction> apply(final Throwable input) {
+            return listenable(
+                transactionBaseTemplate.getTransactionInBlockFunction().apply(txHash));
+          }
+        }, directExecutor());
+  }
+
+  @Override
+  public ListenableFuture<Transaction> getTransaction(final TxHash txHash) {
+    try {
+      return decorate(getTransactionInMemoryOrBlock(txHash));
+    } catch (Exception e) {
+      return immediateFailedFuture(exceptionConverter.convert(e));
+    }
+  }
+
+  @Override
+  public ListenableFuture<TxHash> commit(final Transaction transaction) {
+    try {
+      return decorate(transactionBaseTemplate.getCommitFunction().apply(transaction));
+    } catch (Exception e) {
+      return immediateFailedFuture(exceptionConverter.convert(e));
+    }
+  }
+
+  @Override
+  public ListenableFuture<List<TxCommitResult>> commit(final List<Transaction> transactions) {
+    try {
+      return decorate(transactionBaseTemplate.getBatchCommitFunction().apply(transactions));
+    } catch (Exception e) {
+      return immediateFailedFuture(exceptionConverter.convert(e));
+    }
+  }
+
+  @Override
+  public ListenableFuture<TxHash> send(final AccountAddress sender,
+      final AccountAddress recipient, final Aer amount) {
+    try {
+      return decorate(transactionBaseTemplate.getSendFunction().apply(sender, recipient, amount));
+    } catch (Exception e) {
+      return immediateFailedFuture(exceptionConverter.convert(e));
+    }
+  }
+
+  @Override
+  public ListenableFuture<TxConfirmation> awaitConfirmation(final TxHash txHash,
+      final long timeout, final TimeUnit unit) {
+    try {
+      // a wait has its own timeout
+      return convertFailure(getReceiptWaiter().await(txHash, timeout, unit), exceptionConverter);
+    } catch (Exception e) {
+      return immediateFailedFuture(exceptionConverter.convert(e));
+    }
+  }
+
+}
@@ -0,0 +1,11 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import hera.client.internal.MappedBlockStore;
+
+public interface BlockStoreInjectable {
+  void setBlockStore(MappedBlockStore blockStore);
+}
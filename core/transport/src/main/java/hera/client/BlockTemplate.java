@@ -5,50 +5,75 @@
 package hera.client;
 
 import static hera.api.function.Functions.identify;
+import static hera.client.ClientConstants.BLOCK_CACHE_BYTES;
+import static hera.client.ClientConstants.BLOCK_CACHE_FINALITY_REFRESH_INTERVAL;
+import static hera.client.ClientConstants.BLOCK_CACHE_SIZE;
 import static hera.client.ClientConstants.BLOCK_GET_BLOCK_BY_HASH;
 import static hera.client.ClientConstants.BLOCK_GET_BLOCK_BY_HEIGHT;
 import static hera.client.ClientConstants.BLOCK_GET_METADATA_BY_HASH;
 import static hera.client.ClientConstants.BLOCK_GET_METADATA_BY_HEIGHT;
+import static hera.client.ClientConstants.BLOCK_HUB_OVERFLOW_POLICY;
+import static hera.client.ClientConstants.BLOCK_HUB_QUEUE_SIZE;
 import static hera.client.ClientConstants.BLOCK_LIST_METADATAS_BY_HASH;
 import static hera.client.ClientConstants.BLOCK_LIST_METADATAS_BY_HEIGHT;
 import static hera.client.ClientConstants.BLOCK_SUBSCRIBE_BLOCK;
 import static hera.client.ClientConstants.BLOCK_SUBSCRIBE_BLOCKMETADATA;
+import static hera.client.internal.HerajFutures.withTimeout;
 
 import hera.ContextProvider;
 import hera.ContextProviderInjectable;
 import hera.annotation.ApiAudience;
 import hera.annotation.ApiStability;
 import hera.api.BlockOperation;
+import hera.api.function.Function0;
 import hera.api.function.Function1;
 import hera.api.function.Function2;
 import hera.api.model.Block;
 import hera.api.model.BlockHash;
 import hera.api.model.BlockMetadata;
+import hera.api.model.BlockchainStatus;
 import hera.api.model.StreamObserver;
 import hera.api.model.Subscription;
 import hera.client.internal.BlockBaseTemplate;
+import hera.client.internal.BlockCache;
+import hera.client.internal.BlockHub;
+import hera.client.internal.BlockMetadataRangeIterator;
+import hera.client.internal.BlockRangeIterator;
+import hera.client.internal.BlockchainBaseTemplate;
+import hera.client.internal.HerajFutures;
+import hera.client.internal.MappedBlockStore;
+import hera.client.internal.ResubscribingSubscription;
+import hera.client.stream.OverflowPolicy;
 import hera.exception.RpcException;
 import hera.exception.RpcExceptionConverter;
 import hera.strategy.PriorityProvider;
 import hera.strategy.StrategyApplier;
+import hera.util.Configuration;
 import hera.util.ExceptionConverter;
 import io.grpc.ManagedChannel;
+import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import lombok.AccessLevel;
 import lombok.Getter;
 
 @ApiAudience.Private
 @ApiStability.Unstable
-public class BlockTemplate
-    implements BlockOperation, ChannelInjectable, ContextProviderInjectable {
+public class BlockTemplate implements BlockOperation, ChannelInjectable,
+    ContextProviderInjectable, BlockStoreInjectable {
 
   protected final ExceptionConverter<RpcException> exceptionConverter = new RpcExceptionConverter();
 
   protected BlockBaseTemplate blockBaseTemplate = new BlockBaseTemplate();
 
+  protected BlockchainBaseTemplate blockchainBaseTemplate = new BlockchainBaseTemplate();
+
   protected ContextProvider contextProvider;
 
+  // null if block store isn't configured
+  protected MappedBlockStore blockStore;
+
   @Getter(lazy = true, value = AccessLevel.PROTECTED)
   private final StrategyApplier strategyApplier =
       StrategyApplier.of(contextProvider.get(), PriorityProvider.get());
@@ -56,12 +81,81 @@ public class BlockTemplate
   @Override
   public void setChannel(final ManagedChannel channel) {
     this.blockBaseTemplate.setChannel(channel);
+    this.blockchainBaseTemplate.setChannel(channel);
   }
 
   @Override
   public void setContextProvider(ContextProvider contextProvider) {
     this.contextProvider = contextProvider;
     this.blockBaseTemplate.setContextProvider(contextProvider);
+    this.blockchainBaseTemplate.setContextProvider(contextProvider);
+  }
+
+  @Override
+  public void setBlockStore(final MappedBlockStore blockStore) {
+    this.blockStore = blockStore;
+    this.blockBaseTemplate.setBlockStore(blockStore);
+  }
+
+  // null if block cache isn't configured
+  @Getter(lazy = true, value = AccessLevel.PROTECTED)
+  private final BlockCache blockCache = createBlockCache();
+
+  protected BlockCache createBlockCache() {
+    final Configuration configuration = contextProvider.get().getConfiguration();
+    final int maxEntries = configuration.getAsInt(BLOCK_CACHE_SIZE, 0);
+    if (maxEntries <= 0) {
+      return null;
+    }
+    final long maxBytes = configuration.getAsLong(BLOCK_CACHE_BYTES, 0L);
+    return new BlockCache(blockchainBaseTemplate.getBlockchainStatusFunction(), maxEntries,
+        maxBytes, BLOCK_CACHE_FINALITY_REFRESH_INTERVAL, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Get statistics of a block cache.
+   *
+   * @return statistics of a block cache. null if block cache isn't configured
+   */
+  public BlockCache.Stats getBlockCacheStats() {
+    final BlockCache blockCache = getBlockCache();
+    return null != blockCache ? blockCache.getStats() : null;
+  }
+
+  /**
+   * Get statistics of a block store.
+   *
+   * @return statistics of a block store. null if block store isn't configured
+   */
+  public MappedBlockStore.Stats getBlockStoreStats() {
+    return null != blockStore ? blockStore.getStats() : null;
+  }
+
+  // null if block hub isn't configured
+  @Getter(lazy = true, value = AccessLevel.PROTECTED)
+  private final BlockHub blockHub = createBlockHub();
+
+  protected BlockHub createBlockHub() {
+    final Configuration configuration = contextProvider.get().getConfiguration();
+    final int queueSize = configuration.getAsInt(BLOCK_HUB_QUEUE_SIZE, 0);
+    if (queueSize <= 0) {
+      return null;
+    }
+    final OverflowPolicy overflowPolicy = OverflowPolicy.valueOf(
+        configuration.getAsString(BLOCK_HUB_OVERFLOW_POLICY, OverflowPolicy.FAIL.name()));
+    // an upstream is resubscribed on its own if configured
+    final Function1<StreamObserver<Block>, Future<Subscription<Block>>> upstreamFunction =
+        new Function1<StreamObserver<Block>, Future<Subscription<Block>>>() {
+          @Override
+          public Future<Subscription<Block>> apply(final StreamObserver<Block> observer) {
+            try {
+              return HerajFutures.success(subscribeBlock(observer));
+            } catch (Exception e) {
+              return HerajFutures.fail(e);
+            }
+          }
+        };
+    return new BlockHub(upstreamFunction, queueSize, overflowPolicy);
   }
 
   @Getter(lazy = true, value = AccessLevel.PROTECTED)
@@ -114,10 +208,32 @@ public class BlockTemplate
           getStrategyApplier().apply(
               identify(this.blockBaseTemplate.getSubscribeBlockFunction(), BLOCK_SUBSCRIBE_BLOCK));
 
+  // a raw one not to block a retry of a resubscription by strategies
+  @Getter(lazy = true, value = AccessLevel.PROTECTED)
+  private final Function0<Future<BlockchainStatus>> resubscriptionStatusFunction =
+      new Function0<Future<BlockchainStatus>>() {
+        @Override
+        public Future<BlockchainStatus> apply() {
+          return withTimeout(contextProvider.get(),
+              blockchainBaseTemplate.getBlockchainStatusFunction().apply());
+        }
+      };
+
   @Override
   public BlockMetadata getBlockMetadata(final BlockHash blockHash) {
     try {
-      return getBlockMetadataByHashFunction().apply(blockHash).get();
+      final BlockCache blockCache = getBlockCache();
+      if (null != blockCache) {
+        final BlockMetadata cached = blockCache.getBlockMetadata(blockHash);
+        if (null != cached) {
+          return cached;
+        }
+      }
+      final BlockMetadata fetched = getBlockMetadataByHashFunction().apply(blockHash).get();
+      if (null != blockCache && null != fetched) {
+        blockCache.put(fetched);
+      }
+      return fetched;
     } catch (Exception e) {
       throw exceptionConverter.convert(e);
     }
@@ -126,7 +242,18 @@ public class BlockTemplate
   @Override
   public BlockMetadata getBlockMetadata(final long height) {
     try {
-      return getBlockMetadataByHeightFunction().apply(height).get();
+      final BlockCache blockCache = getBlockCache();
+      if (null != blockCache) {
+        final BlockMetadata cached = blockCache.getBlockMetadata(height);
+        if (null != cached) {
+          return cached;
+        }
+      }
+      final BlockMetadata fetched = getBlockMetadataByHeightFunction().apply(height).get();
+      if (null != blockCache && null != fetched) {
+        blockCache.put(fetched);
+      }
+      return fetched;
     } catch (Exception e) {
       throw exceptionConverter.convert(e);
     }
@@ -155,7 +282,18 @@ public class BlockTemplate
   @Override
   public Block getBlock(final BlockHash blockHash) {
     try {
-      return getBlockByHashFunction().apply(blockHash).get();
+      final BlockCache blockCache = getBlockCache();
+      if (null != blockCache) {
+        final Block cached = blockCache.getBlock(blockHash);
+        if (null != cached) {
+          return cached;
+        }
+      }
+      final Block fetched = getBlockByHashFunction().apply(blockHash).get();
+      if (null != blockCache && null != fetched) {
+        blockCache.put(fetched);
+      }
+      return fetched;
     } catch (Exception e) {
       throw exceptionConverter.convert(e);
     }
@@ -164,17 +302,90 @@ public class BlockTemplate
   @Override
   public Block getBlock(final long height) {
     try {
-      return getBlockByHeightFunction().apply(height).get();
+      final BlockCache blockCache = getBlockCache();
+      if (null != blockCache) {
+        final Block cached = blockCache.getBlock(height);
+        if (null != cached) {
+          return cached;
+        }
+      }
+      if (null != blockStore) {
+        final Block stored = blockStore.getBlock(height);
+        if (null != stored) {
+          return stored;
+        }
+      }
+      final Block fetched = getBlockByHeightFunction().apply(height).get();
+      if (null != blockCache && null != fetched) {
+        blockCache.put(fetched);
+      }
+      return fetched;
+    } catch (Exception e) {
+      throw exceptionConverter.convert(e);
+    }
+  }
+
+  @Override
+  public Iterator<Block> listBlocks(final long fromHeight, final long toHeight) {
+    try {
+      // a function with strategies blocks until done, so take a raw one for concurrent requests
+      final Function1<Long, Future<Block>> prefetchFunction = new Function1<Long, Future<Block>>() {
+        @Override
+        public Future<Block> apply(final Long height) {
+          final Block stored = null != blockStore ? blockStore.getBlock(height) : null;
+          if (null != stored) {
+            return HerajFutures.success(stored);
+          }
+          return withTimeout(contextProvider.get(),
+              blockBaseTemplate.getBlockByHeightFunction().apply(height));
+        }
+      };
+      return new BlockRangeIterator(prefetchFunction, fromHeight, toHeight,
+          BlockRangeIterator.DEFAULT_PREFETCH_SIZE, exceptionConverter);
     } catch (Exception e) {
       throw exceptionConverter.convert(e);
     }
   }
 
+  protected Iterator<BlockMetadata> listBlockMetadataRange(final long fromHeight,
+      final long toHeight) {
+    // a function with strategies blocks until done, so take a raw one to request a page ahead
+    final Function2<Long, Integer, Future<List<BlockMetadata>>> listFunction =
+        new Function2<Long, Integer, Future<List<BlockMetadata>>>() {
+          @Override
+          public Future<List<BlockMetadata>> apply(final Long height, final Integer size) {
+            return withTimeout(contextProvider.get(),
+                blockBaseTemplate.getListBlockMetadatasByHeightFunction().apply(height, size));
+          }
+        };
+    return new BlockMetadataRangeIterator(listFunction, fromHeight, toHeight,
+        BlockMetadataRangeIterator.DEFAULT_PAGE_SIZE, exceptionConverter);
+  }
+
   @Override
   public Subscription<BlockMetadata> subscribeNewBlockMetadata(
       final StreamObserver<BlockMetadata> observer) {
     try {
-      return getSubscribeBlockMetadataFunction().apply(observer).get();
+      final Function2<Long, Long, Iterator<BlockMetadata>> backfillFunction =
+          new Function2<Long, Long, Iterator<BlockMetadata>>() {
+            @Override
+            public Iterator<BlockMetadata> apply(final Long fromHeight, final Long toHeight) {
+              return listBlockMetadataRange(fromHeight, toHeight);
+            }
+          };
+      return ResubscribingSubscription.subscribe(contextProvider.get().getConfiguration(),
+          getSubscribeBlockMetadataFunction(), getResubscriptionStatusFunction(),
+          backfillFunction, new Function1<BlockMetadata, Long>() {
+            @Override
+            public Long apply(final BlockMetadata blockMetadata) {
+              return blockMetadata.getBlockHeader().getBlockNumber();
+            }
+          }, new Function1<BlockMetadata, Object>() {
+            @Override
+            public Object apply(final BlockMetadata blockMetadata) {
+              return blockMetadata.getBlockHash();
+            }
+          }, observer);
     } catch (Exception e) {
       throw exceptionConverter.convert(e);
     }
@@ -183,10 +394,38 @@ public class BlockTemplate
   @Override
   public Subscription<Block> subscribeNewBlock(final StreamObserver<Block> observer) {
     try {
-      return getSubscribeBlockFunction().apply(observer).get();
+      final BlockHub blockHub = getBlockHub();
+      if (null != blockHub) {
+        return blockHub.subscribe(observer);
+      }
+      return subscribeBlock(observer);
     } catch (Exception e) {
       throw exceptionConverter.convert(e);
     }
   }
 
+  protected Subscription<Block> subscribeBlock(final StreamObserver<Block> observer)
+      throws Exception {
+    final Function2<Long, Long, Iterator<Block>> backfillFunction =
+        new Function2<Long, Long, Iterator<Block>>() {
+          @Override
+          public Iterator<Block> apply(final Long fromHeight, final Long toHeight) {
+            return listBlocks(fromHeight, toHeight);
+          }
+        };
+    return ResubscribingSubscription.subscribe(contextProvider.get().getConfiguration(),
+        getSubscribeBlockFunction(), getResubscriptionStatusFunction(), backfillFunction,
+        new Function1<Block, Long>() {
+          @Override
+          public Long apply(final Block block) {
+            return block.getBlockNumber();
+          }
+        }, new Function1<Block, Object>() {
+          @Override
+          public Object apply(final Block block) {
+            return block.getHash();
+          }
+        }, observer);
+  }
+
 }
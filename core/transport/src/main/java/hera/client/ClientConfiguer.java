@@ -4,6 +4,7 @@
 
 package hera.client;
 
+import hera.client.stream.OverflowPolicy;
 import hera.strategy.ConnectStrategy;
 import java.io.InputStream;
 import java.util.concurrent.TimeUnit;
@@ -27,6 +28,16 @@ public interface ClientConfiguer<ConfiguerT> {
    */
   ConfiguerT withEndpoint(String endpoint);
 
+  /**
+   * Provide endpoints of aergo servers. eg. {@code localhost:7845, localhost:8845}. Requests are
+   * spread over the endpoints preferring one with lower latency and an endpoint failing to connect
+   * is excluded for a while. If endpoint is already set, that will be overridden.
+   *
+   * @param endpoints aergo chain server endpoints
+   * @return an instance of this
+   */
+  ConfiguerT withEndpoints(String... endpoints);
+
   /**
    * Use non-blocking connection. If other {@link ConnectStrategy} is already set, that will be
    * overridden.
@@ -53,6 +64,18 @@ public interface ClientConfiguer<ConfiguerT> {
    */
   ConfiguerT withTimeout(long timeout, TimeUnit unit);
 
+  /**
+   * Set deadline for each request. Unlike {@link #withTimeout(long, TimeUnit)}, a request which is
+   * timed out or interrupted is cancelled on the server too. If timeout is already set, that will
+   * be overridden.
+   *
+   * @param timeout time to time out
+   * @param unit time's unit
+   *
+   * @return an instance of this
+   */
+  ConfiguerT withDeadline(long timeout, TimeUnit unit);
+
   /**
    * If fails with non-connection error, after {@code interval} {@code count} times. Default retry
    * count : 0, default retry interval : 5000 milliseconds.
@@ -65,6 +88,185 @@ public interface ClientConfiguer<ConfiguerT> {
    */
   ConfiguerT withRetry(int count, long interval, TimeUnit unit);
 
+  /**
+   * Retry an idempotent request failed by a transient error up to {@code count} times. An interval
+   * between tries grows exponentially from {@code baseInterval} to {@code maxInterval} with a
+   * random jitter. Retries are limited to a percentage of recent requests to prevent a retry storm.
+   * Unlike {@link #withRetry(int, long, TimeUnit)}, no caller thread waits during an interval and
+   * all tries are bound by a timeout.
+   *
+   * @param count a maximum retry count. must be positive
+   * @param baseInterval a minimum interval
+   * @param maxInterval a maximum interval
+   * @param unit interval unit
+   *
+   * @return an instance of this
+   */
+  ConfiguerT withBackoffRetry(int count, long baseInterval, long maxInterval, TimeUnit unit);
+
+  /**
+   * Break a circuit of an operation when a failure rate or a slow call rate of recent calls reaches
+   * a threshold. While a circuit is open, a request of the operation fails fast without being
+   * sent. After {@code openDuration}, a few requests are sent to probe whether a node recovered.
+   *
+   * @param failureRateThreshold a failure rate opening a circuit. must be in (0, 1]
+   * @param slowCallRateThreshold a slow call rate opening a circuit. must be in (0, 1]
+   * @param slowCallDuration a duration from which a request is considered as slow
+   * @param openDuration a duration for which a circuit stays open
+   * @param unit duration unit
+   *
+   * @return an instance of this
+   */
+  ConfiguerT withCircuitBreaker(double failureRateThreshold, double slowCallRateThreshold,
+      long slowCallDuration, long openDuration, TimeUnit unit);
+
+  /**
+   * Send a duplicate of a read request if the first one isn't answered within a {@code percentile}
+   * of recent latencies, and take whichever response comes first. The other request is cancelled.
+   * If more than one endpoint is set, a duplicate is sent to a different endpoint.
+   *
+   * @param percentile a percentile of latencies after which a duplicate is sent. must be in (0, 1)
+   * @param minDelay a minimum delay before sending a duplicate
+   * @param unit delay unit
+   *
+   * @return an instance of this
+   */
+  ConfiguerT withHedging(double percentile, long minDelay, TimeUnit unit);
+
+  /**
+   * Coalesce concurrent commits of a single transaction into one commit request. A batch is sent
+   * when it has {@code maxBatchSize} transactions or when {@code window} from its first transaction
+   * is passed. Each commit still gets its own transaction hash or
+   * {@link hera.exception.RpcCommitException}.
+   *
+   * @param maxBatchSize a maximum number of transactions in a batch. must be positive
+   * @param window a time for which a batch waits for more transactions
+   * @param unit window unit
+   *
+   * @return an instance of this
+   */
+  ConfiguerT withCommitBatching(int maxBatchSize, long window, TimeUnit unit);
+
+  /**
+   * Cache blocks and block metadatas in a LRU manner. An entry by hash is always cached. An entry
+   * by height is cached only once its block is final.
+   *
+   * @param maxEntries a maximum number of cached entries. must be positive
+   * @param maxBytes a maximum estimated number of cached bytes. 0 means no bound on bytes
+   *
+   * @return an instance of this
+   */
+  ConfiguerT withBlockCache(int maxEntries, long maxBytes);
+
+  /**
+   * Cache contract interfaces in a cache shared by every client using it. A cached one is
+   * invalidated when a re-deploy to its address is committed through a client.
+   *
+   * @param deduplicate whether to share an identical abi of contracts deployed from a same code
+   *
+   * @return an instance of this
+   */
+  ConfiguerT withContractInterfaceCache(boolean deduplicate);
+
+  /**
+   * Cache account states until they are touched by a transaction in a new block. A new block
+   * stream is subscribed on a first use.
+   *
+   * @param maxEntries a maximum number of cached account states. must be positive
+   *
+   * @return an instance of this
+   */
+  ConfiguerT withAccountStateCache(int maxEntries);
+
+  /**
+   * Set a maximum number of account state requests in flight when fetching account states in a
+   * batch. Default is 64.
+   *
+   * @param maxInFlight a maximum number of requests in flight. must be positive
+   *
+   * @return an instance of this
+   */
+  ConfiguerT withAccountStateFetchConcurrency(int maxInFlight);
+
+  /**
+   * Keep a cached chain id hash current with a new block metadata stream. A chain id hash is
+   * refreshed whenever a chain id in a new block header is changed.
+   *
+   * @return an instance of this
+   */
+  ConfiguerT withChainIdHashTracking();
+
+  /**
+   * Keep a cached chain id hash current by polling a blockchain status.
+   *
+   * @param interval a polling interval
+   * @param unit an interval unit
+   *
+   * @return an instance of this
+   */
+  ConfiguerT withChainIdHashTracking(long interval, TimeUnit unit);
+
+  /**
+   * Buffer items of each subscription up to {@code bufferSize} and deliver them to an observer in
+   * a delivery thread. With {@link OverflowPolicy#BLOCK} (the default), a stream is paused by flow
+   * control while a buffer is full. Otherwise, a stream keeps flowing and items are dropped or a
+   * subscription fails by a policy.
+   *
+   * @param bufferSize a maximum number of buffered items per subscription
+   * @param overflowPolicy a policy when a buffer is full
+   *
+   * @return an instance of this
+   */
+  ConfiguerT withStreamBuffer(int bufferSize, OverflowPolicy overflowPolicy);
+
+  /**
+   * Subscribe a block, block metadata or event stream again when it fails, with an exponential
+   * backoff. Items produced while disconnected are backfilled from a last delivered height before
+   * resuming live delivery without duplicates.
+   *
+   * @param initialInterval an initial retry interval
+   * @param maxInterval a maximum retry interval
+   * @param unit an interval unit
+   *
+   * @return an instance of this
+   */
+  ConfiguerT withStreamResubscription(long initialInterval, long maxInterval, TimeUnit unit);
+
+  /**
+   * Share one event stream per contract among event subscriptions. A filter of each subscription
+   * is evaluated on a client. A stream is closed when a last subscription of a contract is
+   * unsubscribed.
+   *
+   * @return an instance of this
+   */
+  ConfiguerT withEventHub();
+
+  /**
+   * Share one block stream among block subscriptions in a process. Each subscription has its own
+   * queue, so that a slow one never stalls others. A policy decides what to do with a subscription
+   * whose queue is full; {@link OverflowPolicy#FAIL} evicts it with a
+   * {@link hera.exception.StreamOverflowException}. {@link OverflowPolicy#BLOCK} isn't allowed.
+   *
+   * @param queueSize a max number of blocks queued for each subscription
+   * @param overflowPolicy a policy for a subscription falling behind
+   *
+   * @return an instance of this
+   */
+  ConfiguerT withBlockHub(int queueSize, OverflowPolicy overflowPolicy);
+
+  /**
+   * Keep final blocks in memory mapped files of a directory. A block by height and a transaction
+   * by hash are looked up there before a server. A block fetched from a server, including one
+   * fetched by a block range, is stored once it's final. A directory must not be used by another
+   * client at a same time.
+   *
+   * @param directory a directory of a block store
+   * @param segmentSize a size of a segment file in bytes. a block bigger than it isn't stored
+   *
+   * @return an instance of this
+   */
+  ConfiguerT withBlockStore(String directory, int segmentSize);
+
   /**
    * Use plain text on connection.
    *
@@ -4,6 +4,12 @@
 
 package hera.client;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableSet;
+
+import java.util.HashSet;
+import java.util.Set;
+
 public final class ClientConstants {
 
   /* function names */
@@ -48,6 +54,7 @@ public final class ClientConstants {
 
   public static final String TRANSACTION_GETTX = "heraj.gettx";
   public static final String TRANSACTION_COMMIT = "heraj.committx";
+  public static final String TRANSACTION_COMMIT_BATCH = "heraj.committx.batch";
   public static final String TRANSACTION_SEND = "heraj.sendtx";
 
   public static final String CONTRACT_GETRECEIPT = "heraj.getreceipt";
@@ -60,8 +67,112 @@ public final class ClientConstants {
   public static final String CONTRACT_SUBSCRIBE_EVENT = "heraj.subscribe.event";
 
 
+  public static final String SUBSCRIBE_PREFIX = "heraj.subscribe.";
+
+  /* function names which are safe to invoke more than once */
+
+  public static final Set<String> IDEMPOTENT_OPERATIONS = unmodifiableSet(new HashSet<>(asList(
+      ACCOUNT_GETSTATE, ACCOUNT_GETNAMEOWNER, ACCOUNT_GETSTAKINGINFO, ACCOUNT_LIST_ELECTED,
+      ACCOUNT_VOTESOF,
+      BLOCK_GET_METADATA_BY_HASH, BLOCK_GET_METADATA_BY_HEIGHT, BLOCK_LIST_METADATAS_BY_HASH,
+      BLOCK_LIST_METADATAS_BY_HEIGHT, BLOCK_GET_BLOCK_BY_HASH, BLOCK_GET_BLOCK_BY_HEIGHT,
+      BLOCKCHAIN_BLOCKCHAINSTATUS, BLOCKCHAIN_CHAININFO, BLOCKCHAIN_CHAINSTATS,
+      BLOCKCHAIN_LIST_PEERS, BLOCKCHAIN_PEERMETRICS, BLOCKCHAIN_SERVERINFO,
+      BLOCKCHAIN_NODESTATUS,
+      TRANSACTION_GETTX,
+      CONTRACT_GETRECEIPT, CONTRACT_GETINTERFACE, CONTRACT_QUERY, CONTRACT_LIST_EVENT)));
+
+  /* function names whose tail latency is worth a duplicate request */
+
+  public static final Set<String> HEDGEABLE_OPERATIONS = unmodifiableSet(new HashSet<>(asList(
+      ACCOUNT_GETSTATE,
+      BLOCK_GET_METADATA_BY_HASH, BLOCK_GET_METADATA_BY_HEIGHT, BLOCK_LIST_METADATAS_BY_HASH,
+      BLOCK_LIST_METADATAS_BY_HEIGHT, BLOCK_GET_BLOCK_BY_HASH, BLOCK_GET_BLOCK_BY_HEIGHT,
+      TRANSACTION_GETTX,
+      CONTRACT_QUERY)));
+
+
   /* etc */
 
   public static final long KEEP_ALIVE_INTERVAL = 300L; // seconds
 
+  public static final long ENDPOINT_EJECTION_TIME = 30L; // seconds
+
+  public static final String ENDPOINT_SEPARATOR = ",";
+
+  /* configuration keys for batching concurrent commits */
+
+  public static final String COMMIT_BATCH_SIZE = "commitBatchSize";
+
+  public static final String COMMIT_BATCH_WINDOW = "commitBatchWindow"; // milliseconds
+
+  /* configuration keys for block cache */
+
+  public static final String BLOCK_CACHE_SIZE = "blockCacheSize";
+
+  public static final String BLOCK_CACHE_BYTES = "blockCacheBytes";
+
+  public static final long BLOCK_CACHE_FINALITY_REFRESH_INTERVAL = 1000L; // milliseconds
+
+  /* configuration keys for contract interface cache */
+
+  public static final String CONTRACT_INTERFACE_CACHE = "contractInterfaceCache";
+
+  public static final String CONTRACT_INTERFACE_DEDUPLICATION = "contractInterfaceDeduplication";
+
+  /* configuration keys for account state cache */
+
+  public static final String ACCOUNT_STATE_CACHE_SIZE = "accountStateCacheSize";
+
+  /* configuration keys for fetching account states in a batch */
+
+  public static final String ACCOUNT_STATE_FETCH_CONCURRENCY = "accountStateFetchConcurrency";
+
+  public static final int DEFAULT_ACCOUNT_STATE_FETCH_CONCURRENCY = 64;
+
+  /* configuration keys for chain id hash tracking */
+
+  public static final String CHAIN_ID_HASH_TRACKING = "chainIdHashTracking";
+
+  public static final String CHAIN_ID_HASH_TRACKING_INTERVAL =
+      "chainIdHashTrackingInterval"; // milliseconds
+
+  public static final String CHAIN_ID_HASH_TRACKING_STREAM = "stream";
+
+  public static final String CHAIN_ID_HASH_TRACKING_POLLING = "polling";
+
+  public static final long DEFAULT_CHAIN_ID_HASH_TRACKING_INTERVAL = 5000L; // milliseconds
+
+  /* configuration keys for stream subscriptions */
+
+  public static final String STREAM_BUFFER_SIZE = "streamBufferSize";
+
+  public static final String STREAM_OVERFLOW_POLICY = "streamOverflowPolicy";
+
+  public static final int DEFAULT_STREAM_BUFFER_SIZE = 128;
+
+  public static final String STREAM_RESUBSCRIPTION_INTERVAL =
+      "streamResubscriptionInterval"; // milliseconds
+
+  public static final String STREAM_RESUBSCRIPTION_MAX_INTERVAL =
+      "streamResubscriptionMaxInterval"; // milliseconds
+
+  /* configuration keys for event hub */
+
+  public static final String EVENT_HUB = "eventHub";
+
+  /* configuration keys for block hub */
+
+  public static final String BLOCK_HUB_QUEUE_SIZE = "blockHubQueueSize";
+
+  public static final String BLOCK_HUB_OVERFLOW_POLICY = "blockHubOverflowPolicy";
+
+  /* configuration keys for block store */
+
+  public static final String BLOCK_STORE_DIRECTORY = "blockStoreDirectory";
+
+  public static final String BLOCK_STORE_SEGMENT_SIZE = "blockStoreSegmentSize";
+
+  public static final long BLOCK_STORE_FINALITY_REFRESH_INTERVAL = 1000L; // milliseconds
+
 }
@@ -13,17 +13,23 @@ import static hera.client.ClientConstants.CONTRACT_LIST_EVENT;
 import static hera.client.ClientConstants.CONTRACT_QUERY;
 import static hera.client.ClientConstants.CONTRACT_REDEPLOY;
 import static hera.client.ClientConstants.CONTRACT_SUBSCRIBE_EVENT;
+import static hera.client.ClientConstants.EVENT_HUB;
+import static hera.client.internal.HerajFutures.withTimeout;
+import static hera.util.ValidationUtils.assertTrue;
+import static java.util.Arrays.asList;
 
 import hera.ContextProvider;
 import hera.ContextProviderInjectable;
 import hera.annotation.ApiAudience;
 import hera.annotation.ApiStability;
 import hera.api.ContractOperation;
+import hera.api.function.Function0;
 import hera.api.function.Function1;
 import hera.api.function.Function2;
 import hera.api.function.Function4;
 import hera.api.function.Function5;
 import hera.api.model.Account;
+import hera.api.model.BlockchainStatus;
 import hera.api.model.ContractAddress;
 import hera.api.model.ContractDefinition;
 import hera.api.model.ContractInterface;
@@ -36,7 +42,12 @@ import hera.api.model.EventFilter;
 import hera.api.model.Fee;
 import hera.api.model.StreamObserver;
 import hera.api.model.Subscription;
+import hera.client.internal.BlockchainBaseTemplate;
 import hera.client.internal.ContractBaseTemplate;
+import hera.client.internal.EventHub;
+import hera.client.internal.EventScanIterator;
+import hera.client.internal.HerajFutures;
+import hera.client.internal.ResubscribingSubscription;
 import hera.exception.RpcException;
 import hera.exception.RpcExceptionConverter;
 import hera.key.Signer;
@@ -44,6 +55,7 @@ import hera.strategy.PriorityProvider;
 import hera.strategy.StrategyApplier;
 import hera.util.ExceptionConverter;
 import io.grpc.ManagedChannel;
+import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.Future;
 import lombok.AccessLevel;
@@ -58,6 +70,8 @@ public class ContractTemplate
 
   protected ContractBaseTemplate contractBaseTemplate = new ContractBaseTemplate();
 
+  protected BlockchainBaseTemplate blockchainBaseTemplate = new BlockchainBaseTemplate();
+
   protected ContextProvider contextProvider;
 
   @Getter(lazy = true, value = AccessLevel.PROTECTED)
@@ -67,12 +81,14 @@ public class ContractTemplate
   @Override
   public void setChannel(final ManagedChannel channel) {
     this.contractBaseTemplate.setChannel(channel);
+    this.blockchainBaseTemplate.setChannel(channel);
   }
 
   @Override
   public void setContextProvider(final ContextProvider contextProvider) {
     this.contextProvider = contextProvider;
     this.contractBaseTemplate.setContextProvider(contextProvider);
+    this.blockchainBaseTemplate.setContextProvider(contextProvider);
   }
 
   @Getter(lazy = true, value = AccessLevel.PROTECTED)
@@ -119,6 +135,28 @@ public class ContractTemplate
           getStrategyApplier().apply(
               identify(contractBaseTemplate.getSubscribeEventFunction(), CONTRACT_SUBSCRIBE_EVENT));
 
+  // null if event hub isn't configured
+  @Getter(lazy = true, value = AccessLevel.PROTECTED)
+  private final EventHub eventHub = createEventHub();
+
+  protected EventHub createEventHub() {
+    if (!contextProvider.get().getConfiguration().getAsBoolean(EVENT_HUB, false)) {
+      return null;
+    }
+    return new EventHub(getSubscribeEventFunction());
+  }
+
+  // a raw one not to block a retry of a resubscription by strategies
+  @Getter(lazy = true, value = AccessLevel.PROTECTED)
+  private final Function0<Future<BlockchainStatus>> resubscriptionStatusFunction =
+      new Function0<Future<BlockchainStatus>>() {
+        @Override
+        public Future<BlockchainStatus> apply() {
+          return withTimeout(contextProvider.get(),
+              blockchainBaseTemplate.getBlockchainStatusFunction().apply());
+        }
+      };
+
   @Override
   public ContractTxReceipt getReceipt(final ContractTxHash contractTxHash) {
     try {
@@ -216,14 +254,91 @@ public class ContractTemplate
     }
   }
 
+  @Override
+  public Iterator<Event> scanEvents(final EventFilter filter) {
+    try {
+      // a function with strategies blocks until done, so take a raw one for concurrent requests
+      final Function1<EventFilter, Future<List<Event>>> chunkFunction =
+          new Function1<EventFilter, Future<List<Event>>>() {
+            @Override
+            public Future<List<Event>> apply(final EventFilter chunkFilter) {
+              return withTimeout(contextProvider.get(),
+                  contractBaseTemplate.getListEventFunction().apply(chunkFilter));
+            }
+          };
+      return new EventScanIterator(chunkFunction, filter, EventScanIterator.DEFAULT_CHUNK_SIZE,
+          EventScanIterator.DEFAULT_PARALLELISM, EventScanIterator.DEFAULT_MAX_RETRY_COUNT,
+          exceptionConverter);
+    } catch (Exception e) {
+      throw exceptionConverter.convert(e);
+    }
+  }
+
   @Override
   public Subscription<Event> subscribeEvent(final EventFilter filter,
       final StreamObserver<Event> observer) {
     try {
-      return getSubscribeEventFunction().apply(filter, observer).get();
+      return subscribeEventFrom(filter, -1L, observer);
+    } catch (Exception e) {
+      throw exceptionConverter.convert(e);
+    }
+  }
+
+  @Override
+  public Subscription<Event> subscribeEvent(final EventFilter filter, final long fromBlockNumber,
+      final StreamObserver<Event> observer) {
+    try {
+      assertTrue(0L <= fromBlockNumber, "From block number must not negative");
+      return subscribeEventFrom(filter, fromBlockNumber, observer);
     } catch (Exception e) {
       throw exceptionConverter.convert(e);
     }
   }
 
+  protected Subscription<Event> subscribeEventFrom(final EventFilter filter,
+      final long fromBlockNumber, final StreamObserver<Event> observer) throws Exception {
+    final Function1<StreamObserver<Event>, Future<Subscription<Event>>> subscribeFunction =
+        new Function1<StreamObserver<Event>, Future<Subscription<Event>>>() {
+          @Override
+          public Future<Subscription<Event>> apply(final StreamObserver<Event> streamObserver) {
+            final EventHub eventHub = getEventHub();
+            if (null == eventHub) {
+              return getSubscribeEventFunction().apply(filter, streamObserver);
+            }
+            try {
+              return HerajFutures.success(eventHub.subscribe(filter, streamObserver));
+            } catch (Exception e) {
+              return HerajFutures.fail(e);
+            }
+          }
+        };
+    // history is scanned in chunks not to hold a whole range at once
+    final Function2<Long, Long, Iterator<Event>> backfillFunction =
+        new Function2<Long, Long, Iterator<Event>>() {
+          @Override
+          public Iterator<Event> apply(final Long fromHeight, final Long toHeight) {
+            final EventFilter backfillFilter = EventFilter.newBuilder(filter.getContractAddress())
+                .eventName(filter.getEventName())
+                .args(filter.getArgs())
+                .fromBlockNumber(fromHeight)
+                .toBlockNumber(toHeight)
+                .build();
+            return scanEvents(backfillFilter);
+          }
+        };
+    return ResubscribingSubscription.subscribe(contextProvider.get().getConfiguration(),
+        subscribeFunction, getResubscriptionStatusFunction(), backfillFunction,
+        new Function1<Event, Long>() {
+          @Override
+          public Long apply(final Event event) {
+            return event.getBlockNumber();
+          }
+        }, new Function1<Event, Object>() {
+          @Override
+          public Object apply(final Event event) {
+            return asList(event.getTxHash(), event.getIndex());
+          }
+        }, fromBlockNumber, observer);
+  }
+
 }
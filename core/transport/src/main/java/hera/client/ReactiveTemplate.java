@@ -0,0 +1,72 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import hera.ContextProvider;
+import hera.ContextProviderInjectable;
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.model.Block;
+import hera.api.model.BlockMetadata;
+import hera.api.model.Event;
+import hera.api.model.EventFilter;
+import hera.client.internal.BlockBaseTemplate;
+import hera.client.internal.ContractBaseTemplate;
+import io.grpc.ManagedChannel;
+import org.reactivestreams.Publisher;
+
+/**
+ * Reactive streams publishers of new blocks, block metadatas and events. A demand requested by a
+ * subscriber is mapped to grpc inbound flow control. Each subscriber makes its own stream.
+ */
+@ApiAudience.Private
+@ApiStability.Unstable
+public class ReactiveTemplate implements ChannelInjectable, ContextProviderInjectable {
+
+  protected BlockBaseTemplate blockBaseTemplate = new BlockBaseTemplate();
+
+  protected ContractBaseTemplate contractBaseTemplate = new ContractBaseTemplate();
+
+  @Override
+  public void setChannel(final ManagedChannel channel) {
+    this.blockBaseTemplate.setChannel(channel);
+    this.contractBaseTemplate.setChannel(channel);
+  }
+
+  @Override
+  public void setContextProvider(final ContextProvider contextProvider) {
+    this.blockBaseTemplate.setContextProvider(contextProvider);
+    this.contractBaseTemplate.setContextProvider(contextProvider);
+  }
+
+  /**
+   * Get a publisher of new block metadatas.
+   *
+   * @return a publisher of new block metadatas
+   */
+  public Publisher<BlockMetadata> newBlockMetadataPublisher() {
+    return blockBaseTemplate.getBlockMetadataPublisherFunction().apply();
+  }
+
+  /**
+   * Get a publisher of new blocks.
+   *
+   * @return a publisher of new blocks
+   */
+  public Publisher<Block> newBlockPublisher() {
+    return blockBaseTemplate.getBlockPublisherFunction().apply();
+  }
+
+  /**
+   * Get a publisher of new events matching a filter.
+   *
+   * @param filter an event filter
+   * @return a publisher of new events
+   */
+  public Publisher<Event> newEventPublisher(final EventFilter filter) {
+    return contractBaseTemplate.getEventPublisherFunction().apply(filter);
+  }
+
+}
@@ -7,6 +7,7 @@ package hera.client;
 import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static hera.api.function.Functions.identify;
 import static hera.client.ClientConstants.TRANSACTION_COMMIT;
+import static hera.client.ClientConstants.TRANSACTION_COMMIT_BATCH;
 import static hera.client.ClientConstants.TRANSACTION_GETTX;
 import static hera.client.ClientConstants.TRANSACTION_SEND;
 
@@ -23,7 +24,9 @@ import hera.api.function.Function3;
 import hera.api.model.AccountAddress;
 import hera.api.model.Aer;
 import hera.api.model.Transaction;
+import hera.api.model.TxCommitResult;
 import hera.api.model.TxHash;
+import hera.client.internal.MappedBlockStore;
 import hera.client.internal.TransactionBaseTemplate;
 import hera.exception.RpcException;
 import hera.exception.RpcExceptionConverter;
@@ -31,6 +34,7 @@ import hera.strategy.PriorityProvider;
 import hera.strategy.StrategyApplier;
 import hera.util.ExceptionConverter;
 import io.grpc.ManagedChannel;
+import java.util.List;
 import java.util.concurrent.Future;
 import lombok.AccessLevel;
 import lombok.Getter;
@@ -38,7 +42,8 @@ import lombok.Getter;
 @ApiAudience.Private
 @ApiStability.Unstable
 public class TransactionTemplate
-    implements TransactionOperation, ChannelInjectable, ContextProviderInjectable {
+    implements TransactionOperation, ChannelInjectable, ContextProviderInjectable,
+    BlockStoreInjectable {
 
   protected final ExceptionConverter<RpcException> exceptionConverter = new RpcExceptionConverter();
 
@@ -46,6 +51,9 @@ public class TransactionTemplate
 
   protected ContextProvider contextProvider;
 
+  // null if block store isn't configured
+  protected MappedBlockStore blockStore;
+
   @Getter(lazy = true, value = AccessLevel.PROTECTED)
   private final StrategyApplier strategyApplier =
       StrategyApplier.of(contextProvider.get(), PriorityProvider.get());
@@ -61,6 +69,11 @@ public class TransactionTemplate
     this.transactionBaseTemplate.setContextProvider(contextProvider);
   }
 
+  @Override
+  public void setBlockStore(final MappedBlockStore blockStore) {
+    this.blockStore = blockStore;
+  }
+
   private final Function1<TxHash, Future<Transaction>> convertedTransactionFunction =
       new Function1<TxHash, Future<Transaction>>() {
 
@@ -97,6 +110,11 @@ public class TransactionTemplate
       getStrategyApplier()
           .apply(identify(this.transactionBaseTemplate.getCommitFunction(), TRANSACTION_COMMIT));
 
+  @Getter(lazy = true, value = AccessLevel.PROTECTED)
+  private final Function1<List<Transaction>, Future<List<TxCommitResult>>> batchCommitFunction =
+      getStrategyApplier().apply(identify(this.transactionBaseTemplate.getBatchCommitFunction(),
+          TRANSACTION_COMMIT_BATCH));
+
   @Getter(lazy = true, value = AccessLevel.PROTECTED)
   private final Function3<AccountAddress, AccountAddress, Aer,
       Future<TxHash>> sendFunction =
@@ -106,6 +124,12 @@ public class TransactionTemplate
   @Override
   public Transaction getTransaction(final TxHash txHash) {
     try {
+      if (null != blockStore) {
+        final Transaction stored = blockStore.getTransaction(txHash);
+        if (null != stored) {
+          return stored;
+        }
+      }
       return getTransactionFunction().apply(txHash).get();
     } catch (Exception e) {
       throw exceptionConverter.convert(e);
@@ -121,6 +145,15 @@ public class TransactionTemplate
     }
   }
 
+  @Override
+  public List<TxCommitResult> commit(final List<Transaction> transactions) {
+    try {
+      return getBatchCommitFunction().apply(transactions).get();
+    } catch (Exception e) {
+      throw exceptionConverter.convert(e);
+    }
+  }
+
   @Override
   public TxHash send(final AccountAddress sender,
       final AccountAddress recipient,
@@ -0,0 +1,44 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.follower;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.model.Block;
+import hera.api.model.BlockHash;
+
+/**
+ * A sink of a {@link ChainFollower}. Callbacks are invoked on a single follower thread in order.
+ * A block may be delivered again after a restart from a checkpoint, so a sink should handle a
+ * block idempotently.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public interface BlockSink {
+
+  /**
+   * Invoked on a next block of a canonical chain.
+   *
+   * @param block a block
+   */
+  void onBlock(Block block);
+
+  /**
+   * Invoked on a block delivered before but reorganized out of a canonical chain. Blocks are
+   * rolled back from a highest one.
+   *
+   * @param height a height of a rolled back block
+   * @param blockHash a hash of a rolled back block
+   */
+  void onRollback(long height, BlockHash blockHash);
+
+  /**
+   * Invoked when a follower stops by a failure.
+   *
+   * @param error a failure
+   */
+  void onError(Throwable error);
+
+}
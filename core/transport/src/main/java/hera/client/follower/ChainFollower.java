@@ -0,0 +1,421 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.follower;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.BlockOperation;
+import hera.api.BlockchainOperation;
+import hera.api.model.Block;
+import hera.api.model.BlockHash;
+import hera.api.model.StreamObserver;
+import hera.api.model.Subscription;
+import hera.exception.RpcException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import lombok.ToString;
+import org.slf4j.Logger;
+
+/**
+ * An engine following a chain block by block and feeding a {@link BlockSink}. It catches up from
+ * a start height or a saved cursor with {@link BlockOperation#listBlocks(long, long)}, which
+ * fetches and converts blocks ahead concurrently, and then follows a head with a block stream.
+ * Every block is checked to link to a last delivered one by its previous hash. If it doesn't, a
+ * fork point is searched among recently delivered blocks against a canonical chain, blocks above
+ * it are rolled back and a chain is followed again from there.
+ *
+ * <p>
+ * A cursor of recently delivered blocks is saved to a {@link CursorStore} periodically while
+ * catching up, on every block at a head, on a rollback and on stop. A follower restarted with a
+ * same store resumes from a last saved block, so a sink may get a block again after a crash. A
+ * {@link ResumableBlockSink} behind a cursor is fed from its next height instead.
+ * </p>
+ *
+ * <p>
+ * A follower retries on a {@link RpcException} after a while. It stops on any other failure or on
+ * a reorganization deeper than a window, which keeps a last saved cursor as it is.
+ * </p>
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+@ToString(of = {"startHeight", "maxReorgDepth", "running"})
+public class ChainFollower {
+
+  public static final int DEFAULT_MAX_REORG_DEPTH = 128;
+
+  public static final int DEFAULT_CHECKPOINT_INTERVAL = 100;
+
+  public static final int DEFAULT_QUEUE_SIZE = 256;
+
+  protected static final long POLL_INTERVAL = 500L; // milliseconds
+
+  protected static final long RESUBSCRIBE_DELAY = 1000L; // milliseconds
+
+  protected static final ExecutorService followerExecutor =
+      Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+          .setNameFormat("heraj-chain-follower-%d")
+          .setDaemon(true)
+          .build());
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  protected final BlockOperation blockOperation;
+
+  protected final BlockchainOperation blockchainOperation;
+
+  protected final CursorStore cursorStore;
+
+  protected final BlockSink sink;
+
+  protected final long startHeight;
+
+  // a height to deliver first when nothing is delivered
+  protected long resumeHeight;
+
+  protected final int maxReorgDepth;
+
+  protected final int checkpointInterval;
+
+  protected final BlockingQueue<Block> live;
+
+  // recently delivered blocks in height order; touched by a follower thread only
+  protected final Deque<Checkpoint> delivered = new ArrayDeque<>();
+
+  protected volatile boolean running = false;
+
+  protected volatile boolean streamBroken = false;
+
+  protected volatile boolean streamFailed = false;
+
+  protected volatile long lastHeight = -1L;
+
+  protected boolean atHead = false;
+
+  // a cursor must not be saved once a chain reorganized below a window
+  protected boolean cursorLost = false;
+
+  protected int unsaved = 0;
+
+  protected Future<?> task;
+
+  /**
+   * ChainFollower constructor with default settings.
+   *
+   * @param blockOperation a block operation
+   * @param blockchainOperation a blockchain operation
+   * @param cursorStore a cursor store
+   * @param sink a block sink
+   * @param startHeight a height to start from if no cursor is saved
+   */
+  public ChainFollower(final BlockOperation blockOperation,
+      final BlockchainOperation blockchainOperation, final CursorStore cursorStore,
+      final BlockSink sink, final long startHeight) {
+    this(blockOperation, blockchainOperation, cursorStore, sink, startHeight,
+        DEFAULT_MAX_REORG_DEPTH, DEFAULT_CHECKPOINT_INTERVAL, DEFAULT_QUEUE_SIZE);
+  }
+
+  /**
+   * ChainFollower constructor.
+   *
+   * @param blockOperation a block operation
+   * @param blockchainOperation a blockchain operation
+   * @param cursorStore a cursor store
+   * @param sink a block sink
+   * @param startHeight a height to start from if no cursor is saved
+   * @param maxReorgDepth a max number of blocks which can be rolled back
+   * @param checkpointInterval a number of blocks between checkpoints while catching up
+   * @param queueSize a max number of streamed blocks waiting. on overflow, a follower catches up
+   *        again
+   */
+  public ChainFollower(final BlockOperation blockOperation,
+      final BlockchainOperation blockchainOperation, final CursorStore cursorStore,
+      final BlockSink sink, final long startHeight, final int maxReorgDepth,
+      final int checkpointInterval, final int queueSize) {
+    assertNotNull(blockOperation, "Block operation must not null");
+    assertNotNull(blockchainOperation, "Blockchain operation must not null");
+    assertNotNull(cursorStore, "Cursor store must not null");
+    assertNotNull(sink, "Sink must not null");
+    assertTrue(0L <= startHeight, "Start height must not negative");
+    assertTrue(0 < maxReorgDepth, "Max reorg depth must be positive");
+    assertTrue(0 < checkpointInterval, "Checkpoint interval must be positive");
+    assertTrue(0 < queueSize, "Queue size must be positive");
+    this.blockOperation = blockOperation;
+    this.blockchainOperation = blockchainOperation;
+    this.cursorStore = cursorStore;
+    this.sink = sink;
+    this.startHeight = startHeight;
+    this.resumeHeight = startHeight;
+    this.maxReorgDepth = maxReorgDepth;
+    this.checkpointInterval = checkpointInterval;
+    this.live = new LinkedBlockingQueue<>(queueSize);
+  }
+
+  /**
+   * Start following a chain on a background thread.
+   */
+  public synchronized void start() {
+    assertTrue(!running, "Follower is already running");
+    running = true;
+    task = followerExecutor.submit(new Runnable() {
+      @Override
+      public void run() {
+        follow();
+      }
+    });
+  }
+
+  /**
+   * Stop following a chain. A cursor is saved before a follower thread ends.
+   */
+  public synchronized void stop() {
+    if (!running) {
+      return;
+    }
+    running = false;
+    if (null != task) {
+      task.cancel(true);
+    }
+  }
+
+  public boolean isRunning() {
+    return running;
+  }
+
+  /**
+   * Get a height of a last delivered block.
+   *
+   * @return a last delivered height. -1 if nothing is delivered
+   */
+  public long getLastHeight() {
+    return lastHeight;
+  }
+
+  protected void follow() {
+    try {
+      delivered.addAll(cursorStore.load());
+      if (!delivered.isEmpty()) {
+        lastHeight = delivered.peekLast().getHeight();
+        logger.info("Resume following from {}", lastHeight);
+      }
+      alignWithSink();
+      while (running) {
+        try {
+          catchUp();
+          followHead();
+        } catch (RpcException e) {
+          if (!running) {
+            break;
+          }
+          logger.info("Following failed: {}; retry after {}ms", e.toString(), RESUBSCRIBE_DELAY);
+          streamFailed = true;
+        }
+        if (running && streamFailed) {
+          Thread.sleep(RESUBSCRIBE_DELAY);
+        }
+      }
+    } catch (InterruptedException e) {
+      logger.debug("Follower interrupted");
+    } catch (Exception e) {
+      if (running) {
+        logger.info("Follower failed: {}", e.toString());
+        running = false;
+        sink.onError(e);
+      }
+    } finally {
+      if (!cursorLost) {
+        saveCursor();
+      }
+    }
+  }
+
+  protected long nextHeight() {
+    return delivered.isEmpty() ? resumeHeight : delivered.peekLast().getHeight() + 1L;
+  }
+
+  // a sink may have lost blocks after its last write, so drop a cursor above it
+  protected void alignWithSink() {
+    if (!(sink instanceof ResumableBlockSink)) {
+      return;
+    }
+    final long sinkHeight = Math.max(startHeight, ((ResumableBlockSink) sink).getNextHeight());
+    if (nextHeight() <= sinkHeight) {
+      return;
+    }
+    logger.info("Resume following from {} where a sink is", sinkHeight);
+    while (!delivered.isEmpty() && sinkHeight <= delivered.peekLast().getHeight()) {
+      delivered.pollLast();
+    }
+    if (delivered.isEmpty()) {
+      resumeHeight = sinkHeight;
+    }
+    lastHeight = delivered.isEmpty() ? -1L : delivered.peekLast().getHeight();
+  }
+
+  protected void catchUp() throws Exception {
+    while (running) {
+      final long fromHeight = nextHeight();
+      final long toHeight = blockchainOperation.getBlockchainStatus().getBestHeight();
+      if (toHeight < fromHeight) {
+        return;
+      }
+      logger.debug("Catch up from {} to {}", fromHeight, toHeight);
+      final Iterator<Block> it = blockOperation.listBlocks(fromHeight, toHeight);
+      while (running && it.hasNext()) {
+        if (!accept(it.next())) {
+          // a chain changed; catch up again from a fork point
+          break;
+        }
+      }
+    }
+  }
+
+  protected void followHead() throws Exception {
+    live.clear();
+    streamBroken = false;
+    streamFailed = false;
+    final Subscription<Block> subscription = blockOperation.subscribeNewBlock(
+        new StreamObserver<Block>() {
+          @Override
+          public void onNext(final Block block) {
+            if (!live.offer(block)) {
+              logger.info("Too many streamed blocks waiting; catch up again");
+              streamBroken = true;
+            }
+          }
+
+          @Override
+          public void onError(final Throwable error) {
+            logger.info("Block stream failed: {}", error.toString());
+            streamFailed = true;
+            streamBroken = true;
+          }
+
+          @Override
+          public void onCompleted() {
+            logger.info("Block stream completed");
+            streamFailed = true;
+            streamBroken = true;
+          }
+        });
+    try {
+      // blocks made before a stream started
+      catchUp();
+      atHead = true;
+      saveCursor();
+      while (running && !streamBroken) {
+        final Block block = live.poll(POLL_INTERVAL, TimeUnit.MILLISECONDS);
+        if (null != block && !accept(block)) {
+          catchUp();
+        }
+      }
+    } finally {
+      atHead = false;
+      subscription.unsubscribe();
+    }
+  }
+
+  /**
+   * Deliver a block if it links to a last delivered one.
+   *
+   * @param block a block
+   * @return false if a block doesn't link and a follower should catch up from a next height
+   */
+  protected boolean accept(final Block block) {
+    final Checkpoint last = delivered.peekLast();
+    if (null == last) {
+      if (block.getBlockNumber() != resumeHeight) {
+        return false;
+      }
+      deliver(block);
+      return true;
+    }
+    if (block.getBlockNumber() <= last.getHeight() && isDelivered(block)) {
+      return true;
+    }
+    if (block.getBlockNumber() == last.getHeight() + 1L
+        && block.getPreviousHash().equals(last.getBlockHash())) {
+      deliver(block);
+      return true;
+    }
+    if (block.getBlockNumber() <= last.getHeight() + 1L) {
+      rollback(block.getBlockNumber());
+    }
+    return false;
+  }
+
+  protected boolean isDelivered(final Block block) {
+    for (final Checkpoint checkpoint : delivered) {
+      if (checkpoint.getHeight() == block.getBlockNumber()) {
+        return checkpoint.getBlockHash().equals(block.getHash());
+      }
+    }
+    return false;
+  }
+
+  protected void deliver(final Block block) {
+    sink.onBlock(block);
+    delivered.addLast(new Checkpoint(block.getBlockNumber(), block.getHash()));
+    while (delivered.size() > maxReorgDepth) {
+      delivered.pollFirst();
+    }
+    lastHeight = block.getBlockNumber();
+    ++unsaved;
+    if (atHead || checkpointInterval <= unsaved) {
+      saveCursor();
+    }
+  }
+
+  protected void rollback(final long conflictingHeight) {
+    long lowest = Long.MAX_VALUE;
+    while (!delivered.isEmpty()) {
+      final Checkpoint last = delivered.peekLast();
+      if (last.getHeight() < conflictingHeight) {
+        final BlockHash canonical =
+            blockOperation.getBlockMetadata(last.getHeight()).getBlockHash();
+        if (canonical.equals(last.getBlockHash())) {
+          break;
+        }
+      }
+      logger.info("Roll back block {} at {}", last.getBlockHash(), last.getHeight());
+      delivered.pollLast();
+      sink.onRollback(last.getHeight(), last.getBlockHash());
+      lowest = last.getHeight();
+    }
+    lastHeight = delivered.isEmpty() ? -1L : delivered.peekLast().getHeight();
+    if (Long.MAX_VALUE == lowest) {
+      return;
+    }
+    if (delivered.isEmpty() && resumeHeight < lowest) {
+      // a fork point is below a window; can't know what to roll back
+      cursorLost = true;
+      throw new IllegalStateException(
+          "Chain reorganized deeper than " + maxReorgDepth + " blocks");
+    }
+    saveCursor();
+  }
+
+  protected void saveCursor() {
+    try {
+      cursorStore.save(new ArrayList<>(delivered));
+      unsaved = 0;
+    } catch (Exception e) {
+      logger.error("Saving a cursor failed by {}", e.toString());
+    }
+  }
+
+}
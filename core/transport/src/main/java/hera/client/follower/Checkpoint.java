@@ -0,0 +1,24 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.follower;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.model.BlockHash;
+import lombok.Value;
+
+/**
+ * A height and a hash of a block delivered by a {@link ChainFollower}.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+@Value
+public class Checkpoint {
+
+  long height;
+
+  BlockHash blockHash;
+
+}
@@ -0,0 +1,34 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.follower;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import java.util.List;
+
+/**
+ * A store of a cursor of a {@link ChainFollower}. A cursor is a list of recently delivered blocks
+ * in height order, so that a follower resumes from a last one and still detects a reorganization
+ * below it after a restart.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public interface CursorStore {
+
+  /**
+   * Load a cursor.
+   *
+   * @return checkpoints in height order. empty if nothing is saved
+   */
+  List<Checkpoint> load();
+
+  /**
+   * Save a cursor replacing a previous one.
+   *
+   * @param checkpoints checkpoints in height order
+   */
+  void save(List<Checkpoint> checkpoints);
+
+}
@@ -0,0 +1,81 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.follower;
+
+import static hera.util.ValidationUtils.assertNotNull;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.model.BlockHash;
+import hera.exception.HerajException;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.ToString;
+
+/**
+ * A cursor store keeping a cursor in a file, a checkpoint per line. A file is replaced atomically
+ * on save, so that a crash never leaves a broken cursor.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+@ToString(of = {"path"})
+public class FileCursorStore implements CursorStore {
+
+  protected static final Charset CHARSET = Charset.forName("UTF-8");
+
+  protected final Path path;
+
+  /**
+   * FileCursorStore constructor.
+   *
+   * @param path a path of a cursor file
+   */
+  public FileCursorStore(final Path path) {
+    assertNotNull(path, "Path must not null");
+    this.path = path;
+  }
+
+  @Override
+  public List<Checkpoint> load() {
+    try {
+      final List<Checkpoint> checkpoints = new ArrayList<>();
+      if (!Files.exists(path)) {
+        return checkpoints;
+      }
+      for (final String line : Files.readAllLines(path, CHARSET)) {
+        if (line.isEmpty()) {
+          continue;
+        }
+        final String[] tokens = line.split(" ");
+        checkpoints.add(new Checkpoint(Long.parseLong(tokens[0]), BlockHash.of(tokens[1])));
+      }
+      return checkpoints;
+    } catch (Exception e) {
+      throw new HerajException("Loading a cursor from " + path + " failed", e);
+    }
+  }
+
+  @Override
+  public void save(final List<Checkpoint> checkpoints) {
+    try {
+      final List<String> lines = new ArrayList<>();
+      for (final Checkpoint checkpoint : checkpoints) {
+        lines.add(checkpoint.getHeight() + " " + checkpoint.getBlockHash().getEncoded());
+      }
+      final Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+      Files.write(temp, lines, CHARSET);
+      Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      throw new HerajException("Saving a cursor to " + path + " failed", e);
+    }
+  }
+
+}
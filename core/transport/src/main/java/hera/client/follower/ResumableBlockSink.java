@@ -0,0 +1,26 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.follower;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+
+/**
+ * A {@link BlockSink} which knows a height it has durably taken up to. A sink may lose blocks
+ * delivered after its last write on a crash while a cursor of a {@link ChainFollower} is already
+ * past them, so a follower resumes from a height of a sink if it's behind a cursor.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public interface ResumableBlockSink extends BlockSink {
+
+  /**
+   * Get a height of a block to feed next. A block above it is rejected.
+   *
+   * @return a next height
+   */
+  long getNextHeight();
+
+}
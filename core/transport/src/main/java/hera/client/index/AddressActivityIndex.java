@@ -0,0 +1,505 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.index;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import com.google.common.hash.Hashing;
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.model.AccountAddress;
+import hera.api.model.Block;
+import hera.api.model.BlockHash;
+import hera.api.model.BytesValue;
+import hera.api.model.Transaction;
+import hera.client.follower.ResumableBlockSink;
+import hera.exception.HerajException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.ToString;
+import lombok.Value;
+import org.slf4j.Logger;
+
+/**
+ * An index of transactions by an address of a sender or a recipient, fed by blocks in height
+ * order. It's a {@link ResumableBlockSink}, so that a {@link hera.client.follower.ChainFollower}
+ * can keep it current, including rollbacks.
+ *
+ * <p>
+ * A height range is split into segments of a fixed number of blocks. An address in a segment has a
+ * posting list of a height and an index in a block of each transaction, kept as varints of deltas.
+ * A last segment is kept in memory. Other ones are sealed into files in a directory, each with a
+ * bloom filter of its addresses and a directory of addresses sorted by hash. A query checks a bloom
+ * filter of a sealed segment before reading it, so that a segment without an address costs
+ * nothing but a filter lookup.
+ * </p>
+ *
+ * <p>
+ * A last segment is written on {@link #flush()} and {@link #close()}. A feeder should resume from
+ * {@link #getNextHeight()} after a restart; a block below it is ignored and a block above it is
+ * rejected, so that blocks lost on a crash aren't skipped silently.
+ * </p>
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+@ToString(of = {"directory", "segmentSize", "lastHeight"})
+public class AddressActivityIndex implements ResumableBlockSink, Closeable {
+
+  public static final int DEFAULT_SEGMENT_SIZE = 10000;
+
+  protected static final double BLOOM_FILTER_FPP = 0.01;
+
+  protected static final int VERSION = 1;
+
+  protected static final String SEGMENT_FILE_FORMAT = "segment-%020d.idx";
+
+  protected static final String SEGMENT_FILE_GLOB = "segment-*.idx";
+
+  protected static final String ACTIVE_FILE = "active.idx";
+
+  // an index in a block takes low bits of a posting
+  protected static final int INDEX_BITS = 20;
+
+  protected static final int DIRECTORY_ENTRY = 16;
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  protected final Path directory;
+
+  protected final int segmentSize;
+
+  // in height order
+  protected final List<SealedSegment> sealed = new ArrayList<>();
+
+  protected Map<BytesValue, PostingList> active = new HashMap<>();
+
+  protected long activeFrom = -1L;
+
+  protected long lastHeight = -1L;
+
+  protected boolean closed = false;
+
+  /**
+   * AddressActivityIndex constructor. An index in a directory is opened, or created if not exists.
+   *
+   * @param directory a directory of an index
+   * @param segmentSize a number of blocks in a segment. it must be same for a same directory
+   */
+  public AddressActivityIndex(final Path directory, final int segmentSize) {
+    assertNotNull(directory, "Directory must not null");
+    assertTrue(0 < segmentSize, "Segment size must be positive");
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+    try {
+      Files.createDirectories(directory);
+      final List<Path> paths = new ArrayList<>();
+      try (final DirectoryStream<Path> stream =
+          Files.newDirectoryStream(directory, SEGMENT_FILE_GLOB)) {
+        for (final Path path : stream) {
+          paths.add(path);
+        }
+      }
+      Collections.sort(paths);
+      for (final Path path : paths) {
+        final SealedSegment segment = new SealedSegment(path);
+        sealed.add(segment);
+        lastHeight = Math.max(lastHeight, segment.lastHeight);
+      }
+      final Path activePath = directory.resolve(ACTIVE_FILE);
+      if (Files.exists(activePath)) {
+        final SealedSegment segment = new SealedSegment(activePath);
+        if (segment.fromHeight > lastHeight) {
+          active = segment.readAll();
+          activeFrom = segment.fromHeight;
+          lastHeight = segment.lastHeight;
+        }
+      }
+      logger.info("Address activity index opened at {} up to {}", directory, lastHeight);
+    } catch (IOException e) {
+      throw new HerajException("Opening an address activity index at " + directory + " failed",
+          e);
+    }
+  }
+
+  @Override
+  public synchronized long getNextHeight() {
+    return lastHeight + 1L;
+  }
+
+  @Override
+  public synchronized void onBlock(final Block block) {
+    final long height = block.getBlockNumber();
+    if (closed || height <= lastHeight) {
+      return;
+    }
+    if (-1L != lastHeight && lastHeight + 1L != height) {
+      throw new HerajException("Expected a block at " + (lastHeight + 1L) + " but got " + height);
+    }
+    try {
+      if (-1L == activeFrom || activeFrom + segmentSize <= height) {
+        seal();
+        activeFrom = height - height % segmentSize;
+      }
+      final List<Transaction> transactions = block.getTransactions();
+      for (int index = 0; index < transactions.size(); ++index) {
+        final long posting = (height << INDEX_BITS) | index;
+        final Transaction transaction = transactions.get(index);
+        post(transaction.getSender(), posting);
+        post(transaction.getRecipient(), posting);
+      }
+      lastHeight = height;
+    } catch (IOException e) {
+      throw new HerajException("Indexing a block at " + height + " failed", e);
+    }
+  }
+
+  @Override
+  public synchronized void onRollback(final long height, final BlockHash blockHash) {
+    if (closed || height > lastHeight) {
+      return;
+    }
+    try {
+      // a last segment on a disk is stale until a next flush
+      Files.deleteIfExists(directory.resolve(ACTIVE_FILE));
+      while (-1L != activeFrom && height < activeFrom) {
+        unseal();
+      }
+      final long bound = height << INDEX_BITS;
+      for (final PostingList postingList : active.values()) {
+        postingList.truncate(bound);
+      }
+      lastHeight = height - 1L;
+    } catch (IOException e) {
+      throw new HerajException("Rolling back an index to " + height + " failed", e);
+    }
+  }
+
+  @Override
+  public void onError(final Throwable error) {
+    logger.info("Feeding an address activity index failed: {}", error.toString());
+  }
+
+  /**
+   * Find transactions of an address in a height range.
+   *
+   * @param address an address of a sender or a recipient
+   * @param fromHeight a lowest height (inclusive)
+   * @param toHeight a highest height (inclusive)
+   * @return activities in height and index order
+   */
+  public synchronized List<Activity> find(final AccountAddress address, final long fromHeight,
+      final long toHeight) {
+    assertNotNull(address, "Address must not null");
+    assertTrue(fromHeight <= toHeight, "From height must not be greater than to height");
+    final List<Activity> activities = new ArrayList<>();
+    final byte[] key = address.getBytesValue().getValue();
+    try {
+      for (final SealedSegment segment : sealed) {
+        if (segment.lastHeight < fromHeight || toHeight < segment.fromHeight
+            || !segment.mightContain(key)) {
+          continue;
+        }
+        collect(segment.read(key), fromHeight, toHeight, activities);
+      }
+      if (-1L != activeFrom && activeFrom <= toHeight) {
+        collect(active.get(address.getBytesValue()), fromHeight, toHeight, activities);
+      }
+      return activities;
+    } catch (IOException e) {
+      throw new HerajException("Reading an address activity index failed", e);
+    }
+  }
+
+  /**
+   * Write a last segment to a directory.
+   */
+  public synchronized void flush() {
+    if (closed || -1L == activeFrom) {
+      return;
+    }
+    try {
+      final Path temp = directory.resolve(ACTIVE_FILE + ".tmp");
+      write(temp, active, activeFrom, lastHeight);
+      Files.move(temp, directory.resolve(ACTIVE_FILE), StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      throw new HerajException("Writing an address activity index failed", e);
+    }
+  }
+
+  @Override
+  public synchronized void close() {
+    flush();
+    closed = true;
+  }
+
+  protected void post(final AccountAddress address, final long posting) {
+    if (null == address || address.getBytesValue().isEmpty()) {
+      return;
+    }
+    PostingList postingList = active.get(address.getBytesValue());
+    if (null == postingList) {
+      postingList = new PostingList();
+      active.put(address.getBytesValue(), postingList);
+    }
+    // a sender sending to itself is posted once
+    postingList.add(posting);
+  }
+
+  protected void collect(final PostingList postingList, final long fromHeight,
+      final long toHeight, final List<Activity> activities) {
+    if (null == postingList) {
+      return;
+    }
+    final PostingList.Cursor cursor = postingList.cursor();
+    while (cursor.hasNext()) {
+      final long posting = cursor.next();
+      final long height = posting >>> INDEX_BITS;
+      if (toHeight < height) {
+        break;
+      }
+      if (fromHeight <= height) {
+        activities.add(new Activity(height, (int) (posting & ((1L << INDEX_BITS) - 1))));
+      }
+    }
+  }
+
+  protected void seal() throws IOException {
+    if (-1L == activeFrom) {
+      return;
+    }
+    final Path path = directory.resolve(String.format(SEGMENT_FILE_FORMAT, activeFrom));
+    final Path temp = directory.resolve(path.getFileName() + ".tmp");
+    write(temp, active, activeFrom, lastHeight);
+    Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    Files.deleteIfExists(directory.resolve(ACTIVE_FILE));
+    logger.debug("Segment from {} sealed with {} addresses", activeFrom, active.size());
+    sealed.add(new SealedSegment(path));
+    active = new HashMap<>();
+    activeFrom = -1L;
+  }
+
+  protected void unseal() throws IOException {
+    if (sealed.isEmpty()) {
+      active = new HashMap<>();
+      activeFrom = -1L;
+      return;
+    }
+    final SealedSegment segment = sealed.remove(sealed.size() - 1);
+    logger.debug("Segment from {} unsealed", segment.fromHeight);
+    active = segment.readAll();
+    activeFrom = segment.fromHeight;
+    Files.delete(segment.path);
+  }
+
+  protected static long hash(final byte[] key) {
+    return Hashing.murmur3_128().hashBytes(key).asLong();
+  }
+
+  // [version][from height][last height][bloom filter length][bloom filter][entry count]
+  // [(hash, data offset) sorted by hash]* [(key length, key, posting length, posting)]*
+  protected void write(final Path path, final Map<BytesValue, PostingList> postings,
+      final long fromHeight, final long lastHeight) throws IOException {
+    final List<Map.Entry<BytesValue, PostingList>> entries = new ArrayList<>();
+    for (final Map.Entry<BytesValue, PostingList> entry : postings.entrySet()) {
+      if (!entry.getValue().isEmpty()) {
+        entries.add(entry);
+      }
+    }
+    final long[] hashes = new long[entries.size()];
+    final Integer[] order = new Integer[entries.size()];
+    final BloomFilter<byte[]> bloomFilter = BloomFilter.create(Funnels.byteArrayFunnel(),
+        Math.max(1, entries.size()), BLOOM_FILTER_FPP);
+    for (int i = 0; i < entries.size(); ++i) {
+      final byte[] key = entries.get(i).getKey().getValue();
+      hashes[i] = hash(key);
+      order[i] = i;
+      bloomFilter.put(key);
+    }
+    Arrays.sort(order, new Comparator<Integer>() {
+      @Override
+      public int compare(final Integer left, final Integer right) {
+        return Long.compare(hashes[left], hashes[right]);
+      }
+    });
+
+    final ByteArrayOutputStream bloomBytes = new ByteArrayOutputStream();
+    bloomFilter.writeTo(bloomBytes);
+    final ByteArrayOutputStream data = new ByteArrayOutputStream();
+    final DataOutputStream dataOut = new DataOutputStream(data);
+    final long[] offsets = new long[entries.size()];
+    for (final int i : order) {
+      offsets[i] = data.size();
+      final byte[] key = entries.get(i).getKey().getValue();
+      final byte[] posting = entries.get(i).getValue().toByteArray();
+      dataOut.writeShort(key.length);
+      dataOut.write(key);
+      dataOut.writeInt(posting.length);
+      dataOut.write(posting);
+    }
+    dataOut.flush();
+
+    final int headerSize = 4 + 8 + 8 + 4 + bloomBytes.size() + 4;
+    final long dataStart = headerSize + (long) DIRECTORY_ENTRY * entries.size();
+    final ByteBuffer header = ByteBuffer.allocate(headerSize + DIRECTORY_ENTRY * entries.size());
+    header.putInt(VERSION).putLong(fromHeight).putLong(lastHeight)
+        .putInt(bloomBytes.size()).put(bloomBytes.toByteArray()).putInt(entries.size());
+    for (final int i : order) {
+      header.putLong(hashes[i]).putLong(dataStart + offsets[i]);
+    }
+    header.flip();
+    try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      while (header.hasRemaining()) {
+        channel.write(header);
+      }
+      final ByteBuffer body = ByteBuffer.wrap(data.toByteArray());
+      while (body.hasRemaining()) {
+        channel.write(body);
+      }
+      channel.force(true);
+    }
+  }
+
+  /**
+   * A transaction of an address.
+   */
+  @Value
+  public static class Activity {
+
+    long height;
+
+    int indexInBlock;
+  }
+
+  // only a header and a bloom filter are kept in memory
+  @ToString(of = {"path", "fromHeight", "lastHeight", "entryCount"})
+  protected static class SealedSegment {
+
+    protected final Path path;
+
+    protected final long fromHeight;
+
+    protected final long lastHeight;
+
+    protected final BloomFilter<byte[]> bloomFilter;
+
+    protected final int entryCount;
+
+    protected final long directoryStart;
+
+    protected SealedSegment(final Path path) throws IOException {
+      this.path = path;
+      try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+        final ByteBuffer head = readAt(channel, 0L, 24);
+        final int version = head.getInt();
+        if (VERSION != version) {
+          throw new IOException("Unknown version " + version + " of " + path);
+        }
+        this.fromHeight = head.getLong();
+        this.lastHeight = head.getLong();
+        final int bloomLength = head.getInt();
+        final ByteBuffer bloomBytes = readAt(channel, 24L, bloomLength + 4);
+        final byte[] bloom = new byte[bloomLength];
+        bloomBytes.get(bloom);
+        this.bloomFilter = BloomFilter.readFrom(new ByteArrayInputStream(bloom),
+            Funnels.byteArrayFunnel());
+        this.entryCount = bloomBytes.getInt();
+        this.directoryStart = 24L + bloomLength + 4L;
+      }
+    }
+
+    protected boolean mightContain(final byte[] key) {
+      return bloomFilter.mightContain(key);
+    }
+
+    protected PostingList read(final byte[] key) throws IOException {
+      final long target = hash(key);
+      try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+        // a first entry whose hash is not less than a target
+        int low = 0;
+        int high = entryCount;
+        while (low < high) {
+          final int middle = (low + high) >>> 1;
+          if (hashAt(channel, middle) < target) {
+            low = middle + 1;
+          } else {
+            high = middle;
+          }
+        }
+        for (int i = low; i < entryCount && hashAt(channel, i) == target; ++i) {
+          final long offset = readAt(channel, directoryStart + (long) DIRECTORY_ENTRY * i + 8L, 8)
+              .getLong();
+          final ByteBuffer keyLength = readAt(channel, offset, 2);
+          final byte[] stored = new byte[keyLength.getShort()];
+          readAt(channel, offset + 2L, stored.length).get(stored);
+          if (Arrays.equals(key, stored)) {
+            final long postingOffset = offset + 2L + stored.length;
+            final int postingLength = readAt(channel, postingOffset, 4).getInt();
+            final byte[] posting = new byte[postingLength];
+            readAt(channel, postingOffset + 4L, postingLength).get(posting);
+            return PostingList.of(posting);
+          }
+        }
+        return null;
+      }
+    }
+
+    protected Map<BytesValue, PostingList> readAll() throws IOException {
+      final Map<BytesValue, PostingList> postings = new HashMap<>();
+      try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+        long offset = directoryStart + (long) DIRECTORY_ENTRY * entryCount;
+        for (int i = 0; i < entryCount; ++i) {
+          final byte[] key = new byte[readAt(channel, offset, 2).getShort()];
+          readAt(channel, offset + 2L, key.length).get(key);
+          final int postingLength = readAt(channel, offset + 2L + key.length, 4).getInt();
+          final byte[] posting = new byte[postingLength];
+          readAt(channel, offset + 6L + key.length, postingLength).get(posting);
+          postings.put(BytesValue.of(key), PostingList.of(posting));
+          offset += 6L + key.length + postingLength;
+        }
+      }
+      return postings;
+    }
+
+    protected long hashAt(final FileChannel channel, final int index) throws IOException {
+      return readAt(channel, directoryStart + (long) DIRECTORY_ENTRY * index, 8).getLong();
+    }
+
+    protected static ByteBuffer readAt(final FileChannel channel, final long position,
+        final int length) throws IOException {
+      final ByteBuffer buffer = ByteBuffer.allocate(length);
+      while (buffer.hasRemaining()) {
+        if (channel.read(buffer, position + buffer.position()) < 0) {
+          throw new IOException("Unexpected end of an index file");
+        }
+      }
+      buffer.flip();
+      return buffer;
+    }
+  }
+
+}
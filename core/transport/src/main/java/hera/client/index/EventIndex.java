@@ -0,0 +1,910 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.index;
+
+import static hera.client.internal.ReceiptWaiter.isContractTransaction;
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+import static java.util.Collections.emptyIterator;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import com.google.common.util.concurrent.ListenableFuture;
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.AsyncContractOperation;
+import hera.api.model.BigNumber;
+import hera.api.model.Block;
+import hera.api.model.BlockHash;
+import hera.api.model.BytesValue;
+import hera.api.model.ContractTxHash;
+import hera.api.model.ContractTxReceipt;
+import hera.api.model.Event;
+import hera.api.model.EventFilter;
+import hera.api.model.Transaction;
+import hera.client.follower.ResumableBlockSink;
+import hera.exception.HerajException;
+import hera.exception.RpcException;
+import hera.transport.EventConverterFactory;
+import hera.transport.ModelConverter;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import lombok.ToString;
+import org.slf4j.Logger;
+import types.Blockchain;
+
+/**
+ * An index of contract events, fed by blocks in height order. It's a {@link ResumableBlockSink},
+ * so that a {@link hera.client.follower.ChainFollower} can keep it current, including rollbacks.
+ * Events of a block are taken from receipts of its contract transactions, which are requested
+ * concurrently. A failed request is retried a few times before a block fails.
+ *
+ * <p>
+ * An event is keyed by a contract address and an event name, and also by a value of each arg at
+ * selected positions. A query of an {@link EventFilter} looks up an arg key if a filter has an arg
+ * at a selected position, or a name key otherwise, and checks other args on read.
+ * </p>
+ *
+ * <p>
+ * New events are kept in memory up to a run size. They are written to a file as a run sorted by a
+ * key and a block order, with a bloom filter of keys and a sparse index of every
+ * {@link #SPARSE_INTERVAL}th record. Only bloom filters and sparse indices of runs stay in memory.
+ * Runs are in height order and a query reads them one by one, skipping a run out of a range or
+ * without a key. Events of a query are streamed in a block order. Records of a key in a run are
+ * read at once, so that at most one run of a key is held and an iterator left open holds no file.
+ * </p>
+ *
+ * <p>
+ * Events in memory are written on {@link #flush()} and {@link #close()}. A feeder should resume
+ * from {@link #getNextHeight()} after a restart; a block below it is ignored and a block above it
+ * is rejected, so that blocks lost on a crash aren't skipped silently.
+ * </p>
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+@ToString(of = {"directory", "runSize", "argPositions", "lastHeight"})
+public class EventIndex implements ResumableBlockSink, Closeable {
+
+  public static final int DEFAULT_RUN_SIZE = 10000;
+
+  protected static final int SPARSE_INTERVAL = 64;
+
+  protected static final int RECEIPT_RETRY_COUNT = 4;
+
+  protected static final long RECEIPT_RETRY_DELAY = 500L; // milliseconds
+
+  protected static final double BLOOM_FILTER_FPP = 0.01;
+
+  protected static final int VERSION = 1;
+
+  protected static final String RUN_FILE_FORMAT = "run-%020d.dat";
+
+  protected static final String RUN_FILE_GLOB = "run-*.dat";
+
+  protected static final byte NAME_KEY = 0;
+
+  protected static final byte ARG_KEY = 1;
+
+  protected static final Comparator<BytesValue> KEY_ORDER = new Comparator<BytesValue>() {
+    @Override
+    public int compare(final BytesValue left, final BytesValue right) {
+      return compareKey(left.getValue(), right.getValue());
+    }
+  };
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  protected final ModelConverter<Event, Blockchain.Event> eventConverter =
+      new EventConverterFactory().create();
+
+  protected final ObjectMapper mapper = getObjectMapper();
+
+  protected final Path directory;
+
+  protected final AsyncContractOperation contractOperation;
+
+  protected final int runSize;
+
+  protected final Set<Integer> argPositions;
+
+  // in height order
+  protected final List<Run> runs = new ArrayList<>();
+
+  // records of a key in a block order
+  protected Map<BytesValue, List<Record>> buffer = new HashMap<>();
+
+  protected int bufferCount = 0;
+
+  protected long bufferFrom;
+
+  protected long lastHeight = -1L;
+
+  protected boolean closed = false;
+
+  /**
+   * EventIndex constructor with a default run size and no arg key.
+   *
+   * @param directory a directory of an index
+   * @param contractOperation an async contract operation to get receipts
+   */
+  public EventIndex(final Path directory, final AsyncContractOperation contractOperation) {
+    this(directory, contractOperation, DEFAULT_RUN_SIZE);
+  }
+
+  /**
+   * EventIndex constructor. An index in a directory is opened, or created if not exists.
+   *
+   * @param directory a directory of an index
+   * @param contractOperation an async contract operation to get receipts
+   * @param runSize a max number of records kept in memory before written to a run
+   * @param argPositions positions of args to key events by. they must be same for a same
+   *        directory
+   */
+  public EventIndex(final Path directory, final AsyncContractOperation contractOperation,
+      final int runSize, final int... argPositions) {
+    assertNotNull(directory, "Directory must not null");
+    assertNotNull(contractOperation, "Contract operation must not null");
+    assertTrue(0 < runSize, "Run size must be positive");
+    this.directory = directory;
+    this.contractOperation = contractOperation;
+    this.runSize = runSize;
+    final Set<Integer> positions = new TreeSet<>();
+    for (final int argPosition : argPositions) {
+      assertTrue(0 <= argPosition && argPosition < 128, "Arg position must be in [0, 128)");
+      positions.add(argPosition);
+    }
+    this.argPositions = Collections.unmodifiableSet(positions);
+    try {
+      Files.createDirectories(directory);
+      final List<Path> paths = new ArrayList<>();
+      try (final DirectoryStream<Path> stream =
+          Files.newDirectoryStream(directory, RUN_FILE_GLOB)) {
+        for (final Path path : stream) {
+          paths.add(path);
+        }
+      }
+      Collections.sort(paths);
+      for (final Path path : paths) {
+        final Run run = new Run(path);
+        runs.add(run);
+        lastHeight = Math.max(lastHeight, run.toHeight);
+      }
+      bufferFrom = lastHeight + 1L;
+      logger.info("Event index opened at {} up to {}", directory, lastHeight);
+    } catch (IOException e) {
+      throw new HerajException("Opening an event index at " + directory + " failed", e);
+    }
+  }
+
+  @Override
+  public synchronized long getNextHeight() {
+    return lastHeight + 1L;
+  }
+
+  @Override
+  public void onBlock(final Block block) {
+    final long height = block.getBlockNumber();
+    synchronized (this) {
+      if (closed || height <= lastHeight) {
+        return;
+      }
+    }
+    // receipts are requested at once and out of a lock
+    final List<Transaction> transactions = block.getTransactions();
+    final List<ListenableFuture<ContractTxReceipt>> receipts = new ArrayList<>();
+    for (final Transaction transaction : transactions) {
+      receipts.add(isContractTransaction(transaction) ? requestReceipt(transaction) : null);
+    }
+    final List<Event> events = new ArrayList<>();
+    for (int i = 0; i < transactions.size(); ++i) {
+      if (null == receipts.get(i)) {
+        continue;
+      }
+      final Transaction transaction = transactions.get(i);
+      final ContractTxReceipt receipt = awaitReceipt(transaction, receipts.get(i));
+      for (final Event event : receipt.getEvents()) {
+        events.add(Event.newBuilder()
+            .from(event.getFrom())
+            .name(event.getName())
+            .args(event.getArgs())
+            .index(event.getIndex())
+            .txHash(transaction.getHash())
+            .indexInBlock(i)
+            .blockHash(block.getHash())
+            .blockNumber(height)
+            .build());
+      }
+    }
+    put(height, events);
+  }
+
+  protected ListenableFuture<ContractTxReceipt> requestReceipt(final Transaction transaction) {
+    return contractOperation.getReceipt(ContractTxHash.of(transaction.getHash().getBytesValue()));
+  }
+
+  // a transient failure is retried, so that it doesn't stop a follower
+  protected ContractTxReceipt awaitReceipt(final Transaction transaction,
+      final ListenableFuture<ContractTxReceipt> requested) {
+    ListenableFuture<ContractTxReceipt> future = requested;
+    long delay = RECEIPT_RETRY_DELAY;
+    for (int retry = 0; ; ++retry) {
+      try {
+        return future.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new HerajException("Interrupted while getting a receipt", e);
+      } catch (ExecutionException e) {
+        if (RECEIPT_RETRY_COUNT <= retry) {
+          throw new RpcException("Getting a receipt of " + transaction.getHash() + " failed",
+              e.getCause());
+        }
+        logger.info("Getting a receipt of {} failed: {}; retry in {}ms", transaction.getHash(),
+            e.getCause().toString(), delay);
+      }
+      try {
+        Thread.sleep(delay);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new HerajException("Interrupted while getting a receipt", e);
+      }
+      delay *= 2L;
+      future = requestReceipt(transaction);
+    }
+  }
+
+  /**
+   * Index events of a block. Events must be of a same block in an index order. A block must
+   * follow a last one.
+   *
+   * @param height a height of a block
+   * @param events events of a block
+   */
+  public synchronized void put(final long height, final List<Event> events) {
+    if (closed || height <= lastHeight) {
+      return;
+    }
+    if (-1L != lastHeight && lastHeight + 1L != height) {
+      throw new HerajException("Expected a block at " + (lastHeight + 1L) + " but got " + height);
+    }
+    try {
+      for (final Event event : events) {
+        final byte[] payload = eventConverter.convertToRpcModel(event).toByteArray();
+        final Record record =
+            new Record(height, event.getIndexInBlock(), event.getIndex(), payload);
+        append(nameKey(event.getFrom().getBytesValue(), event.getName()), record);
+        for (final int position : argPositions) {
+          if (position < event.getArgs().size()) {
+            append(argKey(event.getFrom().getBytesValue(), event.getName(), position,
+                event.getArgs().get(position)), record);
+          }
+        }
+      }
+      lastHeight = height;
+      if (runSize <= bufferCount) {
+        writeBuffer();
+      }
+    } catch (IOException e) {
+      throw new HerajException("Indexing events at " + height + " failed", e);
+    }
+  }
+
+  @Override
+  public synchronized void onRollback(final long height, final BlockHash blockHash) {
+    if (closed || height > lastHeight) {
+      return;
+    }
+    try {
+      if (height < bufferFrom) {
+        buffer = new HashMap<>();
+        bufferCount = 0;
+        while (!runs.isEmpty() && height <= runs.get(runs.size() - 1).toHeight) {
+          final Run run = runs.remove(runs.size() - 1);
+          if (run.fromHeight < height) {
+            // a run is rewritten with records below a height
+            for (final Map.Entry<BytesValue, List<Record>> entry : run.readAll().entrySet()) {
+              for (final Record record : entry.getValue()) {
+                if (record.height < height) {
+                  append(entry.getKey(), record);
+                }
+              }
+            }
+            Files.delete(run.path);
+            bufferFrom = run.fromHeight;
+            break;
+          }
+          Files.delete(run.path);
+          bufferFrom = run.fromHeight;
+        }
+      } else {
+        for (final List<Record> records : buffer.values()) {
+          while (!records.isEmpty() && height <= records.get(records.size() - 1).height) {
+            records.remove(records.size() - 1);
+            --bufferCount;
+          }
+        }
+      }
+      lastHeight = height - 1L;
+    } catch (IOException e) {
+      throw new HerajException("Rolling back an event index to " + height + " failed", e);
+    }
+  }
+
+  @Override
+  public void onError(final Throwable error) {
+    logger.info("Feeding an event index failed: {}", error.toString());
+  }
+
+  /**
+   * Find events matching a filter. A filter must have an event name and a block range, not a
+   * recent block count. An iterator reads runs as of when it's made; runs rolled back after that
+   * may fail it.
+   *
+   * @param filter an event filter
+   * @return an iterator of events in a block order, descending if a filter says so
+   */
+  public synchronized Iterator<Event> find(final EventFilter filter) {
+    assertNotNull(filter, "Event filter must not null");
+    assertTrue(!filter.getEventName().isEmpty(), "Local event query needs an event name");
+    assertTrue(0 == filter.getRecentBlockCount(), "Local event query needs a block range");
+    assertTrue(filter.getFromBlockNumber() <= filter.getToBlockNumber(),
+        "From block number must not be greater than to block number");
+    if (closed) {
+      return emptyIterator();
+    }
+
+    final BytesValue contract = filter.getContractAddress().getBytesValue();
+    final List<Object> args = filter.getArgs();
+    BytesValue key = nameKey(contract, filter.getEventName());
+    for (final int position : argPositions) {
+      if (position < args.size()) {
+        key = argKey(contract, filter.getEventName(), position, args.get(position));
+        break;
+      }
+    }
+    final List<String> expected = new ArrayList<>(args.size());
+    for (final Object arg : args) {
+      expected.add(toJson(arg));
+    }
+
+    final List<Run> candidates = new ArrayList<>();
+    for (final Run run : runs) {
+      if (run.fromHeight <= filter.getToBlockNumber()
+          && filter.getFromBlockNumber() <= run.toHeight && run.mightContain(key)) {
+        candidates.add(run);
+      }
+    }
+    final List<Record> buffered = null == buffer.get(key) ? Collections.<Record>emptyList()
+        : new ArrayList<>(buffer.get(key));
+    return new EventIterator(filter, expected, key, candidates, buffered);
+  }
+
+  /**
+   * Write events in memory to a run.
+   */
+  public synchronized void flush() {
+    if (closed) {
+      return;
+    }
+    try {
+      writeBuffer();
+    } catch (IOException e) {
+      throw new HerajException("Writing an event index failed", e);
+    }
+  }
+
+  @Override
+  public synchronized void close() {
+    flush();
+    closed = true;
+  }
+
+  protected void append(final BytesValue key, final Record record) {
+    List<Record> records = buffer.get(key);
+    if (null == records) {
+      records = new ArrayList<>();
+      buffer.put(key, records);
+    }
+    records.add(record);
+    ++bufferCount;
+  }
+
+  protected BytesValue nameKey(final BytesValue contract, final String name) {
+    try {
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      final DataOutputStream out = new DataOutputStream(bytes);
+      out.writeByte(NAME_KEY);
+      out.writeShort(contract.length());
+      out.write(contract.getValue());
+      out.write(name.getBytes(StandardCharsets.UTF_8));
+      return BytesValue.of(bytes.toByteArray());
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  protected BytesValue argKey(final BytesValue contract, final String name, final int position,
+      final Object arg) {
+    try {
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      final DataOutputStream out = new DataOutputStream(bytes);
+      out.writeByte(ARG_KEY);
+      out.writeShort(contract.length());
+      out.write(contract.getValue());
+      final byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+      out.writeShort(nameBytes.length);
+      out.write(nameBytes);
+      out.writeByte(position);
+      out.write(toJson(arg).getBytes(StandardCharsets.UTF_8));
+      return BytesValue.of(bytes.toByteArray());
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  protected String toJson(final Object arg) {
+    try {
+      return mapper.writeValueAsString(arg);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException(e);
+    }
+  }
+
+  protected ObjectMapper getObjectMapper() {
+    final ObjectMapper objectMapper = new ObjectMapper();
+    final SimpleModule simpleModule = new SimpleModule();
+    simpleModule.addSerializer(BigNumber.class, new EventConverterFactory.BigNumberSerializer());
+    objectMapper.registerModule(simpleModule);
+    return objectMapper;
+  }
+
+  protected void writeBuffer() throws IOException {
+    if (lastHeight < bufferFrom) {
+      return;
+    }
+    final Path path = directory.resolve(String.format(RUN_FILE_FORMAT, bufferFrom));
+    final Path temp = directory.resolve(path.getFileName() + ".tmp");
+    final List<BytesValue> keys = new ArrayList<>(buffer.keySet());
+    Collections.sort(keys, KEY_ORDER);
+    final BloomFilter<byte[]> bloomFilter = BloomFilter.create(Funnels.byteArrayFunnel(),
+        Math.max(1, keys.size()), BLOOM_FILTER_FPP);
+
+    // [record]* [from height][to height][record count][bloom filter length][bloom filter]
+    // [sparse entry count][(key length, key, offset)]* [footer offset][version]
+    try (final CountingOutputStream counting = new CountingOutputStream(
+        Files.newOutputStream(temp, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))) {
+      final DataOutputStream out = new DataOutputStream(counting);
+      final List<BytesValue> sparseKeys = new ArrayList<>();
+      final List<Long> sparseOffsets = new ArrayList<>();
+      int count = 0;
+      for (final BytesValue key : keys) {
+        final List<Record> records = buffer.get(key);
+        if (records.isEmpty()) {
+          continue;
+        }
+        bloomFilter.put(key.getValue());
+        for (final Record record : records) {
+          if (0 == count % SPARSE_INTERVAL) {
+            out.flush();
+            sparseKeys.add(key);
+            sparseOffsets.add(counting.count);
+          }
+          writeRecord(out, key.getValue(), record);
+          ++count;
+        }
+      }
+      out.flush();
+      final long footerOffset = counting.count;
+      out.writeLong(bufferFrom);
+      out.writeLong(lastHeight);
+      out.writeInt(count);
+      final ByteArrayOutputStream bloomBytes = new ByteArrayOutputStream();
+      bloomFilter.writeTo(bloomBytes);
+      out.writeInt(bloomBytes.size());
+      bloomBytes.writeTo(out);
+      out.writeInt(sparseKeys.size());
+      for (int i = 0; i < sparseKeys.size(); ++i) {
+        out.writeInt(sparseKeys.get(i).length());
+        out.write(sparseKeys.get(i).getValue());
+        out.writeLong(sparseOffsets.get(i));
+      }
+      out.writeLong(footerOffset);
+      out.writeInt(VERSION);
+      out.flush();
+    }
+    try (final FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+      channel.force(true);
+    }
+    Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    logger.debug("Run from {} to {} written with {} records", bufferFrom, lastHeight,
+        bufferCount);
+    runs.add(new Run(path));
+    buffer = new HashMap<>();
+    bufferCount = 0;
+    bufferFrom = lastHeight + 1L;
+  }
+
+  protected static void writeRecord(final DataOutputStream out, final byte[] key,
+      final Record record) throws IOException {
+    out.writeInt(key.length);
+    out.write(key);
+    out.writeLong(record.height);
+    out.writeInt(record.indexInBlock);
+    out.writeInt(record.index);
+    out.writeInt(record.payload.length);
+    out.write(record.payload);
+  }
+
+  protected static int compareKey(final byte[] left, final byte[] right) {
+    final int length = Math.min(left.length, right.length);
+    for (int i = 0; i < length; ++i) {
+      final int diff = (left[i] & 0xFF) - (right[i] & 0xFF);
+      if (0 != diff) {
+        return diff;
+      }
+    }
+    return left.length - right.length;
+  }
+
+  @ToString(of = {"height", "indexInBlock", "index"})
+  protected static class Record {
+
+    protected final long height;
+
+    protected final int indexInBlock;
+
+    protected final int index;
+
+    protected final byte[] payload;
+
+    protected Record(final long height, final int indexInBlock, final int index,
+        final byte[] payload) {
+      this.height = height;
+      this.indexInBlock = indexInBlock;
+      this.index = index;
+      this.payload = payload;
+    }
+  }
+
+  protected static class CountingOutputStream extends BufferedOutputStream {
+
+    protected long count = 0L;
+
+    protected CountingOutputStream(final OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public synchronized void write(final int b) throws IOException {
+      super.write(b);
+      ++count;
+    }
+
+    @Override
+    public synchronized void write(final byte[] b, final int off, final int len)
+        throws IOException {
+      super.write(b, off, len);
+      count += len;
+    }
+  }
+
+  // only a footer is kept in memory
+  @ToString(of = {"path", "fromHeight", "toHeight", "recordCount"})
+  protected static class Run {
+
+    protected final Path path;
+
+    protected final long fromHeight;
+
+    protected final long toHeight;
+
+    protected final int recordCount;
+
+    protected final BloomFilter<byte[]> bloomFilter;
+
+    protected final byte[][] sparseKeys;
+
+    protected final long[] sparseOffsets;
+
+    protected final long dataEnd;
+
+    protected Run(final Path path) throws IOException {
+      this.path = path;
+      try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+        final DataInputStream trailer = open(channel, channel.size() - 12L);
+        this.dataEnd = trailer.readLong();
+        final int version = trailer.readInt();
+        if (VERSION != version) {
+          throw new IOException("Unknown version " + version + " of " + path);
+        }
+        final DataInputStream in = open(channel, dataEnd);
+        this.fromHeight = in.readLong();
+        this.toHeight = in.readLong();
+        this.recordCount = in.readInt();
+        final byte[] bloom = new byte[in.readInt()];
+        in.readFully(bloom);
+        this.bloomFilter =
+            BloomFilter.readFrom(new ByteArrayInputStream(bloom), Funnels.byteArrayFunnel());
+        final int sparseCount = in.readInt();
+        this.sparseKeys = new byte[sparseCount][];
+        this.sparseOffsets = new long[sparseCount];
+        for (int i = 0; i < sparseCount; ++i) {
+          sparseKeys[i] = new byte[in.readInt()];
+          in.readFully(sparseKeys[i]);
+          sparseOffsets[i] = in.readLong();
+        }
+      }
+    }
+
+    protected boolean mightContain(final BytesValue key) {
+      return bloomFilter.mightContain(key.getValue());
+    }
+
+    // an offset of a last sparse entry before a key, where a scan of a key starts
+    protected long seek(final byte[] key) {
+      int low = 0;
+      int high = sparseKeys.length;
+      while (low < high) {
+        final int middle = (low + high) >>> 1;
+        if (compareKey(sparseKeys[middle], key) < 0) {
+          low = middle + 1;
+        } else {
+          high = middle;
+        }
+      }
+      return 0 == low ? 0L : sparseOffsets[low - 1];
+    }
+
+    protected Map<BytesValue, List<Record>> readAll() throws IOException {
+      final Map<BytesValue, List<Record>> records = new HashMap<>();
+      try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+        final DataInputStream in = open(channel, 0L);
+        for (int i = 0; i < recordCount; ++i) {
+          final byte[] key = new byte[in.readInt()];
+          in.readFully(key);
+          final BytesValue wrapped = BytesValue.of(key);
+          List<Record> list = records.get(wrapped);
+          if (null == list) {
+            list = new ArrayList<>();
+            records.put(wrapped, list);
+          }
+          list.add(readRecord(in));
+        }
+      }
+      return records;
+    }
+
+    protected static DataInputStream open(final FileChannel channel, final long position)
+        throws IOException {
+      channel.position(position);
+      return new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+    }
+
+    protected static Record readRecord(final DataInputStream in) throws IOException {
+      final long height = in.readLong();
+      final int indexInBlock = in.readInt();
+      final int index = in.readInt();
+      final byte[] payload = new byte[in.readInt()];
+      in.readFully(payload);
+      return new Record(height, indexInBlock, index, payload);
+    }
+  }
+
+  // reads runs one by one and buffered records last, or in reverse
+  protected class EventIterator implements Iterator<Event> {
+
+    protected final EventFilter filter;
+
+    protected final List<String> expected;
+
+    protected final byte[] key;
+
+    // runs and buffered records in a delivery order
+    protected final List<Object> sources = new ArrayList<>();
+
+    protected Iterator<Record> current = emptyIterator();
+
+    protected Event next;
+
+    protected EventIterator(final EventFilter filter, final List<String> expected,
+        final BytesValue key, final List<Run> candidates, final List<Record> buffered) {
+      this.filter = filter;
+      this.expected = expected;
+      this.key = key.getValue();
+      this.sources.addAll(candidates);
+      this.sources.add(buffered);
+      if (filter.isDecending()) {
+        Collections.reverse(sources);
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (null == next) {
+        if (current.hasNext()) {
+          final Record record = current.next();
+          if (record.height < filter.getFromBlockNumber()
+              || filter.getToBlockNumber() < record.height) {
+            continue;
+          }
+          final Event event = toEvent(record);
+          if (matches(event)) {
+            next = event;
+          }
+        } else if (sources.isEmpty()) {
+          return false;
+        } else {
+          current = open(sources.remove(0));
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public Event next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      final Event ret = next;
+      next = null;
+      return ret;
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException();
+    }
+
+    @SuppressWarnings("unchecked")
+    protected Iterator<Record> open(final Object source) {
+      if (source instanceof Run) {
+        try {
+          return read((Run) source);
+        } catch (IOException e) {
+          throw new HerajException("Reading an event index failed", e);
+        }
+      }
+      final List<Record> records = new ArrayList<>((List<Record>) source);
+      if (filter.isDecending()) {
+        Collections.reverse(records);
+      }
+      return records.iterator();
+    }
+
+    // records of a key in a run are read at once, so that an iterator left open holds no file
+    protected Iterator<Record> read(final Run run) throws IOException {
+      final List<Record> records = new ArrayList<>();
+      try (final RunScan scan = new RunScan(run)) {
+        while (scan.hasNext()) {
+          records.add(scan.next());
+        }
+      }
+      if (filter.isDecending()) {
+        Collections.reverse(records);
+      }
+      return records.iterator();
+    }
+
+    protected Event toEvent(final Record record) {
+      try {
+        return eventConverter.convertToDomainModel(Blockchain.Event.parseFrom(record.payload));
+      } catch (IOException e) {
+        throw new HerajException("Reading an event index failed", e);
+      }
+    }
+
+    protected boolean matches(final Event event) {
+      if (event.getArgs().size() < expected.size()) {
+        return false;
+      }
+      for (int i = 0; i < expected.size(); ++i) {
+        if (!expected.get(i).equals(toJson(event.getArgs().get(i)))) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    // records of a key in a run, read sequentially from a sparse index entry
+    protected class RunScan implements Iterator<Record>, Closeable {
+
+      protected final FileChannel channel;
+
+      protected final DataInputStream in;
+
+      protected long position;
+
+      protected final long end;
+
+      protected Record pending;
+
+      protected boolean done = false;
+
+      protected RunScan(final Run run) throws IOException {
+        this.channel = FileChannel.open(run.path, StandardOpenOption.READ);
+        this.position = run.seek(key);
+        this.end = run.dataEnd;
+        this.in = Run.open(channel, position);
+      }
+
+      @Override
+      public boolean hasNext() {
+        try {
+          while (null == pending && !done) {
+            if (end <= position) {
+              close();
+              break;
+            }
+            final byte[] recordKey = new byte[in.readInt()];
+            in.readFully(recordKey);
+            final Record record = Run.readRecord(in);
+            position += 4L + recordKey.length + 24L + record.payload.length;
+            final int compared = compareKey(recordKey, key);
+            if (0 == compared) {
+              pending = record;
+            } else if (0 < compared) {
+              close();
+            }
+          }
+          return null != pending;
+        } catch (IOException e) {
+          throw new HerajException("Reading an event index failed", e);
+        }
+      }
+
+      @Override
+      public Record next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        final Record ret = pending;
+        pending = null;
+        return ret;
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public void close() throws IOException {
+        done = true;
+        channel.close();
+      }
+    }
+  }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.index;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import java.util.Arrays;
+import lombok.ToString;
+
+/**
+ * A growable list of ascending longs kept as varints of deltas in a byte array. A list of n
+ * nearby values takes a few bytes for each, with no boxing.
+ */
+@ApiAudience.Private
+@ApiStability.Unstable
+@ToString(of = {"count", "length"})
+public class PostingList {
+
+  protected byte[] bytes;
+
+  protected int length = 0;
+
+  protected int count = 0;
+
+  protected long last = 0L;
+
+  public PostingList() {
+    this.bytes = new byte[8];
+  }
+
+  /**
+   * Create a posting list from encoded bytes.
+   *
+   * @param encoded bytes of a posting list, taken as they are
+   * @return a posting list
+   */
+  public static PostingList of(final byte[] encoded) {
+    final PostingList postingList = new PostingList();
+    postingList.bytes = encoded;
+    postingList.length = encoded.length;
+    final Cursor cursor = postingList.cursor();
+    while (cursor.hasNext()) {
+      postingList.last = cursor.next();
+      ++postingList.count;
+    }
+    return postingList;
+  }
+
+  /**
+   * Append a value. A value not greater than a last one is ignored.
+   *
+   * @param value a value to append. must not negative
+   * @return true if appended
+   */
+  public boolean add(final long value) {
+    if (0 < count && value <= last) {
+      return false;
+    }
+    long delta = value - last;
+    if (bytes.length < length + 10) {
+      bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + 10));
+    }
+    while (0L != (delta & ~0x7FL)) {
+      bytes[length++] = (byte) ((delta & 0x7FL) | 0x80L);
+      delta >>>= 7;
+    }
+    bytes[length++] = (byte) delta;
+    last = value;
+    ++count;
+    return true;
+  }
+
+  /**
+   * Remove values not less than a value.
+   *
+   * @param value a lower bound of values to remove
+   */
+  public void truncate(final long value) {
+    final Cursor cursor = cursor();
+    int position = 0;
+    long kept = 0L;
+    int keptCount = 0;
+    while (cursor.hasNext()) {
+      final long next = cursor.next();
+      if (next >= value) {
+        break;
+      }
+      position = cursor.position;
+      kept = next;
+      ++keptCount;
+    }
+    length = position;
+    last = kept;
+    count = keptCount;
+  }
+
+  public int size() {
+    return count;
+  }
+
+  public boolean isEmpty() {
+    return 0 == count;
+  }
+
+  /**
+   * Get encoded bytes of this list.
+   *
+   * @return a copy of encoded bytes
+   */
+  public byte[] toByteArray() {
+    return Arrays.copyOf(bytes, length);
+  }
+
+  public Cursor cursor() {
+    return new Cursor();
+  }
+
+  /**
+   * A cursor decoding values in order. A list must not be changed while a cursor is used.
+   */
+  public class Cursor {
+
+    protected int position = 0;
+
+    protected long value = 0L;
+
+    public boolean hasNext() {
+      return position < length;
+    }
+
+    /**
+     * Decode a next value.
+     *
+     * @return a next value
+     */
+    public long next() {
+      long delta = 0L;
+      int shift = 0;
+      byte b;
+      do {
+        b = bytes[position++];
+        delta |= (long) (b & 0x7F) << shift;
+        shift += 7;
+      } while (0 != (b & 0x80));
+      value += delta;
+      return value;
+    }
+  }
+
+}
@@ -0,0 +1,509 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.internal;
+
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.function.Function1;
+import hera.api.model.AccountAddress;
+import hera.api.model.AccountState;
+import hera.api.model.Block;
+import hera.api.model.StreamObserver;
+import hera.api.model.Subscription;
+import hera.api.model.Transaction;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.ToString;
+import org.slf4j.Logger;
+
+/**
+ * A cache of account states driven by a new block stream. Senders and recipients of transactions
+ * in each new block (and its coinbase account) are considered to be touched. A touched account is
+ * invalidated from a cache and refreshed if it's watched, so a cost per block is proportional to a
+ * number of touched accounts, not to a number of cached or watched ones.
+ *
+ * <p>
+ * A balance changed by a contract (eg. by contract.send) is not visible from transactions in a
+ * block. An account state changed that way is not invalidated until its account is touched by a
+ * transaction.
+ * </p>
+ *
+ * <p>
+ * A state fetched concurrently with a block is cached only if its account isn't touched since a
+ * fetch started. Touches are remembered for a bounded number of accounts and a state fetched before
+ * a forgotten touch isn't cached.
+ * </p>
+ *
+ * <p>
+ * If a block stream fails, every cached state is dropped and a block stream is subscribed again
+ * after a while as long as any watch remains. Every watched account is refreshed once subscribed
+ * since blocks in between are missed.
+ * </p>
+ */
+@ApiAudience.Private
+@ApiStability.Unstable
+@ToString(of = {"maxEntries"})
+public class AccountStateCache {
+
+  protected static final long RESUBSCRIBE_DELAY = 500L; // milliseconds
+
+  protected static final int MAX_TOUCHES = 10000;
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  protected final Function1<AccountAddress, Future<AccountState>> stateFunction;
+
+  protected final Function1<StreamObserver<Block>,
+      Future<Subscription<Block>>> subscribeBlockFunction;
+
+  protected final int maxEntries;
+
+  protected final Map<AccountAddress, AccountState> states;
+
+  protected final List<Watch> watches = new CopyOnWriteArrayList<>();
+
+  // increased on each refresh to order refreshes of an account completed out of order
+  protected final AtomicLong refreshSequence = new AtomicLong(0L);
+
+  // increased on each invalidation not to cache a state fetched before it
+  protected final AtomicLong generation = new AtomicLong(0L);
+
+  // generations which accounts are touched last at, in an order of touches
+  protected final Map<AccountAddress, Long> touches = new LinkedHashMap<>();
+
+  // a state fetched before it isn't cached since touches before it are forgotten
+  protected long forgottenUntil = 0L;
+
+  protected Subscription<Block> blockSubscription;
+
+  protected StreamObserver<Block> blockObserver;
+
+  protected boolean resubscribing = false;
+
+  protected boolean streamFailed = false;
+
+  /**
+   * AccountStateCache constructor.
+   *
+   * @param stateFunction a function to get an account state without blocking
+   * @param subscribeBlockFunction a function to subscribe new blocks
+   * @param maxEntries a maximum number of cached states. 0 means caching nothing but watching
+   */
+  public AccountStateCache(final Function1<AccountAddress, Future<AccountState>> stateFunction,
+      final Function1<StreamObserver<Block>, Future<Subscription<Block>>> subscribeBlockFunction,
+      final int maxEntries) {
+    assertNotNull(stateFunction, "State function must not null");
+    assertNotNull(subscribeBlockFunction, "Subscribe block function must not null");
+    assertTrue(0 <= maxEntries, "Max entries must not negative");
+    this.stateFunction = stateFunction;
+    this.subscribeBlockFunction = subscribeBlockFunction;
+    this.maxEntries = maxEntries;
+    this.states = new LinkedHashMap<AccountAddress, AccountState>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<AccountAddress, AccountState> eldest) {
+        return size() > AccountStateCache.this.maxEntries;
+      }
+    };
+  }
+
+  /**
+   * Get a cached account state.
+   *
+   * @param address an account address
+   * @return a cached account state. null if not cached
+   */
+  public AccountState get(final AccountAddress address) {
+    if (0 == maxEntries || !subscribe()) {
+      return null;
+    }
+    synchronized (states) {
+      return states.get(address);
+    }
+  }
+
+  /**
+   * Get a current generation. Pass it to {@link #put(AccountState, long)} for a state fetched
+   * after it.
+   *
+   * @return a current generation
+   */
+  public long getGeneration() {
+    return generation.get();
+  }
+
+  /**
+   * Put an account state fetched after a generation. It's not cached if its account is invalidated
+   * since then.
+   *
+   * @param state an account state
+   * @param fetchedAfter a generation before fetching a state
+   */
+  public void put(final AccountState state, final long fetchedAfter) {
+    if (0 == maxEntries || null == state) {
+      return;
+    }
+    synchronized (states) {
+      final Long touchedAt = touches.get(state.getAddress());
+      if (forgottenUntil <= fetchedAfter && (null == touchedAt || touchedAt <= fetchedAfter)) {
+        states.put(state.getAddress(), state);
+      }
+    }
+  }
+
+  /**
+   * Watch account states. An observer gets current states first and then a state whenever it's
+   * changed.
+   *
+   * @param addresses account addresses to watch
+   * @param observer an observer to get account states
+   * @return a subscription of a watch
+   */
+  public Subscription<AccountState> watch(final Collection<AccountAddress> addresses,
+      final StreamObserver<AccountState> observer) {
+    assertNotNull(addresses, "Addresses must not null");
+    assertNotNull(observer, "Observer must not null");
+    final Watch watch = new Watch(new HashSet<>(addresses), observer);
+    watches.add(watch);
+    if (!subscribe()) {
+      watch.fail(new IllegalStateException("Subscribing new blocks failed"));
+      return watch;
+    }
+    logger.debug("Watch {} accounts", addresses.size());
+    for (final AccountAddress address : watch.addresses) {
+      refresh(address);
+    }
+    return watch;
+  }
+
+  /**
+   * Unsubscribe a block stream and end every watch.
+   */
+  public void close() {
+    synchronized (this) {
+      if (null != blockSubscription) {
+        blockSubscription.unsubscribe();
+        blockSubscription = null;
+      }
+      blockObserver = null;
+    }
+    invalidateAll();
+    for (final Watch watch : watches) {
+      watch.complete();
+    }
+  }
+
+  protected boolean subscribe() {
+    synchronized (this) {
+      if (null != blockSubscription && !blockSubscription.isUnsubscribed()) {
+        return true;
+      }
+      try {
+        logger.debug("Subscribe new blocks for account states");
+        // states cached before may be stale
+        invalidateAll();
+        final StreamObserver<Block> observer = newBlockObserver();
+        blockSubscription = subscribeBlockFunction.apply(observer).get();
+        blockObserver = observer;
+      } catch (Exception e) {
+        logger.debug("Subscribing new blocks failed: {}", e.toString());
+        blockSubscription = null;
+        blockObserver = null;
+        return false;
+      }
+      if (!streamFailed) {
+        return true;
+      }
+      streamFailed = false;
+    }
+    // blocks after a failure are missed
+    refreshWatched();
+    return true;
+  }
+
+  protected StreamObserver<Block> newBlockObserver() {
+    return new StreamObserver<Block>() {
+      @Override
+      public void onNext(final Block block) {
+        onBlock(block);
+      }
+
+      @Override
+      public void onError(final Throwable error) {
+        onBlockStreamError(this, error);
+      }
+
+      @Override
+      public void onCompleted() {
+        onBlockStreamError(this, new IllegalStateException("Block stream completed"));
+      }
+    };
+  }
+
+  protected void onBlock(final Block block) {
+    final Set<AccountAddress> touched = new HashSet<>();
+    touched.add(block.getCoinbaseAccount());
+    for (final Transaction transaction : block.getTransactions()) {
+      touched.add(transaction.getSender());
+      touched.add(transaction.getRecipient());
+    }
+    logger.trace("Block {} touched {} accounts", block.getBlockNumber(), touched.size());
+
+    synchronized (states) {
+      final long touchedAt = generation.incrementAndGet();
+      for (final AccountAddress address : touched) {
+        states.remove(address);
+        // re-insert to keep an order of touches
+        touches.remove(address);
+        touches.put(address, touchedAt);
+      }
+      final Iterator<Map.Entry<AccountAddress, Long>> it = touches.entrySet().iterator();
+      while (touches.size() > MAX_TOUCHES) {
+        forgottenUntil = Math.max(forgottenUntil, it.next().getValue());
+        it.remove();
+      }
+    }
+
+    final Set<AccountAddress> toRefresh = new HashSet<>();
+    for (final Watch watch : watches) {
+      for (final AccountAddress address : touched) {
+        if (watch.addresses.contains(address)) {
+          toRefresh.add(address);
+        }
+      }
+    }
+    for (final AccountAddress address : toRefresh) {
+      refresh(address);
+    }
+  }
+
+  protected void onBlockStreamError(final StreamObserver<Block> observer, final Throwable error) {
+    synchronized (this) {
+      // an error of a stream replaced already
+      if (observer != blockObserver) {
+        return;
+      }
+      logger.info("Block stream for account states failed: {}", error.toString());
+      blockSubscription = null;
+      blockObserver = null;
+      streamFailed = true;
+    }
+    invalidateAll();
+    scheduleResubscription();
+  }
+
+  protected void scheduleResubscription() {
+    synchronized (this) {
+      if (watches.isEmpty() || resubscribing) {
+        return;
+      }
+      resubscribing = true;
+    }
+    logger.debug("Subscribe new blocks again after {}ms", RESUBSCRIBE_DELAY);
+    HerajFutures.getScheduler().schedule(new Runnable() {
+      @Override
+      public void run() {
+        resubscribe();
+      }
+    }, RESUBSCRIBE_DELAY, TimeUnit.MILLISECONDS);
+  }
+
+  protected void resubscribe() {
+    final StreamObserver<Block> observer;
+    synchronized (this) {
+      resubscribing = false;
+      if (watches.isEmpty() || null != blockSubscription) {
+        return;
+      }
+      observer = newBlockObserver();
+      blockObserver = observer;
+    }
+    final Future<Subscription<Block>> future;
+    try {
+      future = subscribeBlockFunction.apply(observer);
+    } catch (Exception e) {
+      onResubscriptionFailure(observer, e);
+      return;
+    }
+    // not to block a scheduler thread
+    Futures.addCallback(HerajFutures.listenable(future), new FutureCallback<Subscription<Block>>() {
+      @Override
+      public void onSuccess(final Subscription<Block> subscription) {
+        synchronized (AccountStateCache.this) {
+          if (observer != blockObserver) {
+            subscription.unsubscribe();
+            return;
+          }
+          blockSubscription = subscription;
+          streamFailed = false;
+        }
+        logger.debug("Block stream for account states resubscribed");
+        // blocks after a failure are missed
+        invalidateAll();
+        refreshWatched();
+      }
+
+      @Override
+      public void onFailure(final Throwable error) {
+        onResubscriptionFailure(observer, error);
+      }
+    }, directExecutor());
+  }
+
+  protected void onResubscriptionFailure(final StreamObserver<Block> observer,
+      final Throwable error) {
+    logger.debug("Subscribing new blocks failed: {}", error.toString());
+    synchronized (this) {
+      if (observer != blockObserver) {
+        return;
+      }
+      blockObserver = null;
+    }
+    scheduleResubscription();
+  }
+
+  protected void invalidateAll() {
+    synchronized (states) {
+      forgottenUntil = generation.incrementAndGet();
+      touches.clear();
+      states.clear();
+    }
+  }
+
+  protected void refreshWatched() {
+    final Set<AccountAddress> watched = new HashSet<>();
+    for (final Watch watch : watches) {
+      watched.addAll(watch.addresses);
+    }
+    for (final AccountAddress address : watched) {
+      refresh(address);
+    }
+  }
+
+  protected void refresh(final AccountAddress address) {
+    final long fetchedAfter = getGeneration();
+    final long sequence = refreshSequence.incrementAndGet();
+    try {
+      Futures.addCallback(HerajFutures.listenable(stateFunction.apply(address)),
+          new FutureCallback<AccountState>() {
+            @Override
+            public void onSuccess(final AccountState state) {
+              put(state, fetchedAfter);
+              for (final Watch watch : watches) {
+                if (watch.addresses.contains(address)) {
+                  watch.update(address, state, sequence);
+                }
+              }
+            }
+
+            @Override
+            public void onFailure(final Throwable error) {
+              logger.debug("Refreshing state of {} failed: {}", address, error.toString());
+            }
+          }, directExecutor());
+    } catch (Exception e) {
+      logger.debug("Refreshing state of {} failed: {}", address, e.toString());
+    }
+  }
+
+  protected class Watch implements Subscription<AccountState> {
+
+    protected final Set<AccountAddress> addresses;
+
+    protected final StreamObserver<AccountState> observer;
+
+    // guarded by a watch
+    protected final Map<AccountAddress, AccountState> lastStates = new HashMap<>();
+
+    // a sequence of a refresh which a last state comes from; guarded by a watch
+    protected final Map<AccountAddress, Long> lastSequences = new HashMap<>();
+
+    protected final AtomicBoolean unsubscribed = new AtomicBoolean(false);
+
+    protected Watch(final Set<AccountAddress> addresses,
+        final StreamObserver<AccountState> observer) {
+      this.addresses = addresses;
+      this.observer = observer;
+    }
+
+    // synchronized not to call an observer concurrently
+    protected synchronized void update(final AccountAddress address, final AccountState state,
+        final long sequence) {
+      if (unsubscribed.get()) {
+        return;
+      }
+      final Long lastSequence = lastSequences.get(address);
+      if (null != lastSequence && sequence < lastSequence) {
+        logger.trace("Drop a state of {} older than a last one", address);
+        return;
+      }
+      lastSequences.put(address, sequence);
+      final AccountState last = lastStates.put(address, state);
+      if (!state.equals(last)) {
+        try {
+          observer.onNext(state);
+        } catch (Exception e) {
+          logger.debug("Observer failed on {}: {}", address, e.toString());
+        }
+      }
+    }
+
+    protected synchronized void fail(final Throwable error) {
+      if (unsubscribed.compareAndSet(false, true)) {
+        watches.remove(this);
+        observer.onError(error);
+      }
+    }
+
+    protected synchronized void complete() {
+      if (unsubscribed.compareAndSet(false, true)) {
+        watches.remove(this);
+        observer.onCompleted();
+      }
+    }
+
+    @Override
+    public void unsubscribe() {
+      if (unsubscribed.compareAndSet(false, true)) {
+        watches.remove(this);
+      }
+    }
+
+    @Override
+    public boolean isUnsubscribed() {
+      return unsubscribed.get();
+    }
+
+    @Override
+    public int getQueueDepth() {
+      return 0;
+    }
+
+    @Override
+    public long getDropCount() {
+      return 0L;
+    }
+  }
+
+}
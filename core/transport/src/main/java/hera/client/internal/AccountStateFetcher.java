@@ -0,0 +1,177 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.internal;
+
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static hera.client.internal.HerajFutures.listenable;
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+import static java.util.Arrays.asList;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.function.Function1;
+import hera.api.model.AccountAddress;
+import hera.api.model.AccountState;
+import hera.api.model.AccountStateResult;
+import hera.api.model.StreamObserver;
+import hera.exception.RpcException;
+import hera.exception.RpcExceptionConverter;
+import hera.util.ExceptionConverter;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import lombok.ToString;
+import org.slf4j.Logger;
+
+/**
+ * A fetcher of account states which keeps a bounded number of requests in flight. A caller thread
+ * issues a next request whenever a previous one is done, so a large batch doesn't flood a node or
+ * pile up pending futures. A failure of an address is reported as its result and doesn't fail a
+ * batch.
+ */
+@ApiAudience.Private
+@ApiStability.Unstable
+@ToString(of = {"maxInFlight"})
+public class AccountStateFetcher {
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  protected final ExceptionConverter<RpcException> exceptionConverter = new RpcExceptionConverter();
+
+  protected final Function1<AccountAddress, Future<AccountState>> stateFunction;
+
+  protected final int maxInFlight;
+
+  /**
+   * AccountStateFetcher constructor.
+   *
+   * @param stateFunction a function to get an account state
+   * @param maxInFlight a maximum number of requests in flight. must be positive
+   */
+  public AccountStateFetcher(final Function1<AccountAddress, Future<AccountState>> stateFunction,
+      final int maxInFlight) {
+    assertNotNull(stateFunction, "State function must not null");
+    assertTrue(0 < maxInFlight, "Max in flight must be positive");
+    this.stateFunction = stateFunction;
+    this.maxInFlight = maxInFlight;
+  }
+
+  /**
+   * Fetch account states of addresses. It blocks until every request is done.
+   *
+   * @param addresses account addresses
+   * @return results in an order of {@code addresses}
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public List<AccountStateResult> fetch(final Collection<AccountAddress> addresses)
+      throws InterruptedException {
+    assertNotNull(addresses, "Addresses must not null");
+    final AccountStateResult[] results = new AccountStateResult[addresses.size()];
+    fetch(addresses, new Sink() {
+      @Override
+      public void accept(final int index, final AccountStateResult result) {
+        results[index] = result;
+      }
+    });
+    return asList(results);
+  }
+
+  /**
+   * Fetch account states of addresses. An observer gets a result as soon as it's done, so an order
+   * of results differs from an order of {@code addresses}. It blocks until every request is done
+   * and {@link StreamObserver#onCompleted()} is invoked.
+   *
+   * @param addresses account addresses
+   * @param observer an observer getting results
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public void fetch(final Collection<AccountAddress> addresses,
+      final StreamObserver<AccountStateResult> observer) throws InterruptedException {
+    assertNotNull(observer, "Observer must not null");
+    fetch(addresses, new Sink() {
+      @Override
+      public synchronized void accept(final int index, final AccountStateResult result) {
+        try {
+          observer.onNext(result);
+        } catch (Exception e) {
+          logger.warn("Observer failed on {}: {}", result.getAddress(), e.toString());
+        }
+      }
+    });
+    observer.onCompleted();
+  }
+
+  protected void fetch(final Collection<AccountAddress> addresses, final Sink sink)
+      throws InterruptedException {
+    assertNotNull(addresses, "Addresses must not null");
+    for (final AccountAddress address : addresses) {
+      assertNotNull(address, "Address must not null");
+    }
+    logger.debug("Fetch {} account states with at most {} in flight", addresses.size(),
+        maxInFlight);
+
+    final Semaphore inFlight = new Semaphore(maxInFlight);
+    int index = 0;
+    for (final AccountAddress address : addresses) {
+      inFlight.acquire();
+      request(index++, address, sink, inFlight);
+    }
+    // every permit is back once every request is done
+    inFlight.acquire(maxInFlight);
+    inFlight.release(maxInFlight);
+  }
+
+  protected void request(final int index, final AccountAddress address, final Sink sink,
+      final Semaphore inFlight) {
+    final Future<AccountState> future;
+    try {
+      future = stateFunction.apply(address);
+    } catch (Exception e) {
+      complete(index, failure(address, e), sink, inFlight);
+      return;
+    }
+    Futures.addCallback(listenable(future), new FutureCallback<AccountState>() {
+      @Override
+      public void onSuccess(final AccountState state) {
+        complete(index, AccountStateResult.newBuilder()
+            .address(address)
+            .state(state)
+            .build(), sink, inFlight);
+      }
+
+      @Override
+      public void onFailure(final Throwable error) {
+        complete(index, failure(address, error), sink, inFlight);
+      }
+    }, directExecutor());
+  }
+
+  protected AccountStateResult failure(final AccountAddress address, final Throwable error) {
+    logger.trace("Fetching state of {} failed: {}", address, error.toString());
+    return AccountStateResult.newBuilder()
+        .address(address)
+        .error(exceptionConverter.convert(error))
+        .build();
+  }
+
+  protected void complete(final int index, final AccountStateResult result, final Sink sink,
+      final Semaphore inFlight) {
+    try {
+      sink.accept(index, result);
+    } finally {
+      inFlight.release();
+    }
+  }
+
+  protected interface Sink {
+    void accept(int index, AccountStateResult result);
+  }
+
+}
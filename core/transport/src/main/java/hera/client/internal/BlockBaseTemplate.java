@@ -14,14 +14,17 @@ import hera.ContextProvider;
 import hera.ContextProviderInjectable;
 import hera.annotation.ApiAudience;
 import hera.annotation.ApiStability;
+import hera.api.function.Function0;
 import hera.api.function.Function1;
 import hera.api.function.Function2;
 import hera.api.model.Block;
 import hera.api.model.BlockHash;
 import hera.api.model.BlockMetadata;
 import hera.api.model.Subscription;
+import hera.client.BlockStoreInjectable;
 import hera.client.ChannelInjectable;
 import hera.client.stream.GrpcStreamObserverAdaptor;
+import hera.client.stream.GrpcStreamPublisher;
 import hera.client.stream.GrpcStreamSubscription;
 import hera.transport.BlockConverterFactory;
 import hera.transport.BlockMetadataConverterFactory;
@@ -32,6 +35,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Future;
 import lombok.Getter;
+import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import types.AergoRPCServiceGrpc.AergoRPCServiceFutureStub;
 import types.AergoRPCServiceGrpc.AergoRPCServiceStub;
@@ -40,7 +44,8 @@ import types.Rpc;
 
 @ApiAudience.Private
 @ApiStability.Unstable
-public class BlockBaseTemplate implements ChannelInjectable, ContextProviderInjectable {
+public class BlockBaseTemplate
+    implements ChannelInjectable, ContextProviderInjectable, BlockStoreInjectable {
 
   protected final transient Logger logger = getLogger(getClass());
 
@@ -55,6 +60,9 @@ public class BlockBaseTemplate implements ChannelInjectable, ContextProviderInje
 
   protected ContextProvider contextProvider;
 
+  // null if block store isn't configured
+  protected MappedBlockStore blockStore;
+
   @Override
   public void setChannel(final ManagedChannel channel) {
     this.aergoService = newFutureStub(channel);
@@ -66,6 +74,23 @@ public class BlockBaseTemplate implements ChannelInjectable, ContextProviderInje
     this.contextProvider = contextProvider;
   }
 
+  @Override
+  public void setBlockStore(final MappedBlockStore blockStore) {
+    this.blockStore = blockStore;
+  }
+
+  // a fetched block is stored once it's final; a store failure never fails a request
+  protected void store(final Blockchain.Block rpcBlock) {
+    if (null == blockStore) {
+      return;
+    }
+    try {
+      blockStore.put(rpcBlock);
+    } catch (Exception e) {
+      logger.info("Storing a block failed by {}", e.toString());
+    }
+  }
+
   @Getter
   private final Function1<BlockHash, Future<BlockMetadata>> blockMetatdataByHashFunction =
       new Function1<BlockHash, Future<BlockMetadata>>() {
@@ -210,6 +235,7 @@ public class BlockBaseTemplate implements ChannelInjectable, ContextProviderInje
               new Function1<Blockchain.Block, Block>() {
                 @Override
                 public Block apply(final Blockchain.Block block) {
+                  store(block);
                   return blockConverter.convertToDomainModel(block);
                 }
               });
@@ -236,6 +262,7 @@ public class BlockBaseTemplate implements ChannelInjectable, ContextProviderInje
               new Function1<Blockchain.Block, Block>() {
                 @Override
                 public Block apply(final Blockchain.Block block) {
+                  store(block);
                   return blockConverter.convertToDomainModel(block);
                 }
               });
@@ -257,9 +284,9 @@ public class BlockBaseTemplate implements ChannelInjectable, ContextProviderInje
 
           final Rpc.Empty blockMetadataStreamRequest = Rpc.Empty.newBuilder().build();
           Context.CancellableContext cancellableContext = Context.current().withCancellation();
-          final io.grpc.stub.StreamObserver<Rpc.BlockMetadata> adaptor =
-              new GrpcStreamObserverAdaptor<Rpc.BlockMetadata, BlockMetadata>(cancellableContext,
-                  observer, blockMetadataConverter);
+          final GrpcStreamObserverAdaptor<Rpc.Empty, Rpc.BlockMetadata, BlockMetadata> adaptor =
+              new GrpcStreamObserverAdaptor<>(cancellableContext, observer, blockMetadataConverter,
+                  contextProvider.get().getConfiguration());
           cancellableContext.run(new Runnable() {
             @Override
             public void run() {
@@ -268,7 +295,7 @@ public class BlockBaseTemplate implements ChannelInjectable, ContextProviderInje
           });
 
           final Subscription<BlockMetadata> subscription =
-              new GrpcStreamSubscription<>(cancellableContext);
+              new GrpcStreamSubscription<>(cancellableContext, adaptor);
           return HerajFutures.success(subscription);
         }
       };
@@ -285,9 +312,9 @@ public class BlockBaseTemplate implements ChannelInjectable, ContextProviderInje
 
           final Rpc.Empty blockStreamRequest = Rpc.Empty.newBuilder().build();
           Context.CancellableContext cancellableContext = Context.current().withCancellation();
-          final io.grpc.stub.StreamObserver<Blockchain.Block> adaptor =
-              new GrpcStreamObserverAdaptor<Blockchain.Block, Block>(cancellableContext,
-                  observer, blockConverter);
+          final GrpcStreamObserverAdaptor<Rpc.Empty, Blockchain.Block, Block> adaptor =
+              new GrpcStreamObserverAdaptor<>(cancellableContext, observer, blockConverter,
+                  contextProvider.get().getConfiguration());
           cancellableContext.run(new Runnable() {
             @Override
             public void run() {
@@ -295,9 +322,46 @@ public class BlockBaseTemplate implements ChannelInjectable, ContextProviderInje
             }
           });
 
-          final Subscription<Block> subscription = new GrpcStreamSubscription<>(cancellableContext);
+          final Subscription<Block> subscription =
+              new GrpcStreamSubscription<>(cancellableContext, adaptor);
           return HerajFutures.success(subscription);
         }
       };
 
+  @Getter
+  private final Function0<Publisher<BlockMetadata>> blockMetadataPublisherFunction =
+      new Function0<Publisher<BlockMetadata>>() {
+
+        @Override
+        public Publisher<BlockMetadata> apply() {
+          logger.debug("Create block metadata publisher");
+          return new GrpcStreamPublisher<Rpc.Empty, Rpc.BlockMetadata, BlockMetadata>(
+              blockMetadataConverter) {
+            @Override
+            protected void startCall(
+                final io.grpc.stub.StreamObserver<Rpc.BlockMetadata> responseObserver) {
+              streamService.listBlockMetadataStream(Rpc.Empty.newBuilder().build(),
+                  responseObserver);
+            }
+          };
+        }
+      };
+
+  @Getter
+  private final Function0<Publisher<Block>> blockPublisherFunction =
+      new Function0<Publisher<Block>>() {
+
+        @Override
+        public Publisher<Block> apply() {
+          logger.debug("Create block publisher");
+          return new GrpcStreamPublisher<Rpc.Empty, Blockchain.Block, Block>(blockConverter) {
+            @Override
+            protected void startCall(
+                final io.grpc.stub.StreamObserver<Blockchain.Block> responseObserver) {
+              streamService.listBlockStream(Rpc.Empty.newBuilder().build(), responseObserver);
+            }
+          };
+        }
+      };
+
 }
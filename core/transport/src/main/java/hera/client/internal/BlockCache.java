@@ -0,0 +1,348 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.internal;
+
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.function.Function0;
+import hera.api.model.Block;
+import hera.api.model.BlockHash;
+import hera.api.model.BlockMetadata;
+import hera.api.model.BlockchainStatus;
+import hera.api.model.Transaction;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import lombok.Value;
+import org.slf4j.Logger;
+
+/**
+ * A LRU cache of blocks and block metadatas. An entry by hash is always kept since it never
+ * changes. An entry by height is kept only if its height is not greater than a last irreversible
+ * height, which is refreshed from a blockchain status in background. An entry by height is an
+ * alias of an entry by hash, so it's not counted in a number of entries and bytes and it's evicted
+ * with an entry by hash. A cache is bounded by a number of entries and an estimated number of
+ * bytes.
+ */
+@ApiAudience.Private
+@ApiStability.Unstable
+@ToString(of = {"maxEntries", "maxBytes", "lastIrreversibleHeight"})
+public class BlockCache {
+
+  protected static final long BLOCK_BASE_BYTES = 512L;
+
+  protected static final long TRANSACTION_BASE_BYTES = 256L;
+
+  protected static final long BLOCK_METADATA_BYTES = 512L;
+
+  protected static final ObjectMapper mapper = new ObjectMapper();
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  protected final Function0<Future<BlockchainStatus>> blockchainStatusFunction;
+
+  protected final int maxEntries;
+
+  protected final long maxBytes;
+
+  protected final long refreshIntervalInNanos;
+
+  protected final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+  // a key by height to a key by hash of a same value
+  protected final Map<Key, Key> aliases = new HashMap<>();
+
+  protected long estimatedBytes = 0L;
+
+  protected final AtomicLong hitCount = new AtomicLong(0L);
+
+  protected final AtomicLong missCount = new AtomicLong(0L);
+
+  protected final AtomicLong evictionCount = new AtomicLong(0L);
+
+  protected volatile long lastIrreversibleHeight = -1L;
+
+  protected final AtomicBoolean refreshing = new AtomicBoolean(false);
+
+  protected volatile long lastRefreshed = 0L;
+
+  /**
+   * BlockCache constructor.
+   *
+   * @param blockchainStatusFunction a function to get a blockchain status to decide finality
+   * @param maxEntries a maximum number of entries. must be positive
+   * @param maxBytes a maximum estimated number of bytes. 0 means no bound on bytes
+   * @param refreshInterval a minimum interval between finality refreshes
+   * @param unit a refresh interval unit
+   */
+  public BlockCache(final Function0<Future<BlockchainStatus>> blockchainStatusFunction,
+      final int maxEntries, final long maxBytes, final long refreshInterval,
+      final TimeUnit unit) {
+    assertNotNull(blockchainStatusFunction, "Blockchain status function must not null");
+    assertTrue(0 < maxEntries, "Max entries must be positive");
+    assertTrue(0L <= maxBytes, "Max bytes must not negative");
+    assertTrue(0L <= refreshInterval, "Refresh interval must not negative");
+    this.blockchainStatusFunction = blockchainStatusFunction;
+    this.maxEntries = maxEntries;
+    this.maxBytes = maxBytes;
+    this.refreshIntervalInNanos = unit.toNanos(refreshInterval);
+  }
+
+  public Block getBlock(final BlockHash blockHash) {
+    return (Block) lookup(new Key(Block.class, blockHash));
+  }
+
+  public Block getBlock(final long height) {
+    return (Block) lookup(new Key(Block.class, height));
+  }
+
+  public BlockMetadata getBlockMetadata(final BlockHash blockHash) {
+    return (BlockMetadata) lookup(new Key(BlockMetadata.class, blockHash));
+  }
+
+  public BlockMetadata getBlockMetadata(final long height) {
+    return (BlockMetadata) lookup(new Key(BlockMetadata.class, height));
+  }
+
+  /**
+   * Put a block by its hash and by its height if it's final.
+   *
+   * @param block a block to cache
+   */
+  public void put(final Block block) {
+    final Key key = new Key(Block.class, block.getHash());
+    store(key, block, estimate(block));
+    if (isFinal(block.getBlockNumber())) {
+      alias(new Key(Block.class, block.getBlockNumber()), key);
+    }
+  }
+
+  /**
+   * Put a block metadata by its hash and by its height if it's final.
+   *
+   * @param blockMetadata a block metadata to cache
+   */
+  public void put(final BlockMetadata blockMetadata) {
+    final long height = blockMetadata.getBlockHeader().getBlockNumber();
+    final Key key = new Key(BlockMetadata.class, blockMetadata.getBlockHash());
+    store(key, blockMetadata, BLOCK_METADATA_BYTES);
+    if (isFinal(height)) {
+      alias(new Key(BlockMetadata.class, height), key);
+    }
+  }
+
+  /**
+   * Update a last irreversible height with a blockchain status. A last irreversible height never
+   * goes back.
+   *
+   * @param blockchainStatus a blockchain status
+   */
+  public void updateFinality(final BlockchainStatus blockchainStatus) {
+    final long parsed = parseLastIrreversibleHeight(blockchainStatus);
+    synchronized (this) {
+      if (parsed > lastIrreversibleHeight) {
+        logger.debug("Last irreversible height updated: {}", parsed);
+        lastIrreversibleHeight = parsed;
+      }
+    }
+  }
+
+  public long getLastIrreversibleHeight() {
+    return lastIrreversibleHeight;
+  }
+
+  /**
+   * Get statistics of this cache.
+   *
+   * @return statistics of this cache
+   */
+  public synchronized Stats getStats() {
+    return new Stats(hitCount.get(), missCount.get(), evictionCount.get(), entries.size(),
+        estimatedBytes);
+  }
+
+  protected Object lookup(final Key key) {
+    final Entry entry;
+    synchronized (this) {
+      final Key target = aliases.get(key);
+      entry = entries.get(null != target ? target : key);
+    }
+    if (null == entry) {
+      missCount.incrementAndGet();
+      return null;
+    }
+    hitCount.incrementAndGet();
+    return entry.value;
+  }
+
+  protected synchronized void store(final Key key, final Object value, final long bytes) {
+    if (0L < maxBytes && bytes > maxBytes) {
+      logger.trace("Too big to cache: {}", key);
+      return;
+    }
+    final Entry entry = new Entry(value, bytes);
+    final Entry previous = entries.put(key, entry);
+    if (null != previous) {
+      estimatedBytes -= previous.bytes;
+      entry.alias = previous.alias;
+    }
+    estimatedBytes += bytes;
+
+    final Iterator<Entry> it = entries.values().iterator();
+    while (it.hasNext() && (entries.size() > maxEntries
+        || (0L < maxBytes && estimatedBytes > maxBytes))) {
+      final Entry eldest = it.next();
+      it.remove();
+      estimatedBytes -= eldest.bytes;
+      if (null != eldest.alias) {
+        aliases.remove(eldest.alias);
+      }
+      evictionCount.incrementAndGet();
+    }
+  }
+
+  protected synchronized void alias(final Key alias, final Key key) {
+    final Entry entry = entries.get(key);
+    if (null == entry) {
+      // too big to cache
+      return;
+    }
+    final Key previous = aliases.put(alias, key);
+    if (null != previous && !previous.equals(key)) {
+      final Entry replaced = entries.get(previous);
+      if (null != replaced && alias.equals(replaced.alias)) {
+        replaced.alias = null;
+      }
+    }
+    entry.alias = alias;
+  }
+
+  protected boolean isFinal(final long height) {
+    if (height <= lastIrreversibleHeight) {
+      return true;
+    }
+    refreshFinality();
+    return false;
+  }
+
+  protected void refreshFinality() {
+    final long now = System.nanoTime();
+    if (now - lastRefreshed < refreshIntervalInNanos || !refreshing.compareAndSet(false, true)) {
+      return;
+    }
+    lastRefreshed = now;
+    try {
+      Futures.addCallback(HerajFutures.listenable(blockchainStatusFunction.apply()),
+          new FutureCallback<BlockchainStatus>() {
+            @Override
+            public void onSuccess(final BlockchainStatus blockchainStatus) {
+              refreshing.set(false);
+              updateFinality(blockchainStatus);
+            }
+
+            @Override
+            public void onFailure(final Throwable error) {
+              refreshing.set(false);
+              logger.debug("Refreshing finality failed: {}", error.toString());
+            }
+          }, directExecutor());
+    } catch (Exception e) {
+      refreshing.set(false);
+      logger.debug("Refreshing finality failed: {}", e.toString());
+    }
+  }
+
+  protected long estimate(final Block block) {
+    long bytes = BLOCK_BASE_BYTES;
+    for (final Transaction transaction : block.getTransactions()) {
+      bytes += TRANSACTION_BASE_BYTES + transaction.getPayload().length();
+    }
+    return bytes;
+  }
+
+  /**
+   * Parse a last irreversible height from a consensus info of a blockchain status. A consensus
+   * with a lib (eg. dpos) reports it. A consensus without a fork (eg. raft, sbp) is final at a best
+   * height. Otherwise, -1 is returned.
+   *
+   * @param blockchainStatus a blockchain status
+   * @return a last irreversible height. -1 if unknown
+   */
+  protected static long parseLastIrreversibleHeight(final BlockchainStatus blockchainStatus) {
+    try {
+      final JsonNode consensus = mapper.readTree(blockchainStatus.getConsensus());
+      if (null == consensus) {
+        return -1L;
+      }
+      final JsonNode libNo = consensus.findValue("LibNo");
+      if (null != libNo && libNo.canConvertToLong()) {
+        return libNo.asLong();
+      }
+      final String type = consensus.path("Type").asText();
+      if ("raft".equalsIgnoreCase(type) || "sbp".equalsIgnoreCase(type)) {
+        return blockchainStatus.getBestHeight();
+      }
+      return -1L;
+    } catch (Exception e) {
+      return -1L;
+    }
+  }
+
+  /**
+   * Statistics of a block cache.
+   */
+  @Value
+  public static class Stats {
+
+    long hitCount;
+
+    long missCount;
+
+    long evictionCount;
+
+    int size;
+
+    long estimatedBytes;
+  }
+
+  @EqualsAndHashCode
+  @ToString
+  @RequiredArgsConstructor
+  private static class Key {
+
+    protected final Class<?> type;
+
+    protected final Object id;
+  }
+
+  @RequiredArgsConstructor
+  private static class Entry {
+
+    protected final Object value;
+
+    protected final long bytes;
+
+    // a key by height aliasing this entry if any
+    protected Key alias;
+  }
+
+}
@@ -0,0 +1,406 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.internal;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.function.Function1;
+import hera.api.model.Block;
+import hera.api.model.StreamObserver;
+import hera.api.model.Subscription;
+import hera.client.stream.OverflowPolicy;
+import hera.exception.StreamOverflowException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.ToString;
+import org.slf4j.Logger;
+
+/**
+ * A hub sharing one block stream among subscribers in a process. A block is converted once by an
+ * upstream and a same immutable instance is handed to every subscriber. Each subscriber has its
+ * own bounded queue drained by a delivery thread, so that a slow subscriber never stalls an
+ * upstream or other subscribers. What to do with a subscriber whose queue is full is decided by
+ * an {@link OverflowPolicy}; {@link OverflowPolicy#FAIL} evicts it with a
+ * {@link StreamOverflowException}.
+ *
+ * <p>
+ * An upstream is opened by a first subscriber and closed when a last subscriber unsubscribes. If
+ * an upstream fails, every subscriber gets an error. An upstream is opened outside a lock of a
+ * hub, and a subscriber coming while it's being opened waits for it to be open.
+ * </p>
+ */
+@ApiAudience.Private
+@ApiStability.Unstable
+@ToString(of = {"queueSize", "overflowPolicy"})
+public class BlockHub {
+
+  // shared by every hub; a subscriber is drained by at most one task at a time
+  protected static final ExecutorService deliveryExecutor =
+      Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+          .setNameFormat("heraj-block-hub-%d")
+          .setDaemon(true)
+          .build());
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  protected final Function1<StreamObserver<Block>,
+      Future<Subscription<Block>>> subscribeBlockFunction;
+
+  protected final int queueSize;
+
+  protected final OverflowPolicy overflowPolicy;
+
+  protected Upstream upstream;
+
+  /**
+   * BlockHub constructor.
+   *
+   * @param subscribeBlockFunction a function to subscribe a block stream
+   * @param queueSize a max number of blocks queued for each subscriber
+   * @param overflowPolicy a policy for a subscriber whose queue is full. {@link
+   *        OverflowPolicy#BLOCK} isn't allowed since it stalls every other subscriber
+   */
+  public BlockHub(
+      final Function1<StreamObserver<Block>, Future<Subscription<Block>>> subscribeBlockFunction,
+      final int queueSize, final OverflowPolicy overflowPolicy) {
+    assertNotNull(subscribeBlockFunction, "Subscribe block function must not null");
+    assertTrue(0 < queueSize, "Queue size must be positive");
+    assertNotNull(overflowPolicy, "Overflow policy must not null");
+    assertTrue(OverflowPolicy.BLOCK != overflowPolicy, "Block hub can't block an upstream");
+    this.subscribeBlockFunction = subscribeBlockFunction;
+    this.queueSize = queueSize;
+    this.overflowPolicy = overflowPolicy;
+  }
+
+  /**
+   * Subscribe new blocks through a shared stream.
+   *
+   * @param observer an observer to get new blocks
+   * @return a subscription of a subscriber
+   * @throws Exception on subscribing an upstream failure
+   */
+  public Subscription<Block> subscribe(final StreamObserver<Block> observer) throws Exception {
+    assertNotNull(observer, "Observer must not null");
+    final Subscriber subscriber = new Subscriber(observer);
+    final Upstream owner;
+    boolean toOpen = false;
+    synchronized (this) {
+      if (null == upstream) {
+        // a placeholder for other subscribers to wait on
+        upstream = new Upstream();
+        toOpen = true;
+      }
+      // gets blocks as soon as an upstream is open
+      owner = upstream;
+      subscriber.upstream = owner;
+      owner.subscribers.add(subscriber);
+    }
+    if (toOpen) {
+      open(owner);
+    }
+    try {
+      owner.opened.get();
+    } catch (ExecutionException e) {
+      synchronized (subscriber) {
+        subscriber.unsubscribed = true;
+        subscriber.terminated = true;
+      }
+      final Throwable cause = e.getCause();
+      throw cause instanceof Exception ? (Exception) cause : e;
+    } catch (InterruptedException e) {
+      subscriber.unsubscribe();
+      throw e;
+    }
+    return subscriber;
+  }
+
+  protected void open(final Upstream owner) {
+    logger.debug("Open block upstream");
+    final Subscription<Block> subscription;
+    try {
+      subscription = subscribeBlockFunction.apply(owner).get();
+    } catch (Exception e) {
+      if (e instanceof InterruptedException) {
+        Thread.currentThread().interrupt();
+      }
+      logger.debug("Opening block upstream failed: {}", e.toString());
+      detach(owner);
+      owner.opened.setException(e);
+      return;
+    }
+    owner.subscription = subscription;
+    final boolean detached;
+    synchronized (this) {
+      detached = upstream != owner;
+    }
+    if (detached) {
+      // failed, completed or left by every subscriber while opening
+      subscription.unsubscribe();
+    }
+    owner.opened.set(null);
+  }
+
+  /**
+   * Get a number of subscribers sharing an upstream.
+   *
+   * @return a number of subscribers
+   */
+  public synchronized int getSubscriberCount() {
+    return null != upstream ? upstream.subscribers.size() : 0;
+  }
+
+  /**
+   * Get a largest lag among subscribers, that is a number of blocks received by a hub but not
+   * delivered to a subscriber yet.
+   *
+   * @return a largest lag in blocks
+   */
+  public long getMaxLag() {
+    final Upstream current;
+    synchronized (this) {
+      current = upstream;
+    }
+    long maxLag = 0L;
+    if (null != current) {
+      for (final Subscriber subscriber : current.subscribers) {
+        maxLag = Math.max(maxLag, subscriber.getLag());
+      }
+    }
+    return maxLag;
+  }
+
+  protected void remove(final Subscriber subscriber) {
+    final Upstream owner = subscriber.upstream;
+    Subscription<Block> toClose = null;
+    synchronized (this) {
+      owner.subscribers.remove(subscriber);
+      if (owner.subscribers.isEmpty() && upstream == owner) {
+        logger.debug("Close block upstream");
+        upstream = null;
+        toClose = owner.subscription;
+      }
+    }
+    if (null != toClose) {
+      toClose.unsubscribe();
+    }
+  }
+
+  protected List<Subscriber> detach(final Upstream owner) {
+    synchronized (this) {
+      if (upstream == owner) {
+        upstream = null;
+      }
+      final List<Subscriber> detached = new ArrayList<>(owner.subscribers);
+      owner.subscribers.clear();
+      return detached;
+    }
+  }
+
+  protected class Upstream implements StreamObserver<Block> {
+
+    protected final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    protected volatile Subscription<Block> subscription;
+
+    protected final SettableFuture<Void> opened = SettableFuture.create();
+
+    @Override
+    public void onNext(final Block block) {
+      for (final Subscriber subscriber : subscribers) {
+        subscriber.offer(block);
+      }
+    }
+
+    @Override
+    public void onError(final Throwable error) {
+      logger.info("Block upstream failed: {}", error.toString());
+      for (final Subscriber subscriber : detach(this)) {
+        subscriber.terminate(error);
+      }
+    }
+
+    @Override
+    public void onCompleted() {
+      logger.info("Block upstream completed");
+      for (final Subscriber subscriber : detach(this)) {
+        subscriber.terminate(null);
+      }
+    }
+  }
+
+  protected class Subscriber implements Subscription<Block> {
+
+    protected final StreamObserver<Block> observer;
+
+    protected final Deque<Block> queue = new ArrayDeque<>();
+
+    protected final AtomicLong dropCount = new AtomicLong(0L);
+
+    protected Upstream upstream;
+
+    protected boolean draining = false;
+
+    // no more block is accepted
+    protected boolean terminated = false;
+
+    protected boolean terminationDelivered = false;
+
+    protected boolean unsubscribed = false;
+
+    protected Throwable error;
+
+    protected Subscriber(final StreamObserver<Block> observer) {
+      this.observer = observer;
+    }
+
+    protected void offer(final Block block) {
+      boolean evicted = false;
+      synchronized (this) {
+        if (terminated) {
+          return;
+        }
+        if (queue.size() >= queueSize) {
+          switch (overflowPolicy) {
+            case DROP_OLDEST:
+              queue.poll();
+              dropCount.incrementAndGet();
+              break;
+            case KEEP_LATEST:
+              dropCount.addAndGet(queue.size());
+              queue.clear();
+              break;
+            default:
+              dropCount.addAndGet(queue.size() + 1);
+              queue.clear();
+              terminated = true;
+              error = new StreamOverflowException(
+                  "Subscriber fell behind by more than " + queueSize + " blocks");
+              evicted = true;
+              break;
+          }
+        }
+        if (!evicted) {
+          queue.offer(block);
+        }
+      }
+      if (evicted) {
+        logger.info("Evict a slow subscriber {}", observer);
+        remove(this);
+      }
+      scheduleDrain();
+    }
+
+    protected void terminate(final Throwable cause) {
+      synchronized (this) {
+        if (terminated) {
+          return;
+        }
+        terminated = true;
+        error = cause;
+      }
+      scheduleDrain();
+    }
+
+    protected void scheduleDrain() {
+      synchronized (this) {
+        if (draining) {
+          return;
+        }
+        draining = true;
+      }
+      deliveryExecutor.execute(new Runnable() {
+        @Override
+        public void run() {
+          drain();
+        }
+      });
+    }
+
+    protected void drain() {
+      while (true) {
+        final Block next;
+        final boolean deliverTermination;
+        final Throwable terminalError;
+        synchronized (this) {
+          next = unsubscribed ? null : queue.poll();
+          deliverTermination = (null == next) && terminated && !terminationDelivered
+              && !unsubscribed;
+          terminalError = error;
+          if (null == next && !deliverTermination) {
+            draining = false;
+            return;
+          }
+          if (deliverTermination) {
+            terminationDelivered = true;
+          }
+        }
+
+        try {
+          if (!deliverTermination) {
+            observer.onNext(next);
+          } else if (null != terminalError) {
+            observer.onError(terminalError);
+          } else {
+            observer.onCompleted();
+          }
+        } catch (Exception e) {
+          logger.error("Delivering block failed by {}", e.toString());
+        }
+      }
+    }
+
+    /**
+     * Get a number of blocks received by a hub but not delivered to this subscriber yet.
+     *
+     * @return a lag in blocks
+     */
+    public synchronized long getLag() {
+      return queue.size();
+    }
+
+    @Override
+    public void unsubscribe() {
+      synchronized (this) {
+        if (unsubscribed) {
+          return;
+        }
+        unsubscribed = true;
+        terminated = true;
+        queue.clear();
+      }
+      remove(this);
+    }
+
+    @Override
+    public synchronized boolean isUnsubscribed() {
+      return unsubscribed || terminated;
+    }
+
+    @Override
+    public synchronized int getQueueDepth() {
+      return queue.size();
+    }
+
+    @Override
+    public long getDropCount() {
+      return dropCount.get();
+    }
+  }
+
+}
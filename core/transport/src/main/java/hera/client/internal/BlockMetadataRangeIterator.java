@@ -0,0 +1,183 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.internal;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+import static java.util.Collections.emptyIterator;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.function.Function2;
+import hera.api.model.BlockMetadata;
+import hera.exception.RpcException;
+import hera.util.ExceptionConverter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Future;
+import lombok.ToString;
+import org.slf4j.Logger;
+
+/**
+ * An iterator of block metadatas in a height range. A range is listed page by page with a
+ * function listing metadatas backward from a height, and a page after a current one is requested
+ * ahead. At most two pages are held in memory. Metadatas are delivered in height order.
+ */
+@ApiAudience.Private
+@ApiStability.Unstable
+@ToString(of = {"requestHeight", "toHeight", "pageSize"})
+public class BlockMetadataRangeIterator implements Iterator<BlockMetadata> {
+
+  // an upper bound of a list size of a server
+  public static final int DEFAULT_PAGE_SIZE = 1000;
+
+  protected static final Comparator<BlockMetadata> ASCENDING = new Comparator<BlockMetadata>() {
+    @Override
+    public int compare(final BlockMetadata left, final BlockMetadata right) {
+      final long leftHeight = left.getBlockHeader().getBlockNumber();
+      final long rightHeight = right.getBlockHeader().getBlockNumber();
+      return leftHeight == rightHeight ? 0 : (leftHeight < rightHeight ? -1 : 1);
+    }
+  };
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  protected final Function2<Long, Integer, Future<List<BlockMetadata>>> listFunction;
+
+  protected final ExceptionConverter<RpcException> exceptionConverter;
+
+  protected final long toHeight;
+
+  protected final int pageSize;
+
+  // a page requested ahead; null if nothing left to request
+  protected Page ahead;
+
+  // a first height of a page to request next
+  protected long requestHeight;
+
+  protected Iterator<BlockMetadata> current = emptyIterator();
+
+  /**
+   * BlockMetadataRangeIterator constructor.
+   *
+   * @param listFunction a function listing metadatas of a size backward from a height without
+   *        blocking
+   * @param fromHeight a first height (inclusive)
+   * @param toHeight a last height (inclusive)
+   * @param pageSize a max number of metadatas in a request. must be positive
+   * @param exceptionConverter an exception converter
+   */
+  public BlockMetadataRangeIterator(
+      final Function2<Long, Integer, Future<List<BlockMetadata>>> listFunction,
+      final long fromHeight, final long toHeight, final int pageSize,
+      final ExceptionConverter<RpcException> exceptionConverter) {
+    assertNotNull(listFunction, "List function must not null");
+    assertNotNull(exceptionConverter, "Exception converter must not null");
+    assertTrue(0 <= fromHeight, "From height must not negative");
+    assertTrue(fromHeight <= toHeight, "From height must not be greater than to height");
+    assertTrue(0 < pageSize, "Page size must be positive");
+    this.listFunction = listFunction;
+    this.exceptionConverter = exceptionConverter;
+    this.toHeight = toHeight;
+    this.pageSize = pageSize;
+    this.requestHeight = fromHeight;
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (!current.hasNext()) {
+      if (null == ahead) {
+        ahead = request();
+        if (null == ahead) {
+          return false;
+        }
+      }
+      final Page page = ahead;
+      ahead = request();
+      try {
+        final List<BlockMetadata> listed = new ArrayList<>();
+        for (final BlockMetadata blockMetadata : page.future.get()) {
+          final long height = blockMetadata.getBlockHeader().getBlockNumber();
+          if (page.from <= height && height <= page.to) {
+            listed.add(blockMetadata);
+          }
+        }
+        Collections.sort(listed, ASCENDING);
+        current = listed.iterator();
+      } catch (Exception e) {
+        logger.debug("Listing block metadatas of [{}, {}] failed", page.from, page.to);
+        close();
+        throw exceptionConverter.convert(e);
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public BlockMetadata next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return current.next();
+  }
+
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Cancel a page requested ahead and end an iteration.
+   */
+  public void close() {
+    if (null != ahead) {
+      ahead.future.cancel(true);
+      ahead = null;
+    }
+    current = emptyIterator();
+    requestHeight = toHeight + 1;
+  }
+
+  protected Page request() {
+    if (toHeight < requestHeight) {
+      return null;
+    }
+    final long from = requestHeight;
+    final long to = Math.min(toHeight, from + pageSize - 1);
+    requestHeight = to + 1;
+    logger.trace("Request block metadatas of [{}, {}]", from, to);
+    Future<List<BlockMetadata>> future;
+    try {
+      future = listFunction.apply(to, (int) (to - from + 1));
+    } catch (Exception e) {
+      // deliver an error in height order
+      future = HerajFutures.fail(e);
+    }
+    return new Page(from, to, future);
+  }
+
+  @ToString(of = {"from", "to"})
+  protected static class Page {
+
+    protected final long from;
+
+    protected final long to;
+
+    protected final Future<List<BlockMetadata>> future;
+
+    protected Page(final long from, final long to, final Future<List<BlockMetadata>> future) {
+      this.from = from;
+      this.to = to;
+      this.future = future;
+    }
+  }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.internal;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.function.Function1;
+import hera.api.model.Block;
+import hera.exception.RpcException;
+import hera.util.ExceptionConverter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Future;
+import lombok.ToString;
+import org.slf4j.Logger;
+
+/**
+ * An iterator of blocks in a height range. Blocks ahead of a current one are requested
+ * concurrently up to a prefetch size and delivered in height order. At most prefetch size of
+ * blocks are held in memory. A block is converted on a thread completing its request, not on a
+ * thread iterating.
+ */
+@ApiAudience.Private
+@ApiStability.Unstable
+@ToString(of = {"nextHeight", "toHeight", "prefetchSize"})
+public class BlockRangeIterator implements Iterator<Block> {
+
+  public static final int DEFAULT_PREFETCH_SIZE = 32;
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  protected final Function1<Long, Future<Block>> blockByHeightFunction;
+
+  protected final ExceptionConverter<RpcException> exceptionConverter;
+
+  protected final long toHeight;
+
+  protected final int prefetchSize;
+
+  protected final Deque<Future<Block>> prefetched = new ArrayDeque<>();
+
+  // a height of a block to return on next
+  protected long nextHeight;
+
+  // a height of a block to request next
+  protected long requestHeight;
+
+  /**
+   * BlockRangeIterator constructor.
+   *
+   * @param blockByHeightFunction a function requesting a block without blocking
+   * @param fromHeight a first height (inclusive)
+   * @param toHeight a last height (inclusive)
+   * @param prefetchSize a maximum number of blocks requested ahead. must be positive
+   * @param exceptionConverter an exception converter
+   */
+  public BlockRangeIterator(final Function1<Long, Future<Block>> blockByHeightFunction,
+      final long fromHeight, final long toHeight, final int prefetchSize,
+      final ExceptionConverter<RpcException> exceptionConverter) {
+    assertNotNull(blockByHeightFunction, "Block function must not null");
+    assertNotNull(exceptionConverter, "Exception converter must not null");
+    assertTrue(0 <= fromHeight, "From height must not negative");
+    assertTrue(fromHeight <= toHeight, "From height must not be greater than to height");
+    assertTrue(0 < prefetchSize, "Prefetch size must be positive");
+    this.blockByHeightFunction = blockByHeightFunction;
+    this.exceptionConverter = exceptionConverter;
+    this.toHeight = toHeight;
+    this.prefetchSize = prefetchSize;
+    this.nextHeight = fromHeight;
+    this.requestHeight = fromHeight;
+  }
+
+  @Override
+  public boolean hasNext() {
+    return nextHeight <= toHeight;
+  }
+
+  @Override
+  public Block next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    fill();
+    final Future<Block> head = prefetched.poll();
+    try {
+      final Block block = head.get();
+      ++nextHeight;
+      fill();
+      return block;
+    } catch (Exception e) {
+      logger.debug("Fetching block of height {} failed", nextHeight);
+      close();
+      throw exceptionConverter.convert(e);
+    }
+  }
+
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Cancel blocks requested ahead and end an iteration.
+   */
+  public void close() {
+    Future<Block> future = prefetched.poll();
+    while (null != future) {
+      future.cancel(true);
+      future = prefetched.poll();
+    }
+    nextHeight = toHeight + 1;
+  }
+
+  protected void fill() {
+    while (prefetched.size() < prefetchSize && requestHeight <= toHeight) {
+      logger.trace("Request block of height {}", requestHeight);
+      try {
+        prefetched.add(blockByHeightFunction.apply(requestHeight));
+      } catch (Exception e) {
+        // deliver an error in height order
+        prefetched.add(HerajFutures.<Block>fail(e));
+      }
+      ++requestHeight;
+    }
+  }
+
+}
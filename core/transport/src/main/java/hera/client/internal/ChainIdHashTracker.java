@@ -0,0 +1,202 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.internal;
+
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.ChainIdHashHolder;
+import hera.api.function.Function0;
+import hera.api.function.Function1;
+import hera.api.model.BlockMetadata;
+import hera.api.model.BlockchainStatus;
+import hera.api.model.BytesValue;
+import hera.api.model.ChainIdHash;
+import hera.api.model.StreamObserver;
+import hera.api.model.Subscription;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.ToString;
+import org.slf4j.Logger;
+
+/**
+ * A tracker keeping a cached chain id hash of a holder current in background, so that a
+ * transaction isn't rejected by a stale chain id hash after a hard fork or a chain reset.
+ *
+ * <p>
+ * With a block metadata stream, a chain id hash is refreshed whenever a chain id in a new block
+ * header is changed. If a stream fails, it's subscribed again after a retry interval. With
+ * polling, a chain id hash is refreshed every interval.
+ * </p>
+ */
+@ApiAudience.Private
+@ApiStability.Unstable
+@ToString(of = {"intervalInNanos"})
+public class ChainIdHashTracker {
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  protected final Function0<Future<BlockchainStatus>> blockchainStatusFunction;
+
+  protected final Function1<StreamObserver<BlockMetadata>,
+      Future<Subscription<BlockMetadata>>> subscribeBlockMetadataFunction;
+
+  protected final ChainIdHashHolder chainIdHashHolder;
+
+  protected final long intervalInNanos;
+
+  protected final AtomicBoolean closed = new AtomicBoolean(false);
+
+  protected volatile BytesValue lastChainId;
+
+  protected Subscription<BlockMetadata> subscription;
+
+  protected ScheduledFuture<?> scheduled;
+
+  /**
+   * ChainIdHashTracker constructor.
+   *
+   * @param blockchainStatusFunction a function to get a blockchain status without blocking
+   * @param subscribeBlockMetadataFunction a function to subscribe new block metadatas
+   * @param chainIdHashHolder a holder of a chain id hash to keep current
+   * @param interval a polling interval or a retry interval of a stream
+   * @param unit an interval unit
+   */
+  public ChainIdHashTracker(final Function0<Future<BlockchainStatus>> blockchainStatusFunction,
+      final Function1<StreamObserver<BlockMetadata>,
+          Future<Subscription<BlockMetadata>>> subscribeBlockMetadataFunction,
+      final ChainIdHashHolder chainIdHashHolder, final long interval, final TimeUnit unit) {
+    assertNotNull(blockchainStatusFunction, "Blockchain status function must not null");
+    assertNotNull(subscribeBlockMetadataFunction, "Subscribe function must not null");
+    assertNotNull(chainIdHashHolder, "Chain id hash holder must not null");
+    assertTrue(0L < interval, "Interval must be positive");
+    this.blockchainStatusFunction = blockchainStatusFunction;
+    this.subscribeBlockMetadataFunction = subscribeBlockMetadataFunction;
+    this.chainIdHashHolder = chainIdHashHolder;
+    this.intervalInNanos = unit.toNanos(interval);
+  }
+
+  /**
+   * Track a chain id hash with a new block metadata stream.
+   */
+  public void trackWithStream() {
+    if (closed.get()) {
+      return;
+    }
+    refresh();
+    try {
+      final Subscription<BlockMetadata> subscribed = subscribeBlockMetadataFunction
+          .apply(new StreamObserver<BlockMetadata>() {
+            @Override
+            public void onNext(final BlockMetadata blockMetadata) {
+              final BytesValue chainId = blockMetadata.getBlockHeader().getChainId();
+              if (!chainId.equals(lastChainId)) {
+                logger.debug("Chain id in a block header changed: {}", chainId);
+                lastChainId = chainId;
+                refresh();
+              }
+            }
+
+            @Override
+            public void onError(final Throwable error) {
+              logger.info("Block metadata stream for chain id hash failed: {}", error.toString());
+              retryStream();
+            }
+
+            @Override
+            public void onCompleted() {
+              retryStream();
+            }
+          }).get();
+      synchronized (this) {
+        this.subscription = subscribed;
+      }
+      if (closed.get()) {
+        subscribed.unsubscribe();
+      }
+    } catch (Exception e) {
+      logger.info("Subscribing block metadata for chain id hash failed: {}", e.toString());
+      retryStream();
+    }
+  }
+
+  /**
+   * Track a chain id hash by polling a blockchain status every interval.
+   */
+  public synchronized void trackWithPolling() {
+    if (closed.get()) {
+      return;
+    }
+    scheduled = HerajFutures.getScheduler().scheduleWithFixedDelay(new Runnable() {
+      @Override
+      public void run() {
+        refresh();
+      }
+    }, 0L, intervalInNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Stop tracking.
+   */
+  public synchronized void close() {
+    closed.set(true);
+    if (null != subscription) {
+      subscription.unsubscribe();
+      subscription = null;
+    }
+    if (null != scheduled) {
+      scheduled.cancel(false);
+      scheduled = null;
+    }
+  }
+
+  protected synchronized void retryStream() {
+    subscription = null;
+    if (closed.get()) {
+      return;
+    }
+    // a chain id hash may be changed meanwhile even if a chain id in a next block is the same
+    lastChainId = null;
+    scheduled = HerajFutures.getScheduler().schedule(new Runnable() {
+      @Override
+      public void run() {
+        trackWithStream();
+      }
+    }, intervalInNanos, TimeUnit.NANOSECONDS);
+  }
+
+  protected void refresh() {
+    try {
+      Futures.addCallback(HerajFutures.listenable(blockchainStatusFunction.apply()),
+          new FutureCallback<BlockchainStatus>() {
+            @Override
+            public void onSuccess(final BlockchainStatus blockchainStatus) {
+              final ChainIdHash chainIdHash = blockchainStatus.getChainIdHash();
+              if (!chainIdHash.getBytesValue().isEmpty()
+                  && !chainIdHash.equals(chainIdHashHolder.getCachedChainIdHash())) {
+                logger.info("Chain id hash changed to {}", chainIdHash);
+                chainIdHashHolder.cacheChainIdHash(chainIdHash);
+              }
+            }
+
+            @Override
+            public void onFailure(final Throwable error) {
+              logger.debug("Refreshing chain id hash failed: {}", error.toString());
+            }
+          }, directExecutor());
+    } catch (Exception e) {
+      logger.debug("Refreshing chain id hash failed: {}", e.toString());
+    }
+  }
+
+}
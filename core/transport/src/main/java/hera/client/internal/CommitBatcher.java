@@ -0,0 +1,182 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.internal;
+
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.function.Function1;
+import hera.api.model.Transaction;
+import hera.api.model.TxCommitResult;
+import hera.api.model.TxHash;
+import hera.exception.RpcCommitException;
+import hera.exception.RpcException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import org.slf4j.Logger;
+
+/**
+ * A batcher coalescing concurrent commits into a single commit request. A batch is sent when it
+ * is full or when a window from its first transaction is passed, whichever comes first.
+ * Transactions in a batch keep an order in which they are committed.
+ */
+@ApiAudience.Private
+@ApiStability.Unstable
+@ToString(of = {"maxBatchSize", "windowInNanos"})
+public class CommitBatcher {
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  protected final Function1<List<Transaction>, Future<List<TxCommitResult>>> batchCommitFunction;
+
+  @Getter
+  protected final int maxBatchSize;
+
+  protected final long windowInNanos;
+
+  protected final Object lock = new Object();
+
+  protected List<Pending> pendings = new ArrayList<>();
+
+  protected ScheduledFuture<?> scheduledFlush;
+
+  /**
+   * CommitBatcher constructor.
+   *
+   * @param batchCommitFunction a function committing transactions in a single request
+   * @param maxBatchSize a maximum number of transactions in a batch. must be positive
+   * @param window a time for which a batch waits for more transactions
+   * @param unit a window unit
+   */
+  public CommitBatcher(
+      final Function1<List<Transaction>, Future<List<TxCommitResult>>> batchCommitFunction,
+      final int maxBatchSize, final long window, final TimeUnit unit) {
+    assertNotNull(batchCommitFunction, "Batch commit function must not null");
+    assertTrue(0 < maxBatchSize, "Max batch size must be positive");
+    assertTrue(0 <= window, "Window must not negative");
+    this.batchCommitFunction = batchCommitFunction;
+    this.maxBatchSize = maxBatchSize;
+    this.windowInNanos = unit.toNanos(window);
+  }
+
+  /**
+   * Add a transaction to a current batch.
+   *
+   * @param transaction a signed transaction
+   * @return a future of transaction hash, which fails with {@link RpcCommitException} if rejected
+   */
+  public ListenableFuture<TxHash> commit(final Transaction transaction) {
+    final SettableFuture<TxHash> future = SettableFuture.create();
+    List<Pending> batch = null;
+    synchronized (lock) {
+      pendings.add(new Pending(transaction, future));
+      if (pendings.size() >= maxBatchSize || 0L == windowInNanos) {
+        batch = drain();
+      } else if (1 == pendings.size()) {
+        scheduledFlush = HerajFutures.getScheduler().schedule(new Runnable() {
+          @Override
+          public void run() {
+            flush();
+          }
+        }, windowInNanos, TimeUnit.NANOSECONDS);
+      }
+    }
+    if (null != batch) {
+      send(batch);
+    }
+    return future;
+  }
+
+  /**
+   * Send a current batch right away.
+   */
+  public void flush() {
+    final List<Pending> batch;
+    synchronized (lock) {
+      batch = drain();
+    }
+    if (!batch.isEmpty()) {
+      send(batch);
+    }
+  }
+
+  protected List<Pending> drain() {
+    if (null != scheduledFlush) {
+      scheduledFlush.cancel(false);
+      scheduledFlush = null;
+    }
+    final List<Pending> batch = pendings;
+    pendings = new ArrayList<>();
+    return batch;
+  }
+
+  protected void send(final List<Pending> batch) {
+    logger.debug("Send a batch of {} transactions", batch.size());
+    final List<Transaction> transactions = new ArrayList<>(batch.size());
+    for (final Pending pending : batch) {
+      transactions.add(pending.transaction);
+    }
+
+    final ListenableFuture<List<TxCommitResult>> future;
+    try {
+      future = HerajFutures.listenable(batchCommitFunction.apply(transactions));
+    } catch (Exception e) {
+      fail(batch, e);
+      return;
+    }
+    Futures.addCallback(future, new FutureCallback<List<TxCommitResult>>() {
+      @Override
+      public void onSuccess(final List<TxCommitResult> commitResults) {
+        for (int i = 0; i < batch.size(); ++i) {
+          final SettableFuture<TxHash> each = batch.get(i).future;
+          if (i >= commitResults.size()) {
+            each.setException(new RpcException("No commit result for a transaction in a batch"));
+            continue;
+          }
+          final TxCommitResult commitResult = commitResults.get(i);
+          if (commitResult.isSuccess()) {
+            each.set(commitResult.getTxHash());
+          } else {
+            each.setException(new RpcCommitException(commitResult));
+          }
+        }
+      }
+
+      @Override
+      public void onFailure(final Throwable error) {
+        fail(batch, error);
+      }
+    }, directExecutor());
+  }
+
+  protected void fail(final List<Pending> batch, final Throwable error) {
+    for (final Pending pending : batch) {
+      pending.future.setException(error);
+    }
+  }
+
+  @RequiredArgsConstructor
+  private static class Pending {
+
+    protected final Transaction transaction;
+
+    protected final SettableFuture<TxHash> future;
+  }
+
+}
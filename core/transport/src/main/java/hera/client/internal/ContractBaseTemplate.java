@@ -4,11 +4,16 @@
 
 package hera.client.internal;
 
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static hera.client.ClientConstants.CONTRACT_INTERFACE_CACHE;
+import static hera.client.ClientConstants.CONTRACT_INTERFACE_DEDUPLICATION;
 import static hera.util.TransportUtils.copyFrom;
 import static org.slf4j.LoggerFactory.getLogger;
 import static types.AergoRPCServiceGrpc.newFutureStub;
 import static types.AergoRPCServiceGrpc.newStub;
 
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
 import com.google.protobuf.ByteString;
 import hera.ContextProvider;
 import hera.ContextProviderInjectable;
@@ -20,6 +25,7 @@ import hera.api.function.Function4;
 import hera.api.function.Function5;
 import hera.api.model.AccountAddress;
 import hera.api.model.BytesValue;
+import hera.api.model.ChainIdHash;
 import hera.api.model.ContractAddress;
 import hera.api.model.ContractDefinition;
 import hera.api.model.ContractInterface;
@@ -36,6 +42,7 @@ import hera.api.model.Transaction;
 import hera.api.model.TxHash;
 import hera.client.ChannelInjectable;
 import hera.client.stream.GrpcStreamObserverAdaptor;
+import hera.client.stream.GrpcStreamPublisher;
 import hera.client.stream.GrpcStreamSubscription;
 import hera.key.Signer;
 import hera.spec.resolver.PayloadResolver;
@@ -47,12 +54,16 @@ import hera.transport.EventConverterFactory;
 import hera.transport.EventFilterConverterFactory;
 import hera.transport.ModelConverter;
 import hera.transport.TxReceiptConverterFactory;
+import hera.util.Configuration;
 import io.grpc.Context;
 import io.grpc.ManagedChannel;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import lombok.AccessLevel;
 import lombok.Getter;
+import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import types.AergoRPCServiceGrpc.AergoRPCServiceFutureStub;
 import types.AergoRPCServiceGrpc.AergoRPCServiceStub;
@@ -63,6 +74,10 @@ import types.Rpc;
 @ApiStability.Unstable
 public class ContractBaseTemplate implements ChannelInjectable, ContextProviderInjectable {
 
+  protected static final long REDEPLOY_POLL_INTERVAL = 1000L; // milliseconds
+
+  protected static final int REDEPLOY_MAX_POLL_COUNT = 60;
+
   protected final transient Logger logger = getLogger(getClass());
 
   protected final ModelConverter<AccountAddress, ByteString> accountAddressConverter =
@@ -176,10 +191,86 @@ public class ContractBaseTemplate implements ChannelInjectable, ContextProviderI
               .definition(contractDefinition)
               .fee(fee)
               .build();
-          return signAndCommit(signer, rawTransaction);
+          final ContractInterfaceCache contractInterfaceCache = getContractInterfaceCache();
+          if (null == contractInterfaceCache) {
+            return signAndCommit(signer, rawTransaction);
+          }
+          // an old abi must not be cached again until a redeployment is in a block
+          final ChainIdHash chainIdHash = contextProvider.get().getChainIdHash();
+          contractInterfaceCache.beginRedeploy(chainIdHash, existingContract);
+          final Future<ContractTxHash> committed;
+          try {
+            committed = signAndCommit(signer, rawTransaction);
+          } catch (RuntimeException e) {
+            contractInterfaceCache.endRedeploy(chainIdHash, existingContract);
+            throw e;
+          }
+          Futures.addCallback(HerajFutures.listenable(committed),
+              new FutureCallback<ContractTxHash>() {
+                @Override
+                public void onSuccess(final ContractTxHash contractTxHash) {
+                  awaitRedeploy(contractInterfaceCache, chainIdHash, existingContract,
+                      contractTxHash, REDEPLOY_MAX_POLL_COUNT);
+                }
+
+                @Override
+                public void onFailure(final Throwable error) {
+                  contractInterfaceCache.endRedeploy(chainIdHash, existingContract);
+                }
+              }, directExecutor());
+          return committed;
         }
       };
 
+  // end a redeployment once its receipt is found or after polling it a max count
+  protected void awaitRedeploy(final ContractInterfaceCache contractInterfaceCache,
+      final ChainIdHash chainIdHash, final ContractAddress contractAddress,
+      final ContractTxHash contractTxHash, final int remaining) {
+    HerajFutures.getScheduler().schedule(new Runnable() {
+      @Override
+      public void run() {
+        Future<ContractTxReceipt> receipt;
+        try {
+          // a hung poll must count as a failed one not to keep a redeployment forever
+          receipt = HerajFutures.withTimeout(contextProvider.get(),
+              getReceiptFunction().apply(contractTxHash));
+        } catch (Exception e) {
+          receipt = HerajFutures.fail(e);
+        }
+        Futures.addCallback(HerajFutures.listenable(receipt),
+            new FutureCallback<ContractTxReceipt>() {
+              @Override
+              public void onSuccess(final ContractTxReceipt contractTxReceipt) {
+                logger.debug("Redeployment of {} confirmed", contractAddress);
+                contractInterfaceCache.endRedeploy(chainIdHash, contractAddress);
+              }
+
+              @Override
+              public void onFailure(final Throwable error) {
+                if (1 < remaining) {
+                  awaitRedeploy(contractInterfaceCache, chainIdHash, contractAddress,
+                      contractTxHash, remaining - 1);
+                } else {
+                  logger.info("Redeployment of {} not confirmed: {}", contractAddress,
+                      error.toString());
+                  contractInterfaceCache.endRedeploy(chainIdHash, contractAddress);
+                }
+              }
+            }, directExecutor());
+      }
+    }, REDEPLOY_POLL_INTERVAL, TimeUnit.MILLISECONDS);
+  }
+
+  // null if contract interface cache isn't configured
+  @Getter(lazy = true, value = AccessLevel.PROTECTED)
+  private final ContractInterfaceCache contractInterfaceCache = createContractInterfaceCache();
+
+  protected ContractInterfaceCache createContractInterfaceCache() {
+    final Configuration configuration = contextProvider.get().getConfiguration();
+    return configuration.getAsBoolean(CONTRACT_INTERFACE_CACHE, false)
+        ? ContractInterfaceCache.getShared() : null;
+  }
+
   @Getter
   private final Function1<ContractAddress,
       Future<ContractInterface>> contractInterfaceFunction = new Function1<
@@ -190,6 +281,18 @@ public class ContractBaseTemplate implements ChannelInjectable, ContextProviderI
             final ContractAddress contractAddress) {
           logger.debug("Get contract interface with contract address: {}", contractAddress);
 
+          final ContractInterfaceCache contractInterfaceCache = getContractInterfaceCache();
+          final ChainIdHash chainIdHash = contextProvider.get().getChainIdHash();
+          final long generation =
+              null != contractInterfaceCache ? contractInterfaceCache.getGeneration() : 0L;
+          if (null != contractInterfaceCache) {
+            final ContractInterface cached =
+                contractInterfaceCache.get(chainIdHash, contractAddress);
+            if (null != cached) {
+              return HerajFutures.success(cached);
+            }
+          }
+
           final Rpc.SingleBytes rpcContractAddress = Rpc.SingleBytes.newBuilder()
               .setValue(accountAddressConverter.convertToRpcModel(contractAddress))
               .build();
@@ -203,9 +306,17 @@ public class ContractBaseTemplate implements ChannelInjectable, ContextProviderI
                 public ContractInterface apply(final Blockchain.ABI abi) {
                   final ContractInterface withoutAddress =
                       contractInterfaceConverter.convertToDomainModel(abi);
-                  return new ContractInterface(contractAddress, withoutAddress.getVersion(),
+                  final ContractInterface contractInterface = new ContractInterface(
+                      contractAddress, withoutAddress.getVersion(),
                       withoutAddress.getLanguage(), withoutAddress.getFunctions(),
                       withoutAddress.getStateVariables());
+                  if (null == contractInterfaceCache) {
+                    return contractInterface;
+                  }
+                  final boolean deduplicate = contextProvider.get().getConfiguration()
+                      .getAsBoolean(CONTRACT_INTERFACE_DEDUPLICATION, false);
+                  return contractInterfaceCache.put(chainIdHash, contractInterface, deduplicate,
+                      generation);
                 }
               });
           return convertedFuture;
@@ -321,9 +432,9 @@ public class ContractBaseTemplate implements ChannelInjectable, ContextProviderI
               eventFilterConverter.convertToRpcModel(filter);
           Context.CancellableContext cancellableContext =
               Context.current().withCancellation();
-          final io.grpc.stub.StreamObserver<Blockchain.Event> adaptor =
-              new GrpcStreamObserverAdaptor<Blockchain.Event, Event>(cancellableContext,
-                  observer, eventConverter);
+          final GrpcStreamObserverAdaptor<Blockchain.FilterInfo, Blockchain.Event, Event> adaptor =
+              new GrpcStreamObserverAdaptor<>(cancellableContext, observer, eventConverter,
+                  contextProvider.get().getConfiguration());
           cancellableContext.run(new Runnable() {
 
             @Override
@@ -332,9 +443,29 @@ public class ContractBaseTemplate implements ChannelInjectable, ContextProviderI
             }
           });
 
-          final Subscription<Event> subscription = new GrpcStreamSubscription<>(cancellableContext);
+          final Subscription<Event> subscription =
+              new GrpcStreamSubscription<>(cancellableContext, adaptor);
           return HerajFutures.success(subscription);
         }
       };
 
+  @Getter
+  private final Function1<EventFilter, Publisher<Event>> eventPublisherFunction =
+      new Function1<EventFilter, Publisher<Event>>() {
+
+        @Override
+        public Publisher<Event> apply(final EventFilter filter) {
+          logger.debug("Create event publisher with filter: {}", filter);
+          final Blockchain.FilterInfo filterInfo = eventFilterConverter.convertToRpcModel(filter);
+          return new GrpcStreamPublisher<Blockchain.FilterInfo, Blockchain.Event, Event>(
+              eventConverter) {
+            @Override
+            protected void startCall(
+                final io.grpc.stub.StreamObserver<Blockchain.Event> responseObserver) {
+              streamService.listEventStream(filterInfo, responseObserver);
+            }
+          };
+        }
+      };
+
 }
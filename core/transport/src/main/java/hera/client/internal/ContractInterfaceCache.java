@@ -0,0 +1,303 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.internal;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.model.ChainIdHash;
+import hera.api.model.ContractAddress;
+import hera.api.model.ContractFunction;
+import hera.api.model.ContractInterface;
+import hera.api.model.StateVariable;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import org.slf4j.Logger;
+
+/**
+ * A LRU cache of contract interfaces keyed by a chain id hash and a contract address. A shared
+ * instance is used by every client enabling it, so it's shared across contract proxies and wallets.
+ * An identical abi of contracts deployed from a same code can be deduplicated so that those
+ * contract interfaces share functions and state variables.
+ *
+ * <p>
+ * A contract being redeployed isn't cached until its redeployment is confirmed, and a contract
+ * interface fetched before that isn't cached either, so that an old abi isn't cached again while
+ * a redeployment is waiting for a block.
+ * </p>
+ */
+@ApiAudience.Private
+@ApiStability.Unstable
+@ToString(of = {"maxEntries"})
+public class ContractInterfaceCache {
+
+  public static final int DEFAULT_MAX_ENTRIES = 1024;
+
+  protected static final ContractInterfaceCache shared =
+      new ContractInterfaceCache(DEFAULT_MAX_ENTRIES);
+
+  /**
+   * Get a contract interface cache shared in a process.
+   *
+   * @return a shared contract interface cache
+   */
+  public static ContractInterfaceCache getShared() {
+    return shared;
+  }
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  @Getter
+  protected final int maxEntries;
+
+  protected final Map<Key, ContractInterface> entries;
+
+  protected final Map<Abi, Abi> abis;
+
+  // a number of redeployments in progress of each contract
+  protected final Map<Key, Integer> redeploying = new HashMap<>();
+
+  // generations which redeployments of contracts end at, in an order of them
+  protected final Map<Key, Long> redeployed;
+
+  // increased on each end of a redeployment
+  protected long generation = 0L;
+
+  // a contract interface fetched before it isn't cached since redeployments before it are forgotten
+  protected long forgottenUntil = 0L;
+
+  protected final AtomicLong hitCount = new AtomicLong(0L);
+
+  protected final AtomicLong missCount = new AtomicLong(0L);
+
+  /**
+   * ContractInterfaceCache constructor.
+   *
+   * @param maxEntries a maximum number of contract interfaces. must be positive
+   */
+  public ContractInterfaceCache(final int maxEntries) {
+    assertTrue(0 < maxEntries, "Max entries must be positive");
+    this.maxEntries = maxEntries;
+    this.entries = new LinkedHashMap<Key, ContractInterface>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<Key, ContractInterface> eldest) {
+        return size() > ContractInterfaceCache.this.maxEntries;
+      }
+    };
+    this.abis = new LinkedHashMap<Abi, Abi>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<Abi, Abi> eldest) {
+        return size() > ContractInterfaceCache.this.maxEntries;
+      }
+    };
+    this.redeployed = new LinkedHashMap<Key, Long>() {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<Key, Long> eldest) {
+        if (size() <= ContractInterfaceCache.this.maxEntries) {
+          return false;
+        }
+        forgottenUntil = Math.max(forgottenUntil, eldest.getValue());
+        return true;
+      }
+    };
+  }
+
+  /**
+   * Get a cached contract interface.
+   *
+   * @param chainIdHash a chain id hash
+   * @param contractAddress a contract address
+   * @return a cached contract interface. null if not cached
+   */
+  public ContractInterface get(final ChainIdHash chainIdHash,
+      final ContractAddress contractAddress) {
+    final ContractInterface contractInterface;
+    synchronized (this) {
+      contractInterface = entries.get(new Key(chainIdHash, contractAddress));
+    }
+    if (null == contractInterface) {
+      missCount.incrementAndGet();
+    } else {
+      hitCount.incrementAndGet();
+    }
+    return contractInterface;
+  }
+
+  /**
+   * Get a current generation. Pass it to {@link #put(ChainIdHash, ContractInterface, boolean,
+   * long)} for a contract interface fetched after it.
+   *
+   * @return a current generation
+   */
+  public synchronized long getGeneration() {
+    return generation;
+  }
+
+  /**
+   * Put a contract interface fetched after a generation. It's not cached if its contract is being
+   * redeployed or is redeployed since then.
+   *
+   * @param chainIdHash a chain id hash
+   * @param contractInterface a contract interface to cache
+   * @param deduplicate whether to share functions and state variables with an identical abi
+   * @param fetchedAfter a generation before fetching a contract interface
+   * @return a contract interface cached. {@code contractInterface} if not cached
+   */
+  public ContractInterface put(final ChainIdHash chainIdHash,
+      final ContractInterface contractInterface, final boolean deduplicate,
+      final long fetchedAfter) {
+    assertNotNull(contractInterface, "Contract interface must not null");
+    synchronized (this) {
+      final Key key = new Key(chainIdHash, contractInterface.getAddress());
+      final Long redeployedAt = redeployed.get(key);
+      if (redeploying.containsKey(key) || fetchedAfter < forgottenUntil
+          || (null != redeployedAt && fetchedAfter < redeployedAt)) {
+        logger.trace("Skip caching contract interface of {} redeployed",
+            contractInterface.getAddress());
+        return contractInterface;
+      }
+      return put(chainIdHash, contractInterface, deduplicate);
+    }
+  }
+
+  /**
+   * Put a contract interface.
+   *
+   * @param chainIdHash a chain id hash
+   * @param contractInterface a contract interface to cache
+   * @param deduplicate whether to share functions and state variables with an identical abi
+   * @return a contract interface cached
+   */
+  public ContractInterface put(final ChainIdHash chainIdHash,
+      final ContractInterface contractInterface, final boolean deduplicate) {
+    assertNotNull(contractInterface, "Contract interface must not null");
+    ContractInterface cached = contractInterface;
+    synchronized (this) {
+      if (deduplicate) {
+        final Abi abi = new Abi(contractInterface.getVersion(), contractInterface.getLanguage(),
+            contractInterface.getFunctions(), contractInterface.getStateVariables());
+        final Abi existing = abis.get(abi);
+        if (null == existing) {
+          abis.put(abi, abi);
+        } else {
+          logger.trace("Deduplicate abi of {}", contractInterface.getAddress());
+          cached = new ContractInterface(contractInterface.getAddress(), existing.version,
+              existing.language, existing.functions, existing.stateVariables);
+        }
+      }
+      entries.put(new Key(chainIdHash, contractInterface.getAddress()), cached);
+    }
+    return cached;
+  }
+
+  /**
+   * Invalidate a cached contract interface.
+   *
+   * @param chainIdHash a chain id hash
+   * @param contractAddress a contract address
+   */
+  public synchronized void invalidate(final ChainIdHash chainIdHash,
+      final ContractAddress contractAddress) {
+    logger.debug("Invalidate contract interface of {}", contractAddress);
+    entries.remove(new Key(chainIdHash, contractAddress));
+  }
+
+  /**
+   * Invalidate a cached contract interface and stop caching it until
+   * {@link #endRedeploy(ChainIdHash, ContractAddress)}.
+   *
+   * @param chainIdHash a chain id hash
+   * @param contractAddress a contract address
+   */
+  public synchronized void beginRedeploy(final ChainIdHash chainIdHash,
+      final ContractAddress contractAddress) {
+    final Key key = new Key(chainIdHash, contractAddress);
+    final Integer count = redeploying.get(key);
+    redeploying.put(key, null == count ? 1 : count + 1);
+    invalidate(chainIdHash, contractAddress);
+  }
+
+  /**
+   * Invalidate a cached contract interface once a redeployment is confirmed or given up. A
+   * contract interface fetched before it isn't cached.
+   *
+   * @param chainIdHash a chain id hash
+   * @param contractAddress a contract address
+   */
+  public synchronized void endRedeploy(final ChainIdHash chainIdHash,
+      final ContractAddress contractAddress) {
+    final Key key = new Key(chainIdHash, contractAddress);
+    final Integer count = redeploying.get(key);
+    if (null == count || 1 >= count) {
+      redeploying.remove(key);
+    } else {
+      redeploying.put(key, count - 1);
+    }
+    ++generation;
+    // re-insert to keep an order of redeployments
+    redeployed.remove(key);
+    redeployed.put(key, generation);
+    invalidate(chainIdHash, contractAddress);
+  }
+
+  /**
+   * Remove all the cached contract interfaces.
+   */
+  public synchronized void clear() {
+    entries.clear();
+    abis.clear();
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  @EqualsAndHashCode
+  @RequiredArgsConstructor
+  private static class Key {
+
+    protected final ChainIdHash chainIdHash;
+
+    protected final ContractAddress contractAddress;
+  }
+
+  @EqualsAndHashCode
+  @RequiredArgsConstructor
+  private static class Abi {
+
+    protected final String version;
+
+    protected final String language;
+
+    protected final List<ContractFunction> functions;
+
+    protected final List<StateVariable> stateVariables;
+  }
+
+}
@@ -0,0 +1,351 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.internal;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.google.common.util.concurrent.SettableFuture;
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.function.Function2;
+import hera.api.model.BigNumber;
+import hera.api.model.ContractAddress;
+import hera.api.model.Event;
+import hera.api.model.EventFilter;
+import hera.api.model.StreamObserver;
+import hera.api.model.Subscription;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.ToString;
+import org.slf4j.Logger;
+
+/**
+ * A hub sharing one event stream per contract among listeners. An event name and args of each
+ * listener's filter are compiled into a matcher once and evaluated on a client for each event. An
+ * upstream of a contract is opened by a first listener and closed when a last listener
+ * unsubscribes. If an upstream fails, every listener of a contract gets an error.
+ *
+ * <p>
+ * An upstream is opened outside a lock of a hub, so opening one doesn't block listeners of other
+ * contracts or failures of other upstreams. A listener of a contract whose upstream is being
+ * opened waits for it to be open.
+ * </p>
+ *
+ * <p>
+ * A block range of a filter is ignored as a stream has no range.
+ * </p>
+ */
+@ApiAudience.Private
+@ApiStability.Unstable
+@ToString(of = {"upstreams"})
+public class EventHub {
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  protected final Function2<EventFilter, StreamObserver<Event>,
+      Future<Subscription<Event>>> subscribeEventFunction;
+
+  protected final Map<ContractAddress, Upstream> upstreams = new HashMap<>();
+
+  /**
+   * EventHub constructor.
+   *
+   * @param subscribeEventFunction a function to subscribe an event stream of a contract
+   */
+  public EventHub(final Function2<EventFilter, StreamObserver<Event>,
+      Future<Subscription<Event>>> subscribeEventFunction) {
+    assertNotNull(subscribeEventFunction, "Subscribe event function must not null");
+    this.subscribeEventFunction = subscribeEventFunction;
+  }
+
+  /**
+   * Subscribe events matching a filter through a shared stream of its contract.
+   *
+   * @param filter an event filter
+   * @param observer an observer to get matched events
+   * @return a subscription of a listener
+   * @throws Exception on subscribing an upstream failure
+   */
+  public Subscription<Event> subscribe(final EventFilter filter,
+      final StreamObserver<Event> observer) throws Exception {
+    assertNotNull(filter, "Event filter must not null");
+    assertNotNull(observer, "Observer must not null");
+    final Listener listener = new Listener(new Matcher(filter), observer);
+    final ContractAddress contractAddress = filter.getContractAddress();
+    Upstream upstream;
+    boolean toOpen = false;
+    synchronized (this) {
+      upstream = upstreams.get(contractAddress);
+      if (null == upstream) {
+        // a placeholder for other listeners to wait on
+        upstream = new Upstream(contractAddress);
+        upstreams.put(contractAddress, upstream);
+        toOpen = true;
+      }
+      // gets events as soon as an upstream is open
+      listener.upstream = upstream;
+      upstream.listeners.add(listener);
+    }
+    if (toOpen) {
+      open(upstream);
+    }
+    try {
+      upstream.opened.get();
+    } catch (ExecutionException e) {
+      listener.unsubscribed.set(true);
+      final Throwable cause = e.getCause();
+      throw cause instanceof Exception ? (Exception) cause : e;
+    } catch (InterruptedException e) {
+      listener.unsubscribe();
+      throw e;
+    }
+    return listener;
+  }
+
+  protected void open(final Upstream upstream) {
+    logger.debug("Open event upstream of {}", upstream.contractAddress);
+    final Subscription<Event> subscription;
+    try {
+      subscription = subscribeEventFunction
+          .apply(EventFilter.newBuilder(upstream.contractAddress).build(), upstream).get();
+    } catch (Exception e) {
+      if (e instanceof InterruptedException) {
+        Thread.currentThread().interrupt();
+      }
+      logger.debug("Opening event upstream of {} failed: {}", upstream.contractAddress,
+          e.toString());
+      detach(upstream);
+      upstream.opened.setException(e);
+      return;
+    }
+    upstream.subscription = subscription;
+    final boolean detached;
+    synchronized (this) {
+      detached = upstreams.get(upstream.contractAddress) != upstream;
+    }
+    if (detached) {
+      // failed or completed while opening
+      subscription.unsubscribe();
+    }
+    upstream.opened.set(null);
+  }
+
+  /**
+   * Get a number of contracts with an open upstream.
+   *
+   * @return a number of upstreams
+   */
+  public synchronized int getUpstreamCount() {
+    return upstreams.size();
+  }
+
+  protected void remove(final Listener listener) {
+    final Upstream upstream = listener.upstream;
+    Subscription<Event> toClose = null;
+    synchronized (this) {
+      upstream.listeners.remove(listener);
+      if (upstream.listeners.isEmpty() && upstreams.get(upstream.contractAddress) == upstream) {
+        logger.debug("Close event upstream of {}", upstream.contractAddress);
+        upstreams.remove(upstream.contractAddress);
+        toClose = upstream.subscription;
+      }
+    }
+    if (null != toClose) {
+      toClose.unsubscribe();
+    }
+  }
+
+  protected List<Listener> detach(final Upstream upstream) {
+    synchronized (this) {
+      if (upstreams.get(upstream.contractAddress) == upstream) {
+        upstreams.remove(upstream.contractAddress);
+      }
+      final List<Listener> detached = new ArrayList<>(upstream.listeners);
+      upstream.listeners.clear();
+      return detached;
+    }
+  }
+
+  @ToString(of = {"contractAddress"})
+  protected class Upstream implements StreamObserver<Event> {
+
+    protected final ContractAddress contractAddress;
+
+    protected final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    protected final SettableFuture<Void> opened = SettableFuture.create();
+
+    protected volatile Subscription<Event> subscription;
+
+    protected Upstream(final ContractAddress contractAddress) {
+      this.contractAddress = contractAddress;
+    }
+
+    @Override
+    public void onNext(final Event event) {
+      for (final Listener listener : listeners) {
+        if (listener.matcher.matches(event)) {
+          listener.next(event);
+        }
+      }
+    }
+
+    @Override
+    public void onError(final Throwable error) {
+      logger.info("Event upstream of {} failed: {}", contractAddress, error.toString());
+      for (final Listener listener : detach(this)) {
+        listener.fail(error);
+      }
+    }
+
+    @Override
+    public void onCompleted() {
+      logger.info("Event upstream of {} completed", contractAddress);
+      for (final Listener listener : detach(this)) {
+        listener.complete();
+      }
+    }
+  }
+
+  protected class Listener implements Subscription<Event> {
+
+    protected final Matcher matcher;
+
+    protected final StreamObserver<Event> observer;
+
+    protected final AtomicBoolean unsubscribed = new AtomicBoolean(false);
+
+    protected Upstream upstream;
+
+    protected Listener(final Matcher matcher, final StreamObserver<Event> observer) {
+      this.matcher = matcher;
+      this.observer = observer;
+    }
+
+    protected void next(final Event event) {
+      if (unsubscribed.get()) {
+        return;
+      }
+      try {
+        observer.onNext(event);
+      } catch (Exception e) {
+        logger.error("Delivering event failed by {}", e.toString());
+      }
+    }
+
+    protected void fail(final Throwable error) {
+      if (unsubscribed.compareAndSet(false, true)) {
+        observer.onError(error);
+      }
+    }
+
+    protected void complete() {
+      if (unsubscribed.compareAndSet(false, true)) {
+        observer.onCompleted();
+      }
+    }
+
+    @Override
+    public void unsubscribe() {
+      if (unsubscribed.compareAndSet(false, true)) {
+        remove(this);
+      }
+    }
+
+    @Override
+    public boolean isUnsubscribed() {
+      return unsubscribed.get();
+    }
+
+    @Override
+    public int getQueueDepth() {
+      final Subscription<Event> subscription = upstream.subscription;
+      return null != subscription ? subscription.getQueueDepth() : 0;
+    }
+
+    @Override
+    public long getDropCount() {
+      final Subscription<Event> subscription = upstream.subscription;
+      return null != subscription ? subscription.getDropCount() : 0L;
+    }
+  }
+
+  /**
+   * A matcher compiled from an event filter. An empty event name matches any event. Each filter
+   * arg must equal an event arg at a same position. Numbers are compared by their values regardless
+   * of their types.
+   */
+  protected static class Matcher {
+
+    protected final String eventName;
+
+    protected final Object[] args;
+
+    protected Matcher(final EventFilter filter) {
+      this.eventName = filter.getEventName();
+      final List<Object> filterArgs = filter.getArgs();
+      this.args = new Object[filterArgs.size()];
+      for (int i = 0; i < args.length; ++i) {
+        args[i] = normalize(filterArgs.get(i));
+      }
+    }
+
+    protected boolean matches(final Event event) {
+      if (!eventName.isEmpty() && !eventName.equals(event.getName())) {
+        return false;
+      }
+      final List<Object> eventArgs = event.getArgs();
+      if (eventArgs.size() < args.length) {
+        return false;
+      }
+      for (int i = 0; i < args.length; ++i) {
+        if (!equal(args[i], normalize(eventArgs.get(i)))) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    protected static Object normalize(final Object value) {
+      if (value instanceof BigNumber) {
+        return new BigDecimal(((BigNumber) value).getValue());
+      }
+      if (value instanceof BigDecimal) {
+        return value;
+      }
+      if ((value instanceof Double && !isFinite((Double) value))
+          || (value instanceof Float && !isFinite((Float) value))) {
+        return value;
+      }
+      if (value instanceof Number) {
+        return new BigDecimal(value.toString());
+      }
+      return value;
+    }
+
+    protected static boolean isFinite(final double value) {
+      return !Double.isNaN(value) && !Double.isInfinite(value);
+    }
+
+    protected static boolean equal(final Object expected, final Object actual) {
+      if (null == expected || null == actual) {
+        return expected == actual;
+      }
+      if (expected instanceof BigDecimal && actual instanceof BigDecimal) {
+        return 0 == ((BigDecimal) expected).compareTo((BigDecimal) actual);
+      }
+      return expected.equals(actual);
+    }
+  }
+
+}
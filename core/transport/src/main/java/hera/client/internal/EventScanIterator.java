@@ -0,0 +1,267 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.internal;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+import static java.util.Collections.emptyIterator;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.function.Function1;
+import hera.api.model.Event;
+import hera.api.model.EventFilter;
+import hera.exception.RpcException;
+import hera.util.ExceptionConverter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Future;
+import lombok.ToString;
+import org.slf4j.Logger;
+
+/**
+ * An iterator of events in a block range of a filter. A range is split into chunks of blocks and
+ * chunks ahead of a current one are requested concurrently up to a parallelism. Events are
+ * delivered in block and index order, descending if a filter says so. A failed chunk is halved and
+ * requested again, and a chunk size of following requests is halved too, so that a chunk hitting
+ * a timeout or a result limit of a server is narrowed down. A chunk size grows back on success but
+ * stays below a smallest size failed so far. A chunk of a single block is retried up to a max
+ * retry count before its failure is thrown.
+ *
+ * <p>
+ * At most a parallelism of chunks are held in memory. {@link #hasNext()} waits for a next chunk
+ * and may throw its failure.
+ * </p>
+ */
+@ApiAudience.Private
+@ApiStability.Unstable
+@ToString(of = {"remainingFrom", "remainingTo", "chunkSize", "parallelism"})
+public class EventScanIterator implements Iterator<Event> {
+
+  public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+  public static final int DEFAULT_PARALLELISM = 4;
+
+  public static final int DEFAULT_MAX_RETRY_COUNT = 2;
+
+  protected static final Comparator<Event> ASCENDING = new Comparator<Event>() {
+    @Override
+    public int compare(final Event left, final Event right) {
+      if (left.getBlockNumber() != right.getBlockNumber()) {
+        return left.getBlockNumber() < right.getBlockNumber() ? -1 : 1;
+      }
+      if (left.getIndexInBlock() != right.getIndexInBlock()) {
+        return left.getIndexInBlock() < right.getIndexInBlock() ? -1 : 1;
+      }
+      if (left.getIndex() != right.getIndex()) {
+        return left.getIndex() < right.getIndex() ? -1 : 1;
+      }
+      return 0;
+    }
+  };
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  protected final Function1<EventFilter, Future<List<Event>>> listEventFunction;
+
+  protected final ExceptionConverter<RpcException> exceptionConverter;
+
+  protected final EventFilter filter;
+
+  protected final int maxChunkSize;
+
+  protected final int parallelism;
+
+  protected final int maxRetryCount;
+
+  // requested in delivery order
+  protected final Deque<Chunk> requested = new LinkedList<>();
+
+  // a block range not requested yet (inclusive)
+  protected long remainingFrom;
+
+  protected long remainingTo;
+
+  protected int chunkSize;
+
+  // a smallest size of a failed chunk
+  protected long failedSize = Long.MAX_VALUE;
+
+  protected Iterator<Event> current = emptyIterator();
+
+  protected boolean closed = false;
+
+  /**
+   * EventScanIterator constructor.
+   *
+   * @param listEventFunction a function requesting events without blocking
+   * @param filter an event filter with a block range
+   * @param chunkSize an initial and max number of blocks in a request. must be positive
+   * @param parallelism a max number of concurrent requests. must be positive
+   * @param maxRetryCount a max retry count of a single block chunk. must not negative
+   * @param exceptionConverter an exception converter
+   */
+  public EventScanIterator(final Function1<EventFilter, Future<List<Event>>> listEventFunction,
+      final EventFilter filter, final int chunkSize, final int parallelism,
+      final int maxRetryCount, final ExceptionConverter<RpcException> exceptionConverter) {
+    assertNotNull(listEventFunction, "List event function must not null");
+    assertNotNull(filter, "Event filter must not null");
+    assertNotNull(exceptionConverter, "Exception converter must not null");
+    assertTrue(0 == filter.getRecentBlockCount(), "Scan needs a block range, not a recent count");
+    assertTrue(filter.getFromBlockNumber() <= filter.getToBlockNumber(),
+        "From block number must not be greater than to block number");
+    assertTrue(0 < chunkSize, "Chunk size must be positive");
+    assertTrue(0 < parallelism, "Parallelism must be positive");
+    assertTrue(0 <= maxRetryCount, "Max retry count must not negative");
+    this.listEventFunction = listEventFunction;
+    this.exceptionConverter = exceptionConverter;
+    this.filter = filter;
+    this.maxChunkSize = chunkSize;
+    this.chunkSize = chunkSize;
+    this.parallelism = parallelism;
+    this.maxRetryCount = maxRetryCount;
+    this.remainingFrom = filter.getFromBlockNumber();
+    this.remainingTo = filter.getToBlockNumber();
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (!current.hasNext()) {
+      if (closed) {
+        return false;
+      }
+      fill();
+      final Chunk head = requested.poll();
+      if (null == head) {
+        closed = true;
+        return false;
+      }
+      try {
+        final List<Event> events = new ArrayList<>(head.future.get());
+        Collections.sort(events, filter.isDecending()
+            ? Collections.reverseOrder(ASCENDING) : ASCENDING);
+        current = events.iterator();
+        chunkSize = (int) Math.max(1L,
+            Math.min(Math.min(maxChunkSize, 2L * chunkSize), failedSize - 1L));
+      } catch (Exception e) {
+        retry(head, e);
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public Event next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return current.next();
+  }
+
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Cancel chunks requested ahead and end an iteration.
+   */
+  public void close() {
+    Chunk chunk = requested.poll();
+    while (null != chunk) {
+      chunk.future.cancel(true);
+      chunk = requested.poll();
+    }
+    current = emptyIterator();
+    closed = true;
+  }
+
+  protected void retry(final Chunk failed, final Exception cause) {
+    final long size = failed.to - failed.from + 1;
+    if (1L < size) {
+      final long middle = failed.from + size / 2 - 1;
+      logger.debug("Split a failed chunk [{}, {}] at {}", failed.from, failed.to, middle);
+      failedSize = Math.min(failedSize, size);
+      chunkSize = (int) Math.max(1L, Math.min(chunkSize, size / 2));
+      final Chunk lower = request(failed.from, middle, 0);
+      final Chunk upper = request(middle + 1, failed.to, 0);
+      // keep a delivery order
+      if (filter.isDecending()) {
+        requested.addFirst(lower);
+        requested.addFirst(upper);
+      } else {
+        requested.addFirst(upper);
+        requested.addFirst(lower);
+      }
+    } else if (failed.retryCount < maxRetryCount) {
+      logger.debug("Retry a failed block {} ({})", failed.from, failed.retryCount + 1);
+      requested.addFirst(request(failed.from, failed.to, failed.retryCount + 1));
+    } else {
+      logger.debug("Listing events of block {} failed", failed.from);
+      close();
+      throw exceptionConverter.convert(cause);
+    }
+  }
+
+  protected void fill() {
+    while (requested.size() < parallelism && remainingFrom <= remainingTo) {
+      final long size = Math.min(chunkSize, remainingTo - remainingFrom + 1);
+      if (filter.isDecending()) {
+        requested.add(request(remainingTo - size + 1, remainingTo, 0));
+        remainingTo -= size;
+      } else {
+        requested.add(request(remainingFrom, remainingFrom + size - 1, 0));
+        remainingFrom += size;
+      }
+    }
+  }
+
+  protected Chunk request(final long from, final long to, final int retryCount) {
+    logger.trace("Request events of blocks [{}, {}]", from, to);
+    final EventFilter chunkFilter = EventFilter.newBuilder(filter.getContractAddress())
+        .eventName(filter.getEventName())
+        .args(filter.getArgs())
+        .fromBlockNumber(from)
+        .toBlockNumber(to)
+        .decending(filter.isDecending())
+        .build();
+    Future<List<Event>> future;
+    try {
+      future = listEventFunction.apply(chunkFilter);
+    } catch (Exception e) {
+      // deliver an error in order
+      future = HerajFutures.fail(e);
+    }
+    return new Chunk(from, to, retryCount, future);
+  }
+
+  @ToString(of = {"from", "to", "retryCount"})
+  protected static class Chunk {
+
+    protected final long from;
+
+    protected final long to;
+
+    protected final int retryCount;
+
+    protected final Future<List<Event>> future;
+
+    protected Chunk(final long from, final long to, final int retryCount,
+        final Future<List<Event>> future) {
+      this.from = from;
+      this.to = to;
+      this.retryCount = retryCount;
+      this.future = future;
+    }
+  }
+
+}
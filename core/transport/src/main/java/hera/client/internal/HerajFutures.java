@@ -9,14 +9,29 @@ import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static hera.util.ValidationUtils.assertNotNull;
 
 import com.google.common.base.Function;
+import com.google.common.util.concurrent.AsyncFunction;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import hera.Context;
 import hera.api.function.Function1;
+import hera.api.model.internal.Time;
 import hera.exception.HerajException;
+import hera.strategy.TimeoutStrategy;
+import hera.util.ExceptionConverter;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
 
 public class HerajFutures {
 
+  // shared by every client; only fires timeouts so a single thread is enough
+  protected static final ScheduledExecutorService scheduler =
+      Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+          .setNameFormat("heraj-scheduler-%d")
+          .setDaemon(true)
+          .build());
+
   /**
    * Transform Future of type T into Future of type R.
    * 
@@ -47,6 +62,87 @@ public class HerajFutures {
     return transformed;
   }
 
+  /**
+   * Get a scheduler shared by every client. A task running on it must be short.
+   *
+   * @return a shared scheduler
+   */
+  public static ScheduledExecutorService getScheduler() {
+    return scheduler;
+  }
+
+  /**
+   * Cast a future made by heraj into {@link ListenableFuture}.
+   *
+   * @param <T> a type of future
+   * @param origin an origin future
+   *
+   * @return a listenable future
+   */
+  public static <T> ListenableFuture<T> listenable(final Future<T> origin) {
+    assertNotNull(origin);
+    if (!(origin instanceof ListenableFuture)) {
+      throw new HerajException("Unsupported future type: " + origin.getClass().getName());
+    }
+    return (ListenableFuture<T>) origin;
+  }
+
+  /**
+   * Make a future failing with {@link java.util.concurrent.TimeoutException} after a timeout
+   * without blocking any thread. The origin future is cancelled on timeout.
+   *
+   * @param <T> a type of future
+   * @param origin an origin future
+   * @param timeout a timeout
+   *
+   * @return a future with timeout
+   */
+  public static <T> ListenableFuture<T> withTimeout(final Future<T> origin, final Time timeout) {
+    assertNotNull(timeout);
+    return Futures.withTimeout(listenable(origin), timeout.getValue(), timeout.getUnit(),
+        scheduler);
+  }
+
+  /**
+   * Apply a timeout of {@link TimeoutStrategy} in the {@code context} if any.
+   *
+   * @param <T> a type of future
+   * @param context a context holding timeout strategy
+   * @param origin an origin future
+   *
+   * @return a future with timeout
+   */
+  public static <T> ListenableFuture<T> withTimeout(final Context context,
+      final Future<T> origin) {
+    final TimeoutStrategy timeoutStrategy = context.getStrategy(TimeoutStrategy.class);
+    if (null == timeoutStrategy) {
+      return listenable(origin);
+    }
+    return withTimeout(origin, timeoutStrategy.getTimeout());
+  }
+
+  /**
+   * Convert a failure of future using a {@code converter}.
+   *
+   * @param <T> a type of future
+   * @param origin an origin future
+   * @param converter an exception converter
+   *
+   * @return a future failing with converted exception
+   */
+  public static <T> ListenableFuture<T> convertFailure(final Future<T> origin,
+      final ExceptionConverter<? extends Throwable> converter) {
+    assertNotNull(converter);
+    return Futures.catchingAsync(listenable(origin), Throwable.class,
+        new AsyncFunction<Throwable, T>() {
+
+          @Override
+          public ListenableFuture<T> apply(final Throwable input) {
+            return Futures.immediateFailedFuture(converter.convert(input));
+          }
+        }, directExecutor());
+  }
+
   public static <T> Future<T> success(final T value) {
     return Futures.immediateFuture(value);
   }
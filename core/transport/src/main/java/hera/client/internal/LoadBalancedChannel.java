@@ -0,0 +1,297 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.internal;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+import static java.util.Collections.unmodifiableList;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import io.grpc.CallOptions;
+import io.grpc.ClientCall;
+import io.grpc.Context;
+import io.grpc.ForwardingClientCall.SimpleForwardingClientCall;
+import io.grpc.ForwardingClientCallListener.SimpleForwardingClientCallListener;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import org.slf4j.Logger;
+
+/**
+ * A {@link ManagedChannel} spreading calls over channels connected to different endpoints.
+ * <p>
+ * An endpoint is picked by power-of-two-choices over its latency (an exponentially weighted moving
+ * average of unary call latency) multiplied by its number of in-flight calls. An endpoint failing
+ * with {@link Status.Code#UNAVAILABLE} is ejected for a while. Calls sending a transaction are
+ * pinned to the first available endpoint so that nonces arrive at one node in order.
+ * </p>
+ * <p>
+ * If a context holds {@link #ROUTED_ENDPOINTS}, an endpoint in it is avoided as long as another
+ * one is available and a chosen endpoint is added to it. Duplicate calls sharing the set (eg.
+ * hedged requests) are sent to different endpoints this way.
+ * </p>
+ */
+@ApiAudience.Private
+@ApiStability.Unstable
+@ToString(of = "endpoints")
+public class LoadBalancedChannel extends ManagedChannel {
+
+  /**
+   * A key of a set of endpoint names already used by calls in a context.
+   */
+  public static final Context.Key<Set<String>> ROUTED_ENDPOINTS =
+      Context.key("heraj-routed-endpoints");
+
+  protected static final double EWMA_WEIGHT = 0.3d;
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  @Getter
+  protected final List<Endpoint> endpoints;
+
+  protected final long ejectionTimeInNanos;
+
+  protected final Random random = new Random();
+
+  /**
+   * LoadBalancedChannel constructor.
+   *
+   * @param endpoints endpoints to balance over
+   * @param ejectionTime a time for which failed endpoint is excluded
+   * @param unit an ejection time unit
+   */
+  public LoadBalancedChannel(final List<Endpoint> endpoints, final long ejectionTime,
+      final TimeUnit unit) {
+    assertNotNull(endpoints, "Endpoints must not null");
+    assertTrue(!endpoints.isEmpty(), "Endpoints must not empty");
+    this.endpoints = unmodifiableList(new ArrayList<Endpoint>(endpoints));
+    this.ejectionTimeInNanos = unit.toNanos(ejectionTime);
+  }
+
+  protected boolean isPinned(final MethodDescriptor<?, ?> method) {
+    final String name = method.getFullMethodName();
+    return name.endsWith("/CommitTX") || name.endsWith("/SendTX");
+  }
+
+  protected Endpoint choose(final MethodDescriptor<?, ?> method) {
+    return choose(method, Collections.<String>emptySet());
+  }
+
+  protected Endpoint choose(final MethodDescriptor<?, ?> method, final Set<String> routed) {
+    final long now = System.nanoTime();
+    final List<Endpoint> available = new ArrayList<Endpoint>(endpoints.size());
+    for (final Endpoint endpoint : endpoints) {
+      if (!endpoint.isEjected(now)) {
+        available.add(endpoint);
+      }
+    }
+    if (!routed.isEmpty() && !isPinned(method)) {
+      final List<Endpoint> unrouted = new ArrayList<Endpoint>(available.size());
+      for (final Endpoint endpoint : available) {
+        if (!routed.contains(endpoint.getName())) {
+          unrouted.add(endpoint);
+        }
+      }
+      if (!unrouted.isEmpty()) {
+        available.retainAll(unrouted);
+      }
+    }
+    if (available.isEmpty()) {
+      // every endpoint is ejected; try the one released the soonest
+      Endpoint soonest = endpoints.get(0);
+      for (final Endpoint endpoint : endpoints) {
+        if (endpoint.ejectedUntil - soonest.ejectedUntil < 0) {
+          soonest = endpoint;
+        }
+      }
+      return soonest;
+    }
+    if (1 == available.size() || isPinned(method)) {
+      return available.get(0);
+    }
+
+    final int first = random.nextInt(available.size());
+    int second = random.nextInt(available.size() - 1);
+    if (second >= first) {
+      ++second;
+    }
+    final Endpoint left = available.get(first);
+    final Endpoint right = available.get(second);
+    return left.getCost() <= right.getCost() ? left : right;
+  }
+
+  @Override
+  public <ReqT, RespT> ClientCall<ReqT, RespT> newCall(
+      final MethodDescriptor<ReqT, RespT> method, final CallOptions callOptions) {
+    final Set<String> routed = ROUTED_ENDPOINTS.get();
+    final Endpoint endpoint;
+    if (null == routed) {
+      endpoint = choose(method);
+    } else {
+      endpoint = choose(method, routed);
+      routed.add(endpoint.getName());
+    }
+    logger.trace("Route {} to {}", method.getFullMethodName(), endpoint);
+    final ClientCall<ReqT, RespT> delegate = endpoint.getChannel().newCall(method, callOptions);
+    return new MeasuredClientCall<ReqT, RespT>(delegate, endpoint,
+        MethodDescriptor.MethodType.UNARY == method.getType());
+  }
+
+  @Override
+  public String authority() {
+    return endpoints.get(0).getChannel().authority();
+  }
+
+  @Override
+  public ManagedChannel shutdown() {
+    for (final Endpoint endpoint : endpoints) {
+      endpoint.getChannel().shutdown();
+    }
+    return this;
+  }
+
+  @Override
+  public ManagedChannel shutdownNow() {
+    for (final Endpoint endpoint : endpoints) {
+      endpoint.getChannel().shutdownNow();
+    }
+    return this;
+  }
+
+  @Override
+  public boolean isShutdown() {
+    for (final Endpoint endpoint : endpoints) {
+      if (!endpoint.getChannel().isShutdown()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public boolean isTerminated() {
+    for (final Endpoint endpoint : endpoints) {
+      if (!endpoint.getChannel().isTerminated()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public boolean awaitTermination(final long timeout, final TimeUnit unit)
+      throws InterruptedException {
+    final long deadline = System.nanoTime() + unit.toNanos(timeout);
+    for (final Endpoint endpoint : endpoints) {
+      final long remaining = deadline - System.nanoTime();
+      if (!endpoint.getChannel().awaitTermination(Math.max(0L, remaining),
+          TimeUnit.NANOSECONDS)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * A channel to a single endpoint and its routing statistics.
+   */
+  @RequiredArgsConstructor
+  @ToString(of = {"name", "latency", "inFlight"})
+  public static class Endpoint {
+
+    @Getter
+    protected final String name;
+
+    @Getter
+    protected final ManagedChannel channel;
+
+    protected final AtomicInteger inFlight = new AtomicInteger(0);
+
+    /* in nanoseconds, 0 until measured so that a new endpoint gets tried */
+    protected volatile double latency = 0.0d;
+
+    protected volatile long ejectedUntil = System.nanoTime();
+
+    public double getLatency() {
+      return latency;
+    }
+
+    public int getInFlight() {
+      return inFlight.get();
+    }
+
+    protected double getCost() {
+      return (latency + 1.0d) * (inFlight.get() + 1);
+    }
+
+    protected boolean isEjected(final long now) {
+      return now - ejectedUntil < 0;
+    }
+
+    protected synchronized void record(final long elapsedInNanos) {
+      latency = (0.0d == latency) ? elapsedInNanos
+          : EWMA_WEIGHT * elapsedInNanos + (1.0d - EWMA_WEIGHT) * latency;
+    }
+
+    protected void eject(final long durationInNanos) {
+      ejectedUntil = System.nanoTime() + durationInNanos;
+    }
+  }
+
+  private class MeasuredClientCall<ReqT, RespT> extends SimpleForwardingClientCall<ReqT, RespT> {
+
+    protected final Endpoint endpoint;
+
+    protected final boolean measure;
+
+    MeasuredClientCall(final ClientCall<ReqT, RespT> delegate, final Endpoint endpoint,
+        final boolean measure) {
+      super(delegate);
+      this.endpoint = endpoint;
+      this.measure = measure;
+    }
+
+    @Override
+    public void start(final Listener<RespT> responseListener, final Metadata headers) {
+      final long startTime = System.nanoTime();
+      endpoint.inFlight.incrementAndGet();
+      final Listener<RespT> listener = new SimpleForwardingClientCallListener<RespT>(
+          responseListener) {
+
+        @Override
+        public void onClose(final Status status, final Metadata trailers) {
+          endpoint.inFlight.decrementAndGet();
+          if (Status.Code.UNAVAILABLE == status.getCode()) {
+            logger.info("Eject endpoint {} by {}", endpoint.getName(), status);
+            endpoint.eject(ejectionTimeInNanos);
+          } else if (measure && status.isOk()) {
+            endpoint.record(System.nanoTime() - startTime);
+          }
+          super.onClose(status, trailers);
+        }
+      };
+      try {
+        super.start(listener, headers);
+      } catch (RuntimeException e) {
+        endpoint.inFlight.decrementAndGet();
+        throw e;
+      }
+    }
+  }
+
+}
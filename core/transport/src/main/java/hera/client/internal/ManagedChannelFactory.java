@@ -1,6 +1,10 @@
 package hera.client.internal;
 
+import static hera.client.ClientConstants.ENDPOINT_EJECTION_TIME;
+import static hera.client.ClientConstants.ENDPOINT_SEPARATOR;
+
 import hera.Context;
+import hera.DefaultConstants;
 import hera.Strategy;
 import hera.api.function.Function1;
 import hera.exception.RpcException;
@@ -8,11 +12,41 @@ import hera.strategy.ChannelConfigurationStrategy;
 import hera.strategy.ConnectStrategy;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 public class ManagedChannelFactory implements Function1<Context, ManagedChannel> {
 
   @Override
   public ManagedChannel apply(final Context context) {
+    final List<String> endpoints = parseEndpoints(context);
+    if (endpoints.size() <= 1) {
+      return connect(context);
+    }
+
+    final List<LoadBalancedChannel.Endpoint> balanced =
+        new ArrayList<LoadBalancedChannel.Endpoint>();
+    for (final String endpoint : endpoints) {
+      final Context endpointContext = context.withKeyValue("endpoint", endpoint);
+      balanced.add(new LoadBalancedChannel.Endpoint(endpoint, connect(endpointContext)));
+    }
+    return new LoadBalancedChannel(balanced, ENDPOINT_EJECTION_TIME, TimeUnit.SECONDS);
+  }
+
+  protected List<String> parseEndpoints(final Context context) {
+    final String raw = context.getConfiguration().getAsString("endpoint",
+        DefaultConstants.DEFAULT_ENDPOINT);
+    final List<String> endpoints = new ArrayList<String>();
+    for (final String endpoint : raw.split(ENDPOINT_SEPARATOR)) {
+      if (!endpoint.trim().isEmpty()) {
+        endpoints.add(endpoint.trim());
+      }
+    }
+    return endpoints;
+  }
+
+  protected ManagedChannel connect(final Context context) {
     final ConnectStrategy<?> connectStrategy = context.getStrategy(ConnectStrategy.class);
     if (null == connectStrategy) {
       throw new RpcException("ConnectStrategy must be present in context");
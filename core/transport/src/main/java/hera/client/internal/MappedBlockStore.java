@@ -0,0 +1,528 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.internal;
+
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.protobuf.InvalidProtocolBufferException;
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.function.Function0;
+import hera.api.model.Block;
+import hera.api.model.BlockchainStatus;
+import hera.api.model.Transaction;
+import hera.api.model.TxHash;
+import hera.exception.HerajException;
+import hera.transport.BlockConverterFactory;
+import hera.transport.ModelConverter;
+import hera.transport.TransactionInBlockConverterFactory;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.ToString;
+import lombok.Value;
+import org.slf4j.Logger;
+import types.Blockchain;
+
+/**
+ * A persistent store of final blocks in a directory. A block is kept as bytes of a protobuf
+ * message, prefixed by a length, in append-only segment files. A height index maps a height to a
+ * position of a block and a transaction index, an open addressing hash table, maps a hash of a
+ * transaction to a height and an index in a block. Segments and indices are accessed through
+ * memory mapped files, so that a store of tens of gigabytes puts no pressure on a heap.
+ *
+ * <p>
+ * Only a block whose height is not greater than a last irreversible height is stored, since a
+ * height of a reversible block may be taken by another one. A last irreversible height is
+ * refreshed from a blockchain status in background like {@link BlockCache}.
+ * </p>
+ *
+ * <p>
+ * Changes are written to a storage by an operating system, or on {@link #flush()} and
+ * {@link #close()} where segments are forced before indices. A put doesn't force anything, so an
+ * index may reach a storage before a block it points to on a power failure. A block read is
+ * checked against a height it's asked for instead, so a store may lose recent blocks but never
+ * returns a broken one. A directory must not be shared by another store at a same time.
+ * </p>
+ */
+@ApiAudience.Private
+@ApiStability.Unstable
+@ToString(of = {"directory", "segmentSize", "lastIrreversibleHeight"})
+public class MappedBlockStore implements Closeable {
+
+  public static final int DEFAULT_SEGMENT_SIZE = 256 * 1024 * 1024;
+
+  protected static final String SEGMENT_FILE_FORMAT = "segment-%08d.dat";
+
+  protected static final String HEIGHT_INDEX_FILE = "height.idx";
+
+  protected static final String TRANSACTION_INDEX_FILE = "tx.idx";
+
+  // height index: [data end][block count] followed by (position + 1) of each height
+  protected static final int HEIGHT_INDEX_HEADER = 16;
+
+  protected static final int HEIGHT_INDEX_REGION = 8 * 1024 * 1024;
+
+  // transaction index: [capacity][count] followed by [key][height + 1][index] slots
+  protected static final int TRANSACTION_SLOT = 32;
+
+  protected static final int TRANSACTION_INDEX_HEADER = TRANSACTION_SLOT;
+
+  protected static final int TRANSACTION_INDEX_REGION = 1024 * 1024 * TRANSACTION_SLOT;
+
+  protected static final long INITIAL_TRANSACTION_CAPACITY = 1L << 12;
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  protected final ModelConverter<Block, Blockchain.Block> blockConverter =
+      new BlockConverterFactory().create();
+
+  protected final ModelConverter<Transaction, Blockchain.TxInBlock> transactionInBlockConverter =
+      new TransactionInBlockConverterFactory().create();
+
+  protected final Path directory;
+
+  protected final int segmentSize;
+
+  protected final Function0<Future<BlockchainStatus>> blockchainStatusFunction;
+
+  protected final long refreshIntervalInNanos;
+
+  protected final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  protected final List<MappedFile> segments = new ArrayList<>();
+
+  protected final MappedFile heightIndex;
+
+  protected MappedFile transactionIndex;
+
+  protected long transactionCapacity;
+
+  protected long transactionCount;
+
+  protected long dataEnd;
+
+  protected long blockCount;
+
+  protected boolean closed = false;
+
+  protected final AtomicLong hitCount = new AtomicLong(0L);
+
+  protected final AtomicLong missCount = new AtomicLong(0L);
+
+  protected volatile long lastIrreversibleHeight = -1L;
+
+  protected final AtomicBoolean refreshing = new AtomicBoolean(false);
+
+  protected volatile long lastRefreshed = 0L;
+
+  /**
+   * MappedBlockStore constructor. A store in a directory is opened, or created if not exists.
+   *
+   * @param directory a directory of a store
+   * @param segmentSize a size of a segment file in bytes. a block bigger than it isn't stored
+   * @param blockchainStatusFunction a function to get a blockchain status to decide finality
+   * @param refreshInterval a minimum interval between finality refreshes
+   * @param unit a refresh interval unit
+   */
+  public MappedBlockStore(final Path directory, final int segmentSize,
+      final Function0<Future<BlockchainStatus>> blockchainStatusFunction,
+      final long refreshInterval, final TimeUnit unit) {
+    assertNotNull(directory, "Directory must not null");
+    assertTrue(0 < segmentSize, "Segment size must be positive");
+    assertNotNull(blockchainStatusFunction, "Blockchain status function must not null");
+    assertTrue(0L <= refreshInterval, "Refresh interval must not negative");
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+    this.blockchainStatusFunction = blockchainStatusFunction;
+    this.refreshIntervalInNanos = unit.toNanos(refreshInterval);
+    try {
+      Files.createDirectories(directory);
+      this.heightIndex = new MappedFile(directory.resolve(HEIGHT_INDEX_FILE), HEIGHT_INDEX_REGION);
+      this.dataEnd = heightIndex.getLong(0L);
+      this.blockCount = heightIndex.getLong(8L);
+      for (long segment = 0L; segment * segmentSize < dataEnd; ++segment) {
+        segment(segment);
+      }
+      this.transactionIndex = new MappedFile(directory.resolve(TRANSACTION_INDEX_FILE),
+          TRANSACTION_INDEX_REGION);
+      this.transactionCapacity = transactionIndex.getLong(0L);
+      this.transactionCount = transactionIndex.getLong(8L);
+      if (0L == transactionCapacity) {
+        transactionCapacity = INITIAL_TRANSACTION_CAPACITY;
+        transactionIndex.putLong(0L, transactionCapacity);
+      }
+      logger.info("Block store opened at {} with {} blocks", directory, blockCount);
+    } catch (IOException e) {
+      throw new HerajException("Opening a block store at " + directory + " failed", e);
+    }
+  }
+
+  /**
+   * Get a block by a height.
+   *
+   * @param height a height of a block
+   * @return a block. null if not stored
+   */
+  public Block getBlock(final long height) {
+    final Blockchain.Block rpcBlock = read(height);
+    if (null == rpcBlock) {
+      missCount.incrementAndGet();
+      return null;
+    }
+    hitCount.incrementAndGet();
+    return blockConverter.convertToDomainModel(rpcBlock);
+  }
+
+  /**
+   * Get a transaction in a stored block by its hash.
+   *
+   * @param txHash a hash of a transaction
+   * @return a transaction. null if not stored
+   */
+  public Transaction getTransaction(final TxHash txHash) {
+    final byte[] hash = txHash.getBytesValue().getValue();
+    if (hash.length < 8) {
+      missCount.incrementAndGet();
+      return null;
+    }
+    final long key = ByteBuffer.wrap(hash).getLong();
+    lock.readLock().lock();
+    try {
+      if (closed) {
+        return null;
+      }
+      long slot = key & (transactionCapacity - 1);
+      while (true) {
+        final long position = TRANSACTION_INDEX_HEADER + slot * TRANSACTION_SLOT;
+        final long heightPlusOne = transactionIndex.getLong(position + 8L);
+        if (0L == heightPlusOne) {
+          break;
+        }
+        if (key == transactionIndex.getLong(position)) {
+          // a block may be missing if a store crashed while putting it
+          final Blockchain.Block rpcBlock = readUnlocked(heightPlusOne - 1L);
+          final int index = transactionIndex.getInt(position + 16L);
+          final Blockchain.Tx rpcTx = null != rpcBlock && index < rpcBlock.getBody().getTxsCount()
+              ? rpcBlock.getBody().getTxs(index) : null;
+          if (null != rpcTx && Arrays.equals(hash, rpcTx.getHash().toByteArray())) {
+            hitCount.incrementAndGet();
+            final Blockchain.TxIdx rpcTxIdx = Blockchain.TxIdx.newBuilder()
+                .setBlockHash(rpcBlock.getHash())
+                .setIdx(index)
+                .build();
+            return transactionInBlockConverter.convertToDomainModel(
+                Blockchain.TxInBlock.newBuilder().setTxIdx(rpcTxIdx).setTx(rpcTx).build());
+          }
+        }
+        slot = (slot + 1) & (transactionCapacity - 1);
+      }
+      missCount.incrementAndGet();
+      return null;
+    } catch (IOException e) {
+      throw new HerajException("Reading a block store failed", e);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Put a block if it's final and not stored yet.
+   *
+   * @param rpcBlock a protobuf message of a block
+   * @return true if a block is stored
+   */
+  public boolean put(final Blockchain.Block rpcBlock) {
+    final long height = rpcBlock.getHeader().getBlockNo();
+    if (!isFinal(height)) {
+      return false;
+    }
+    final byte[] bytes = rpcBlock.toByteArray();
+    if (segmentSize < 4L + bytes.length) {
+      logger.debug("Too big to store a block at {}", height);
+      return false;
+    }
+    lock.writeLock().lock();
+    try {
+      if (closed || 0L != heightIndex.getLong(heightPosition(height))) {
+        return false;
+      }
+      long position = dataEnd;
+      if (segmentSize < position % segmentSize + 4L + bytes.length) {
+        // a block never crosses segments
+        position = (position / segmentSize + 1L) * segmentSize;
+      }
+      final MappedFile segment = segment(position / segmentSize);
+      segment.putInt(position % segmentSize, bytes.length);
+      segment.put(position % segmentSize + 4L, bytes);
+
+      final List<Blockchain.Tx> rpcTxs = rpcBlock.getBody().getTxsList();
+      while (transactionCapacity < 2L * (transactionCount + rpcTxs.size())) {
+        growTransactionIndex();
+      }
+      for (int index = 0; index < rpcTxs.size(); ++index) {
+        indexTransaction(rpcTxs.get(index).getHash().toByteArray(), height, index);
+      }
+      transactionIndex.putLong(8L, transactionCount);
+
+      heightIndex.putLong(heightPosition(height), position + 1L);
+      dataEnd = position + 4L + bytes.length;
+      ++blockCount;
+      heightIndex.putLong(0L, dataEnd);
+      heightIndex.putLong(8L, blockCount);
+      logger.trace("Block at {} stored", height);
+      return true;
+    } catch (IOException e) {
+      throw new HerajException("Writing a block store failed", e);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Update a last irreversible height with a blockchain status. A last irreversible height never
+   * goes back.
+   *
+   * @param blockchainStatus a blockchain status
+   */
+  public void updateFinality(final BlockchainStatus blockchainStatus) {
+    final long parsed = BlockCache.parseLastIrreversibleHeight(blockchainStatus);
+    synchronized (this) {
+      if (parsed > lastIrreversibleHeight) {
+        logger.debug("Last irreversible height updated: {}", parsed);
+        lastIrreversibleHeight = parsed;
+      }
+    }
+  }
+
+  public long getLastIrreversibleHeight() {
+    return lastIrreversibleHeight;
+  }
+
+  /**
+   * Get statistics of this store.
+   *
+   * @return statistics of this store
+   */
+  public Stats getStats() {
+    lock.readLock().lock();
+    try {
+      return new Stats(hitCount.get(), missCount.get(), blockCount, transactionCount, dataEnd);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Write changes to a storage.
+   */
+  public void flush() {
+    lock.readLock().lock();
+    try {
+      // blocks first not to leave an index pointing to a block not written yet
+      for (final MappedFile segment : segments) {
+        segment.force();
+      }
+      transactionIndex.force();
+      heightIndex.force();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public void close() {
+    lock.writeLock().lock();
+    try {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      for (final MappedFile segment : segments) {
+        segment.close();
+      }
+      transactionIndex.close();
+      heightIndex.close();
+    } catch (IOException e) {
+      throw new HerajException("Closing a block store failed", e);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  protected long heightPosition(final long height) {
+    return HEIGHT_INDEX_HEADER + 8L * height;
+  }
+
+  protected Blockchain.Block read(final long height) {
+    lock.readLock().lock();
+    try {
+      return closed ? null : readUnlocked(height);
+    } catch (IOException e) {
+      throw new HerajException("Reading a block store failed", e);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  // must be called with a lock held
+  protected Blockchain.Block readUnlocked(final long height) throws IOException {
+    if (height < 0L || heightIndex.size() < heightPosition(height) + 8L) {
+      return null;
+    }
+    final long positionPlusOne = heightIndex.getLong(heightPosition(height));
+    if (0L == positionPlusOne) {
+      return null;
+    }
+    // an index page may reach a storage before a segment page on a power failure, so a block
+    // which doesn't look like one of a height is treated as not stored
+    final long position = positionPlusOne - 1L;
+    if (segments.size() <= position / segmentSize) {
+      return null;
+    }
+    final MappedFile segment = segments.get((int) (position / segmentSize));
+    final int length = segment.getInt(position % segmentSize);
+    if (length <= 0 || segmentSize < position % segmentSize + 4L + length) {
+      logger.debug("Broken block at {} ignored: length {}", height, length);
+      return null;
+    }
+    final Blockchain.Block rpcBlock;
+    try {
+      rpcBlock = Blockchain.Block.parseFrom(segment.get(position % segmentSize + 4L, length));
+    } catch (InvalidProtocolBufferException e) {
+      logger.debug("Broken block at {} ignored: {}", height, e.toString());
+      return null;
+    }
+    if (height != rpcBlock.getHeader().getBlockNo() || rpcBlock.getHash().isEmpty()) {
+      logger.debug("Broken block at {} ignored: height {}", height,
+          rpcBlock.getHeader().getBlockNo());
+      return null;
+    }
+    return rpcBlock;
+  }
+
+  // must be called with a write lock held, or in a constructor
+  protected MappedFile segment(final long index) throws IOException {
+    while (segments.size() <= index) {
+      final Path path = directory.resolve(String.format(SEGMENT_FILE_FORMAT, segments.size()));
+      segments.add(new MappedFile(path, segmentSize));
+    }
+    return segments.get((int) index);
+  }
+
+  protected void indexTransaction(final byte[] hash, final long height, final int index)
+      throws IOException {
+    insert(transactionIndex, transactionCapacity, ByteBuffer.wrap(hash).getLong(), height + 1L,
+        index);
+    ++transactionCount;
+  }
+
+  protected void insert(final MappedFile index, final long capacity, final long key,
+      final long heightPlusOne, final int indexInBlock) throws IOException {
+    long slot = key & (capacity - 1);
+    while (0L != index.getLong(TRANSACTION_INDEX_HEADER + slot * TRANSACTION_SLOT + 8L)) {
+      slot = (slot + 1) & (capacity - 1);
+    }
+    final long position = TRANSACTION_INDEX_HEADER + slot * TRANSACTION_SLOT;
+    index.putLong(position, key);
+    index.putLong(position + 8L, heightPlusOne);
+    index.putInt(position + 16L, indexInBlock);
+  }
+
+  // must be called with a write lock held
+  protected void growTransactionIndex() throws IOException {
+    final long capacity = 2L * transactionCapacity;
+    logger.debug("Grow a transaction index to {} slots", capacity);
+    final Path path = directory.resolve(TRANSACTION_INDEX_FILE);
+    final Path temp = directory.resolve(TRANSACTION_INDEX_FILE + ".tmp");
+    Files.deleteIfExists(temp);
+    final MappedFile grown = new MappedFile(temp, TRANSACTION_INDEX_REGION);
+    for (long slot = 0L; slot < transactionCapacity; ++slot) {
+      final long position = TRANSACTION_INDEX_HEADER + slot * TRANSACTION_SLOT;
+      final long heightPlusOne = transactionIndex.getLong(position + 8L);
+      if (0L != heightPlusOne) {
+        insert(grown, capacity, transactionIndex.getLong(position), heightPlusOne,
+            transactionIndex.getInt(position + 16L));
+      }
+    }
+    grown.putLong(0L, capacity);
+    grown.putLong(8L, transactionCount);
+    grown.close();
+    transactionIndex.close();
+    Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    transactionIndex = new MappedFile(path, TRANSACTION_INDEX_REGION);
+    transactionCapacity = capacity;
+  }
+
+  protected boolean isFinal(final long height) {
+    if (height <= lastIrreversibleHeight) {
+      return true;
+    }
+    refreshFinality();
+    return false;
+  }
+
+  protected void refreshFinality() {
+    final long now = System.nanoTime();
+    if (now - lastRefreshed < refreshIntervalInNanos || !refreshing.compareAndSet(false, true)) {
+      return;
+    }
+    lastRefreshed = now;
+    try {
+      Futures.addCallback(HerajFutures.listenable(blockchainStatusFunction.apply()),
+          new FutureCallback<BlockchainStatus>() {
+            @Override
+            public void onSuccess(final BlockchainStatus blockchainStatus) {
+              refreshing.set(false);
+              updateFinality(blockchainStatus);
+            }
+
+            @Override
+            public void onFailure(final Throwable error) {
+              refreshing.set(false);
+              logger.debug("Refreshing finality failed: {}", error.toString());
+            }
+          }, directExecutor());
+    } catch (Exception e) {
+      refreshing.set(false);
+      logger.debug("Refreshing finality failed: {}", e.toString());
+    }
+  }
+
+  /**
+   * Statistics of a block store.
+   */
+  @Value
+  public static class Stats {
+
+    long hitCount;
+
+    long missCount;
+
+    long blockCount;
+
+    long transactionCount;
+
+    long bytes;
+  }
+
+}
@@ -0,0 +1,169 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.internal;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.ToString;
+
+/**
+ * A file accessed through memory mapped regions of a fixed size. A region is mapped when it's
+ * touched first, so that a sparse file of a large size costs only for regions in use. A mapped
+ * region lives out of a heap. A value must not cross a boundary of regions.
+ *
+ * <p>
+ * It's not thread-safe for writes. Concurrent reads are safe if nothing is written.
+ * </p>
+ */
+@ApiAudience.Private
+@ApiStability.Unstable
+@ToString(of = {"path", "regionSize"})
+public class MappedFile implements Closeable {
+
+  protected final Path path;
+
+  protected final int regionSize;
+
+  protected final RandomAccessFile file;
+
+  protected final FileChannel channel;
+
+  protected final List<MappedByteBuffer> regions = new ArrayList<>();
+
+  /**
+   * MappedFile constructor. A file is created if not exists.
+   *
+   * @param path a path of a file
+   * @param regionSize a size of a mapped region in bytes
+   * @throws IOException on opening a file failure
+   */
+  public MappedFile(final Path path, final int regionSize) throws IOException {
+    assertNotNull(path, "Path must not null");
+    assertTrue(0 < regionSize, "Region size must be positive");
+    this.path = path;
+    this.regionSize = regionSize;
+    this.file = new RandomAccessFile(path.toFile(), "rw");
+    this.channel = file.getChannel();
+  }
+
+  public long size() throws IOException {
+    return channel.size();
+  }
+
+  /**
+   * Extend a file to a size if it's smaller. New bytes are zero.
+   *
+   * @param size a size in bytes
+   * @throws IOException on extending a file failure
+   */
+  public void ensureSize(final long size) throws IOException {
+    if (channel.size() < size) {
+      file.setLength(size);
+    }
+  }
+
+  public long getLong(final long position) throws IOException {
+    return region(position).getLong(offset(position));
+  }
+
+  public void putLong(final long position, final long value) throws IOException {
+    region(position).putLong(offset(position), value);
+  }
+
+  public int getInt(final long position) throws IOException {
+    return region(position).getInt(offset(position));
+  }
+
+  public void putInt(final long position, final int value) throws IOException {
+    region(position).putInt(offset(position), value);
+  }
+
+  /**
+   * Read bytes from a position.
+   *
+   * @param position a position to read from
+   * @param length a number of bytes
+   * @return read bytes
+   * @throws IOException on mapping a region failure
+   */
+  public byte[] get(final long position, final int length) throws IOException {
+    final ByteBuffer view = region(position).duplicate();
+    view.position(offset(position));
+    final byte[] bytes = new byte[length];
+    view.get(bytes);
+    return bytes;
+  }
+
+  /**
+   * Write bytes at a position.
+   *
+   * @param position a position to write at
+   * @param bytes bytes to write
+   * @throws IOException on mapping a region failure
+   */
+  public void put(final long position, final byte[] bytes) throws IOException {
+    final ByteBuffer view = region(position).duplicate();
+    view.position(offset(position));
+    view.put(bytes);
+  }
+
+  /**
+   * Write changes of mapped regions to a storage.
+   */
+  public void force() {
+    synchronized (regions) {
+      for (final MappedByteBuffer region : regions) {
+        if (null != region) {
+          region.force();
+        }
+      }
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    force();
+    synchronized (regions) {
+      // a mapping is released when a buffer is garbage collected
+      regions.clear();
+    }
+    channel.close();
+    file.close();
+  }
+
+  protected int offset(final long position) {
+    return (int) (position % regionSize);
+  }
+
+  protected MappedByteBuffer region(final long position) throws IOException {
+    final int index = (int) (position / regionSize);
+    synchronized (regions) {
+      while (regions.size() <= index) {
+        regions.add(null);
+      }
+      MappedByteBuffer region = regions.get(index);
+      if (null == region) {
+        final long start = (long) index * regionSize;
+        ensureSize(start + regionSize);
+        region = channel.map(FileChannel.MapMode.READ_WRITE, start, regionSize);
+        regions.set(index, region);
+      }
+      return region;
+    }
+  }
+
+}
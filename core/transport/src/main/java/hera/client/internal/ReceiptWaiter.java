@@ -0,0 +1,383 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.internal;
+
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static hera.client.internal.HerajFutures.listenable;
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.function.Function1;
+import hera.api.model.Block;
+import hera.api.model.ContractTxHash;
+import hera.api.model.ContractTxReceipt;
+import hera.api.model.StreamObserver;
+import hera.api.model.Subscription;
+import hera.api.model.Transaction;
+import hera.api.model.Transaction.TxType;
+import hera.api.model.TxConfirmation;
+import hera.api.model.TxHash;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.ToString;
+import org.slf4j.Logger;
+
+/**
+ * A waiter of transactions to be included in blocks. Pending transactions share one block stream
+ * and each block is checked against a set of pending hashes, so that a number of pending
+ * transactions doesn't add requests. A receipt is requested only for a contract transaction. A
+ * stream is opened by a first pending transaction and closed when nothing is pending.
+ *
+ * <p>
+ * A transaction is looked up once a stream is open in case it's in a block already. A stream is
+ * opened without blocking a caller. A failed stream is opened again after a delay and every
+ * pending transaction is looked up again, so that one included meanwhile is confirmed. A
+ * confirmation means an inclusion in a block, not a finality.
+ * </p>
+ */
+@ApiAudience.Private
+@ApiStability.Unstable
+@ToString(of = {"upstream"})
+public class ReceiptWaiter {
+
+  protected static final long REOPEN_DELAY = 500L; // milliseconds
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  protected final Function1<StreamObserver<Block>,
+      Future<Subscription<Block>>> subscribeBlockFunction;
+
+  protected final Function1<TxHash, Future<Transaction>> transactionInBlockFunction;
+
+  protected final Function1<ContractTxHash, Future<ContractTxReceipt>> receiptFunction;
+
+  protected final Map<TxHash, List<Waiter>> pending = new HashMap<>();
+
+  // null if nothing is pending
+  protected Upstream upstream;
+
+  /**
+   * ReceiptWaiter constructor.
+   *
+   * @param subscribeBlockFunction a function to subscribe a block stream
+   * @param transactionInBlockFunction a function to get a transaction in a block
+   * @param receiptFunction a function to get a receipt of a contract transaction
+   */
+  public ReceiptWaiter(
+      final Function1<StreamObserver<Block>, Future<Subscription<Block>>> subscribeBlockFunction,
+      final Function1<TxHash, Future<Transaction>> transactionInBlockFunction,
+      final Function1<ContractTxHash, Future<ContractTxReceipt>> receiptFunction) {
+    assertNotNull(subscribeBlockFunction, "Subscribe block function must not null");
+    assertNotNull(transactionInBlockFunction, "Transaction in block function must not null");
+    assertNotNull(receiptFunction, "Receipt function must not null");
+    this.subscribeBlockFunction = subscribeBlockFunction;
+    this.transactionInBlockFunction = transactionInBlockFunction;
+    this.receiptFunction = receiptFunction;
+  }
+
+  /**
+   * Wait for a transaction to be included in a block. A returned future fails with
+   * {@link TimeoutException} after a timeout. Cancelling it stops waiting.
+   *
+   * @param txHash a hash of a transaction
+   * @param timeout a timeout. must be positive
+   * @param unit a unit of a timeout
+   * @return a future of a confirmation
+   */
+  public ListenableFuture<TxConfirmation> await(final TxHash txHash, final long timeout,
+      final TimeUnit unit) {
+    assertNotNull(txHash, "Tx hash must not null");
+    assertTrue(0L < timeout, "Timeout must be positive");
+    assertNotNull(unit, "Time unit must not null");
+    final Waiter waiter = new Waiter(txHash);
+    Upstream toOpen = null;
+    final boolean streaming;
+    synchronized (this) {
+      if (null == upstream) {
+        toOpen = new Upstream();
+        upstream = toOpen;
+      }
+      // a transaction is looked up once a stream is open otherwise
+      streaming = null != upstream.subscription;
+      List<Waiter> waiters = pending.get(txHash);
+      if (null == waiters) {
+        waiters = new ArrayList<>();
+        pending.put(txHash, waiters);
+      }
+      waiters.add(waiter);
+    }
+
+    waiter.timeout = HerajFutures.getScheduler().schedule(new Runnable() {
+      @Override
+      public void run() {
+        waiter.future.setException(
+            new TimeoutException("Transaction " + txHash + " not confirmed in time"));
+      }
+    }, timeout, unit);
+    waiter.future.addListener(new Runnable() {
+      @Override
+      public void run() {
+        waiter.timeout.cancel(false);
+        remove(waiter);
+      }
+    }, directExecutor());
+
+    if (null != toOpen) {
+      logger.debug("Open block upstream for pending transactions");
+      open(toOpen);
+    } else if (streaming) {
+      lookup(txHash);
+    }
+    return waiter.future;
+  }
+
+  /**
+   * Get a number of pending waits.
+   *
+   * @return a number of pending waits
+   */
+  public synchronized int getPendingCount() {
+    int count = 0;
+    for (final List<Waiter> waiters : pending.values()) {
+      count += waiters.size();
+    }
+    return count;
+  }
+
+  public synchronized boolean isStreaming() {
+    return null != upstream;
+  }
+
+  protected void open(final Upstream opening) {
+    final ListenableFuture<Subscription<Block>> future;
+    try {
+      future = listenable(subscribeBlockFunction.apply(opening));
+    } catch (Exception e) {
+      reopen(opening, e);
+      return;
+    }
+    Futures.addCallback(future, new FutureCallback<Subscription<Block>>() {
+      @Override
+      public void onSuccess(final Subscription<Block> subscription) {
+        final List<TxHash> txHashes;
+        synchronized (ReceiptWaiter.this) {
+          if (upstream != opening) {
+            txHashes = null;
+          } else {
+            opening.subscription = subscription;
+            txHashes = new ArrayList<>(pending.keySet());
+          }
+        }
+        if (null == txHashes) {
+          // nothing is pending anymore
+          subscription.unsubscribe();
+          return;
+        }
+        for (final TxHash txHash : txHashes) {
+          lookup(txHash);
+        }
+      }
+
+      @Override
+      public void onFailure(final Throwable error) {
+        reopen(opening, error);
+      }
+    }, directExecutor());
+  }
+
+  protected void reopen(final Upstream failed, final Throwable error) {
+    final Upstream next;
+    synchronized (this) {
+      if (upstream != failed) {
+        return;
+      }
+      if (pending.isEmpty()) {
+        upstream = null;
+        return;
+      }
+      next = new Upstream();
+      upstream = next;
+    }
+    logger.info("Block upstream for pending transactions failed: {}; open again in {}ms",
+        null != error ? error.toString() : "completed", REOPEN_DELAY);
+    if (null != failed.subscription) {
+      failed.subscription.unsubscribe();
+    }
+    HerajFutures.getScheduler().schedule(new Runnable() {
+      @Override
+      public void run() {
+        synchronized (ReceiptWaiter.this) {
+          if (upstream != next) {
+            return;
+          }
+        }
+        open(next);
+      }
+    }, REOPEN_DELAY, TimeUnit.MILLISECONDS);
+  }
+
+  protected void lookup(final TxHash txHash) {
+    final ListenableFuture<Transaction> future;
+    try {
+      future = listenable(transactionInBlockFunction.apply(txHash));
+    } catch (Exception e) {
+      logger.trace("Looking up {} failed: {}", txHash, e.toString());
+      return;
+    }
+    Futures.addCallback(future, new FutureCallback<Transaction>() {
+      @Override
+      public void onSuccess(final Transaction transaction) {
+        if (null != transaction && transaction.isConfirmed()) {
+          final List<Waiter> waiters = take(txHash);
+          if (null != waiters) {
+            confirm(transaction, waiters);
+          }
+        }
+      }
+
+      @Override
+      public void onFailure(final Throwable error) {
+        // not committed yet or not known to a node
+        logger.trace("Looking up {} failed: {}", txHash, error.toString());
+      }
+    }, directExecutor());
+  }
+
+  protected synchronized List<Waiter> take(final TxHash txHash) {
+    return pending.remove(txHash);
+  }
+
+  protected void remove(final Waiter waiter) {
+    Subscription<Block> toClose = null;
+    synchronized (this) {
+      final List<Waiter> waiters = pending.get(waiter.txHash);
+      if (null != waiters) {
+        waiters.remove(waiter);
+        if (waiters.isEmpty()) {
+          pending.remove(waiter.txHash);
+        }
+      }
+      if (pending.isEmpty() && null != upstream) {
+        logger.debug("Close block upstream since nothing is pending");
+        toClose = upstream.subscription;
+        upstream = null;
+      }
+    }
+    if (null != toClose) {
+      toClose.unsubscribe();
+    }
+  }
+
+  protected void confirm(final Transaction transaction, final List<Waiter> waiters) {
+    if (!isContractTransaction(transaction)) {
+      final TxConfirmation confirmation = TxConfirmation.newBuilder()
+          .transaction(transaction)
+          .build();
+      for (final Waiter waiter : waiters) {
+        waiter.future.set(confirmation);
+      }
+      return;
+    }
+
+    final ListenableFuture<ContractTxReceipt> receipt;
+    try {
+      receipt = listenable(receiptFunction
+          .apply(ContractTxHash.of(transaction.getHash().getBytesValue())));
+    } catch (Exception e) {
+      for (final Waiter waiter : waiters) {
+        waiter.future.setException(e);
+      }
+      return;
+    }
+    Futures.addCallback(receipt, new FutureCallback<ContractTxReceipt>() {
+      @Override
+      public void onSuccess(final ContractTxReceipt contractTxReceipt) {
+        final TxConfirmation confirmation = TxConfirmation.newBuilder()
+            .transaction(transaction)
+            .receipt(contractTxReceipt)
+            .build();
+        for (final Waiter waiter : waiters) {
+          waiter.future.set(confirmation);
+        }
+      }
+
+      @Override
+      public void onFailure(final Throwable error) {
+        for (final Waiter waiter : waiters) {
+          waiter.future.setException(error);
+        }
+      }
+    }, directExecutor());
+  }
+
+  /**
+   * Check if a transaction has a receipt.
+   *
+   * @param transaction a transaction
+   * @return true if a transaction is not a plain transfer
+   */
+  public static boolean isContractTransaction(final Transaction transaction) {
+    final TxType txType = transaction.getTxType();
+    if (TxType.TRANSFER == txType) {
+      return false;
+    }
+    // a normal transaction without a payload is a plain transfer
+    return TxType.NORMAL != txType || !transaction.getPayload().isEmpty();
+  }
+
+  protected class Upstream implements StreamObserver<Block> {
+
+    // null while opening
+    protected volatile Subscription<Block> subscription;
+
+    @Override
+    public void onNext(final Block block) {
+      for (final Transaction transaction : block.getTransactions()) {
+        final List<Waiter> waiters = take(transaction.getHash());
+        if (null != waiters) {
+          confirm(transaction, waiters);
+        }
+      }
+    }
+
+    @Override
+    public void onError(final Throwable error) {
+      reopen(this, error);
+    }
+
+    @Override
+    public void onCompleted() {
+      reopen(this, null);
+    }
+  }
+
+  @ToString(of = {"txHash"})
+  protected static class Waiter {
+
+    protected final TxHash txHash;
+
+    protected final SettableFuture<TxConfirmation> future = SettableFuture.create();
+
+    protected volatile ScheduledFuture<?> timeout;
+
+    protected Waiter(final TxHash txHash) {
+      this.txHash = txHash;
+    }
+  }
+
+}
@@ -0,0 +1,573 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.internal;
+
+import static hera.client.ClientConstants.STREAM_RESUBSCRIPTION_INTERVAL;
+import static hera.client.ClientConstants.STREAM_RESUBSCRIPTION_MAX_INTERVAL;
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.function.Function0;
+import hera.api.function.Function1;
+import hera.api.function.Function2;
+import hera.api.model.BlockchainStatus;
+import hera.api.model.StreamObserver;
+import hera.api.model.Subscription;
+import hera.util.Configuration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import lombok.ToString;
+import org.slf4j.Logger;
+
+/**
+ * A subscription surviving a stream failure. When a stream fails or completes, it's subscribed
+ * again with an exponential backoff. Items produced meanwhile are backfilled from a last delivered
+ * height up to a best height before resuming live delivery. Live items received while backfilling
+ * are held and delivered after it.
+ *
+ * <p>
+ * A subscription can also start from a past height. Then a stream is subscribed first and
+ * history from that height is replayed before live items held meanwhile, in one path with a
+ * backfill. Held live items are bounded; on overflow, they're discarded and history is replayed
+ * again from a last delivered height, so that memory stays bounded however long a replay takes.
+ * </p>
+ *
+ * <p>
+ * An item is delivered at most once by its height and its id. An item at a lower height than a
+ * last delivered one is skipped, so a block reorganized at a same or lower height isn't delivered
+ * again.
+ * </p>
+ *
+ * @param <T> an item type
+ */
+@ApiAudience.Private
+@ApiStability.Unstable
+@ToString(of = {"lastHeight", "unsubscribed"})
+public class ResubscribingSubscription<T> implements Subscription<T> {
+
+  // runs resubscription and backfill which may take long
+  protected static final ExecutorService resubscribeExecutor =
+      Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+          .setNameFormat("heraj-resubscribe-%d")
+          .setDaemon(true)
+          .build());
+
+  // a max number of live items held while backfilling
+  public static final int DEFAULT_MAX_PENDING_SIZE = 1024;
+
+  /**
+   * Subscribe a stream. If a stream resubscription is configured, a subscription is made
+   * resubscribing. Otherwise, it's subscribed as it is.
+   *
+   * @param <T> an item type
+   * @param configuration a configuration holding resubscription intervals
+   * @param subscribeFunction a function to subscribe a stream
+   * @param blockchainStatusFunction a function to get a best height to backfill up to
+   * @param backfillFunction a function to get items between heights (both inclusive)
+   * @param heightFunction a function to get a height of an item
+   * @param idFunction a function to get an id of an item unique in a height
+   * @param observer an observer to deliver to
+   * @return a subscription
+   * @throws Exception on subscription failure
+   */
+  public static <T> Subscription<T> subscribe(final Configuration configuration,
+      final Function1<StreamObserver<T>, Future<Subscription<T>>> subscribeFunction,
+      final Function0<Future<BlockchainStatus>> blockchainStatusFunction,
+      final Function2<Long, Long, Iterator<T>> backfillFunction,
+      final Function1<T, Long> heightFunction, final Function1<T, Object> idFunction,
+      final StreamObserver<T> observer) throws Exception {
+    return subscribe(configuration, subscribeFunction, blockchainStatusFunction, backfillFunction,
+        heightFunction, idFunction, -1L, observer);
+  }
+
+  /**
+   * Subscribe a stream replaying history from a height. If a stream resubscription is configured,
+   * a subscription is made resubscribing. Otherwise, a stream failure is delivered to an observer.
+   * Without a height to replay from, it's the same as
+   * {@link #subscribe(Configuration, Function1, Function0, Function2, Function1, Function1,
+   * StreamObserver)}.
+   *
+   * @param <T> an item type
+   * @param configuration a configuration holding resubscription intervals
+   * @param subscribeFunction a function to subscribe a stream
+   * @param blockchainStatusFunction a function to get a best height to backfill up to
+   * @param backfillFunction a function to get items between heights (both inclusive)
+   * @param heightFunction a function to get a height of an item
+   * @param idFunction a function to get an id of an item unique in a height
+   * @param fromHeight a height to replay from. negative if no replay
+   * @param observer an observer to deliver to
+   * @return a subscription
+   * @throws Exception on subscription failure
+   */
+  public static <T> Subscription<T> subscribe(final Configuration configuration,
+      final Function1<StreamObserver<T>, Future<Subscription<T>>> subscribeFunction,
+      final Function0<Future<BlockchainStatus>> blockchainStatusFunction,
+      final Function2<Long, Long, Iterator<T>> backfillFunction,
+      final Function1<T, Long> heightFunction, final Function1<T, Object> idFunction,
+      final long fromHeight, final StreamObserver<T> observer) throws Exception {
+    final long interval = configuration.getAsLong(STREAM_RESUBSCRIPTION_INTERVAL, 0L);
+    if (interval <= 0L) {
+      if (fromHeight < 0L) {
+        return subscribeFunction.apply(observer).get();
+      }
+      return new ResubscribingSubscription<>(subscribeFunction, blockchainStatusFunction,
+          backfillFunction, heightFunction, idFunction, observer).start(fromHeight);
+    }
+    final long maxInterval = configuration.getAsLong(STREAM_RESUBSCRIPTION_MAX_INTERVAL, interval);
+    final ResubscribingSubscription<T> subscription = new ResubscribingSubscription<>(
+        subscribeFunction, blockchainStatusFunction, backfillFunction, heightFunction, idFunction,
+        observer, interval, maxInterval, TimeUnit.MILLISECONDS);
+    return fromHeight < 0L ? subscription.start() : subscription.start(fromHeight);
+  }
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  protected final Function1<StreamObserver<T>, Future<Subscription<T>>> subscribeFunction;
+
+  protected final Function0<Future<BlockchainStatus>> blockchainStatusFunction;
+
+  protected final Function2<Long, Long, Iterator<T>> backfillFunction;
+
+  protected final Function1<T, Long> heightFunction;
+
+  protected final Function1<T, Object> idFunction;
+
+  protected final StreamObserver<T> observer;
+
+  protected final long initialIntervalInNanos;
+
+  protected final long maxIntervalInNanos;
+
+  // false if a failure is delivered to an observer instead of resubscribing
+  protected final boolean resubscribing;
+
+  protected int maxPendingSize = DEFAULT_MAX_PENDING_SIZE;
+
+  protected final Object deliveryLock = new Object();
+
+  // guarded by deliveryLock
+  protected long lastHeight = -1L;
+
+  // ids of items delivered at a last height; guarded by deliveryLock
+  protected final Set<Object> lastIds = new HashSet<>();
+
+  // live items received while backfilling
+  protected final List<T> pending = new ArrayList<>();
+
+  // live items are discarded while backfilling and history should be replayed again
+  protected boolean overflowed = false;
+
+  // a height to replay from until something is delivered. negative if no replay
+  protected long replayHeight = -1L;
+
+  protected Subscription<T> current;
+
+  // increased on each subscription not to take items from a stale one
+  protected int generation = 0;
+
+  protected boolean backfilling = false;
+
+  protected boolean unsubscribed = false;
+
+  protected long intervalInNanos;
+
+  protected long droppedBefore = 0L;
+
+  /**
+   * ResubscribingSubscription constructor.
+   *
+   * @param subscribeFunction a function to subscribe a stream
+   * @param blockchainStatusFunction a function to get a best height to backfill up to
+   * @param backfillFunction a function to get items between heights (both inclusive)
+   * @param heightFunction a function to get a height of an item
+   * @param idFunction a function to get an id of an item unique in a height
+   * @param observer an observer to deliver to
+   * @param initialInterval an initial retry interval
+   * @param maxInterval a maximum retry interval
+   * @param unit an interval unit
+   */
+  public ResubscribingSubscription(
+      final Function1<StreamObserver<T>, Future<Subscription<T>>> subscribeFunction,
+      final Function0<Future<BlockchainStatus>> blockchainStatusFunction,
+      final Function2<Long, Long, Iterator<T>> backfillFunction,
+      final Function1<T, Long> heightFunction, final Function1<T, Object> idFunction,
+      final StreamObserver<T> observer, final long initialInterval, final long maxInterval,
+      final TimeUnit unit) {
+    assertNotNull(subscribeFunction, "Subscribe function must not null");
+    assertNotNull(blockchainStatusFunction, "Blockchain status function must not null");
+    assertNotNull(backfillFunction, "Backfill function must not null");
+    assertNotNull(heightFunction, "Height function must not null");
+    assertNotNull(idFunction, "Id function must not null");
+    assertNotNull(observer, "Observer must not null");
+    assertTrue(0L < initialInterval, "Initial interval must be positive");
+    assertTrue(initialInterval <= maxInterval, "Max interval must not less than initial one");
+    this.subscribeFunction = subscribeFunction;
+    this.blockchainStatusFunction = blockchainStatusFunction;
+    this.backfillFunction = backfillFunction;
+    this.heightFunction = heightFunction;
+    this.idFunction = idFunction;
+    this.observer = observer;
+    this.initialIntervalInNanos = unit.toNanos(initialInterval);
+    this.maxIntervalInNanos = unit.toNanos(maxInterval);
+    this.intervalInNanos = this.initialIntervalInNanos;
+    this.resubscribing = true;
+  }
+
+  /**
+   * ResubscribingSubscription constructor. A subscription made by it isn't resubscribed on a
+   * stream failure, which is delivered to an observer, but it can still replay history.
+   *
+   * @param subscribeFunction a function to subscribe a stream
+   * @param blockchainStatusFunction a function to get a best height to backfill up to
+   * @param backfillFunction a function to get items between heights (both inclusive)
+   * @param heightFunction a function to get a height of an item
+   * @param idFunction a function to get an id of an item unique in a height
+   * @param observer an observer to deliver to
+   */
+  public ResubscribingSubscription(
+      final Function1<StreamObserver<T>, Future<Subscription<T>>> subscribeFunction,
+      final Function0<Future<BlockchainStatus>> blockchainStatusFunction,
+      final Function2<Long, Long, Iterator<T>> backfillFunction,
+      final Function1<T, Long> heightFunction, final Function1<T, Object> idFunction,
+      final StreamObserver<T> observer) {
+    assertNotNull(subscribeFunction, "Subscribe function must not null");
+    assertNotNull(blockchainStatusFunction, "Blockchain status function must not null");
+    assertNotNull(backfillFunction, "Backfill function must not null");
+    assertNotNull(heightFunction, "Height function must not null");
+    assertNotNull(idFunction, "Id function must not null");
+    assertNotNull(observer, "Observer must not null");
+    this.subscribeFunction = subscribeFunction;
+    this.blockchainStatusFunction = blockchainStatusFunction;
+    this.backfillFunction = backfillFunction;
+    this.heightFunction = heightFunction;
+    this.idFunction = idFunction;
+    this.observer = observer;
+    this.initialIntervalInNanos = 0L;
+    this.maxIntervalInNanos = 0L;
+    this.intervalInNanos = 0L;
+    this.resubscribing = false;
+  }
+
+  /**
+   * Subscribe a stream for the first time. A failure on it isn't retried.
+   *
+   * @return an instance of this
+   * @throws Exception on subscription failure
+   */
+  public ResubscribingSubscription<T> start() throws Exception {
+    final int subscribed;
+    synchronized (this) {
+      subscribed = ++generation;
+    }
+    final Subscription<T> subscription = subscribeFunction.apply(newObserver(subscribed)).get();
+    synchronized (this) {
+      current = subscription;
+    }
+    return this;
+  }
+
+  /**
+   * Subscribe a stream for the first time and replay history from a height on a background
+   * thread. Live items are held until a replay catches up with them.
+   *
+   * @param fromHeight a height to replay from (inclusive)
+   * @return an instance of this
+   * @throws Exception on subscription failure
+   */
+  public ResubscribingSubscription<T> start(final long fromHeight) throws Exception {
+    assertTrue(0L <= fromHeight, "From height must not negative");
+    final int subscribed;
+    synchronized (this) {
+      subscribed = ++generation;
+      replayHeight = fromHeight;
+      backfilling = true;
+    }
+    final Subscription<T> subscription = subscribeFunction.apply(newObserver(subscribed)).get();
+    synchronized (this) {
+      current = subscription;
+    }
+    resubscribeExecutor.execute(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          backfill(subscribed, fromHeight);
+        } catch (Exception e) {
+          logger.info("Replaying from {} failed: {}", fromHeight, e.toString());
+          handleFailure(subscribed, e);
+        }
+      }
+    });
+    return this;
+  }
+
+  @Override
+  public void unsubscribe() {
+    final Subscription<T> subscription;
+    synchronized (this) {
+      if (unsubscribed) {
+        return;
+      }
+      unsubscribed = true;
+      pending.clear();
+      subscription = current;
+      current = null;
+    }
+    logger.debug("Unsubscribe resubscribing subscription");
+    if (null != subscription) {
+      subscription.unsubscribe();
+    }
+  }
+
+  @Override
+  public synchronized boolean isUnsubscribed() {
+    return unsubscribed;
+  }
+
+  @Override
+  public synchronized int getQueueDepth() {
+    return pending.size() + (null != current ? current.getQueueDepth() : 0);
+  }
+
+  @Override
+  public synchronized long getDropCount() {
+    return droppedBefore + (null != current ? current.getDropCount() : 0L);
+  }
+
+  /**
+   * Get a height of a last delivered item.
+   *
+   * @return a last delivered height. -1 if nothing is delivered
+   */
+  public long getLastHeight() {
+    synchronized (deliveryLock) {
+      return lastHeight;
+    }
+  }
+
+  protected StreamObserver<T> newObserver(final int subscribed) {
+    return new StreamObserver<T>() {
+      @Override
+      public void onNext(final T item) {
+        synchronized (ResubscribingSubscription.this) {
+          if (unsubscribed || subscribed != generation) {
+            return;
+          }
+          intervalInNanos = initialIntervalInNanos;
+          if (backfilling) {
+            if (overflowed) {
+              return;
+            }
+            if (pending.size() >= maxPendingSize) {
+              logger.debug("Discard {} held items to replay them later", pending.size());
+              overflowed = true;
+              pending.clear();
+              return;
+            }
+            pending.add(item);
+            return;
+          }
+        }
+        deliver(item);
+      }
+
+      @Override
+      public void onError(final Throwable error) {
+        logger.info("Stream failed: {}", error.toString());
+        handleFailure(subscribed, error);
+      }
+
+      @Override
+      public void onCompleted() {
+        logger.info("Stream completed");
+        handleFailure(subscribed, null);
+      }
+    };
+  }
+
+  protected void handleFailure(final int failed, final Throwable error) {
+    if (resubscribing) {
+      scheduleResubscribe(failed);
+      return;
+    }
+    final Subscription<T> subscription;
+    synchronized (this) {
+      if (unsubscribed || failed != generation) {
+        return;
+      }
+      unsubscribed = true;
+      pending.clear();
+      subscription = current;
+      current = null;
+    }
+    if (null != subscription) {
+      subscription.unsubscribe();
+    }
+    if (null != error) {
+      observer.onError(error);
+    } else {
+      observer.onCompleted();
+    }
+  }
+
+  protected void scheduleResubscribe(final int failed) {
+    final Subscription<T> subscription;
+    final long delay;
+    synchronized (this) {
+      if (unsubscribed || failed != generation) {
+        return;
+      }
+      subscription = current;
+      if (null != subscription) {
+        droppedBefore += subscription.getDropCount();
+      }
+      current = null;
+      // items from a failed stream are ignored from now on
+      ++generation;
+      backfilling = false;
+      overflowed = false;
+      pending.clear();
+      delay = intervalInNanos;
+      intervalInNanos = Math.min(2 * intervalInNanos, maxIntervalInNanos);
+    }
+    if (null != subscription) {
+      subscription.unsubscribe();
+    }
+    logger.debug("Resubscribe after {} ms", TimeUnit.NANOSECONDS.toMillis(delay));
+    HerajFutures.getScheduler().schedule(new Runnable() {
+      @Override
+      public void run() {
+        resubscribeExecutor.execute(new Runnable() {
+          @Override
+          public void run() {
+            resubscribe();
+          }
+        });
+      }
+    }, delay, TimeUnit.NANOSECONDS);
+  }
+
+  protected void resubscribe() {
+    final int subscribed;
+    final long lastDelivered = getLastHeight();
+    final long fromHeight;
+    synchronized (this) {
+      fromHeight = (0L <= lastDelivered) ? lastDelivered : replayHeight;
+      if (unsubscribed) {
+        return;
+      }
+      subscribed = ++generation;
+      // nothing to backfill from if nothing is delivered yet
+      backfilling = 0L <= fromHeight;
+    }
+
+    try {
+      final Subscription<T> subscription = subscribeFunction.apply(newObserver(subscribed)).get();
+      synchronized (this) {
+        if (unsubscribed) {
+          subscription.unsubscribe();
+          return;
+        }
+        current = subscription;
+      }
+      logger.debug("Resubscribed from height {}", fromHeight);
+      if (0L <= fromHeight) {
+        backfill(subscribed, fromHeight);
+      }
+    } catch (Exception e) {
+      logger.info("Resubscribing failed: {}", e.toString());
+      scheduleResubscribe(subscribed);
+    }
+  }
+
+  protected void backfill(final int subscribed, final long fromHeight) throws Exception {
+    long replayFrom = fromHeight;
+    boolean replay = true;
+    while (true) {
+      if (replay) {
+        replay(subscribed, replayFrom);
+      }
+
+      // deliver live items held meanwhile
+      final List<T> held;
+      synchronized (this) {
+        if (unsubscribed || subscribed != generation) {
+          return;
+        }
+        if (overflowed) {
+          overflowed = false;
+          replay = true;
+          held = null;
+        } else if (pending.isEmpty()) {
+          backfilling = false;
+          return;
+        } else {
+          replay = false;
+          held = new ArrayList<>(pending);
+          pending.clear();
+        }
+      }
+      if (null == held) {
+        // held items were discarded; catch up with them by history again
+        replayFrom = Math.max(fromHeight, getLastHeight());
+        continue;
+      }
+      for (final T item : held) {
+        deliver(item);
+      }
+    }
+  }
+
+  protected void replay(final int subscribed, final long fromHeight) throws Exception {
+    final long toHeight = blockchainStatusFunction.apply().get().getBestHeight();
+    if (fromHeight <= toHeight) {
+      logger.debug("Backfill from {} to {}", fromHeight, toHeight);
+      final Iterator<T> it = backfillFunction.apply(fromHeight, toHeight);
+      while (it.hasNext()) {
+        final T item = it.next();
+        if (!isCurrent(subscribed)) {
+          return;
+        }
+        deliver(item);
+      }
+    }
+  }
+
+  protected synchronized boolean isCurrent(final int subscribed) {
+    return !unsubscribed && subscribed == generation;
+  }
+
+  protected void deliver(final T item) {
+    synchronized (deliveryLock) {
+      final long height = heightFunction.apply(item);
+      final Object id = idFunction.apply(item);
+      if (height < lastHeight || (height == lastHeight && lastIds.contains(id))) {
+        logger.trace("Skip duplicated item at {}", height);
+        return;
+      }
+      if (height > lastHeight) {
+        lastHeight = height;
+        lastIds.clear();
+      }
+      lastIds.add(id);
+      try {
+        observer.onNext(item);
+      } catch (Exception e) {
+        logger.error("Delivering next failed by {}", e.toString());
+      }
+    }
+  }
+
+}
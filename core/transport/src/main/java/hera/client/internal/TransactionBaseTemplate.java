@@ -5,7 +5,10 @@
 package hera.client.internal;
 
 import static hera.api.model.BytesValue.of;
+import static hera.client.ClientConstants.COMMIT_BATCH_SIZE;
+import static hera.client.ClientConstants.COMMIT_BATCH_WINDOW;
 import static hera.util.TransportUtils.copyFrom;
+import static java.util.Collections.unmodifiableList;
 import static org.slf4j.LoggerFactory.getLogger;
 import static types.AergoRPCServiceGrpc.newFutureStub;
 
@@ -19,14 +22,21 @@ import hera.api.model.AccountAddress;
 import hera.api.model.Aer;
 import hera.api.model.RawTransaction;
 import hera.api.model.Transaction;
+import hera.api.model.TxCommitResult;
 import hera.api.model.TxHash;
 import hera.client.ChannelInjectable;
 import hera.exception.InternalCommitException;
 import hera.transport.ModelConverter;
 import hera.transport.TransactionConverterFactory;
 import hera.transport.TransactionInBlockConverterFactory;
+import hera.transport.TxCommitResultConverterFactory;
+import hera.util.Configuration;
 import io.grpc.ManagedChannel;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import lombok.AccessLevel;
 import lombok.Getter;
 import org.slf4j.Logger;
 import types.AergoRPCServiceGrpc.AergoRPCServiceFutureStub;
@@ -45,6 +55,9 @@ public class TransactionBaseTemplate implements ChannelInjectable, ContextProvid
   protected final ModelConverter<Transaction, Blockchain.TxInBlock> transactionInBlockConverter =
       new TransactionInBlockConverterFactory().create();
 
+  protected final ModelConverter<TxCommitResult, Rpc.CommitResult> commitResultConverter =
+      new TxCommitResultConverterFactory().create();
+
   @Getter
   protected AergoRPCServiceFutureStub aergoService;
 
@@ -113,12 +126,32 @@ public class TransactionBaseTemplate implements ChannelInjectable, ContextProvid
         }
       };
 
+  // null if commit batching isn't configured
+  @Getter(lazy = true, value = AccessLevel.PROTECTED)
+  private final CommitBatcher commitBatcher = createCommitBatcher();
+
+  protected CommitBatcher createCommitBatcher() {
+    final Configuration configuration = contextProvider.get().getConfiguration();
+    final int batchSize = configuration.getAsInt(COMMIT_BATCH_SIZE, 1);
+    if (batchSize <= 1) {
+      return null;
+    }
+    final long window = configuration.getAsLong(COMMIT_BATCH_WINDOW, 0L);
+    return new CommitBatcher(getBatchCommitFunction(), batchSize, window, TimeUnit.MILLISECONDS);
+  }
+
   @Getter
   private final Function1<Transaction, Future<TxHash>> commitFunction =
       new Function1<Transaction, Future<TxHash>>() {
 
         @Override
         public Future<TxHash> apply(final Transaction transaction) {
+          final CommitBatcher commitBatcher = getCommitBatcher();
+          if (null != commitBatcher) {
+            logger.debug("Commit transaction in a batch with signedTx: {}", transaction);
+            return commitBatcher.commit(transaction);
+          }
+
           logger.debug("Commit transaction with signedTx: {}", transaction);
 
           final Blockchain.Tx rpcTx = transactionConverter.convertToRpcModel(transaction);
@@ -145,6 +178,39 @@ public class TransactionBaseTemplate implements ChannelInjectable, ContextProvid
         }
       };
 
+  @Getter
+  private final Function1<List<Transaction>, Future<List<TxCommitResult>>> batchCommitFunction =
+      new Function1<List<Transaction>, Future<List<TxCommitResult>>>() {
+
+        @Override
+        public Future<List<TxCommitResult>> apply(final List<Transaction> transactions) {
+          logger.debug("Commit {} transactions", transactions.size());
+
+          final Blockchain.TxList.Builder rpcTxListBuilder = Blockchain.TxList.newBuilder();
+          for (final Transaction transaction : transactions) {
+            rpcTxListBuilder.addTxs(transactionConverter.convertToRpcModel(transaction));
+          }
+          final Blockchain.TxList rpcTxList = rpcTxListBuilder.build();
+          logger.trace("AergoService commitTX arg: {}", rpcTxList);
+
+          final Future<Rpc.CommitResultList> rawFuture = aergoService.commitTX(rpcTxList);
+          final Future<List<TxCommitResult>> convertedFuture = HerajFutures.transform(rawFuture,
+              new Function1<Rpc.CommitResultList, List<TxCommitResult>>() {
+
+                @Override
+                public List<TxCommitResult> apply(final Rpc.CommitResultList rpcCommitResultList) {
+                  final List<TxCommitResult> commitResults = new ArrayList<>();
+                  for (final Rpc.CommitResult rpcCommitResult : rpcCommitResultList
+                      .getResultsList()) {
+                    commitResults.add(commitResultConverter.convertToDomainModel(rpcCommitResult));
+                  }
+                  return unmodifiableList(commitResults);
+                }
+              });
+          return convertedFuture;
+        }
+      };
+
   @Getter
   private final Function3<AccountAddress, AccountAddress, Aer,
       Future<TxHash>> sendFunction = new Function3<
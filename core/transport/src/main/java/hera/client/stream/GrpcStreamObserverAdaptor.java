@@ -4,19 +4,49 @@
 
 package hera.client.stream;
 
+import static hera.client.ClientConstants.DEFAULT_STREAM_BUFFER_SIZE;
+import static hera.client.ClientConstants.STREAM_BUFFER_SIZE;
+import static hera.client.ClientConstants.STREAM_OVERFLOW_POLICY;
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
 import static org.slf4j.LoggerFactory.getLogger;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import hera.exception.RpcConnectionException;
 import hera.exception.RpcException;
 import hera.exception.RpcExceptionConverter;
+import hera.exception.StreamOverflowException;
 import hera.transport.ModelConverter;
+import hera.util.Configuration;
 import hera.util.ExceptionConverter;
-import lombok.RequiredArgsConstructor;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 import org.slf4j.Logger;
 
-@RequiredArgsConstructor
-public class GrpcStreamObserverAdaptor<RpcModelT, DomainModelT>
-    implements io.grpc.stub.StreamObserver<RpcModelT> {
+/**
+ * An adaptor of a grpc stream to a hera stream observer with inbound flow control. A received
+ * item is buffered in a bounded queue and delivered to an observer by a delivery thread, one at a
+ * time in order, so that a slow observer never blocks a grpc transport thread. What to do when a
+ * buffer is full is decided by an {@link OverflowPolicy}.
+ *
+ * @param <ReqT> a grpc request type
+ * @param <RpcModelT> a grpc response type
+ * @param <DomainModelT> a domain model type delivered to an observer
+ */
+public class GrpcStreamObserverAdaptor<ReqT, RpcModelT, DomainModelT>
+    implements ClientResponseObserver<ReqT, RpcModelT> {
+
+  // shared by every subscription; a subscription is drained by at most one task at a time
+  protected static final ExecutorService deliveryExecutor =
+      Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+          .setNameFormat("heraj-stream-%d")
+          .setDaemon(true)
+          .build());
 
   protected final transient Logger logger = getLogger(getClass());
 
@@ -28,11 +58,106 @@ public class GrpcStreamObserverAdaptor<RpcModelT, DomainModelT>
 
   protected final ModelConverter<DomainModelT, RpcModelT> converter;
 
+  protected final int bufferSize;
+
+  protected final OverflowPolicy overflowPolicy;
+
+  protected final Deque<RpcModelT> buffer = new ArrayDeque<>();
+
+  protected final AtomicLong dropCount = new AtomicLong(0L);
+
+  protected ClientCallStreamObserver<ReqT> requestStream;
+
+  // requested but not received yet; grpc requests 1 on a start of a call
+  protected int outstanding = 1;
+
+  protected boolean draining = false;
+
+  // no more item is accepted
+  protected boolean terminated = false;
+
+  protected boolean terminationDelivered = false;
+
+  protected Throwable error;
+
+  /**
+   * GrpcStreamObserverAdaptor constructor with a buffer size and an overflow policy in a
+   * configuration.
+   *
+   * @param context a cancellable context of a grpc call
+   * @param delegate an observer to deliver to
+   * @param converter a model converter
+   * @param configuration a configuration holding a buffer size and an overflow policy
+   */
+  public GrpcStreamObserverAdaptor(final io.grpc.Context.CancellableContext context,
+      final hera.api.model.StreamObserver<DomainModelT> delegate,
+      final ModelConverter<DomainModelT, RpcModelT> converter,
+      final Configuration configuration) {
+    this(context, delegate, converter,
+        configuration.getAsInt(STREAM_BUFFER_SIZE, DEFAULT_STREAM_BUFFER_SIZE),
+        OverflowPolicy.valueOf(configuration.getAsString(STREAM_OVERFLOW_POLICY,
+            OverflowPolicy.BLOCK.name())));
+  }
+
+  /**
+   * GrpcStreamObserverAdaptor constructor.
+   *
+   * @param context a cancellable context of a grpc call
+   * @param delegate an observer to deliver to
+   * @param converter a model converter
+   * @param bufferSize a maximum number of buffered items. must be positive
+   * @param overflowPolicy a policy when a buffer is full
+   */
+  public GrpcStreamObserverAdaptor(final io.grpc.Context.CancellableContext context,
+      final hera.api.model.StreamObserver<DomainModelT> delegate,
+      final ModelConverter<DomainModelT, RpcModelT> converter, final int bufferSize,
+      final OverflowPolicy overflowPolicy) {
+    assertNotNull(overflowPolicy, "Overflow policy must not null");
+    assertTrue(0 < bufferSize, "Buffer size must be positive");
+    this.context = context;
+    this.delegate = delegate;
+    this.converter = converter;
+    this.bufferSize = bufferSize;
+    this.overflowPolicy = overflowPolicy;
+  }
+
+  @Override
+  public synchronized void beforeStart(final ClientCallStreamObserver<ReqT> requestStream) {
+    requestStream.disableAutoInboundFlowControl();
+    this.requestStream = requestStream;
+  }
+
   @Override
   public void onNext(final RpcModelT value) {
-    final DomainModelT converted = converter.convertToDomainModel(value);
-    logger.info("Streaming next: {}", converted);
-    delegate.onNext(converted);
+    synchronized (this) {
+      if (0 < outstanding) {
+        --outstanding;
+      }
+      if (terminated) {
+        return;
+      }
+      if (buffer.size() >= bufferSize) {
+        switch (overflowPolicy) {
+          case DROP_OLDEST:
+            buffer.poll();
+            dropCount.incrementAndGet();
+            break;
+          case KEEP_LATEST:
+            dropCount.addAndGet(buffer.size());
+            buffer.clear();
+            break;
+          case FAIL:
+            overflow();
+            return;
+          default:
+            // BLOCK never requests more than a buffer can hold
+            break;
+        }
+      }
+      buffer.offer(value);
+    }
+    requestMore();
+    scheduleDrain();
   }
 
   @Override
@@ -43,13 +168,141 @@ public class GrpcStreamObserverAdaptor<RpcModelT, DomainModelT>
       logger.info("Stop subscription by connection error");
       context.cancel(converted);
     }
-    delegate.onError(t);
+    terminate(t);
   }
 
   @Override
   public void onCompleted() {
     logger.info("Streaming finished successfully");
-    delegate.onCompleted();
+    terminate(null);
+  }
+
+  /**
+   * Get a number of items buffered but not delivered yet.
+   *
+   * @return a queue depth
+   */
+  public synchronized int getQueueDepth() {
+    return buffer.size();
+  }
+
+  public long getDropCount() {
+    return dropCount.get();
+  }
+
+  /**
+   * Discard buffered items not to deliver them after unsubscribed.
+   */
+  protected synchronized void discard() {
+    buffer.clear();
+  }
+
+  protected void overflow() {
+    final StreamOverflowException overflowed =
+        new StreamOverflowException("Stream buffer overflowed (size: " + bufferSize + ")");
+    logger.info("Stop subscription by {}", overflowed.toString());
+    synchronized (this) {
+      dropCount.addAndGet(buffer.size() + 1);
+      buffer.clear();
+      terminated = true;
+      error = overflowed;
+    }
+    context.cancel(overflowed);
+    scheduleDrain();
+  }
+
+  protected void terminate(final Throwable error) {
+    synchronized (this) {
+      if (terminated) {
+        return;
+      }
+      terminated = true;
+      this.error = error;
+    }
+    scheduleDrain();
+  }
+
+  protected void requestMore() {
+    final int count;
+    synchronized (this) {
+      if (null == requestStream || terminated) {
+        return;
+      }
+      // with a policy dropping items, a stream keeps flowing regardless of an observer
+      final int held = (OverflowPolicy.BLOCK == overflowPolicy) ? buffer.size() : 0;
+      count = bufferSize - held - outstanding;
+      if (count <= 0) {
+        return;
+      }
+      outstanding += count;
+    }
+    requestStream.request(count);
+  }
+
+  protected void scheduleDrain() {
+    synchronized (this) {
+      if (draining) {
+        return;
+      }
+      draining = true;
+    }
+    deliveryExecutor.execute(new Runnable() {
+      @Override
+      public void run() {
+        drain();
+      }
+    });
+  }
+
+  protected void drain() {
+    while (true) {
+      final RpcModelT next;
+      final boolean deliverTermination;
+      synchronized (this) {
+        next = buffer.poll();
+        deliverTermination = (null == next) && terminated && !terminationDelivered;
+        if (null == next && !deliverTermination) {
+          draining = false;
+          return;
+        }
+        if (deliverTermination) {
+          terminationDelivered = true;
+        }
+      }
+
+      if (deliverTermination) {
+        deliverTermination();
+      } else {
+        deliver(next);
+        requestMore();
+      }
+    }
+  }
+
+  protected void deliver(final RpcModelT value) {
+    try {
+      final DomainModelT converted = converter.convertToDomainModel(value);
+      logger.info("Streaming next: {}", converted);
+      delegate.onNext(converted);
+    } catch (Exception e) {
+      logger.error("Delivering next failed by {}", e.toString());
+    }
+  }
+
+  protected void deliverTermination() {
+    final Throwable delivered;
+    synchronized (this) {
+      delivered = this.error;
+    }
+    try {
+      if (null != delivered) {
+        delegate.onError(delivered);
+      } else {
+        delegate.onCompleted();
+      }
+    } catch (Exception e) {
+      logger.error("Delivering termination failed by {}", e.toString());
+    }
   }
 
 }
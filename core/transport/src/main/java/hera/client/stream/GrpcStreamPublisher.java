@@ -0,0 +1,269 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.stream;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import hera.exception.RpcException;
+import hera.exception.RpcExceptionConverter;
+import hera.transport.ModelConverter;
+import hera.util.ExceptionConverter;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.slf4j.Logger;
+
+/**
+ * A reactive streams publisher of a grpc server stream. Each subscriber makes its own grpc call
+ * and a demand requested by a subscriber is mapped to grpc inbound flow control, so that a server
+ * never sends more than a subscriber requested. A signal is delivered on a grpc transport thread
+ * or on a thread requesting a demand.
+ *
+ * @param <ReqT> a grpc request type
+ * @param <RpcModelT> a grpc response type
+ * @param <DomainModelT> a domain model type published
+ */
+public abstract class GrpcStreamPublisher<ReqT, RpcModelT, DomainModelT>
+    implements Publisher<DomainModelT> {
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  protected final ExceptionConverter<RpcException> exceptionConverter = new RpcExceptionConverter();
+
+  protected final ModelConverter<DomainModelT, RpcModelT> converter;
+
+  protected GrpcStreamPublisher(final ModelConverter<DomainModelT, RpcModelT> converter) {
+    this.converter = converter;
+  }
+
+  /**
+   * Start a grpc call with a response observer.
+   *
+   * @param responseObserver a response observer of a grpc call
+   */
+  protected abstract void startCall(io.grpc.stub.StreamObserver<RpcModelT> responseObserver);
+
+  @Override
+  public void subscribe(final Subscriber<? super DomainModelT> subscriber) {
+    if (null == subscriber) {
+      throw new NullPointerException("Subscriber must not null");
+    }
+    final io.grpc.Context.CancellableContext context =
+        io.grpc.Context.current().withCancellation();
+    final FlowControlledSubscription subscription =
+        new FlowControlledSubscription(context, subscriber);
+    subscriber.onSubscribe(subscription);
+    if (subscription.isCancelled()) {
+      return;
+    }
+    logger.debug("Start a grpc call for subscriber {}", subscriber);
+    try {
+      context.run(new Runnable() {
+        @Override
+        public void run() {
+          startCall(subscription);
+        }
+      });
+    } catch (Exception e) {
+      subscription.onError(e);
+      return;
+    }
+    subscription.start();
+  }
+
+  protected class FlowControlledSubscription
+      implements Subscription, ClientResponseObserver<ReqT, RpcModelT> {
+
+    protected final io.grpc.Context.CancellableContext context;
+
+    protected final Subscriber<? super DomainModelT> subscriber;
+
+    protected final Deque<RpcModelT> received = new ArrayDeque<>();
+
+    protected ClientCallStreamObserver<ReqT> requestStream;
+
+    protected boolean started = false;
+
+    // requested by a subscriber but not delivered yet
+    protected long demand = 0L;
+
+    // requested from a stream but not received yet; grpc requests 1 on a start of a call
+    protected int outstanding = 1;
+
+    protected boolean emitting = false;
+
+    protected boolean done = false;
+
+    protected boolean terminated = false;
+
+    protected boolean cancelled = false;
+
+    protected Throwable error;
+
+    protected FlowControlledSubscription(final io.grpc.Context.CancellableContext context,
+        final Subscriber<? super DomainModelT> subscriber) {
+      this.context = context;
+      this.subscriber = subscriber;
+    }
+
+    @Override
+    public synchronized void beforeStart(final ClientCallStreamObserver<ReqT> requestStream) {
+      requestStream.disableAutoInboundFlowControl();
+      this.requestStream = requestStream;
+    }
+
+    @Override
+    public void request(final long n) {
+      if (n <= 0L) {
+        cancel();
+        synchronized (this) {
+          if (terminated) {
+            return;
+          }
+          terminated = true;
+        }
+        subscriber.onError(new IllegalArgumentException("Request must be positive: " + n));
+        return;
+      }
+      synchronized (this) {
+        demand = (Long.MAX_VALUE - demand < n) ? Long.MAX_VALUE : demand + n;
+      }
+      drain();
+      requestMore();
+    }
+
+    @Override
+    public void cancel() {
+      synchronized (this) {
+        if (cancelled) {
+          return;
+        }
+        cancelled = true;
+        received.clear();
+      }
+      logger.debug("Cancel subscription of {}", subscriber);
+      context.close();
+    }
+
+    @Override
+    public void onNext(final RpcModelT value) {
+      synchronized (this) {
+        if (0 < outstanding) {
+          --outstanding;
+        }
+        if (cancelled || done) {
+          return;
+        }
+        received.offer(value);
+      }
+      drain();
+      // keeps an unbounded demand flowing
+      requestMore();
+    }
+
+    @Override
+    public void onError(final Throwable t) {
+      synchronized (this) {
+        if (done) {
+          return;
+        }
+        done = true;
+        error = exceptionConverter.convert(t);
+      }
+      drain();
+    }
+
+    @Override
+    public void onCompleted() {
+      synchronized (this) {
+        if (done) {
+          return;
+        }
+        done = true;
+      }
+      drain();
+    }
+
+    protected synchronized boolean isCancelled() {
+      return cancelled;
+    }
+
+    protected void start() {
+      synchronized (this) {
+        started = true;
+      }
+      requestMore();
+    }
+
+    protected void requestMore() {
+      final int count;
+      synchronized (this) {
+        if (!started || null == requestStream || cancelled || done) {
+          return;
+        }
+        final long wanted = demand - received.size() - outstanding;
+        count = (int) Math.min(wanted, (long) Integer.MAX_VALUE - outstanding);
+        if (count <= 0) {
+          return;
+        }
+        outstanding += count;
+      }
+      requestStream.request(count);
+    }
+
+    protected void drain() {
+      synchronized (this) {
+        if (emitting) {
+          return;
+        }
+        emitting = true;
+      }
+      while (true) {
+        RpcModelT next = null;
+        Throwable terminalError = null;
+        boolean terminate = false;
+        synchronized (this) {
+          if (cancelled || terminated) {
+            emitting = false;
+            return;
+          }
+          if (0L < demand && !received.isEmpty()) {
+            next = received.poll();
+            if (Long.MAX_VALUE != demand) {
+              --demand;
+            }
+          } else if (received.isEmpty() && done) {
+            terminated = true;
+            terminate = true;
+            terminalError = error;
+          } else {
+            emitting = false;
+            return;
+          }
+        }
+
+        try {
+          if (terminate) {
+            if (null != terminalError) {
+              subscriber.onError(terminalError);
+            } else {
+              subscriber.onComplete();
+            }
+          } else {
+            subscriber.onNext(converter.convertToDomainModel(next));
+          }
+        } catch (Exception e) {
+          logger.error("Subscriber failed by {}", e.toString());
+          cancel();
+        }
+      }
+    }
+  }
+
+}
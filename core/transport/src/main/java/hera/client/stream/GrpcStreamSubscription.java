@@ -16,10 +16,13 @@ public class GrpcStreamSubscription<T> implements hera.api.model.Subscription<T>
 
   protected final io.grpc.Context.CancellableContext context;
 
+  protected final GrpcStreamObserverAdaptor<?, ?, T> adaptor;
+
   @Override
   public void unsubscribe() {
     logger.info("Unsubscribe subscription: {}", getClass());
     synchronized (this) {
+      adaptor.discard();
       context.close();
     }
   }
@@ -29,4 +32,14 @@ public class GrpcStreamSubscription<T> implements hera.api.model.Subscription<T>
     return context.isCancelled();
   }
 
+  @Override
+  public int getQueueDepth() {
+    return adaptor.getQueueDepth();
+  }
+
+  @Override
+  public long getDropCount() {
+    return adaptor.getDropCount();
+  }
+
 }
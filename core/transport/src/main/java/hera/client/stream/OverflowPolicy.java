@@ -0,0 +1,39 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.stream;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+
+/**
+ * A policy of a subscription when its buffer is full because an observer is slower than a stream.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public enum OverflowPolicy {
+
+  /**
+   * Stop requesting a stream until an observer consumes buffered items. Nothing is dropped and a
+   * server is slowed down by flow control. A transport thread is never blocked.
+   */
+  BLOCK,
+
+  /**
+   * Keep requesting a stream and drop an oldest buffered item for a new one.
+   */
+  DROP_OLDEST,
+
+  /**
+   * Keep requesting a stream and drop every buffered item for a new one, so that an observer gets
+   * a latest item only.
+   */
+  KEEP_LATEST,
+
+  /**
+   * Cancel a subscription and deliver a {@link hera.exception.StreamOverflowException}.
+   */
+  FAIL
+
+}
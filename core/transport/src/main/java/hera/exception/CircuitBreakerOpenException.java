@@ -0,0 +1,18 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.exception;
+
+/**
+ * An exception thrown without any request when a circuit breaker doesn't permit a call.
+ */
+public class CircuitBreakerOpenException extends RpcException {
+
+  private static final long serialVersionUID = -2563120187313461498L;
+
+  public CircuitBreakerOpenException(String message) {
+    super(message);
+  }
+
+}
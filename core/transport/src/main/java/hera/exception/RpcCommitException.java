@@ -4,6 +4,7 @@
 
 package hera.exception;
 
+import hera.api.model.TxCommitResult;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -76,6 +77,17 @@ public class RpcCommitException extends RpcException {
     }
   }
 
+  /**
+   * Make a {@code CommitException} with a failed commit result in a batch.
+   *
+   * @param commitResult a failed commit result
+   */
+  public RpcCommitException(final TxCommitResult commitResult) {
+    super(commitResult.getMessage());
+    this.commitStatus = CommitStatus.valueOf(commitResult.getStatus().name());
+    this.message = commitResult.getMessage();
+  }
+
   @Override
   public String getLocalizedMessage() {
     return commitStatus.toString() + " " + message;
@@ -0,0 +1,19 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.exception;
+
+/**
+ * An exception delivered to a stream observer when a buffer of a subscription overflows with a
+ * {@link hera.client.stream.OverflowPolicy#FAIL} policy.
+ */
+public class StreamOverflowException extends RpcException {
+
+  private static final long serialVersionUID = 4820335126517923740L;
+
+  public StreamOverflowException(String message) {
+    super(message);
+  }
+
+}
@@ -0,0 +1,220 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.strategy;
+
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static hera.client.ClientConstants.IDEMPOTENT_OPERATIONS;
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableSet;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import hera.api.function.Function;
+import hera.api.function.Function0;
+import hera.api.function.Functions;
+import hera.api.function.WithIdentity;
+import hera.api.model.internal.Time;
+import hera.client.internal.HerajFutures;
+import io.grpc.Context;
+import io.grpc.Status;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.slf4j.Logger;
+
+/**
+ * A retry strategy with exponential backoff and decorrelated jitter. A retry is scheduled on a
+ * shared scheduler instead of sleeping on a caller thread, so it must be applied inside of
+ * {@link TimeoutStrategy}, where a function returns a future right away. It retries only
+ * idempotent operations failed by a transient error as long as a {@link RetryBudget} allows.
+ */
+@ToString(exclude = {"logger", "random"})
+@EqualsAndHashCode(callSuper = false, exclude = {"logger", "random"})
+public class BackoffRetryStrategy extends InvocationStrategy {
+
+  public static final Time DEFAULT_BASE_INTERVAL = Time.of(100L, TimeUnit.MILLISECONDS);
+
+  public static final Time DEFAULT_MAX_INTERVAL = Time.of(5000L, TimeUnit.MILLISECONDS);
+
+  protected static final Set<Status.Code> RETRYABLE_CODES = unmodifiableSet(
+      new HashSet<>(asList(Status.Code.UNAVAILABLE, Status.Code.RESOURCE_EXHAUSTED,
+          Status.Code.ABORTED)));
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  protected final Random random = new Random();
+
+  @Getter
+  protected final int count;
+
+  protected final long baseInterval; // milliseconds
+
+  protected final long maxInterval; // milliseconds
+
+  protected final Set<String> idempotentOperations;
+
+  @Getter
+  protected final RetryBudget retryBudget;
+
+  public BackoffRetryStrategy(final int count) {
+    this(count, DEFAULT_BASE_INTERVAL, DEFAULT_MAX_INTERVAL);
+  }
+
+  public BackoffRetryStrategy(final int count, final Time baseInterval, final Time maxInterval) {
+    this(count, baseInterval, maxInterval, IDEMPOTENT_OPERATIONS, new RetryBudget());
+  }
+
+  /**
+   * {@code BackoffRetryStrategy} constructor.
+   *
+   * @param count a maximum retry count. must be positive
+   * @param baseInterval a minimum interval between tries
+   * @param maxInterval a maximum interval between tries
+   * @param idempotentOperations identities of function to retry
+   * @param retryBudget a retry budget shared by every function
+   */
+  public BackoffRetryStrategy(final int count, final Time baseInterval, final Time maxInterval,
+      final Set<String> idempotentOperations, final RetryBudget retryBudget) {
+    assertTrue(0 < count, "Retry count must be positive");
+    assertTrue(0 < baseInterval.toMilliseconds(), "Base interval must be positive");
+    assertTrue(baseInterval.toMilliseconds() <= maxInterval.toMilliseconds(),
+        "Max interval must not be less than base interval");
+    assertNotNull(idempotentOperations, "Idempotent operations must not null");
+    assertNotNull(retryBudget, "Retry budget must not null");
+    this.count = count;
+    this.baseInterval = baseInterval.toMilliseconds();
+    this.maxInterval = maxInterval.toMilliseconds();
+    this.idempotentOperations = unmodifiableSet(new HashSet<>(idempotentOperations));
+    this.retryBudget = retryBudget;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  protected <R> R wrap(final Function<R> f, final List<Object> args) {
+    if (!isIdempotent(f)) {
+      return Functions.invoke(f, args);
+    }
+
+    retryBudget.onRequest();
+    final Retrier retrier = new Retrier((Function0<Future<?>>) Functions.buildInvocation(f, args));
+    retrier.attempt(0, baseInterval);
+    return (R) retrier.result;
+  }
+
+  protected boolean isIdempotent(final Function<?> f) {
+    return (f instanceof WithIdentity)
+        && idempotentOperations.contains(((WithIdentity) f).getIdentity());
+  }
+
+  protected boolean isRetryable(final Throwable error) {
+    return RETRYABLE_CODES.contains(Status.fromThrowable(error).getCode());
+  }
+
+  /**
+   * Get a next interval by decorrelated jitter, {@code min(max, random(base, previous * 3))}.
+   *
+   * @param previous a previous interval in milliseconds
+   * @return a next interval in milliseconds
+   */
+  protected long nextInterval(final long previous) {
+    final long upper = Math.min(maxInterval, Math.max(baseInterval, previous * 3));
+    final long jitter = (long) (random.nextDouble() * (upper - baseInterval + 1));
+    return Math.min(maxInterval, baseInterval + jitter);
+  }
+
+  private class Retrier {
+
+    protected final Function0<Future<?>> invocation;
+
+    protected final SettableFuture<Object> result = SettableFuture.create();
+
+    protected final AtomicReference<Future<?>> current = new AtomicReference<>();
+
+    // a grpc context holding deadline and cancellation of a caller
+    protected final Context context = Context.current();
+
+    Retrier(final Function0<Future<?>> invocation) {
+      this.invocation = invocation;
+      result.addListener(new Runnable() {
+        @Override
+        public void run() {
+          final Future<?> attempt = current.get();
+          if (result.isCancelled() && null != attempt) {
+            attempt.cancel(true);
+          }
+        }
+      }, directExecutor());
+    }
+
+    protected void attempt(final int tried, final long interval) {
+      if (result.isDone()) {
+        return;
+      }
+
+      final ListenableFuture<?> future;
+      try {
+        final Object shouldBeFuture = invocation.apply();
+        if (!(shouldBeFuture instanceof Future)) {
+          throw new UnsupportedOperationException("Return type of function must be future");
+        }
+        future = HerajFutures.listenable((Future<?>) shouldBeFuture);
+      } catch (Exception e) {
+        onFailure(e, tried, interval);
+        return;
+      }
+
+      current.set(future);
+      if (result.isCancelled()) {
+        future.cancel(true);
+        return;
+      }
+      Futures.addCallback(future, new FutureCallback<Object>() {
+        @Override
+        public void onSuccess(final Object value) {
+          result.set(value);
+        }
+
+        @Override
+        public void onFailure(final Throwable error) {
+          Retrier.this.onFailure(error, tried, interval);
+        }
+      }, directExecutor());
+    }
+
+    protected void onFailure(final Throwable error, final int tried, final long interval) {
+      if (result.isDone()) {
+        return;
+      }
+      if (tried >= count || !isRetryable(error) || context.isCancelled()
+          || !retryBudget.tryRetry()) {
+        result.setException(error);
+        return;
+      }
+
+      final long next = nextInterval(interval);
+      logger.info("Try failed.. retry after {} milliseconds (try left: {}) cause: {}", next,
+          count - tried, error.toString());
+      HerajFutures.getScheduler().schedule(context.wrap(new Runnable() {
+        @Override
+        public void run() {
+          attempt(tried + 1, next);
+        }
+      }), next, TimeUnit.MILLISECONDS);
+    }
+  }
+
+}
@@ -0,0 +1,371 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.strategy;
+
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static hera.util.ValidationUtils.assertTrue;
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Collections.unmodifiableSet;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import hera.api.function.Function;
+import hera.api.function.Functions;
+import hera.api.function.WithIdentity;
+import hera.api.model.internal.Time;
+import hera.client.internal.HerajFutures;
+import hera.exception.CircuitBreakerOpenException;
+import hera.exception.DecoratorChainException;
+import io.grpc.Status;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.slf4j.Logger;
+
+/**
+ * A circuit breaker for each operation identity. A circuit opens when a failure rate or a slow call
+ * rate of recent calls reaches a threshold. While a circuit is open, a call fails fast with
+ * {@link CircuitBreakerOpenException}. After an open duration, a few probe calls are permitted and
+ * the circuit is closed if all of them succeed.
+ * <p>
+ * Only an error telling a node is unhealthy (eg. unavailable, timed out) is counted as a failure.
+ * An error like not found is a response and counted as a success.
+ * </p>
+ */
+@ToString(exclude = {"logger", "circuits"})
+@EqualsAndHashCode(callSuper = false, exclude = {"logger", "circuits"})
+public class CircuitBreakerStrategy extends FailoverStrategy {
+
+  public static final double DEFAULT_FAILURE_RATE_THRESHOLD = 0.5d;
+
+  public static final double DEFAULT_SLOW_CALL_RATE_THRESHOLD = 1.0d;
+
+  public static final Time DEFAULT_SLOW_CALL_DURATION = Time.of(5L, TimeUnit.SECONDS);
+
+  public static final Time DEFAULT_OPEN_DURATION = Time.of(30L, TimeUnit.SECONDS);
+
+  public static final int DEFAULT_WINDOW_SIZE = 20; // calls
+
+  public static final int DEFAULT_MINIMUM_CALLS = 10;
+
+  public static final int DEFAULT_PROBE_CALLS = 3;
+
+  protected static final Set<Status.Code> FAILURE_CODES = unmodifiableSet(
+      new HashSet<>(asList(Status.Code.UNAVAILABLE, Status.Code.DEADLINE_EXCEEDED,
+          Status.Code.RESOURCE_EXHAUSTED, Status.Code.INTERNAL)));
+
+  /**
+   * A state of a circuit.
+   */
+  public enum State {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+  }
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  @Getter
+  protected final double failureRateThreshold;
+
+  @Getter
+  protected final double slowCallRateThreshold;
+
+  @Getter
+  protected final Time slowCallDuration;
+
+  @Getter
+  protected final Time openDuration;
+
+  protected final int windowSize;
+
+  protected final int minimumCalls;
+
+  protected final int probeCalls;
+
+  protected final ConcurrentMap<String, Circuit> circuits = new ConcurrentHashMap<>();
+
+  public CircuitBreakerStrategy() {
+    this(DEFAULT_FAILURE_RATE_THRESHOLD, DEFAULT_SLOW_CALL_RATE_THRESHOLD,
+        DEFAULT_SLOW_CALL_DURATION, DEFAULT_OPEN_DURATION);
+  }
+
+  public CircuitBreakerStrategy(final double failureRateThreshold,
+      final double slowCallRateThreshold, final Time slowCallDuration, final Time openDuration) {
+    this(failureRateThreshold, slowCallRateThreshold, slowCallDuration, openDuration,
+        DEFAULT_WINDOW_SIZE, DEFAULT_MINIMUM_CALLS, DEFAULT_PROBE_CALLS);
+  }
+
+  /**
+   * {@code CircuitBreakerStrategy} constructor.
+   *
+   * @param failureRateThreshold a failure rate opening a circuit. must be in (0, 1]
+   * @param slowCallRateThreshold a slow call rate opening a circuit. must be in (0, 1]
+   * @param slowCallDuration a duration from which a call is considered as slow
+   * @param openDuration a duration for which a circuit stays open
+   * @param windowSize the number of recent calls to calculate rates
+   * @param minimumCalls the number of calls required before calculating rates
+   * @param probeCalls the number of calls permitted in a half-open state
+   */
+  public CircuitBreakerStrategy(final double failureRateThreshold,
+      final double slowCallRateThreshold, final Time slowCallDuration, final Time openDuration,
+      final int windowSize, final int minimumCalls, final int probeCalls) {
+    assertTrue(0.0d < failureRateThreshold && failureRateThreshold <= 1.0d,
+        "Failure rate threshold must be in (0, 1]");
+    assertTrue(0.0d < slowCallRateThreshold && slowCallRateThreshold <= 1.0d,
+        "Slow call rate threshold must be in (0, 1]");
+    assertTrue(0 < openDuration.toMilliseconds(), "Open duration must be positive");
+    assertTrue(0 < windowSize, "Window size must be positive");
+    assertTrue(0 < minimumCalls && minimumCalls <= windowSize,
+        "Minimum calls must be in (0, window size]");
+    assertTrue(0 < probeCalls, "Probe calls must be positive");
+    this.failureRateThreshold = failureRateThreshold;
+    this.slowCallRateThreshold = slowCallRateThreshold;
+    this.slowCallDuration = slowCallDuration;
+    this.openDuration = openDuration;
+    this.windowSize = windowSize;
+    this.minimumCalls = minimumCalls;
+    this.probeCalls = probeCalls;
+  }
+
+  /**
+   * Get a state of a circuit for an operation.
+   *
+   * @param identity an operation identity
+   * @return a state of a circuit. {@link State#CLOSED} if no call is made yet
+   */
+  public State getState(final String identity) {
+    final Circuit circuit = circuits.get(identity);
+    return null == circuit ? State.CLOSED : circuit.getState(now());
+  }
+
+  /**
+   * Get states of all circuits.
+   *
+   * @return states keyed by operation identity
+   */
+  public Map<String, State> getStates() {
+    final long now = now();
+    final Map<String, State> states = new HashMap<>();
+    for (final Map.Entry<String, Circuit> entry : circuits.entrySet()) {
+      states.put(entry.getKey(), entry.getValue().getState(now));
+    }
+    return unmodifiableMap(states);
+  }
+
+  @Override
+  protected <R> R wrap(final Function<R> f, final List<Object> args) {
+    if (!(f instanceof WithIdentity)) {
+      return Functions.invoke(f, args);
+    }
+
+    final String identity = ((WithIdentity) f).getIdentity();
+    final Circuit circuit = getCircuit(identity);
+    if (!circuit.tryAcquire(now())) {
+      logger.debug("Circuit of {} is {}", identity, circuit.state);
+      throw new DecoratorChainException(
+          new CircuitBreakerOpenException("Circuit breaker is open for " + identity));
+    }
+
+    final long startTime = now();
+    final R ret;
+    try {
+      ret = Functions.invoke(f, args);
+    } catch (Exception e) {
+      return onFailure(e, f, args, circuit, startTime);
+    }
+
+    if (ret instanceof Future) {
+      // record when a non-blocking call is done
+      Futures.addCallback(HerajFutures.listenable((Future<?>) ret), new FutureCallback<Object>() {
+        @Override
+        public void onSuccess(final Object result) {
+          record(circuit, identity, false, startTime);
+        }
+
+        @Override
+        public void onFailure(final Throwable error) {
+          record(circuit, identity, isFailure(error), startTime);
+        }
+      }, directExecutor());
+    } else {
+      record(circuit, identity, false, startTime);
+    }
+    return ret;
+  }
+
+  @Override
+  protected <R> R onFailure(final Exception error, final Function<R> f,
+      final List<Object> args) {
+    throw (error instanceof DecoratorChainException) ? (DecoratorChainException) error
+        : new DecoratorChainException(error);
+  }
+
+  protected <R> R onFailure(final Exception error, final Function<R> f, final List<Object> args,
+      final Circuit circuit, final long startTime) {
+    record(circuit, ((WithIdentity) f).getIdentity(), isFailure(error), startTime);
+    return onFailure(error, f, args);
+  }
+
+  protected void record(final Circuit circuit, final String identity, final boolean failed,
+      final long startTime) {
+    final long now = now();
+    final boolean slow = now - startTime >= slowCallDuration.getUnit()
+        .toNanos(slowCallDuration.getValue());
+    final State before = circuit.state;
+    final State after = circuit.record(failed, slow, now);
+    if (before != after) {
+      logger.info("Circuit of {} changed from {} to {}", identity, before, after);
+    }
+  }
+
+  protected boolean isFailure(final Throwable error) {
+    Throwable cause = error;
+    while (cause instanceof DecoratorChainException && null != cause.getCause()) {
+      cause = cause.getCause();
+    }
+    if (cause instanceof TimeoutException) {
+      return true;
+    }
+    return FAILURE_CODES.contains(Status.fromThrowable(cause).getCode());
+  }
+
+  protected Circuit getCircuit(final String identity) {
+    Circuit circuit = circuits.get(identity);
+    if (null == circuit) {
+      final Circuit created = new Circuit();
+      circuit = circuits.putIfAbsent(identity, created);
+      if (null == circuit) {
+        circuit = created;
+      }
+    }
+    return circuit;
+  }
+
+  protected long now() {
+    return System.nanoTime();
+  }
+
+  /**
+   * A circuit keeping outcomes of recent calls in a ring buffer.
+   */
+  protected class Circuit {
+
+    protected volatile State state = State.CLOSED;
+
+    protected final boolean[] failures = new boolean[windowSize];
+
+    protected final boolean[] slows = new boolean[windowSize];
+
+    protected int recorded = 0;
+
+    protected int next = 0;
+
+    protected long openedAt = 0L;
+
+    protected int probesPermitted = 0;
+
+    protected int probesSucceeded = 0;
+
+    protected synchronized State getState(final long now) {
+      if (State.OPEN == state && isOpenExpired(now)) {
+        return State.HALF_OPEN;
+      }
+      return state;
+    }
+
+    protected synchronized boolean tryAcquire(final long now) {
+      switch (state) {
+        case CLOSED:
+          return true;
+        case OPEN:
+          if (!isOpenExpired(now)) {
+            return false;
+          }
+          state = State.HALF_OPEN;
+          probesPermitted = 0;
+          probesSucceeded = 0;
+          // fall through to permit a probe
+        case HALF_OPEN:
+        default:
+          if (probesPermitted < probeCalls) {
+            ++probesPermitted;
+            return true;
+          }
+          return false;
+      }
+    }
+
+    protected synchronized State record(final boolean failed, final boolean slow,
+        final long now) {
+      switch (state) {
+        case CLOSED:
+          failures[next] = failed;
+          slows[next] = slow;
+          next = (next + 1) % windowSize;
+          recorded = Math.min(recorded + 1, windowSize);
+          if (recorded >= minimumCalls && isOverThreshold()) {
+            open(now);
+          }
+          break;
+        case HALF_OPEN:
+          if (failed || slow) {
+            open(now);
+          } else if (++probesSucceeded >= probeCalls) {
+            close();
+          }
+          break;
+        case OPEN:
+        default:
+          // a call made before opening
+          break;
+      }
+      return state;
+    }
+
+    protected boolean isOverThreshold() {
+      int failureCount = 0;
+      int slowCount = 0;
+      for (int i = 0; i < recorded; ++i) {
+        if (failures[i]) {
+          ++failureCount;
+        }
+        if (slows[i]) {
+          ++slowCount;
+        }
+      }
+      return failureCount >= failureRateThreshold * recorded
+          || slowCount >= slowCallRateThreshold * recorded;
+    }
+
+    protected boolean isOpenExpired(final long now) {
+      return now - openedAt >= openDuration.getUnit().toNanos(openDuration.getValue());
+    }
+
+    protected void open(final long now) {
+      state = State.OPEN;
+      openedAt = now;
+    }
+
+    protected void close() {
+      state = State.CLOSED;
+      recorded = 0;
+      next = 0;
+    }
+  }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.strategy;
+
+import static hera.client.ClientConstants.SUBSCRIBE_PREFIX;
+
+import hera.api.function.Function;
+import hera.api.function.Functions;
+import hera.api.function.WithIdentity;
+import hera.client.internal.HerajFutures;
+import hera.exception.DecoratorChainException;
+import io.grpc.Context;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * A timeout strategy binding a grpc deadline to every call made by an invocation. Unlike
+ * {@link TimeoutStrategy}, a call still running when a caller gives up (timeout or interrupt) is
+ * cancelled on the server too. Since the deadline is carried by a {@link Context}, nested calls
+ * (eg. commit in contract execution) share the remaining deadline of an outer one.
+ */
+@ToString(callSuper = true)
+@EqualsAndHashCode(callSuper = true)
+public class DeadlineStrategy extends TimeoutStrategy {
+
+  public DeadlineStrategy(final long timeout) {
+    this(timeout, TimeUnit.MILLISECONDS);
+  }
+
+  public DeadlineStrategy(final long timeout, final TimeUnit timeUnit) {
+    super(timeout, timeUnit);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  protected <R> R wrap(final Function<R> f, final List<Object> args) {
+    if (isSubscription(f)) {
+      // a stream must outlive the deadline
+      return super.wrap(f, args);
+    }
+
+    final Context.CancellableContext deadlineContext = Context.current()
+        .withDeadlineAfter(timeout.getValue(), timeout.getUnit(), HerajFutures.getScheduler());
+    Future<?> future = null;
+    try {
+      final R shouldBeFuture = deadlineContext.call(new Callable<R>() {
+        @Override
+        public R call() {
+          return Functions.invoke(f, args);
+        }
+      });
+      if (!(shouldBeFuture instanceof Future)) {
+        throw new UnsupportedOperationException("Return type of function must be future");
+      }
+
+      future = (Future<?>) shouldBeFuture;
+      // a deadline fails a call by itself; it's for a future not bound to any call
+      final Object ret = future.get(timeout.getValue(), timeout.getUnit());
+      return (R) HerajFutures.success(ret);
+    } catch (ExecutionException e) {
+      throw new DecoratorChainException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      cancel(future);
+      throw new DecoratorChainException(e);
+    } catch (TimeoutException e) {
+      logger.info("Request timed out with deadline: {}", timeout);
+      cancel(future);
+      throw new DecoratorChainException(e);
+    } catch (DecoratorChainException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new DecoratorChainException(e);
+    } finally {
+      // cancel calls still bound to the context if any
+      deadlineContext.cancel(null);
+    }
+  }
+
+  protected boolean isSubscription(final Function<?> f) {
+    return (f instanceof WithIdentity)
+        && ((WithIdentity) f).getIdentity().startsWith(SUBSCRIBE_PREFIX);
+  }
+
+  protected void cancel(final Future<?> future) {
+    if (null != future) {
+      future.cancel(true);
+    }
+  }
+
+}
@@ -0,0 +1,312 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.strategy;
+
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static hera.client.ClientConstants.HEDGEABLE_OPERATIONS;
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+import static java.util.Collections.newSetFromMap;
+import static java.util.Collections.unmodifiableSet;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import hera.api.function.Function;
+import hera.api.function.Function0;
+import hera.api.function.Functions;
+import hera.api.function.WithIdentity;
+import hera.api.model.internal.Time;
+import hera.client.internal.HerajFutures;
+import hera.client.internal.LoadBalancedChannel;
+import io.grpc.Context;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.slf4j.Logger;
+
+/**
+ * A strategy sending a duplicate of a read request when the first one isn't answered within a
+ * delay. The delay is a percentile of recent latencies of an operation. The first response is
+ * taken and the other request is cancelled. With {@link LoadBalancedChannel}, a duplicate is sent
+ * to an endpoint other than the one of the first request. A latency of the first request is
+ * sampled even if it loses to a duplicate, up to when it's cancelled, so that slow responses aren't
+ * hidden by hedging.
+ * <p>
+ * Like {@link BackoffRetryStrategy}, a duplicate is scheduled on a shared scheduler so it must be
+ * applied inside of {@link TimeoutStrategy}.
+ * </p>
+ */
+@ToString(exclude = {"logger", "latencies"})
+@EqualsAndHashCode(callSuper = false, exclude = {"logger", "latencies"})
+public class HedgingStrategy extends InvocationStrategy {
+
+  public static final double DEFAULT_PERCENTILE = 0.95d;
+
+  public static final Time DEFAULT_MIN_DELAY = Time.of(10L, TimeUnit.MILLISECONDS);
+
+  // used until enough latencies are sampled
+  public static final Time DEFAULT_INITIAL_DELAY = Time.of(100L, TimeUnit.MILLISECONDS);
+
+  protected static final int SAMPLE_SIZE = 128;
+
+  protected static final int MIN_SAMPLES = 16;
+
+  // recalculate a percentile every this number of samples
+  protected static final int UPDATE_INTERVAL = 16;
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  @Getter
+  protected final double percentile;
+
+  @Getter
+  protected final Time minDelay;
+
+  @Getter
+  protected final Time initialDelay;
+
+  protected final Set<String> hedgeableOperations;
+
+  protected final ConcurrentMap<String, Latencies> latencies = new ConcurrentHashMap<>();
+
+  public HedgingStrategy() {
+    this(DEFAULT_PERCENTILE, DEFAULT_MIN_DELAY);
+  }
+
+  /**
+   * {@code HedgingStrategy} constructor hedging read operations. An initial delay is
+   * {@link #DEFAULT_INITIAL_DELAY} or {@code minDelay} if it's longer.
+   *
+   * @param percentile a percentile of latencies after which a duplicate is sent. must be in (0, 1)
+   * @param minDelay a minimum delay before sending a duplicate
+   */
+  public HedgingStrategy(final double percentile, final Time minDelay) {
+    this(percentile, minDelay,
+        minDelay.toMilliseconds() < DEFAULT_INITIAL_DELAY.toMilliseconds() ? DEFAULT_INITIAL_DELAY
+            : minDelay, HEDGEABLE_OPERATIONS);
+  }
+
+  /**
+   * {@code HedgingStrategy} constructor.
+   *
+   * @param percentile a percentile of latencies after which a duplicate is sent. must be in (0, 1)
+   * @param minDelay a minimum delay before sending a duplicate
+   * @param initialDelay a delay used until enough latencies are sampled
+   * @param hedgeableOperations identities of function to hedge
+   */
+  public HedgingStrategy(final double percentile, final Time minDelay, final Time initialDelay,
+      final Set<String> hedgeableOperations) {
+    assertTrue(0.0d < percentile && percentile < 1.0d, "Percentile must be in (0, 1)");
+    assertNotNull(minDelay, "Min delay must not null");
+    assertNotNull(initialDelay, "Initial delay must not null");
+    assertNotNull(hedgeableOperations, "Hedgeable operations must not null");
+    this.percentile = percentile;
+    this.minDelay = minDelay;
+    this.initialDelay = initialDelay;
+    this.hedgeableOperations = unmodifiableSet(new HashSet<>(hedgeableOperations));
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  protected <R> R wrap(final Function<R> f, final List<Object> args) {
+    if (!(f instanceof WithIdentity)
+        || !hedgeableOperations.contains(((WithIdentity) f).getIdentity())) {
+      return Functions.invoke(f, args);
+    }
+
+    final String identity = ((WithIdentity) f).getIdentity();
+    final Hedger hedger = new Hedger(getLatencies(identity),
+        (Function0<Future<?>>) Functions.buildInvocation(f, args));
+    hedger.start(getDelay(identity));
+    return (R) hedger.result;
+  }
+
+  /**
+   * Get a delay before sending a duplicate of an operation.
+   *
+   * @param identity an operation identity
+   * @return a delay in nanoseconds
+   */
+  public long getDelay(final String identity) {
+    final long min = minDelay.getUnit().toNanos(minDelay.getValue());
+    final Latencies sampled = latencies.get(identity);
+    final long delay = (null == sampled) ? -1L : sampled.percentile;
+    if (delay < 0L) {
+      return Math.max(min, initialDelay.getUnit().toNanos(initialDelay.getValue()));
+    }
+    return Math.max(min, delay);
+  }
+
+  protected Latencies getLatencies(final String identity) {
+    Latencies ret = latencies.get(identity);
+    if (null == ret) {
+      final Latencies created = new Latencies();
+      ret = latencies.putIfAbsent(identity, created);
+      if (null == ret) {
+        ret = created;
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * Recent latencies of an operation.
+   */
+  protected class Latencies {
+
+    protected final long[] samples = new long[SAMPLE_SIZE];
+
+    protected int count = 0;
+
+    protected int next = 0;
+
+    /* in nanoseconds, negative until enough samples */
+    protected volatile long percentile = -1L;
+
+    protected synchronized void record(final long elapsedInNanos) {
+      samples[next] = elapsedInNanos;
+      next = (next + 1) % SAMPLE_SIZE;
+      count = Math.min(count + 1, SAMPLE_SIZE);
+      if (count >= MIN_SAMPLES && 0 == next % UPDATE_INTERVAL) {
+        final long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        percentile = sorted[(int) Math.min(count - 1, Math.ceil(
+            HedgingStrategy.this.percentile * count) - 1)];
+      }
+    }
+  }
+
+  private class Hedger {
+
+    protected final Latencies latencies;
+
+    protected final Function0<Future<?>> invocation;
+
+    protected final SettableFuture<Object> result = SettableFuture.create();
+
+    protected final List<Future<?>> attempts = new CopyOnWriteArrayList<>();
+
+    protected final AtomicInteger pending = new AtomicInteger(0);
+
+    // attempts share a set of routed endpoints to be sent to different endpoints
+    protected final Context context = Context.current().withValue(
+        LoadBalancedChannel.ROUTED_ENDPOINTS,
+        newSetFromMap(new ConcurrentHashMap<String, Boolean>()));
+
+    protected volatile ScheduledFuture<?> scheduled;
+
+    // a start time of a primary attempt
+    protected volatile long startTime;
+
+    // a primary attempt is sampled at most once
+    protected final AtomicBoolean primarySettled = new AtomicBoolean(false);
+
+    Hedger(final Latencies latencies, final Function0<Future<?>> invocation) {
+      this.latencies = latencies;
+      this.invocation = invocation;
+      result.addListener(new Runnable() {
+        @Override
+        public void run() {
+          final ScheduledFuture<?> hedge = scheduled;
+          if (null != hedge) {
+            hedge.cancel(false);
+          }
+          // cancel a loser or all attempts on cancellation
+          for (final Future<?> attempt : attempts) {
+            attempt.cancel(true);
+          }
+        }
+      }, directExecutor());
+    }
+
+    protected void start(final long delayInNanos) {
+      startTime = System.nanoTime();
+      pending.incrementAndGet();
+      attempt(false);
+      if (!result.isDone()) {
+        scheduled = HerajFutures.getScheduler().schedule(context.wrap(new Runnable() {
+          @Override
+          public void run() {
+            if (!result.isDone() && pending.incrementAndGet() > 1) {
+              logger.debug("No response in {} nanoseconds, send a hedged request", delayInNanos);
+              attempt(true);
+            }
+          }
+        }), delayInNanos, TimeUnit.NANOSECONDS);
+      }
+    }
+
+    protected void attempt(final boolean hedged) {
+      final ListenableFuture<?> future;
+      final Context previous = context.attach();
+      try {
+        final Object shouldBeFuture = invocation.apply();
+        if (!(shouldBeFuture instanceof Future)) {
+          throw new UnsupportedOperationException("Return type of function must be future");
+        }
+        future = HerajFutures.listenable((Future<?>) shouldBeFuture);
+      } catch (Exception e) {
+        if (!hedged) {
+          settlePrimary(false);
+        }
+        onFailure(e);
+        return;
+      } finally {
+        context.detach(previous);
+      }
+
+      attempts.add(future);
+      if (result.isDone()) {
+        future.cancel(true);
+        return;
+      }
+      Futures.addCallback(future, new FutureCallback<Object>() {
+        @Override
+        public void onSuccess(final Object value) {
+          // a primary losing to a hedge is sampled up to its cancellation not to hide it
+          settlePrimary(true);
+          result.set(value);
+        }
+
+        @Override
+        public void onFailure(final Throwable error) {
+          if (!hedged) {
+            settlePrimary(false);
+          }
+          Hedger.this.onFailure(error);
+        }
+      }, directExecutor());
+    }
+
+    protected void settlePrimary(final boolean record) {
+      if (primarySettled.compareAndSet(false, true) && record) {
+        latencies.record(System.nanoTime() - startTime);
+      }
+    }
+
+    protected void onFailure(final Throwable error) {
+      // wait for an other attempt if any
+      if (0 == pending.decrementAndGet()) {
+        result.setException(error);
+      }
+    }
+  }
+
+}
@@ -10,8 +10,15 @@ public class PriorityProvider {
 
   static {
     priorityConfig = new PriorityConfig();
-    priorityConfig.set(TimeoutStrategy.class, 1);
-    priorityConfig.set(JustRetryStrategy.class, 2);
+    // non-blocking strategies must be applied before (inside of) a blocking timeout
+    // a hedged pair of requests is retried as a whole
+    priorityConfig.set(HedgingStrategy.class, 1);
+    priorityConfig.set(BackoffRetryStrategy.class, 2);
+    priorityConfig.set(TimeoutStrategy.class, 3);
+    priorityConfig.set(DeadlineStrategy.class, 3);
+    // a circuit breaker counts a timed out call as a failure
+    priorityConfig.set(CircuitBreakerStrategy.class, 4);
+    priorityConfig.set(JustRetryStrategy.class, 5);
   }
 
   public static PriorityConfig get() {
@@ -0,0 +1,115 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.strategy;
+
+import static hera.util.ValidationUtils.assertTrue;
+
+import hera.api.model.internal.Time;
+import java.util.concurrent.TimeUnit;
+import lombok.ToString;
+
+/**
+ * A budget limiting retries to a percentage of recent requests. A minimum number of retries in a
+ * window is always allowed so that a client with low traffic can still retry.
+ */
+@ToString(of = {"window", "percentCanRetry", "minRetries"})
+public class RetryBudget {
+
+  public static final Time DEFAULT_WINDOW = Time.of(10L, TimeUnit.SECONDS);
+
+  public static final double DEFAULT_PERCENT_CAN_RETRY = 0.2d;
+
+  public static final int DEFAULT_MIN_RETRIES = 100; // in a window
+
+  protected static final int BUCKET_COUNT = 10;
+
+  protected final Time window;
+
+  protected final double percentCanRetry;
+
+  protected final int minRetries;
+
+  protected final long bucketSizeInNanos;
+
+  protected final long[] epochs = new long[BUCKET_COUNT];
+
+  protected final long[] requests = new long[BUCKET_COUNT];
+
+  protected final long[] retries = new long[BUCKET_COUNT];
+
+  public RetryBudget() {
+    this(DEFAULT_WINDOW, DEFAULT_PERCENT_CAN_RETRY, DEFAULT_MIN_RETRIES);
+  }
+
+  /**
+   * RetryBudget constructor.
+   *
+   * @param window a window in which requests and retries are counted
+   * @param percentCanRetry a ratio of retries to requests in a window. must be in [0, 1]
+   * @param minRetries retries always allowed in a window. must not be negative
+   */
+  public RetryBudget(final Time window, final double percentCanRetry, final int minRetries) {
+    assertTrue(0 < window.toMilliseconds(), "Window must be positive");
+    assertTrue(0.0d <= percentCanRetry && percentCanRetry <= 1.0d,
+        "Percent can retry must be in [0, 1]");
+    assertTrue(0 <= minRetries, "Min retries must not negative");
+    this.window = window;
+    this.percentCanRetry = percentCanRetry;
+    this.minRetries = minRetries;
+    this.bucketSizeInNanos = window.getUnit().toNanos(window.getValue()) / BUCKET_COUNT;
+  }
+
+  /**
+   * Record an origin request.
+   */
+  public synchronized void onRequest() {
+    ++requests[currentBucket()];
+  }
+
+  /**
+   * Withdraw a retry from the budget.
+   *
+   * @return whether a retry is allowed
+   */
+  public synchronized boolean tryRetry() {
+    final int current = currentBucket();
+    long requestSum = 0L;
+    long retrySum = 0L;
+    for (int i = 0; i < BUCKET_COUNT; ++i) {
+      requestSum += requests[i];
+      retrySum += retries[i];
+    }
+    if (retrySum >= minRetries + (long) (percentCanRetry * requestSum)) {
+      return false;
+    }
+    ++retries[current];
+    return true;
+  }
+
+  protected long now() {
+    return System.nanoTime();
+  }
+
+  protected int currentBucket() {
+    final long epoch = now() / bucketSizeInNanos;
+    final int index = (int) (((epoch % BUCKET_COUNT) + BUCKET_COUNT) % BUCKET_COUNT);
+    if (epochs[index] != epoch) {
+      // expired
+      epochs[index] = epoch;
+      requests[index] = 0L;
+      retries[index] = 0L;
+    }
+    // clear buckets expired without any record
+    for (int i = 0; i < BUCKET_COUNT; ++i) {
+      if (epoch - epochs[i] >= BUCKET_COUNT) {
+        epochs[i] = epoch;
+        requests[i] = 0L;
+        retries[i] = 0L;
+      }
+    }
+    return index;
+  }
+
+}
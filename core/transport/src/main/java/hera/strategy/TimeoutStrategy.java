@@ -17,6 +17,7 @@ import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.ToString;
 import org.slf4j.Logger;
 
@@ -26,6 +27,7 @@ public class TimeoutStrategy extends InvocationStrategy {
 
   protected final Logger logger = getLogger(getClass());
 
+  @Getter
   protected final Time timeout;
 
   public TimeoutStrategy(final long timeout) {
@@ -18,7 +18,7 @@ import javax.net.ssl.SSLSocketFactory;
 import lombok.ToString;
 import org.slf4j.Logger;
 
-@ToString(exclude = "logger")
+@ToString(exclude = {"logger", "sslContext"})
 public class TlsChannelStrategy implements SecurityConfigurationStrategy {
 
   protected final Logger logger = getLogger(getClass());
@@ -31,6 +31,9 @@ public class TlsChannelStrategy implements SecurityConfigurationStrategy {
 
   protected final InputStream clientKeyInputStream;
 
+  // streams can be read only once; built context is reused for every endpoint
+  protected SslContext sslContext;
+
   /**
    * TlsChannelStrategy constructor.
    *
@@ -52,16 +55,18 @@ public class TlsChannelStrategy implements SecurityConfigurationStrategy {
   }
 
   @Override
-  public void configure(final ManagedChannelBuilder<?> builder) {
+  public synchronized void configure(final ManagedChannelBuilder<?> builder) {
     logger.debug(
         "Configure cls with serverCertStream: {}, clientCertStream: {}, clientKeyStream: {}",
         serverCertInputStream, clientCertInputStream, clientKeyInputStream);
     try {
       if (builder instanceof NettyChannelBuilder) {
-        final SslContext sslContext = GrpcSslContexts.forClient()
-            .trustManager(serverCertInputStream)
-            .keyManager(clientCertInputStream, clientKeyInputStream)
-            .build();
+        if (null == sslContext) {
+          sslContext = GrpcSslContexts.forClient()
+              .trustManager(serverCertInputStream)
+              .keyManager(clientCertInputStream, clientKeyInputStream)
+              .build();
+        }
         ((NettyChannelBuilder) builder).sslContext(sslContext);
       } else if (builder instanceof OkHttpChannelBuilder) {
         // TODO : not yet implemented
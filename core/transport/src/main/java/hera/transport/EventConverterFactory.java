@@ -4,15 +4,19 @@
 
 package hera.transport;
 
+import static hera.util.TransportUtils.copyFrom;
 import static hera.util.TransportUtils.parseToBlockHash;
 import static hera.util.TransportUtils.parseToTxHash;
 import static org.slf4j.LoggerFactory.getLogger;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
@@ -49,7 +53,24 @@ public class EventConverterFactory {
 
         @Override
         public Blockchain.Event apply(final Event domainEvent) {
-          throw new UnsupportedOperationException();
+          logger.trace("Domain event: {}", domainEvent);
+
+          try {
+            final Blockchain.Event rpcEvent = Blockchain.Event.newBuilder()
+                .setContractAddress(copyFrom(domainEvent.getFrom().getBytesValue()))
+                .setEventName(domainEvent.getName())
+                .setJsonArgs(mapper.writeValueAsString(domainEvent.getArgs()))
+                .setEventIdx(domainEvent.getIndex())
+                .setTxHash(copyFrom(domainEvent.getTxHash().getBytesValue()))
+                .setTxIndex(domainEvent.getIndexInBlock())
+                .setBlockHash(copyFrom(domainEvent.getBlockHash().getBytesValue()))
+                .setBlockNo(domainEvent.getBlockNumber())
+                .build();
+            logger.trace("Domain event converted: {}", rpcEvent);
+            return rpcEvent;
+          } catch (Exception e) {
+            throw new IllegalArgumentException(e);
+          }
         }
       };
 
@@ -95,6 +116,7 @@ public class EventConverterFactory {
 
     final SimpleModule simpleModule = new SimpleModule();
     simpleModule.addDeserializer(List.class, new CustomDeserializer());
+    simpleModule.addSerializer(BigNumber.class, new BigNumberSerializer());
     objectMapper.registerModule(simpleModule);
 
     return objectMapper;
@@ -202,4 +224,19 @@ public class EventConverterFactory {
 
   }
 
+  /**
+   * A serializer writing {@link BigNumber} as a json object of a bignum key.
+   */
+  public static class BigNumberSerializer extends JsonSerializer<BigNumber> {
+
+    @Override
+    public void serialize(final BigNumber bigNumber, final JsonGenerator generator,
+        final SerializerProvider provider) throws IOException {
+      generator.writeStartObject();
+      generator.writeStringField(AergoSpec.BIGNUM_JSON_KEY, bigNumber.getValue());
+      generator.writeEndObject();
+    }
+
+  }
+
 }
@@ -0,0 +1,73 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.transport;
+
+import static hera.util.TransportUtils.parseToTxHash;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import hera.api.function.Function1;
+import hera.api.model.TxCommitResult;
+import org.slf4j.Logger;
+import types.Rpc;
+
+public class TxCommitResultConverterFactory {
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  protected final Function1<TxCommitResult, Rpc.CommitResult> domainConverter =
+      new Function1<TxCommitResult, Rpc.CommitResult>() {
+
+        @Override
+        public Rpc.CommitResult apply(final TxCommitResult domainCommitResult) {
+          throw new UnsupportedOperationException();
+        }
+      };
+
+  protected final Function1<Rpc.CommitResult, TxCommitResult> rpcConverter =
+      new Function1<Rpc.CommitResult, TxCommitResult>() {
+
+        @Override
+        public TxCommitResult apply(final Rpc.CommitResult rpcCommitResult) {
+          logger.trace("Rpc commit result to convert: {}", rpcCommitResult);
+          final TxCommitResult domainCommitResult = TxCommitResult.newBuilder()
+              .txHash(parseToTxHash(rpcCommitResult.getHash()))
+              .status(convertStatus(rpcCommitResult.getError()))
+              .message(rpcCommitResult.getDetail())
+              .build();
+          logger.trace("Domain commit result converted: {}", domainCommitResult);
+          return domainCommitResult;
+        }
+      };
+
+  protected TxCommitResult.Status convertStatus(final Rpc.CommitStatus rpcCommitStatus) {
+    switch (rpcCommitStatus) {
+      case TX_OK:
+        return TxCommitResult.Status.OK;
+      case TX_NONCE_TOO_LOW:
+        return TxCommitResult.Status.NONCE_TOO_LOW;
+      case TX_ALREADY_EXISTS:
+        return TxCommitResult.Status.TX_ALREADY_EXISTS;
+      case TX_INVALID_HASH:
+        return TxCommitResult.Status.TX_INVALID_HASH;
+      case TX_INVALID_SIGN:
+        return TxCommitResult.Status.TX_INVALID_SIGNATURE;
+      case TX_INVALID_FORMAT:
+        return TxCommitResult.Status.TX_INVALID_FORMAT;
+      case TX_INSUFFICIENT_BALANCE:
+        return TxCommitResult.Status.INSUFFICIENT_BALANCE;
+      case TX_HAS_SAME_NONCE:
+        return TxCommitResult.Status.TX_HAS_SAME_NONCE;
+      case TX_INTERNAL_ERROR:
+        return TxCommitResult.Status.INTERNAL_ERROR;
+      default:
+        return TxCommitResult.Status.UNRECOGNIZED;
+    }
+  }
+
+  public ModelConverter<TxCommitResult, Rpc.CommitResult> create() {
+    return new ModelConverter<TxCommitResult, Rpc.CommitResult>(domainConverter, rpcConverter);
+  }
+
+}
@@ -9,16 +9,22 @@ import static hera.client.ClientConstants.ACCOUNT_GETNAMEOWNER;
 import static hera.client.ClientConstants.ACCOUNT_GETSTAKINGINFO;
 import static hera.client.ClientConstants.ACCOUNT_GETSTATE;
 import static hera.client.ClientConstants.ACCOUNT_STAKING;
+import static hera.client.ClientConstants.ACCOUNT_STATE_CACHE_SIZE;
+import static hera.client.ClientConstants.ACCOUNT_STATE_FETCH_CONCURRENCY;
 import static hera.client.ClientConstants.ACCOUNT_UNSTAKING;
 import static hera.client.ClientConstants.ACCOUNT_UPDATE_NAME;
+import static java.util.Arrays.asList;
 import static java.util.UUID.randomUUID;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.powermock.api.mockito.PowerMockito.when;
 
 import hera.AbstractTestCase;
 import hera.ContextProvider;
+import hera.ThreadLocalContextProvider;
 import hera.api.function.Function1;
 import hera.api.function.Function2;
 import hera.api.function.Function3;
@@ -26,16 +32,23 @@ import hera.api.function.Function4;
 import hera.api.function.WithIdentity;
 import hera.api.model.AccountAddress;
 import hera.api.model.AccountState;
+import hera.api.model.AccountStateResult;
 import hera.api.model.Aer;
+import hera.api.model.Block;
 import hera.api.model.BytesValue;
 import hera.api.model.EncryptedPrivateKey;
 import hera.api.model.StakeInfo;
+import hera.api.model.StreamObserver;
+import hera.api.model.Subscription;
 import hera.api.model.TxHash;
 import hera.client.internal.AccountBaseTemplate;
+import hera.client.internal.BlockBaseTemplate;
 import hera.client.internal.HerajFutures;
 import hera.key.AergoKeyGenerator;
 import hera.key.Signer;
+import java.util.List;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Test;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 
@@ -77,6 +90,68 @@ public class AccountTemplateTest extends AbstractTestCase {
         ((WithIdentity) accountTemplate.getStateFunction()).getIdentity());
   }
 
+  @SuppressWarnings("unchecked")
+  @Test
+  public void testGetStateWithCache() {
+    final AccountBaseTemplate base = mock(AccountBaseTemplate.class);
+    final AtomicInteger requested = new AtomicInteger(0);
+    when(base.getStateFunction())
+        .thenReturn(new Function1<AccountAddress, Future<AccountState>>() {
+          @Override
+          public Future<AccountState> apply(AccountAddress t) {
+            requested.incrementAndGet();
+            return HerajFutures.success(AccountState.newBuilder().address(t).build());
+          }
+        });
+    final BlockBaseTemplate blockBase = mock(BlockBaseTemplate.class);
+    final Subscription<Block> subscription = mock(Subscription.class);
+    when(blockBase.getSubscribeBlockFunction())
+        .thenReturn(new Function1<StreamObserver<Block>, Future<Subscription<Block>>>() {
+          @Override
+          public Future<Subscription<Block>> apply(StreamObserver<Block> t) {
+            return HerajFutures.success(subscription);
+          }
+        });
+
+    final AccountTemplate accountTemplate = new AccountTemplate();
+    accountTemplate.accountBaseTemplate = base;
+    accountTemplate.blockBaseTemplate = blockBase;
+    accountTemplate.setContextProvider(new ThreadLocalContextProvider(
+        context.withKeyValue(ACCOUNT_STATE_CACHE_SIZE, "10"), this));
+
+    assertNotNull(accountTemplate.getState(accountAddress));
+    assertNotNull(accountTemplate.getState(accountAddress));
+    assertEquals(1, requested.get());
+  }
+
+  @Test
+  public void testGetStates() {
+    final AccountBaseTemplate base = mock(AccountBaseTemplate.class);
+    final AccountAddress failing = new AccountAddress(BytesValue.of(new byte[33]));
+    when(base.getStateFunction())
+        .thenReturn(new Function1<AccountAddress, Future<AccountState>>() {
+          @Override
+          public Future<AccountState> apply(AccountAddress t) {
+            if (failing.equals(t)) {
+              return HerajFutures.fail(new IllegalStateException("state not found"));
+            }
+            return HerajFutures.success(AccountState.newBuilder().address(t).build());
+          }
+        });
+    final AccountTemplate accountTemplate = new AccountTemplate();
+    accountTemplate.accountBaseTemplate = base;
+    accountTemplate.setContextProvider(new ThreadLocalContextProvider(
+        context.withKeyValue(ACCOUNT_STATE_FETCH_CONCURRENCY, "2"), this));
+
+    final List<AccountStateResult> results =
+        accountTemplate.getStates(asList(accountAddress, failing, accountAddress));
+    assertEquals(3, results.size());
+    assertEquals(accountAddress, results.get(0).getState().getAddress());
+    assertFalse(results.get(1).isSuccess());
+    assertEquals(failing, results.get(1).getAddress());
+    assertTrue(results.get(2).isSuccess());
+  }
+
   @Test
   public void testCreateName() {
     final AccountBaseTemplate base = mock(AccountBaseTemplate.class);
@@ -4,10 +4,34 @@
 
 package hera.client;
 
+import static hera.client.ClientConstants.ACCOUNT_STATE_CACHE_SIZE;
+import static hera.client.ClientConstants.ACCOUNT_STATE_FETCH_CONCURRENCY;
+import static hera.client.ClientConstants.BLOCK_CACHE_SIZE;
+import static hera.client.ClientConstants.BLOCK_HUB_OVERFLOW_POLICY;
+import static hera.client.ClientConstants.BLOCK_HUB_QUEUE_SIZE;
+import static hera.client.ClientConstants.BLOCK_STORE_DIRECTORY;
+import static hera.client.ClientConstants.BLOCK_STORE_SEGMENT_SIZE;
+import static hera.client.ClientConstants.CHAIN_ID_HASH_TRACKING_INTERVAL;
+import static hera.client.ClientConstants.COMMIT_BATCH_SIZE;
+import static hera.client.ClientConstants.CONTRACT_INTERFACE_CACHE;
+import static hera.client.ClientConstants.EVENT_HUB;
+import static hera.client.ClientConstants.STREAM_BUFFER_SIZE;
+import static hera.client.ClientConstants.STREAM_OVERFLOW_POLICY;
+import static hera.client.ClientConstants.STREAM_RESUBSCRIPTION_INTERVAL;
+import static hera.client.ClientConstants.STREAM_RESUBSCRIPTION_MAX_INTERVAL;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 import hera.AbstractTestCase;
 import hera.api.AergoApi;
+import hera.client.stream.OverflowPolicy;
+import hera.strategy.CircuitBreakerStrategy;
+import hera.strategy.DeadlineStrategy;
+import hera.strategy.HedgingStrategy;
+import hera.strategy.TimeoutStrategy;
+import hera.util.Configuration;
+import java.util.concurrent.TimeUnit;
 import org.junit.Test;
 
 public class AergoClientBuilderTest extends AbstractTestCase {
@@ -21,4 +45,159 @@ public class AergoClientBuilderTest extends AbstractTestCase {
     assertNotNull(aergoApi);
   }
 
+  @Test
+  public void testBuildWithEndpoints() {
+    final AergoApi aergoApi = new AergoClientBuilder()
+        .withEndpoints("localhost:7845", "localhost:8845")
+        .withNonBlockingConnect()
+        .build();
+    assertNotNull(aergoApi);
+  }
+
+  @Test
+  public void testBuildWithDeadline() {
+    final AergoClient aergoClient = new AergoClientBuilder()
+        .withEndpoint("localhost:7845")
+        .withDeadline(3000L, TimeUnit.MILLISECONDS)
+        .build();
+    assertTrue(aergoClient.contextProvider.get()
+        .getStrategy(TimeoutStrategy.class) instanceof DeadlineStrategy);
+  }
+
+  @Test
+  public void testBuildWithCircuitBreaker() {
+    final AergoClient aergoClient = new AergoClientBuilder()
+        .withEndpoint("localhost:7845")
+        .withCircuitBreaker(0.5d, 1.0d, 3000L, 10000L, TimeUnit.MILLISECONDS)
+        .build();
+    assertNotNull(aergoClient.contextProvider.get().getStrategy(CircuitBreakerStrategy.class));
+  }
+
+  @Test
+  public void testBuildWithHedging() {
+    final AergoClient aergoClient = new AergoClientBuilder()
+        .withEndpoints("localhost:7845", "localhost:8845")
+        .withHedging(0.95d, 10L, TimeUnit.MILLISECONDS)
+        .build();
+    assertNotNull(aergoClient.contextProvider.get().getStrategy(HedgingStrategy.class));
+  }
+
+  @Test
+  public void testBuildWithCommitBatching() {
+    final AergoClient aergoClient = new AergoClientBuilder()
+        .withEndpoint("localhost:7845")
+        .withCommitBatching(100, 5L, TimeUnit.MILLISECONDS)
+        .build();
+    assertEquals(100,
+        aergoClient.contextProvider.get().getConfiguration().getAsInt(COMMIT_BATCH_SIZE, 1));
+  }
+
+  @Test
+  public void testBuildWithBlockCache() {
+    final AergoClient aergoClient = new AergoClientBuilder()
+        .withEndpoint("localhost:7845")
+        .withBlockCache(1000, 1024L * 1024L)
+        .build();
+    assertEquals(1000,
+        aergoClient.contextProvider.get().getConfiguration().getAsInt(BLOCK_CACHE_SIZE, 0));
+  }
+
+  @Test
+  public void testBuildWithContractInterfaceCache() {
+    final AergoClient aergoClient = new AergoClientBuilder()
+        .withEndpoint("localhost:7845")
+        .withContractInterfaceCache(true)
+        .build();
+    assertTrue(aergoClient.contextProvider.get().getConfiguration()
+        .getAsBoolean(CONTRACT_INTERFACE_CACHE, false));
+  }
+
+  @Test
+  public void testBuildWithAccountStateCache() {
+    final AergoClient aergoClient = new AergoClientBuilder()
+        .withEndpoint("localhost:7845")
+        .withAccountStateCache(20000)
+        .build();
+    assertEquals(20000, aergoClient.contextProvider.get().getConfiguration()
+        .getAsInt(ACCOUNT_STATE_CACHE_SIZE, 0));
+  }
+
+  @Test
+  public void testBuildWithAccountStateFetchConcurrency() {
+    final AergoClient aergoClient = new AergoClientBuilder()
+        .withEndpoint("localhost:7845")
+        .withAccountStateFetchConcurrency(128)
+        .build();
+    assertEquals(128, aergoClient.contextProvider.get().getConfiguration()
+        .getAsInt(ACCOUNT_STATE_FETCH_CONCURRENCY, 0));
+  }
+
+  @Test
+  public void testBuildWithChainIdHashTracking() {
+    final AergoClient aergoClient = new AergoClientBuilder()
+        .withEndpoint("localhost:7845")
+        .withChainIdHashTracking(1L, TimeUnit.SECONDS)
+        .build();
+    assertNotNull(aergoClient.chainIdHashTracker);
+    assertEquals(1000L, aergoClient.contextProvider.get().getConfiguration()
+        .getAsLong(CHAIN_ID_HASH_TRACKING_INTERVAL, 0L));
+    aergoClient.close();
+  }
+
+  @Test
+  public void testBuildWithStreamBuffer() {
+    final AergoClient aergoClient = new AergoClientBuilder()
+        .withEndpoint("localhost:7845")
+        .withStreamBuffer(16, OverflowPolicy.KEEP_LATEST)
+        .build();
+    final Configuration configuration = aergoClient.contextProvider.get().getConfiguration();
+    assertEquals(16, configuration.getAsInt(STREAM_BUFFER_SIZE, 0));
+    assertEquals(OverflowPolicy.KEEP_LATEST.name(),
+        configuration.getAsString(STREAM_OVERFLOW_POLICY, null));
+  }
+
+  @Test
+  public void testBuildWithStreamResubscription() {
+    final AergoClient aergoClient = new AergoClientBuilder()
+        .withEndpoint("localhost:7845")
+        .withStreamResubscription(1L, 30L, TimeUnit.SECONDS)
+        .build();
+    final Configuration configuration = aergoClient.contextProvider.get().getConfiguration();
+    assertEquals(1000L, configuration.getAsLong(STREAM_RESUBSCRIPTION_INTERVAL, 0L));
+    assertEquals(30000L, configuration.getAsLong(STREAM_RESUBSCRIPTION_MAX_INTERVAL, 0L));
+  }
+
+  @Test
+  public void testBuildWithEventHub() {
+    final AergoClient aergoClient = new AergoClientBuilder()
+        .withEndpoint("localhost:7845")
+        .withEventHub()
+        .build();
+    assertTrue(aergoClient.contextProvider.get().getConfiguration().getAsBoolean(EVENT_HUB,
+        false));
+  }
+
+  @Test
+  public void testBuildWithBlockHub() {
+    final AergoClient aergoClient = new AergoClientBuilder()
+        .withEndpoint("localhost:7845")
+        .withBlockHub(8, OverflowPolicy.DROP_OLDEST)
+        .build();
+    final Configuration configuration = aergoClient.contextProvider.get().getConfiguration();
+    assertEquals(8, configuration.getAsInt(BLOCK_HUB_QUEUE_SIZE, 0));
+    assertEquals(OverflowPolicy.DROP_OLDEST.name(),
+        configuration.getAsString(BLOCK_HUB_OVERFLOW_POLICY, null));
+  }
+
+  @Test
+  public void testBuildWithBlockStore() {
+    final AergoClient aergoClient = new AergoClientBuilder()
+        .withEndpoint("localhost:7845")
+        .withBlockStore("/tmp/heraj-blocks", 1024 * 1024)
+        .build();
+    final Configuration configuration = aergoClient.contextProvider.get().getConfiguration();
+    assertEquals("/tmp/heraj-blocks", configuration.getAsString(BLOCK_STORE_DIRECTORY, null));
+    assertEquals(1024 * 1024, configuration.getAsInt(BLOCK_STORE_SEGMENT_SIZE, 0));
+  }
+
 }
@@ -0,0 +1,95 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static java.util.UUID.randomUUID;
+import static org.junit.Assert.assertNotNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import hera.AbstractTestCase;
+import hera.ContextProvider;
+import hera.api.function.Function1;
+import hera.api.function.Function3;
+import hera.api.model.AccountAddress;
+import hera.api.model.AccountState;
+import hera.api.model.Aer;
+import hera.api.model.BytesValue;
+import hera.api.model.StakeInfo;
+import hera.api.model.TxHash;
+import hera.client.internal.AccountBaseTemplate;
+import hera.client.internal.HerajFutures;
+import hera.key.AergoKeyGenerator;
+import hera.key.Signer;
+import java.util.concurrent.Future;
+import org.junit.Test;
+
+public class AsyncAccountTemplateTest extends AbstractTestCase {
+
+  protected AsyncAccountTemplate supplyAsyncAccountTemplate(
+      final AccountBaseTemplate accountBaseTemplate) {
+    final AsyncAccountTemplate asyncAccountTemplate = new AsyncAccountTemplate();
+    asyncAccountTemplate.accountBaseTemplate = accountBaseTemplate;
+    asyncAccountTemplate.setContextProvider(ContextProvider.defaultProvider);
+    return asyncAccountTemplate;
+  }
+
+  @Test
+  public void testGetState() throws Exception {
+    final AccountBaseTemplate base = mock(AccountBaseTemplate.class);
+    final Future<AccountState> future = HerajFutures.success(AccountState.newBuilder().build());
+    when(base.getStateFunction())
+        .thenReturn(new Function1<AccountAddress, Future<AccountState>>() {
+          @Override
+          public Future<AccountState> apply(AccountAddress t) {
+            return future;
+          }
+        });
+
+    final AsyncAccountTemplate asyncAccountTemplate = supplyAsyncAccountTemplate(base);
+
+    final AccountState accountState = asyncAccountTemplate.getState(accountAddress).get();
+    assertNotNull(accountState);
+  }
+
+  @Test
+  public void testStake() throws Exception {
+    final AccountBaseTemplate base = mock(AccountBaseTemplate.class);
+    final Future<TxHash> future =
+        HerajFutures.success(TxHash.of(BytesValue.of(randomUUID().toString().getBytes())));
+    when(base.getStakingFunction())
+        .thenReturn(new Function3<Signer, Aer, Long, Future<TxHash>>() {
+          @Override
+          public Future<TxHash> apply(Signer t1, Aer t2, Long t3) {
+            return future;
+          }
+        });
+
+    final AsyncAccountTemplate asyncAccountTemplate = supplyAsyncAccountTemplate(base);
+
+    final TxHash txHash =
+        asyncAccountTemplate.stake(new AergoKeyGenerator().create(), Aer.ONE, 1L).get();
+    assertNotNull(txHash);
+  }
+
+  @Test
+  public void testGetStakingInfo() throws Exception {
+    final AccountBaseTemplate base = mock(AccountBaseTemplate.class);
+    final Future<StakeInfo> future = HerajFutures.success(StakeInfo.newBuilder().build());
+    when(base.getStakingInfoFunction())
+        .thenReturn(new Function1<AccountAddress, Future<StakeInfo>>() {
+          @Override
+          public Future<StakeInfo> apply(AccountAddress t) {
+            return future;
+          }
+        });
+
+    final AsyncAccountTemplate asyncAccountTemplate = supplyAsyncAccountTemplate(base);
+
+    final StakeInfo stakeInfo = asyncAccountTemplate.getStakingInfo(accountAddress).get();
+    assertNotNull(stakeInfo);
+  }
+
+}
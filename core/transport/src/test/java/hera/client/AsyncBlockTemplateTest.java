@@ -0,0 +1,170 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.api.model.BytesValue.of;
+import static java.util.UUID.randomUUID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.util.concurrent.SettableFuture;
+import hera.AbstractTestCase;
+import hera.ContextProvider;
+import hera.ThreadLocalContextProvider;
+import hera.api.function.Function1;
+import hera.api.function.Function2;
+import hera.api.model.Block;
+import hera.api.model.BlockHash;
+import hera.api.model.BlockMetadata;
+import hera.client.internal.BlockBaseTemplate;
+import hera.client.internal.HerajFutures;
+import hera.exception.RpcConnectionException;
+import hera.exception.RpcException;
+import hera.strategy.TimeoutStrategy;
+import io.grpc.Status;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.Test;
+
+public class AsyncBlockTemplateTest extends AbstractTestCase {
+
+  protected AsyncBlockTemplate supplyAsyncBlockTemplate(
+      final BlockBaseTemplate blockBaseTemplate) {
+    return supplyAsyncBlockTemplate(blockBaseTemplate, ContextProvider.defaultProvider);
+  }
+
+  protected AsyncBlockTemplate supplyAsyncBlockTemplate(
+      final BlockBaseTemplate blockBaseTemplate, final ContextProvider contextProvider) {
+    final AsyncBlockTemplate asyncBlockTemplate = new AsyncBlockTemplate();
+    asyncBlockTemplate.blockBaseTemplate = blockBaseTemplate;
+    asyncBlockTemplate.setContextProvider(contextProvider);
+    return asyncBlockTemplate;
+  }
+
+  @Test
+  public void testGetBlockMetadataByHash() throws Exception {
+    final BlockBaseTemplate base = mock(BlockBaseTemplate.class);
+    final Future<BlockMetadata> future = HerajFutures.success(BlockMetadata.newBuilder().build());
+    when(base.getBlockMetatdataByHashFunction())
+        .thenReturn(new Function1<BlockHash, Future<BlockMetadata>>() {
+          @Override
+          public Future<BlockMetadata> apply(BlockHash t) {
+            return future;
+          }
+        });
+
+    final AsyncBlockTemplate asyncBlockTemplate = supplyAsyncBlockTemplate(base);
+
+    final BlockMetadata blockMetadata = asyncBlockTemplate
+        .getBlockMetadata(new BlockHash(of(randomUUID().toString().getBytes()))).get();
+    assertNotNull(blockMetadata);
+  }
+
+  @Test
+  public void testListBlockMetadatasByHeight() throws Exception {
+    final BlockBaseTemplate base = mock(BlockBaseTemplate.class);
+    final Future<List<BlockMetadata>> future =
+        HerajFutures.success((List<BlockMetadata>) new ArrayList<BlockMetadata>());
+    when(base.getListBlockMetadatasByHeightFunction())
+        .thenReturn(new Function2<Long, Integer, Future<List<BlockMetadata>>>() {
+          @Override
+          public Future<List<BlockMetadata>> apply(Long t1, Integer t2) {
+            return future;
+          }
+        });
+
+    final AsyncBlockTemplate asyncBlockTemplate = supplyAsyncBlockTemplate(base);
+
+    final List<BlockMetadata> blockMetadatas =
+        asyncBlockTemplate.listBlockMetadatas(10L, 10).get();
+    assertNotNull(blockMetadatas);
+  }
+
+  @Test
+  public void testGetBlockByHeight() throws Exception {
+    final BlockBaseTemplate base = mock(BlockBaseTemplate.class);
+    final Future<Block> future = HerajFutures.success(Block.newBuilder().build());
+    when(base.getBlockByHeightFunction())
+        .thenReturn(new Function1<Long, Future<Block>>() {
+          @Override
+          public Future<Block> apply(Long t) {
+            return future;
+          }
+        });
+
+    final AsyncBlockTemplate asyncBlockTemplate = supplyAsyncBlockTemplate(base);
+
+    final Block block = asyncBlockTemplate.getBlock(10L).get();
+    assertNotNull(block);
+  }
+
+  @Test
+  public void testTimeoutWithoutBlocking() throws Exception {
+    final BlockBaseTemplate base = mock(BlockBaseTemplate.class);
+    final SettableFuture<Block> never = SettableFuture.create();
+    when(base.getBlockByHeightFunction())
+        .thenReturn(new Function1<Long, Future<Block>>() {
+          @Override
+          public Future<Block> apply(Long t) {
+            return never;
+          }
+        });
+
+    final ContextProvider contextProvider = new ThreadLocalContextProvider(
+        context.withoutStrategy(TimeoutStrategy.class).withStrategy(new TimeoutStrategy(100L)),
+        this);
+    final AsyncBlockTemplate asyncBlockTemplate = supplyAsyncBlockTemplate(base, contextProvider);
+
+    final Future<Block> future = asyncBlockTemplate.getBlock(10L);
+    assertTrue(!future.isDone());
+    try {
+      future.get();
+      fail();
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof RpcException);
+      assertTrue(e.getCause().getCause() instanceof TimeoutException);
+    }
+    // origin is cancelled right after timeout
+    try {
+      never.get(1L, TimeUnit.SECONDS);
+      fail();
+    } catch (CancellationException e) {
+      assertTrue(never.isCancelled());
+    }
+  }
+
+  @Test
+  public void testConvertFailure() throws Exception {
+    final BlockBaseTemplate base = mock(BlockBaseTemplate.class);
+    final Future<Block> future =
+        HerajFutures.fail(Status.UNAVAILABLE.asRuntimeException());
+    when(base.getBlockByHashFunction())
+        .thenReturn(new Function1<BlockHash, Future<Block>>() {
+          @Override
+          public Future<Block> apply(BlockHash t) {
+            return future;
+          }
+        });
+
+    final AsyncBlockTemplate asyncBlockTemplate = supplyAsyncBlockTemplate(base);
+
+    try {
+      asyncBlockTemplate.getBlock(new BlockHash(of(randomUUID().toString().getBytes()))).get();
+      fail();
+    } catch (ExecutionException e) {
+      assertEquals(RpcConnectionException.class, e.getCause().getClass());
+    }
+  }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static org.junit.Assert.assertNotNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import hera.AbstractTestCase;
+import hera.ContextProvider;
+import hera.api.function.Function0;
+import hera.api.function.Function2;
+import hera.api.model.BlockchainStatus;
+import hera.api.model.ChainInfo;
+import hera.api.model.Peer;
+import hera.client.internal.BlockchainBaseTemplate;
+import hera.client.internal.HerajFutures;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import org.junit.Test;
+
+public class AsyncBlockchainTemplateTest extends AbstractTestCase {
+
+  protected AsyncBlockchainTemplate supplyAsyncBlockchainTemplate(
+      final BlockchainBaseTemplate blockchainBaseTemplate) {
+    final AsyncBlockchainTemplate asyncBlockchainTemplate = new AsyncBlockchainTemplate();
+    asyncBlockchainTemplate.blockchainBaseTemplate = blockchainBaseTemplate;
+    asyncBlockchainTemplate.setContextProvider(ContextProvider.defaultProvider);
+    return asyncBlockchainTemplate;
+  }
+
+  @Test
+  public void testGetBlockchainStatus() throws Exception {
+    final BlockchainBaseTemplate base = mock(BlockchainBaseTemplate.class);
+    final Future<BlockchainStatus> future =
+        HerajFutures.success(BlockchainStatus.newBuilder().build());
+    when(base.getBlockchainStatusFunction())
+        .thenReturn(new Function0<Future<BlockchainStatus>>() {
+          @Override
+          public Future<BlockchainStatus> apply() {
+            return future;
+          }
+        });
+
+    final AsyncBlockchainTemplate asyncBlockchainTemplate = supplyAsyncBlockchainTemplate(base);
+
+    final BlockchainStatus blockchainStatus =
+        asyncBlockchainTemplate.getBlockchainStatus().get();
+    assertNotNull(blockchainStatus);
+  }
+
+  @Test
+  public void testGetChainInfo() throws Exception {
+    final BlockchainBaseTemplate base = mock(BlockchainBaseTemplate.class);
+    final Future<ChainInfo> future = HerajFutures.success(ChainInfo.newBuilder().build());
+    when(base.getChainInfoFunction())
+        .thenReturn(new Function0<Future<ChainInfo>>() {
+          @Override
+          public Future<ChainInfo> apply() {
+            return future;
+          }
+        });
+
+    final AsyncBlockchainTemplate asyncBlockchainTemplate = supplyAsyncBlockchainTemplate(base);
+
+    final ChainInfo chainInfo = asyncBlockchainTemplate.getChainInfo().get();
+    assertNotNull(chainInfo);
+  }
+
+  @Test
+  public void testListPeers() throws Exception {
+    final BlockchainBaseTemplate base = mock(BlockchainBaseTemplate.class);
+    final Future<List<Peer>> future = HerajFutures.success((List<Peer>) new ArrayList<Peer>());
+    when(base.getListPeersFunction())
+        .thenReturn(new Function2<Boolean, Boolean, Future<List<Peer>>>() {
+          @Override
+          public Future<List<Peer>> apply(Boolean t1, Boolean t2) {
+            return future;
+          }
+        });
+
+    final AsyncBlockchainTemplate asyncBlockchainTemplate = supplyAsyncBlockchainTemplate(base);
+
+    final List<Peer> peers = asyncBlockchainTemplate.listPeers(false, false).get();
+    assertNotNull(peers);
+  }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.api.model.BytesValue.of;
+import static java.util.UUID.randomUUID;
+import static org.junit.Assert.assertNotNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import hera.AbstractTestCase;
+import hera.ContextProvider;
+import hera.api.function.Function1;
+import hera.api.function.Function4;
+import hera.api.model.ContractAddress;
+import hera.api.model.ContractFunction;
+import hera.api.model.ContractInterface;
+import hera.api.model.ContractInvocation;
+import hera.api.model.ContractResult;
+import hera.api.model.ContractTxHash;
+import hera.api.model.ContractTxReceipt;
+import hera.api.model.Fee;
+import hera.api.model.StateVariable;
+import hera.client.internal.ContractBaseTemplate;
+import hera.client.internal.HerajFutures;
+import hera.key.AergoKeyGenerator;
+import hera.key.Signer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import org.junit.Test;
+
+public class AsyncContractTemplateTest extends AbstractTestCase {
+
+  protected ContractInterface contractInterface;
+
+  protected String functionName = randomUUID().toString();
+
+  @Override
+  public void setUp() {
+    super.setUp();
+    final List<ContractFunction> functions = new ArrayList<ContractFunction>();
+    functions.add(new ContractFunction(functionName));
+    this.contractInterface = new ContractInterface(ContractAddress.EMPTY, "", "",
+        functions, new ArrayList<StateVariable>());
+  }
+
+  protected AsyncContractTemplate supplyAsyncContractTemplate(
+      final ContractBaseTemplate contractBaseTemplate) {
+    final AsyncContractTemplate asyncContractTemplate = new AsyncContractTemplate();
+    asyncContractTemplate.contractBaseTemplate = contractBaseTemplate;
+    asyncContractTemplate.setContextProvider(ContextProvider.defaultProvider);
+    return asyncContractTemplate;
+  }
+
+  @Test
+  public void testGetReceipt() throws Exception {
+    final ContractBaseTemplate base = mock(ContractBaseTemplate.class);
+    final Future<ContractTxReceipt> future =
+        HerajFutures.success(ContractTxReceipt.newBuilder().build());
+    when(base.getReceiptFunction())
+        .thenReturn(new Function1<ContractTxHash, Future<ContractTxReceipt>>() {
+          @Override
+          public Future<ContractTxReceipt> apply(ContractTxHash t) {
+            return future;
+          }
+        });
+
+    final AsyncContractTemplate asyncContractTemplate = supplyAsyncContractTemplate(base);
+
+    final ContractTxReceipt receipt = asyncContractTemplate
+        .getReceipt(new ContractTxHash(of(randomUUID().toString().getBytes()))).get();
+    assertNotNull(receipt);
+  }
+
+  @Test
+  public void testExecute() throws Exception {
+    final ContractBaseTemplate base = mock(ContractBaseTemplate.class);
+    final Future<ContractTxHash> future =
+        HerajFutures.success(new ContractTxHash(of(randomUUID().toString().getBytes())));
+    when(base.getExecuteFunction()).thenReturn(
+        new Function4<Signer, ContractInvocation, Long, Fee, Future<ContractTxHash>>() {
+          @Override
+          public Future<ContractTxHash> apply(Signer t1, ContractInvocation t2,
+              Long t3, Fee t4) {
+            return future;
+          }
+        });
+
+    final AsyncContractTemplate asyncContractTemplate = supplyAsyncContractTemplate(base);
+
+    final Signer signer = new AergoKeyGenerator().create();
+    final ContractInvocation invocation =
+        contractInterface.newInvocationBuilder().function(functionName).build();
+    final ContractTxHash executionTxHash =
+        asyncContractTemplate.execute(signer, invocation, 0L, Fee.ZERO).get();
+    assertNotNull(executionTxHash);
+  }
+
+  @Test
+  public void testQuery() throws Exception {
+    final ContractBaseTemplate base = mock(ContractBaseTemplate.class);
+    final ContractResult mockResult = mock(ContractResult.class);
+    final Future<ContractResult> future = HerajFutures.success(mockResult);
+    when(base.getQueryFunction())
+        .thenReturn(new Function1<ContractInvocation, Future<ContractResult>>() {
+          @Override
+          public Future<ContractResult> apply(ContractInvocation t) {
+            return future;
+          }
+        });
+
+    final AsyncContractTemplate asyncContractTemplate = supplyAsyncContractTemplate(base);
+
+    final ContractInvocation invocation =
+        contractInterface.newInvocationBuilder().function(functionName).build();
+    final ContractResult contractResult = asyncContractTemplate.query(invocation).get();
+    assertNotNull(contractResult);
+  }
+
+}
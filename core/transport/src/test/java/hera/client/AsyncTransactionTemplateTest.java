@@ -0,0 +1,221 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.api.model.BytesValue.of;
+import static java.util.Arrays.asList;
+import static java.util.UUID.randomUUID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import hera.AbstractTestCase;
+import hera.ContextProvider;
+import hera.api.function.Function1;
+import hera.api.function.Function3;
+import hera.api.model.AccountAddress;
+import hera.api.model.Aer;
+import hera.api.model.Block;
+import hera.api.model.BlockHash;
+import hera.api.model.RawTransaction;
+import hera.api.model.StreamObserver;
+import hera.api.model.Subscription;
+import hera.api.model.Transaction;
+import hera.api.model.TxCommitResult;
+import hera.api.model.TxConfirmation;
+import hera.api.model.TxHash;
+import hera.client.internal.BlockBaseTemplate;
+import hera.client.internal.HerajFutures;
+import hera.client.internal.TransactionBaseTemplate;
+import hera.exception.RpcException;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class AsyncTransactionTemplateTest extends AbstractTestCase {
+
+  protected Transaction transaction;
+
+  @Override
+  public void setUp() {
+    super.setUp();
+    final RawTransaction rawTransaction = RawTransaction.newBuilder()
+        .chainIdHash(chainIdHash)
+        .from(accountAddress)
+        .to(accountAddress)
+        .amount(Aer.ZERO)
+        .nonce(1L)
+        .build();
+    this.transaction = Transaction.newBuilder().rawTransaction(rawTransaction).build();
+  }
+
+  protected AsyncTransactionTemplate supplyAsyncTransactionTemplate(
+      final TransactionBaseTemplate transactionBaseTemplate) {
+    final AsyncTransactionTemplate asyncTransactionTemplate = new AsyncTransactionTemplate();
+    asyncTransactionTemplate.transactionBaseTemplate = transactionBaseTemplate;
+    asyncTransactionTemplate.setContextProvider(ContextProvider.defaultProvider);
+    return asyncTransactionTemplate;
+  }
+
+  @Test
+  public void testGetTransaction() throws Exception {
+    final TransactionBaseTemplate base = mock(TransactionBaseTemplate.class);
+    final Future<Transaction> future = HerajFutures.success(transaction);
+    when(base.getTransactionFunction())
+        .thenReturn(new Function1<TxHash, Future<Transaction>>() {
+          @Override
+          public Future<Transaction> apply(TxHash t) {
+            return future;
+          }
+        });
+
+    final AsyncTransactionTemplate asyncTransactionTemplate =
+        supplyAsyncTransactionTemplate(base);
+
+    final Transaction actual = asyncTransactionTemplate
+        .getTransaction(new TxHash(of(randomUUID().toString().getBytes()))).get();
+    assertEquals(transaction, actual);
+  }
+
+  @Test
+  public void testGetTransactionInBlock() throws Exception {
+    final TransactionBaseTemplate base = mock(TransactionBaseTemplate.class);
+    final Future<Transaction> inMemory = HerajFutures.fail(new RpcException("not found"));
+    final Future<Transaction> inBlock = HerajFutures.success(transaction);
+    when(base.getTransactionFunction())
+        .thenReturn(new Function1<TxHash, Future<Transaction>>() {
+          @Override
+          public Future<Transaction> apply(TxHash t) {
+            return inMemory;
+          }
+        });
+    when(base.getTransactionInBlockFunction())
+        .thenReturn(new Function1<TxHash, Future<Transaction>>() {
+          @Override
+          public Future<Transaction> apply(TxHash t) {
+            return inBlock;
+          }
+        });
+
+    final AsyncTransactionTemplate asyncTransactionTemplate =
+        supplyAsyncTransactionTemplate(base);
+
+    final Transaction actual = asyncTransactionTemplate
+        .getTransaction(new TxHash(of(randomUUID().toString().getBytes()))).get();
+    assertEquals(transaction, actual);
+  }
+
+  @Test
+  public void testCommit() throws Exception {
+    final TransactionBaseTemplate base = mock(TransactionBaseTemplate.class);
+    final Future<TxHash> future =
+        HerajFutures.success(new TxHash(of(randomUUID().toString().getBytes())));
+    when(base.getCommitFunction())
+        .thenReturn(new Function1<Transaction, Future<TxHash>>() {
+          @Override
+          public Future<TxHash> apply(Transaction t) {
+            return future;
+          }
+        });
+
+    final AsyncTransactionTemplate asyncTransactionTemplate =
+        supplyAsyncTransactionTemplate(base);
+
+    final TxHash txHash = asyncTransactionTemplate.commit(transaction).get();
+    assertNotNull(txHash);
+  }
+
+  @Test
+  public void testBatchCommit() throws Exception {
+    final TransactionBaseTemplate base = mock(TransactionBaseTemplate.class);
+    final Future<List<TxCommitResult>> future = HerajFutures.success(
+        asList(TxCommitResult.newBuilder().status(TxCommitResult.Status.OK).build()));
+    when(base.getBatchCommitFunction())
+        .thenReturn(new Function1<List<Transaction>, Future<List<TxCommitResult>>>() {
+          @Override
+          public Future<List<TxCommitResult>> apply(List<Transaction> t) {
+            return future;
+          }
+        });
+
+    final AsyncTransactionTemplate asyncTransactionTemplate =
+        supplyAsyncTransactionTemplate(base);
+
+    final List<TxCommitResult> commitResults =
+        asyncTransactionTemplate.commit(asList(transaction)).get();
+    assertEquals(1, commitResults.size());
+  }
+
+  @Test
+  public void testSend() throws Exception {
+    final TransactionBaseTemplate base = mock(TransactionBaseTemplate.class);
+    final Future<TxHash> future =
+        HerajFutures.success(new TxHash(of(randomUUID().toString().getBytes())));
+    when(base.getSendFunction())
+        .thenReturn(new Function3<AccountAddress, AccountAddress, Aer, Future<TxHash>>() {
+          @Override
+          public Future<TxHash> apply(AccountAddress t1, AccountAddress t2, Aer t3) {
+            return future;
+          }
+        });
+
+    final AsyncTransactionTemplate asyncTransactionTemplate =
+        supplyAsyncTransactionTemplate(base);
+
+    final TxHash txHash =
+        asyncTransactionTemplate.send(accountAddress, accountAddress, Aer.ONE).get();
+    assertNotNull(txHash);
+  }
+
+  @Test
+  public void testAwaitConfirmation() throws Exception {
+    final TxHash txHash = new TxHash(of(randomUUID().toString().getBytes()));
+    final Transaction inBlock = Transaction.newBuilder()
+        .rawTransaction(transaction.getRawTransaction())
+        .hash(txHash)
+        .blockHash(BlockHash.of(of(randomUUID().toString().getBytes())))
+        .confirmed(true)
+        .build();
+    final TransactionBaseTemplate base = mock(TransactionBaseTemplate.class);
+    when(base.getTransactionInBlockFunction())
+        .thenReturn(new Function1<TxHash, Future<Transaction>>() {
+          @Override
+          public Future<Transaction> apply(TxHash t) {
+            return txHash.equals(t) ? HerajFutures.success(inBlock)
+                : HerajFutures.<Transaction>fail(new RpcException("not found"));
+          }
+        });
+    final BlockBaseTemplate blockBase = mock(BlockBaseTemplate.class);
+    when(blockBase.getSubscribeBlockFunction())
+        .thenReturn(new Function1<StreamObserver<Block>, Future<Subscription<Block>>>() {
+          @Override
+          public Future<Subscription<Block>> apply(StreamObserver<Block> observer) {
+            return HerajFutures.success(mock(Subscription.class));
+          }
+        });
+
+    final AsyncTransactionTemplate asyncTransactionTemplate =
+        supplyAsyncTransactionTemplate(base);
+    asyncTransactionTemplate.blockBaseTemplate = blockBase;
+
+    final TxConfirmation confirmation =
+        asyncTransactionTemplate.awaitConfirmation(txHash, 3L, TimeUnit.SECONDS).get();
+    assertEquals(inBlock, confirmation.getTransaction());
+
+    try {
+      asyncTransactionTemplate.awaitConfirmation(new TxHash(of(randomUUID().toString()
+          .getBytes())), 10L, TimeUnit.MILLISECONDS).get();
+      fail();
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof RpcException);
+    }
+  }
+
+}
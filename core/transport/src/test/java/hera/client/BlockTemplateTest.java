@@ -5,6 +5,7 @@
 package hera.client;
 
 import static hera.api.model.BytesValue.of;
+import static hera.client.ClientConstants.BLOCK_CACHE_SIZE;
 import static hera.client.ClientConstants.BLOCK_GET_BLOCK_BY_HASH;
 import static hera.client.ClientConstants.BLOCK_GET_BLOCK_BY_HEIGHT;
 import static hera.client.ClientConstants.BLOCK_GET_METADATA_BY_HASH;
@@ -16,24 +17,33 @@ import static hera.client.ClientConstants.BLOCK_SUBSCRIBE_BLOCKMETADATA;
 import static java.util.UUID.randomUUID;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import hera.AbstractTestCase;
 import hera.ContextProvider;
+import hera.ThreadLocalContextProvider;
+import hera.api.function.Function0;
 import hera.api.function.Function1;
 import hera.api.function.Function2;
 import hera.api.function.WithIdentity;
 import hera.api.model.Block;
 import hera.api.model.BlockHash;
 import hera.api.model.BlockMetadata;
+import hera.api.model.BlockchainStatus;
 import hera.api.model.StreamObserver;
 import hera.api.model.Subscription;
 import hera.client.internal.BlockBaseTemplate;
+import hera.client.internal.BlockCache;
+import hera.client.internal.BlockchainBaseTemplate;
 import hera.client.internal.HerajFutures;
+import hera.client.internal.MappedBlockStore;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Test;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import types.AergoRPCServiceGrpc.AergoRPCServiceFutureStub;
@@ -181,6 +191,94 @@ public class BlockTemplateTest extends AbstractTestCase {
         ((WithIdentity) blockTemplate.getBlockByHeightFunction()).getIdentity());
   }
 
+  @Test
+  public void testGetBlockWithCache() {
+    final BlockBaseTemplate base = mock(BlockBaseTemplate.class);
+    final AtomicInteger requested = new AtomicInteger(0);
+    when(base.getBlockByHeightFunction())
+        .thenReturn(new Function1<Long, Future<Block>>() {
+          @Override
+          public Future<Block> apply(Long t) {
+            requested.incrementAndGet();
+            return HerajFutures.success(Block.newBuilder().build());
+          }
+        });
+    final BlockchainBaseTemplate blockchainBase = mock(BlockchainBaseTemplate.class);
+    when(blockchainBase.getBlockchainStatusFunction())
+        .thenReturn(new Function0<Future<BlockchainStatus>>() {
+          @Override
+          public Future<BlockchainStatus> apply() {
+            return HerajFutures.success(BlockchainStatus.newBuilder()
+                .bestHeight(10L)
+                .consensus("{\"Type\":\"raft\"}")
+                .build());
+          }
+        });
+
+    final BlockTemplate blockTemplate = new BlockTemplate();
+    blockTemplate.blockBaseTemplate = base;
+    blockTemplate.blockchainBaseTemplate = blockchainBase;
+    blockTemplate.setContextProvider(
+        new ThreadLocalContextProvider(context.withKeyValue(BLOCK_CACHE_SIZE, "10"), this));
+
+    // first one refreshes finality
+    assertNotNull(blockTemplate.getBlock(0L));
+    assertNotNull(blockTemplate.getBlock(0L));
+    assertNotNull(blockTemplate.getBlock(0L));
+    assertEquals(2, requested.get());
+
+    final BlockCache.Stats stats = blockTemplate.getBlockCacheStats();
+    assertEquals(1L, stats.getHitCount());
+    assertEquals(2L, stats.getMissCount());
+  }
+
+  @Test
+  public void testGetBlockWithBlockStore() {
+    final BlockBaseTemplate base = mock(BlockBaseTemplate.class);
+    final AtomicInteger requested = new AtomicInteger(0);
+    when(base.getBlockByHeightFunction())
+        .thenReturn(new Function1<Long, Future<Block>>() {
+          @Override
+          public Future<Block> apply(Long t) {
+            requested.incrementAndGet();
+            return HerajFutures.success(Block.newBuilder().build());
+          }
+        });
+    final Block stored = Block.newBuilder().build();
+    final MappedBlockStore blockStore = mock(MappedBlockStore.class);
+    when(blockStore.getBlock(3L)).thenReturn(stored);
+
+    final BlockTemplate blockTemplate = supplyBlockTemplate(base);
+    blockTemplate.setBlockStore(blockStore);
+
+    assertSame(stored, blockTemplate.getBlock(3L));
+    assertEquals(0, requested.get());
+    assertNotNull(blockTemplate.getBlock(4L));
+    assertEquals(1, requested.get());
+  }
+
+  @Test
+  public void testListBlocks() {
+    final BlockBaseTemplate base = mock(BlockBaseTemplate.class);
+    when(base.getBlockByHeightFunction())
+        .thenReturn(new Function1<Long, Future<Block>>() {
+          @Override
+          public Future<Block> apply(Long t) {
+            return HerajFutures.success(Block.newBuilder().build());
+          }
+        });
+
+    final BlockTemplate blockTemplate = supplyBlockTemplate(base);
+
+    final Iterator<Block> iterator = blockTemplate.listBlocks(1L, 100L);
+    int count = 0;
+    while (iterator.hasNext()) {
+      assertNotNull(iterator.next());
+      ++count;
+    }
+    assertEquals(100, count);
+  }
+
   @SuppressWarnings("unchecked")
   @Test
   public void testSubscribeBlockMetadata() {
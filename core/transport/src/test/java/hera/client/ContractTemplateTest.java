@@ -42,12 +42,14 @@ import hera.api.model.StateVariable;
 import hera.api.model.StreamObserver;
 import hera.api.model.Subscription;
 import hera.client.internal.ContractBaseTemplate;
+import hera.client.internal.EventScanIterator;
 import hera.client.internal.HerajFutures;
 import hera.key.AergoKeyGenerator;
 import hera.key.Signer;
 import hera.spec.resolver.ContractDefinitionSpec;
 import hera.util.Base58Utils;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.Future;
 import org.junit.Test;
@@ -251,6 +253,34 @@ public class ContractTemplateTest extends AbstractTestCase {
         ((WithIdentity) contractTemplate.getListEventFunction()).getIdentity());
   }
 
+  @Test
+  public void testScanEvents() {
+    final ContractBaseTemplate base = mock(ContractBaseTemplate.class);
+    when(base.getListEventFunction())
+        .thenReturn(new Function1<EventFilter, Future<List<Event>>>() {
+
+          @Override
+          public Future<List<Event>> apply(EventFilter t) {
+            final List<Event> list = new ArrayList<Event>();
+            list.add(Event.newBuilder().from(contractAddress)
+                .blockNumber(t.getFromBlockNumber()).build());
+            return HerajFutures.success(list);
+          }
+        });
+
+    final ContractTemplate contractTemplate = supplyContractTemplate(base);
+
+    final EventFilter eventFilter = EventFilter.newBuilder(contractAddress)
+        .fromBlockNumber(0L).toBlockNumber(4999L).build();
+    final Iterator<Event> iterator = contractTemplate.scanEvents(eventFilter);
+    long expected = 0L;
+    while (iterator.hasNext()) {
+      assertEquals(expected, iterator.next().getBlockNumber());
+      expected += EventScanIterator.DEFAULT_CHUNK_SIZE;
+    }
+    assertEquals(5000L, expected);
+  }
+
   @SuppressWarnings("unchecked")
   @Test
   public void testSubscribeEvent() {
@@ -6,8 +6,10 @@ package hera.client;
 
 import static hera.api.model.BytesValue.of;
 import static hera.client.ClientConstants.TRANSACTION_COMMIT;
+import static hera.client.ClientConstants.TRANSACTION_COMMIT_BATCH;
 import static hera.client.ClientConstants.TRANSACTION_GETTX;
 import static hera.client.ClientConstants.TRANSACTION_SEND;
+import static java.util.Arrays.asList;
 import static java.util.UUID.randomUUID;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -24,9 +26,11 @@ import hera.api.model.Aer;
 import hera.api.model.Aer.Unit;
 import hera.api.model.RawTransaction;
 import hera.api.model.Transaction;
+import hera.api.model.TxCommitResult;
 import hera.api.model.TxHash;
 import hera.client.internal.HerajFutures;
 import hera.client.internal.TransactionBaseTemplate;
+import java.util.List;
 import java.util.concurrent.Future;
 import org.junit.Test;
 import org.powermock.core.classloader.annotations.PrepareForTest;
@@ -105,6 +109,29 @@ public class TransactionTemplateTest extends AbstractTestCase {
         ((WithIdentity) transactionTemplate.getCommitFunction()).getIdentity());
   }
 
+  @Test
+  public void testBatchCommit() {
+    final TransactionBaseTemplate base = mock(TransactionBaseTemplate.class);
+    final Future<List<TxCommitResult>> future = HerajFutures.success(
+        asList(TxCommitResult.newBuilder().status(TxCommitResult.Status.OK).build()));
+    when(base.getBatchCommitFunction())
+        .thenReturn(new Function1<List<Transaction>, Future<List<TxCommitResult>>>() {
+          @Override
+          public Future<List<TxCommitResult>> apply(List<Transaction> t) {
+            return future;
+          }
+        });
+
+    final TransactionTemplate transactionTemplate =
+        supplyTransactionTemplate(base);
+
+    final Transaction transaction = Transaction.newBuilder().rawTransaction(rawTransaction).build();
+    final List<TxCommitResult> commitResults = transactionTemplate.commit(asList(transaction));
+    assertEquals(1, commitResults.size());
+    assertEquals(TRANSACTION_COMMIT_BATCH,
+        ((WithIdentity) transactionTemplate.getBatchCommitFunction()).getIdentity());
+  }
+
   @Test
   public void testSend() {
     final TransactionBaseTemplate base = mock(TransactionBaseTemplate.class);
@@ -0,0 +1,340 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.follower;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import hera.AbstractTestCase;
+import hera.api.BlockOperation;
+import hera.api.BlockchainOperation;
+import hera.api.model.Block;
+import hera.api.model.BlockHash;
+import hera.api.model.BlockHeader;
+import hera.api.model.BlockMetadata;
+import hera.api.model.BlockchainStatus;
+import hera.api.model.BytesValue;
+import hera.api.model.StreamObserver;
+import hera.api.model.Subscription;
+import hera.exception.RpcException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class ChainFollowerTest extends AbstractTestCase {
+
+  // a canonical chain; an index is a height
+  protected final List<Block> chain = new CopyOnWriteArrayList<>();
+
+  protected final AtomicReference<StreamObserver<Block>> stream = new AtomicReference<>();
+
+  protected final RecordingSink sink = new RecordingSink();
+
+  protected final MemoryCursorStore cursorStore = new MemoryCursorStore();
+
+  protected BlockOperation blockOperation;
+
+  protected BlockchainOperation blockchainOperation;
+
+  protected ChainFollower follower;
+
+  protected class RecordingSink implements BlockSink {
+
+    protected final List<String> events = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void onBlock(final Block block) {
+      events.add("block " + block.getBlockNumber() + " " + block.getHash().getEncoded());
+    }
+
+    @Override
+    public void onRollback(final long height, final BlockHash blockHash) {
+      events.add("rollback " + height + " " + blockHash.getEncoded());
+    }
+
+    @Override
+    public void onError(final Throwable error) {
+      events.add("error " + error);
+    }
+  }
+
+  protected class MemoryCursorStore implements CursorStore {
+
+    protected volatile List<Checkpoint> saved = new ArrayList<>();
+
+    @Override
+    public List<Checkpoint> load() {
+      return new ArrayList<>(saved);
+    }
+
+    @Override
+    public void save(final List<Checkpoint> checkpoints) {
+      saved = new ArrayList<>(checkpoints);
+    }
+  }
+
+  protected BlockHash hashOf(final long height, final String fork) {
+    return BlockHash.of(BytesValue.of((fork + height).getBytes()));
+  }
+
+  protected Block newBlock(final long height, final String fork) {
+    final BlockHash previousHash = 0L == height ? BlockHash.of(BytesValue.EMPTY)
+        : chain.get((int) height - 1).getHash();
+    return Block.newBuilder()
+        .hash(hashOf(height, fork))
+        .blockHeader(BlockHeader.newBuilder()
+            .blockNumber(height)
+            .previousHash(previousHash)
+            .build())
+        .build();
+  }
+
+  // replace a chain from a height with a fork up to a height
+  protected void extend(final long fromHeight, final long toHeight, final String fork) {
+    while (chain.size() > fromHeight) {
+      chain.remove(chain.size() - 1);
+    }
+    for (long height = fromHeight; height <= toHeight; ++height) {
+      chain.add(newBlock(height, fork));
+    }
+  }
+
+  protected String blockEvent(final long height, final String fork) {
+    return "block " + height + " " + hashOf(height, fork).getEncoded();
+  }
+
+  protected void await(final List<?> list, final int count) throws Exception {
+    final long deadline = System.currentTimeMillis() + 5000L;
+    while (list.size() < count && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10L);
+    }
+    assertEquals(count, list.size());
+  }
+
+  protected void awaitStream() throws Exception {
+    final long deadline = System.currentTimeMillis() + 5000L;
+    while (null == stream.get() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10L);
+    }
+  }
+
+  // a cursor is saved after a sink gets a block
+  protected void awaitCursor(final long height, final BlockHash blockHash) throws Exception {
+    final Checkpoint expected = new Checkpoint(height, blockHash);
+    final long deadline = System.currentTimeMillis() + 5000L;
+    while (System.currentTimeMillis() < deadline) {
+      final List<Checkpoint> saved = cursorStore.saved;
+      if (!saved.isEmpty() && expected.equals(saved.get(saved.size() - 1))) {
+        return;
+      }
+      Thread.sleep(10L);
+    }
+    final List<Checkpoint> saved = cursorStore.saved;
+    assertEquals(expected, saved.isEmpty() ? null : saved.get(saved.size() - 1));
+  }
+
+  @Override
+  @Before
+  @SuppressWarnings("unchecked")
+  public void setUp() {
+    super.setUp();
+    blockOperation = mock(BlockOperation.class);
+    blockchainOperation = mock(BlockchainOperation.class);
+    when(blockchainOperation.getBlockchainStatus()).thenAnswer(new Answer<BlockchainStatus>() {
+      @Override
+      public BlockchainStatus answer(final InvocationOnMock invocation) {
+        return BlockchainStatus.newBuilder().bestHeight(chain.size() - 1).build();
+      }
+    });
+    when(blockOperation.listBlocks(anyLong(), anyLong())).thenAnswer(new Answer<Object>() {
+      @Override
+      public Object answer(final InvocationOnMock invocation) {
+        final long from = (Long) invocation.getArguments()[0];
+        final long to = (Long) invocation.getArguments()[1];
+        return new ArrayList<>(chain.subList((int) from, (int) to + 1)).iterator();
+      }
+    });
+    when(blockOperation.getBlockMetadata(anyLong())).thenAnswer(new Answer<BlockMetadata>() {
+      @Override
+      public BlockMetadata answer(final InvocationOnMock invocation) {
+        final Block block = chain.get((int) (long) (Long) invocation.getArguments()[0]);
+        return BlockMetadata.newBuilder().blockHash(block.getHash())
+            .blockHeader(block.getBlockHeader()).build();
+      }
+    });
+    when(blockOperation.subscribeNewBlock(any(StreamObserver.class))).thenAnswer(
+        new Answer<Subscription<Block>>() {
+          @Override
+          public Subscription<Block> answer(final InvocationOnMock invocation) {
+            stream.set((StreamObserver<Block>) invocation.getArguments()[0]);
+            return mock(Subscription.class);
+          }
+        });
+  }
+
+  @After
+  public void tearDown() {
+    if (null != follower) {
+      follower.stop();
+    }
+  }
+
+  @Test
+  public void shouldBackfillAndFollowHead() throws Exception {
+    extend(0L, 9L, "a");
+    follower = new ChainFollower(blockOperation, blockchainOperation, cursorStore, sink, 0L);
+    follower.start();
+    await(sink.events, 10);
+    awaitStream();
+
+    extend(10L, 10L, "a");
+    stream.get().onNext(chain.get(10));
+    await(sink.events, 11);
+    for (long height = 0L; height <= 10L; ++height) {
+      assertEquals(blockEvent(height, "a"), sink.events.get((int) height));
+    }
+    awaitCursor(10L, hashOf(10L, "a"));
+    assertEquals(10L, follower.getLastHeight());
+  }
+
+  @Test
+  public void shouldRollbackOnReorg() throws Exception {
+    extend(0L, 9L, "a");
+    follower = new ChainFollower(blockOperation, blockchainOperation, cursorStore, sink, 0L);
+    follower.start();
+    await(sink.events, 10);
+    awaitStream();
+
+    extend(7L, 10L, "b");
+    stream.get().onNext(chain.get(10));
+    await(sink.events, 17);
+    assertEquals("rollback 9 " + hashOf(9L, "a").getEncoded(), sink.events.get(10));
+    assertEquals("rollback 8 " + hashOf(8L, "a").getEncoded(), sink.events.get(11));
+    assertEquals("rollback 7 " + hashOf(7L, "a").getEncoded(), sink.events.get(12));
+    for (long height = 7L; height <= 10L; ++height) {
+      assertEquals(blockEvent(height, "b"), sink.events.get((int) height + 6));
+    }
+    awaitCursor(10L, hashOf(10L, "b"));
+  }
+
+  @Test
+  public void shouldResumeFromCursor() throws Exception {
+    extend(0L, 9L, "a");
+    for (long height = 0L; height <= 4L; ++height) {
+      cursorStore.saved.add(new Checkpoint(height, hashOf(height, "a")));
+    }
+    follower = new ChainFollower(blockOperation, blockchainOperation, cursorStore, sink, 0L);
+    follower.start();
+    await(sink.events, 5);
+    assertEquals(blockEvent(5L, "a"), sink.events.get(0));
+    assertEquals(blockEvent(9L, "a"), sink.events.get(4));
+
+    follower.stop();
+    assertFalse(follower.isRunning());
+  }
+
+  @Test
+  public void shouldResumeFromSinkBehindCursor() throws Exception {
+    extend(0L, 9L, "a");
+    for (long height = 5L; height <= 6L; ++height) {
+      cursorStore.saved.add(new Checkpoint(height, hashOf(height, "a")));
+    }
+    // a sink lost blocks from 4 on a crash, below a window of a cursor
+    final ResumableBlockSink resumableSink = new ResumableBlockSink() {
+      @Override
+      public void onBlock(final Block block) {
+        sink.onBlock(block);
+      }
+
+      @Override
+      public void onRollback(final long height, final BlockHash blockHash) {
+        sink.onRollback(height, blockHash);
+      }
+
+      @Override
+      public void onError(final Throwable error) {
+        sink.onError(error);
+      }
+
+      @Override
+      public long getNextHeight() {
+        return 4L;
+      }
+    };
+    follower = new ChainFollower(blockOperation, blockchainOperation, cursorStore,
+        resumableSink, 0L, 2, 100, 16);
+    follower.start();
+    await(sink.events, 6);
+    assertEquals(blockEvent(4L, "a"), sink.events.get(0));
+    assertEquals(blockEvent(9L, "a"), sink.events.get(5));
+  }
+
+  @Test
+  public void shouldKeepWindowOfMaxReorgDepth() throws Exception {
+    extend(0L, 19L, "a");
+    follower = new ChainFollower(blockOperation, blockchainOperation, cursorStore, sink, 0L,
+        4, 100, 16);
+    follower.start();
+    await(sink.events, 20);
+    awaitStream();
+    final long deadline = System.currentTimeMillis() + 5000L;
+    while (cursorStore.saved.size() != 4 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10L);
+    }
+    assertEquals(4, cursorStore.saved.size());
+    assertEquals(16L, cursorStore.saved.get(0).getHeight());
+  }
+
+  @Test
+  public void shouldRetryOnRpcException() throws Exception {
+    extend(0L, 9L, "a");
+    when(blockchainOperation.getBlockchainStatus())
+        .thenThrow(new RpcException("connection refused"))
+        .thenAnswer(new Answer<BlockchainStatus>() {
+          @Override
+          public BlockchainStatus answer(final InvocationOnMock invocation) {
+            return BlockchainStatus.newBuilder().bestHeight(chain.size() - 1).build();
+          }
+        });
+    follower = new ChainFollower(blockOperation, blockchainOperation, cursorStore, sink, 0L);
+    follower.start();
+    await(sink.events, 10);
+    assertEquals(blockEvent(0L, "a"), sink.events.get(0));
+    assertEquals(blockEvent(9L, "a"), sink.events.get(9));
+    assertTrue(follower.isRunning());
+  }
+
+  @Test
+  public void shouldKeepCursorOnTooDeepReorg() throws Exception {
+    extend(0L, 9L, "a");
+    follower = new ChainFollower(blockOperation, blockchainOperation, cursorStore, sink, 0L,
+        2, 100, 16);
+    follower.start();
+    await(sink.events, 10);
+    awaitStream();
+    awaitCursor(9L, hashOf(9L, "a"));
+
+    extend(5L, 10L, "b");
+    stream.get().onNext(chain.get(10));
+    await(sink.events, 13);
+    assertTrue(sink.events.get(12).startsWith("error "));
+    assertFalse(follower.isRunning());
+    Thread.sleep(100L);
+    assertEquals(2, cursorStore.saved.size());
+    assertEquals(new Checkpoint(9L, hashOf(9L, "a")), cursorStore.saved.get(1));
+  }
+
+}
@@ -0,0 +1,42 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.follower;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import hera.AbstractTestCase;
+import hera.api.model.BlockHash;
+import hera.api.model.BytesValue;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class FileCursorStoreTest extends AbstractTestCase {
+
+  @Test
+  public void shouldSaveAndLoad() throws Exception {
+    final Path directory = Files.createTempDirectory("heraj-cursor");
+    final Path path = directory.resolve("cursor");
+    final FileCursorStore cursorStore = new FileCursorStore(path);
+    assertTrue(cursorStore.load().isEmpty());
+
+    final List<Checkpoint> checkpoints = new ArrayList<>();
+    for (long height = 10L; height < 13L; ++height) {
+      checkpoints.add(new Checkpoint(height,
+          BlockHash.of(BytesValue.of(("block" + height).getBytes()))));
+    }
+    cursorStore.save(checkpoints);
+    assertEquals(checkpoints, cursorStore.load());
+    assertFalse(Files.exists(directory.resolve("cursor.tmp")));
+
+    cursorStore.save(checkpoints.subList(0, 1));
+    assertEquals(checkpoints.subList(0, 1), new FileCursorStore(path).load());
+  }
+
+}
@@ -0,0 +1,167 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.index;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import hera.AbstractTestCase;
+import hera.api.model.AccountAddress;
+import hera.api.model.Aer;
+import hera.api.model.Block;
+import hera.api.model.BlockHash;
+import hera.api.model.BlockHeader;
+import hera.api.model.BytesValue;
+import hera.api.model.ChainIdHash;
+import hera.api.model.RawTransaction;
+import hera.api.model.Transaction;
+import hera.client.index.AddressActivityIndex.Activity;
+import hera.exception.HerajException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class AddressActivityIndexTest extends AbstractTestCase {
+
+  protected AccountAddress addressOf(final int seed) {
+    final byte[] bytes = new byte[33];
+    bytes[0] = 0x03;
+    bytes[31] = (byte) (seed >>> 8);
+    bytes[32] = (byte) seed;
+    return new AccountAddress(BytesValue.of(bytes));
+  }
+
+  protected Transaction newTransaction(final AccountAddress sender,
+      final AccountAddress recipient) {
+    final RawTransaction rawTransaction = RawTransaction.newBuilder()
+        .chainIdHash(ChainIdHash.of(BytesValue.EMPTY))
+        .from(sender)
+        .to(recipient)
+        .amount(Aer.ONE)
+        .nonce(1L)
+        .build();
+    return Transaction.newBuilder().rawTransaction(rawTransaction).build();
+  }
+
+  // a block at a height has a transaction from (height % 5) to (height % 7 + 100)
+  protected Block newBlock(final long height) {
+    final List<Transaction> transactions = new ArrayList<>();
+    transactions.add(newTransaction(addressOf(1000), addressOf(1001)));
+    transactions.add(newTransaction(addressOf((int) (height % 5)),
+        addressOf((int) (height % 7) + 100)));
+    return Block.newBuilder()
+        .hash(BlockHash.of(BytesValue.of(("block" + height).getBytes())))
+        .blockHeader(BlockHeader.newBuilder().blockNumber(height).build())
+        .transactions(transactions)
+        .build();
+  }
+
+  protected List<Activity> expected(final int sender, final long fromHeight,
+      final long toHeight) {
+    final List<Activity> activities = new ArrayList<>();
+    for (long height = fromHeight; height <= toHeight; ++height) {
+      if (height % 5 == sender) {
+        activities.add(new Activity(height, 1));
+      }
+    }
+    return activities;
+  }
+
+  @Test
+  public void shouldFindActivitiesAcrossSegments() throws Exception {
+    final AddressActivityIndex index =
+        new AddressActivityIndex(Files.createTempDirectory("heraj-index"), 16);
+    for (long height = 0L; height < 100L; ++height) {
+      index.onBlock(newBlock(height));
+    }
+    assertEquals(100L, index.getNextHeight());
+    assertEquals(6, index.sealed.size());
+
+    assertEquals(expected(3, 0L, 99L), index.find(addressOf(3), 0L, 99L));
+    assertEquals(expected(2, 20L, 70L), index.find(addressOf(2), 20L, 70L));
+    assertEquals(100, index.find(addressOf(1000), 0L, 200L).size());
+    assertEquals(Arrays.asList(new Activity(42L, 0)),
+        index.find(addressOf(1001), 42L, 42L));
+    assertTrue(index.find(addressOf(4), 5L, 8L).isEmpty());
+    assertTrue(index.find(addressOf(7777), 0L, 99L).isEmpty());
+    index.close();
+  }
+
+  @Test
+  public void shouldPostSelfTransferOnce() throws Exception {
+    final AddressActivityIndex index =
+        new AddressActivityIndex(Files.createTempDirectory("heraj-index"), 16);
+    index.onBlock(Block.newBuilder()
+        .blockHeader(BlockHeader.newBuilder().blockNumber(3L).build())
+        .transactions(Arrays.asList(newTransaction(addressOf(1), addressOf(1))))
+        .build());
+    assertEquals(Arrays.asList(new Activity(3L, 0)), index.find(addressOf(1), 0L, 10L));
+    index.close();
+  }
+
+  @Test
+  public void shouldRollbackIntoSealedSegment() throws Exception {
+    final AddressActivityIndex index =
+        new AddressActivityIndex(Files.createTempDirectory("heraj-index"), 16);
+    for (long height = 0L; height < 40L; ++height) {
+      index.onBlock(newBlock(height));
+    }
+    for (long height = 39L; height >= 25L; --height) {
+      index.onRollback(height, BlockHash.of(BytesValue.of(("block" + height).getBytes())));
+    }
+    assertEquals(25L, index.getNextHeight());
+    assertEquals(1, index.sealed.size());
+    assertEquals(expected(1, 0L, 24L), index.find(addressOf(1), 0L, 100L));
+
+    // ignored since already indexed
+    index.onBlock(newBlock(10L));
+    for (long height = 25L; height < 50L; ++height) {
+      index.onBlock(newBlock(height));
+    }
+    assertEquals(expected(1, 0L, 49L), index.find(addressOf(1), 0L, 100L));
+    index.close();
+  }
+
+  @Test
+  public void shouldReopenIndex() throws Exception {
+    final Path directory = Files.createTempDirectory("heraj-index");
+    final AddressActivityIndex index = new AddressActivityIndex(directory, 16);
+    for (long height = 0L; height < 40L; ++height) {
+      index.onBlock(newBlock(height));
+    }
+    index.close();
+
+    final AddressActivityIndex reopened = new AddressActivityIndex(directory, 16);
+    assertEquals(40L, reopened.getNextHeight());
+    assertEquals(expected(4, 0L, 39L), reopened.find(addressOf(4), 0L, 39L));
+    for (long height = 40L; height < 60L; ++height) {
+      reopened.onBlock(newBlock(height));
+    }
+    assertEquals(expected(4, 10L, 59L), reopened.find(addressOf(4), 10L, 59L));
+    reopened.close();
+  }
+
+  @Test
+  public void shouldRejectGap() throws Exception {
+    final AddressActivityIndex index =
+        new AddressActivityIndex(Files.createTempDirectory("heraj-index"), 16);
+    // a first block may be at any height
+    index.onBlock(newBlock(5L));
+    index.onBlock(newBlock(6L));
+    try {
+      index.onBlock(newBlock(8L));
+      fail();
+    } catch (HerajException e) {
+      // good we expected this
+    }
+    assertEquals(7L, index.getNextHeight());
+    index.close();
+  }
+
+}
@@ -0,0 +1,275 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.index;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.util.concurrent.Futures;
+import hera.AbstractTestCase;
+import hera.api.AsyncContractOperation;
+import hera.api.model.AccountAddress;
+import hera.api.model.Aer;
+import hera.api.model.BigNumber;
+import hera.api.model.Block;
+import hera.api.model.BlockHash;
+import hera.api.model.BlockHeader;
+import hera.api.model.BytesValue;
+import hera.api.model.ChainIdHash;
+import hera.api.model.ContractAddress;
+import hera.api.model.ContractTxHash;
+import hera.api.model.ContractTxReceipt;
+import hera.api.model.Event;
+import hera.api.model.EventFilter;
+import hera.api.model.RawTransaction;
+import hera.api.model.Transaction;
+import hera.api.model.Transaction.TxType;
+import hera.api.model.TxHash;
+import hera.exception.HerajException;
+import hera.exception.RpcException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import org.junit.Test;
+
+public class EventIndexTest extends AbstractTestCase {
+
+  protected final ContractAddress contract = contractOf(1);
+
+  protected final ContractAddress other = contractOf(2);
+
+  protected ContractAddress contractOf(final int seed) {
+    final byte[] bytes = new byte[33];
+    bytes[0] = 0x03;
+    bytes[32] = (byte) seed;
+    return new ContractAddress(BytesValue.of(bytes));
+  }
+
+  protected Event newEvent(final ContractAddress from, final String name, final long height,
+      final int indexInBlock, final int index, final Object... args) {
+    return Event.newBuilder()
+        .from(from)
+        .name(name)
+        .args(Arrays.asList(args))
+        .index(index)
+        .indexInBlock(indexInBlock)
+        .blockNumber(height)
+        .build();
+  }
+
+  // a block at a height has a transfer(height % 3, height) of a contract at 0, and a mint of it
+  // and an approval of an other contract at 1
+  protected List<Event> newEvents(final long height) {
+    return Arrays.asList(
+        newEvent(contract, "transfer", height, 0, 0, "user" + height % 3, height),
+        newEvent(contract, "mint", height, 1, 0, new BigNumber(Long.toString(height))),
+        newEvent(other, "transfer", height, 1, 1, "user" + height % 3, height));
+  }
+
+  protected EventIndex open(final Path directory, final int runSize) {
+    return new EventIndex(directory, mock(AsyncContractOperation.class), runSize, 0);
+  }
+
+  protected void feed(final EventIndex index, final long fromHeight, final long toHeight) {
+    for (long height = fromHeight; height <= toHeight; ++height) {
+      index.put(height, newEvents(height));
+    }
+  }
+
+  protected List<Long> heightsOf(final Iterator<Event> events) {
+    final List<Long> heights = new ArrayList<>();
+    while (events.hasNext()) {
+      heights.add(events.next().getBlockNumber());
+    }
+    return heights;
+  }
+
+  protected List<Long> heights(final long fromHeight, final long toHeight, final int step) {
+    final List<Long> heights = new ArrayList<>();
+    for (long height = fromHeight; height <= toHeight; height += step) {
+      heights.add(height);
+    }
+    return heights;
+  }
+
+  @Test
+  public void shouldFindByName() throws Exception {
+    final EventIndex index = open(Files.createTempDirectory("heraj-event"), 20);
+    feed(index, 0L, 49L);
+    assertTrue(1 < index.runs.size());
+
+    final EventFilter filter = EventFilter.newBuilder(contract)
+        .eventName("mint")
+        .fromBlockNumber(5L)
+        .toBlockNumber(45L)
+        .build();
+    assertEquals(heights(5L, 45L, 1), heightsOf(index.find(filter)));
+
+    final Event event = index.find(filter).next();
+    assertEquals(contract, event.getFrom());
+    assertEquals(Arrays.<Object>asList(new BigNumber("5")), event.getArgs());
+    assertEquals(1, event.getIndexInBlock());
+
+    final EventFilter descending = EventFilter.newBuilder(contract)
+        .eventName("mint")
+        .fromBlockNumber(0L)
+        .toBlockNumber(100L)
+        .decending(true)
+        .build();
+    final List<Long> expected = heights(0L, 49L, 1);
+    Collections.reverse(expected);
+    assertEquals(expected, heightsOf(index.find(descending)));
+
+    assertFalse(index.find(EventFilter.newBuilder(contract).eventName("burn")
+        .toBlockNumber(100L).build()).hasNext());
+    index.close();
+  }
+
+  @Test
+  public void shouldFindByArgs() throws Exception {
+    final EventIndex index = open(Files.createTempDirectory("heraj-event"), 20);
+    feed(index, 0L, 49L);
+
+    final EventFilter byFirst = EventFilter.newBuilder(contract)
+        .eventName("transfer")
+        .args("user1")
+        .toBlockNumber(49L)
+        .build();
+    assertEquals(heights(1L, 49L, 3), heightsOf(index.find(byFirst)));
+
+    final EventFilter byBoth = EventFilter.newBuilder(contract)
+        .eventName("transfer")
+        .args("user1", 10)
+        .toBlockNumber(49L)
+        .build();
+    assertEquals(Arrays.asList(10L), heightsOf(index.find(byBoth)));
+
+    final EventFilter otherContract = EventFilter.newBuilder(other)
+        .eventName("transfer")
+        .args("user2")
+        .fromBlockNumber(10L)
+        .toBlockNumber(20L)
+        .build();
+    assertEquals(Arrays.asList(11L, 14L, 17L, 20L), heightsOf(index.find(otherContract)));
+    index.close();
+  }
+
+  @Test
+  public void shouldRollbackIntoRun() throws Exception {
+    final EventIndex index = open(Files.createTempDirectory("heraj-event"), 20);
+    feed(index, 0L, 29L);
+    for (long height = 29L; height >= 12L; --height) {
+      index.onRollback(height, BlockHash.of(BytesValue.EMPTY));
+    }
+    assertEquals(12L, index.getNextHeight());
+
+    final EventFilter filter = EventFilter.newBuilder(contract)
+        .eventName("mint")
+        .toBlockNumber(100L)
+        .build();
+    assertEquals(heights(0L, 11L, 1), heightsOf(index.find(filter)));
+
+    // ignored since already indexed
+    index.put(5L, newEvents(5L));
+    feed(index, 12L, 39L);
+    assertEquals(heights(0L, 39L, 1), heightsOf(index.find(filter)));
+    index.close();
+  }
+
+  @Test
+  public void shouldReopenIndex() throws Exception {
+    final Path directory = Files.createTempDirectory("heraj-event");
+    final EventIndex index = open(directory, 20);
+    feed(index, 0L, 29L);
+    index.close();
+
+    final EventIndex reopened = open(directory, 20);
+    assertEquals(30L, reopened.getNextHeight());
+    feed(reopened, 30L, 39L);
+    final EventFilter filter = EventFilter.newBuilder(contract)
+        .eventName("transfer")
+        .args("user0")
+        .toBlockNumber(100L)
+        .build();
+    assertEquals(heights(0L, 39L, 3), heightsOf(reopened.find(filter)));
+    reopened.close();
+  }
+
+  @Test
+  public void shouldRejectGap() throws Exception {
+    final EventIndex index = open(Files.createTempDirectory("heraj-event"), 20);
+    feed(index, 0L, 9L);
+    try {
+      index.put(11L, newEvents(11L));
+      fail();
+    } catch (HerajException e) {
+      // good we expected this
+    }
+    assertEquals(10L, index.getNextHeight());
+    index.close();
+  }
+
+  @Test
+  public void shouldIndexEventsOfReceipts() throws Exception {
+    final AsyncContractOperation contractOperation = mock(AsyncContractOperation.class);
+    final TxHash txHash = TxHash.of(BytesValue.of(new byte[] {0x01}));
+    when(contractOperation.getReceipt(any(ContractTxHash.class)))
+        .thenReturn(Futures.<ContractTxReceipt>immediateFailedFuture(new RpcException("busy")))
+        .thenReturn(Futures.immediateFuture(ContractTxReceipt.newBuilder()
+            .events(Arrays.asList(newEvent(contract, "mint", 0L, 0, 0, 7)))
+            .build()));
+
+    final AccountAddress address = new AccountAddress(contractOf(3).getBytesValue());
+    final List<Transaction> transactions = new ArrayList<>();
+    // a normal transaction without a payload is a plain transfer
+    for (final TxType txType : new TxType[] {TxType.TRANSFER, TxType.NORMAL, TxType.CALL}) {
+      final RawTransaction rawTransaction = RawTransaction.newBuilder()
+          .chainIdHash(ChainIdHash.of(BytesValue.EMPTY))
+          .from(address)
+          .to(address)
+          .amount(Aer.ZERO)
+          .nonce(1L)
+          .type(txType)
+          .build();
+      transactions.add(Transaction.newBuilder().rawTransaction(rawTransaction).hash(txHash)
+          .build());
+    }
+    final BlockHash blockHash = BlockHash.of(BytesValue.of(new byte[] {0x02}));
+    final EventIndex index =
+        new EventIndex(Files.createTempDirectory("heraj-event"), contractOperation);
+    index.onBlock(Block.newBuilder()
+        .hash(blockHash)
+        .blockHeader(BlockHeader.newBuilder().blockNumber(3L).build())
+        .transactions(transactions)
+        .build());
+    // retried once
+    verify(contractOperation, times(2)).getReceipt(any(ContractTxHash.class));
+
+    final Iterator<Event> events = index.find(EventFilter.newBuilder(contract)
+        .eventName("mint")
+        .toBlockNumber(10L)
+        .build());
+    final Event event = events.next();
+    assertEquals(3L, event.getBlockNumber());
+    assertEquals(2, event.getIndexInBlock());
+    assertEquals(blockHash, event.getBlockHash());
+    assertEquals(txHash, event.getTxHash());
+    assertEquals(Arrays.<Object>asList(7), event.getArgs());
+    assertFalse(events.hasNext());
+    index.close();
+  }
+
+}
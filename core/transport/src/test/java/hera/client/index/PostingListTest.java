@@ -0,0 +1,66 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.index;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import hera.AbstractTestCase;
+import org.junit.Test;
+
+public class PostingListTest extends AbstractTestCase {
+
+  protected long[] toArray(final PostingList postingList) {
+    final long[] values = new long[postingList.size()];
+    final PostingList.Cursor cursor = postingList.cursor();
+    int i = 0;
+    while (cursor.hasNext()) {
+      values[i++] = cursor.next();
+    }
+    return values;
+  }
+
+  @Test
+  public void testAdd() {
+    final PostingList postingList = new PostingList();
+    assertTrue(postingList.isEmpty());
+    assertTrue(postingList.add(0L));
+    assertTrue(postingList.add(127L));
+    assertTrue(postingList.add(128L));
+    assertTrue(postingList.add(Long.MAX_VALUE));
+    assertFalse(postingList.add(128L));
+    assertArrayEquals(new long[] {0L, 127L, 128L, Long.MAX_VALUE}, toArray(postingList));
+  }
+
+  @Test
+  public void testTruncate() {
+    final PostingList postingList = new PostingList();
+    for (long value = 10L; value < 1000L; value += 10L) {
+      postingList.add(value);
+    }
+    postingList.truncate(35L);
+    assertArrayEquals(new long[] {10L, 20L, 30L}, toArray(postingList));
+    assertTrue(postingList.add(35L));
+    assertArrayEquals(new long[] {10L, 20L, 30L, 35L}, toArray(postingList));
+    postingList.truncate(0L);
+    assertTrue(postingList.isEmpty());
+  }
+
+  @Test
+  public void testOf() {
+    final PostingList postingList = new PostingList();
+    for (long value = 1L; value < 1L << 40; value *= 3L) {
+      postingList.add(value);
+    }
+    final PostingList decoded = PostingList.of(postingList.toByteArray());
+    assertEquals(postingList.size(), decoded.size());
+    assertArrayEquals(toArray(postingList), toArray(decoded));
+    assertTrue(decoded.add(1L << 41));
+    assertEquals(postingList.size() + 1, decoded.size());
+  }
+
+}
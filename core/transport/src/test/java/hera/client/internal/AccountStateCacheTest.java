@@ -0,0 +1,266 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.internal;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import com.google.common.util.concurrent.SettableFuture;
+import hera.AbstractTestCase;
+import hera.api.function.Function1;
+import hera.api.model.AccountAddress;
+import hera.api.model.AccountState;
+import hera.api.model.Aer;
+import hera.api.model.Block;
+import hera.api.model.RawTransaction;
+import hera.api.model.StreamObserver;
+import hera.api.model.Subscription;
+import hera.api.model.Transaction;
+import hera.key.AergoKeyGenerator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+
+public class AccountStateCacheTest extends AbstractTestCase {
+
+  protected final AtomicInteger requested = new AtomicInteger(0);
+
+  protected final AtomicReference<StreamObserver<Block>> blockObserver = new AtomicReference<>();
+
+  protected final AtomicInteger subscribed = new AtomicInteger(0);
+
+  // nonce of a state returned is a number of requests so far
+  protected final Function1<AccountAddress, Future<AccountState>> stateFunction =
+      new Function1<AccountAddress, Future<AccountState>>() {
+        @Override
+        public Future<AccountState> apply(final AccountAddress address) {
+          return HerajFutures.success(AccountState.newBuilder()
+              .address(address)
+              .nonce(requested.incrementAndGet())
+              .build());
+        }
+      };
+
+  protected final Function1<StreamObserver<Block>, Future<Subscription<Block>>> subscribeFunction =
+      new Function1<StreamObserver<Block>, Future<Subscription<Block>>>() {
+        @Override
+        public Future<Subscription<Block>> apply(final StreamObserver<Block> observer) {
+          subscribed.incrementAndGet();
+          blockObserver.set(observer);
+          return HerajFutures.<Subscription<Block>>success(new Subscription<Block>() {
+            protected volatile boolean unsubscribed = false;
+
+            @Override
+            public void unsubscribe() {
+              unsubscribed = true;
+            }
+
+            @Override
+            public boolean isUnsubscribed() {
+              return unsubscribed;
+            }
+
+            @Override
+            public int getQueueDepth() {
+              return 0;
+            }
+
+            @Override
+            public long getDropCount() {
+              return 0L;
+            }
+          });
+        }
+      };
+
+  protected Block newBlock(final AccountAddress from, final AccountAddress to) {
+    final RawTransaction rawTransaction = RawTransaction.newBuilder()
+        .chainIdHash(chainIdHash)
+        .from(from)
+        .to(to)
+        .amount(Aer.ZERO)
+        .nonce(1L)
+        .build();
+    return Block.newBuilder()
+        .transactions(asList(Transaction.newBuilder().rawTransaction(rawTransaction).build()))
+        .build();
+  }
+
+  protected AccountAddress newAddress() {
+    return new AergoKeyGenerator().create().getAddress();
+  }
+
+  @Test
+  public void shouldInvalidateTouchedOnly() {
+    final AccountStateCache cache = new AccountStateCache(stateFunction, subscribeFunction, 10);
+    final AccountAddress touched = newAddress();
+    final AccountAddress untouched = newAddress();
+    assertNull(cache.get(touched));
+    cache.put(AccountState.newBuilder().address(touched).build(), cache.getGeneration());
+    cache.put(AccountState.newBuilder().address(untouched).build(), cache.getGeneration());
+    assertNotNull(cache.get(touched));
+
+    blockObserver.get().onNext(newBlock(touched, newAddress()));
+    assertNull(cache.get(touched));
+    assertNotNull(cache.get(untouched));
+    assertEquals(1, subscribed.get());
+  }
+
+  @Test
+  public void shouldNotCacheStateFetchedBeforeInvalidation() {
+    final AccountStateCache cache = new AccountStateCache(stateFunction, subscribeFunction, 10);
+    final AccountAddress address = newAddress();
+    assertNull(cache.get(address));
+    final long generation = cache.getGeneration();
+
+    blockObserver.get().onNext(newBlock(address, newAddress()));
+    cache.put(AccountState.newBuilder().address(address).build(), generation);
+    assertNull(cache.get(address));
+  }
+
+  @Test
+  public void shouldCacheStateFetchedAcrossUntouchingBlock() {
+    final AccountStateCache cache = new AccountStateCache(stateFunction, subscribeFunction, 10);
+    final AccountAddress address = newAddress();
+    assertNull(cache.get(address));
+    final long generation = cache.getGeneration();
+
+    blockObserver.get().onNext(newBlock(newAddress(), newAddress()));
+    cache.put(AccountState.newBuilder().address(address).build(), generation);
+    assertNotNull(cache.get(address));
+  }
+
+  @Test
+  public void shouldNotifyWatchOnChange() {
+    final AccountStateCache cache = new AccountStateCache(stateFunction, subscribeFunction, 0);
+    final AccountAddress watched = newAddress();
+    final List<AccountState> notified = new CopyOnWriteArrayList<>();
+    final Subscription<AccountState> subscription =
+        cache.watch(asList(watched), new StreamObserver<AccountState>() {
+          @Override
+          public void onNext(final AccountState value) {
+            notified.add(value);
+          }
+
+          @Override
+          public void onError(final Throwable t) {}
+
+          @Override
+          public void onCompleted() {}
+        });
+    // a current state first
+    assertEquals(1, notified.size());
+    assertEquals(1, requested.get());
+
+    // not touched
+    blockObserver.get().onNext(newBlock(newAddress(), newAddress()));
+    assertEquals(1, requested.get());
+
+    blockObserver.get().onNext(newBlock(newAddress(), watched));
+    assertEquals(2, requested.get());
+    assertEquals(2, notified.size());
+    assertEquals(watched, notified.get(1).getAddress());
+
+    subscription.unsubscribe();
+    blockObserver.get().onNext(newBlock(watched, newAddress()));
+    assertEquals(2, requested.get());
+    assertEquals(2, notified.size());
+  }
+
+  @Test
+  public void shouldResubscribeAndRefreshWatchOnStreamError() throws Exception {
+    final AccountStateCache cache = new AccountStateCache(stateFunction, subscribeFunction, 10);
+    final AccountAddress address = newAddress();
+    final List<AccountState> notified = new CopyOnWriteArrayList<>();
+    final AtomicReference<Throwable> error = new AtomicReference<>();
+    final Subscription<AccountState> subscription =
+        cache.watch(asList(address), new StreamObserver<AccountState>() {
+          @Override
+          public void onNext(final AccountState value) {
+            notified.add(value);
+          }
+
+          @Override
+          public void onError(final Throwable t) {
+            error.set(t);
+          }
+
+          @Override
+          public void onCompleted() {
+            throw new UnsupportedOperationException();
+          }
+        });
+    assertEquals(1, notified.size());
+    final StreamObserver<Block> failed = blockObserver.get();
+
+    failed.onError(new IllegalStateException());
+    assertNull(error.get());
+    assertFalse(subscription.isUnsubscribed());
+
+    final long deadline = System.currentTimeMillis() + 5000L;
+    while (notified.size() < 2 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10L);
+    }
+    assertEquals(2, subscribed.get());
+    assertEquals(2, notified.size());
+    assertNotNull(cache.get(address));
+
+    // an error of a stream replaced is ignored
+    failed.onError(new IllegalStateException());
+    assertNotNull(cache.get(address));
+
+    blockObserver.get().onNext(newBlock(newAddress(), address));
+    assertEquals(3, notified.size());
+  }
+
+  @Test
+  public void shouldDropStateOlderThanLastOne() {
+    final List<SettableFuture<AccountState>> pending = new CopyOnWriteArrayList<>();
+    final AccountStateCache cache = new AccountStateCache(
+        new Function1<AccountAddress, Future<AccountState>>() {
+          @Override
+          public Future<AccountState> apply(final AccountAddress address) {
+            final SettableFuture<AccountState> future = SettableFuture.create();
+            pending.add(future);
+            return future;
+          }
+        }, subscribeFunction, 0);
+    final AccountAddress watched = newAddress();
+    final List<AccountState> notified = new CopyOnWriteArrayList<>();
+    cache.watch(asList(watched), new StreamObserver<AccountState>() {
+      @Override
+      public void onNext(final AccountState value) {
+        notified.add(value);
+      }
+
+      @Override
+      public void onError(final Throwable t) {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public void onCompleted() {
+        throw new UnsupportedOperationException();
+      }
+    });
+    blockObserver.get().onNext(newBlock(newAddress(), watched));
+    blockObserver.get().onNext(newBlock(newAddress(), watched));
+    assertEquals(3, pending.size());
+
+    // a later refresh completes first
+    pending.get(2).set(AccountState.newBuilder().address(watched).nonce(2L).build());
+    pending.get(1).set(AccountState.newBuilder().address(watched).nonce(1L).build());
+    pending.get(0).set(AccountState.newBuilder().address(watched).nonce(0L).build());
+    assertEquals(1, notified.size());
+    assertEquals(2L, notified.get(0).getNonce());
+  }
+
+}
@@ -0,0 +1,165 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.util.concurrent.SettableFuture;
+import hera.AbstractTestCase;
+import hera.api.function.Function1;
+import hera.api.model.AccountAddress;
+import hera.api.model.AccountState;
+import hera.api.model.AccountStateResult;
+import hera.api.model.BytesValue;
+import hera.api.model.StreamObserver;
+import hera.exception.RpcException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class AccountStateFetcherTest extends AbstractTestCase {
+
+  protected AccountAddress addressOf(final int seed) {
+    final byte[] bytes = new byte[33];
+    bytes[0] = 0x03;
+    bytes[31] = (byte) (seed >> 8);
+    bytes[32] = (byte) seed;
+    return new AccountAddress(BytesValue.of(bytes));
+  }
+
+  protected List<AccountAddress> addresses(final int count) {
+    final List<AccountAddress> addresses = new ArrayList<>();
+    for (int i = 0; i < count; ++i) {
+      addresses.add(addressOf(i));
+    }
+    return addresses;
+  }
+
+  // completes a request on an other thread after a while, counting requests in flight
+  protected class DelayedStateFunction implements Function1<AccountAddress, Future<AccountState>> {
+
+    protected final ExecutorService executor = Executors.newCachedThreadPool();
+
+    protected final AtomicInteger inFlight = new AtomicInteger(0);
+
+    protected final AtomicInteger maxInFlight = new AtomicInteger(0);
+
+    @Override
+    public Future<AccountState> apply(final AccountAddress address) {
+      final int current = inFlight.incrementAndGet();
+      while (true) {
+        final int max = maxInFlight.get();
+        if (current <= max || maxInFlight.compareAndSet(max, current)) {
+          break;
+        }
+      }
+      final SettableFuture<AccountState> future = SettableFuture.create();
+      executor.submit(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            Thread.sleep(1L);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          inFlight.decrementAndGet();
+          if (address.equals(addressOf(7))) {
+            future.setException(new IllegalStateException("state not found"));
+          } else {
+            future.set(AccountState.newBuilder().address(address).build());
+          }
+        }
+      });
+      return future;
+    }
+  }
+
+  @Test
+  public void shouldFetchInOrderWithBoundedInFlight() throws Exception {
+    final DelayedStateFunction stateFunction = new DelayedStateFunction();
+    final AccountStateFetcher fetcher = new AccountStateFetcher(stateFunction, 8);
+    final List<AccountAddress> addresses = addresses(200);
+
+    final List<AccountStateResult> results = fetcher.fetch(addresses);
+    assertEquals(200, results.size());
+    for (int i = 0; i < results.size(); ++i) {
+      final AccountStateResult result = results.get(i);
+      assertEquals(addresses.get(i), result.getAddress());
+      if (7 == i) {
+        assertFalse(result.isSuccess());
+        assertNull(result.getState());
+        assertTrue(result.getError() instanceof RpcException);
+      } else {
+        assertTrue(result.isSuccess());
+        assertEquals(addresses.get(i), result.getState().getAddress());
+      }
+    }
+    assertTrue(8 >= stateFunction.maxInFlight.get());
+    assertEquals(0, stateFunction.inFlight.get());
+    stateFunction.executor.shutdown();
+  }
+
+  @Test
+  public void shouldStreamResults() throws Exception {
+    final DelayedStateFunction stateFunction = new DelayedStateFunction();
+    final AccountStateFetcher fetcher = new AccountStateFetcher(stateFunction, 4);
+    final List<AccountAddress> received = new ArrayList<>();
+    final AtomicBoolean completed = new AtomicBoolean(false);
+
+    fetcher.fetch(addresses(50), new StreamObserver<AccountStateResult>() {
+      @Override
+      public void onNext(final AccountStateResult value) {
+        received.add(value.getAddress());
+      }
+
+      @Override
+      public void onError(final Throwable t) {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public void onCompleted() {
+        completed.set(true);
+      }
+    });
+    assertTrue(completed.get());
+    assertEquals(50, received.size());
+    assertEquals(new HashSet<>(addresses(50)), new HashSet<>(received));
+    assertTrue(4 >= stateFunction.maxInFlight.get());
+    stateFunction.executor.shutdown();
+    stateFunction.executor.awaitTermination(1L, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void shouldReportFailureOnRequest() throws Exception {
+    final Function1<AccountAddress, Future<AccountState>> stateFunction =
+        new Function1<AccountAddress, Future<AccountState>>() {
+          @Override
+          public Future<AccountState> apply(final AccountAddress address) {
+            if (address.equals(addressOf(1))) {
+              throw new IllegalStateException("channel closed");
+            }
+            return HerajFutures.success(AccountState.newBuilder().address(address).build());
+          }
+        };
+    final AccountStateFetcher fetcher = new AccountStateFetcher(stateFunction, 1);
+
+    final List<AccountStateResult> results = fetcher.fetch(addresses(3));
+    assertTrue(results.get(0).isSuccess());
+    assertFalse(results.get(1).isSuccess());
+    assertTrue(results.get(2).isSuccess());
+  }
+
+}
@@ -9,6 +9,7 @@ import static java.util.UUID.randomUUID;
 import static org.junit.Assert.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.util.concurrent.ListenableFuture;
@@ -18,11 +19,14 @@ import hera.api.model.Block;
 import hera.api.model.BlockHash;
 import hera.api.model.BlockMetadata;
 import hera.api.model.Subscription;
+import io.grpc.stub.StreamObserver;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.Future;
 import org.junit.Test;
 import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
 import types.AergoRPCServiceGrpc.AergoRPCServiceFutureStub;
 import types.AergoRPCServiceGrpc.AergoRPCServiceStub;
 import types.Blockchain;
@@ -195,4 +199,17 @@ public class BlockBaseTemplateTest extends AbstractTestCase {
     assertNotNull(subscription);
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testBlockPublisher() {
+    final AergoRPCServiceStub streamService = mock(AergoRPCServiceStub.class);
+    final BlockBaseTemplate blockBaseTemplate = supplyBlockBaseTemplate(streamService);
+
+    final Publisher<Block> publisher = blockBaseTemplate.getBlockPublisherFunction().apply();
+    final Subscriber<Block> subscriber = mock(Subscriber.class);
+    publisher.subscribe(subscriber);
+    verify(subscriber).onSubscribe(any(org.reactivestreams.Subscription.class));
+    verify(streamService).listBlockStream(any(Rpc.Empty.class), any(StreamObserver.class));
+  }
+
 }
@@ -0,0 +1,169 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.internal;
+
+import static java.util.UUID.randomUUID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import hera.AbstractTestCase;
+import hera.api.function.Function0;
+import hera.api.model.Block;
+import hera.api.model.BlockHash;
+import hera.api.model.BlockHeader;
+import hera.api.model.BlockMetadata;
+import hera.api.model.BlockchainStatus;
+import hera.api.model.BytesValue;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class BlockCacheTest extends AbstractTestCase {
+
+  protected Function0<Future<BlockchainStatus>> statusFunction(final String consensus,
+      final long bestHeight) {
+    return new Function0<Future<BlockchainStatus>>() {
+      @Override
+      public Future<BlockchainStatus> apply() {
+        return HerajFutures.success(BlockchainStatus.newBuilder()
+            .bestHeight(bestHeight)
+            .consensus(consensus)
+            .build());
+      }
+    };
+  }
+
+  protected Block newBlock(final long height) {
+    return Block.newBuilder()
+        .hash(new BlockHash(BytesValue.of(randomUUID().toString().getBytes())))
+        .blockHeader(BlockHeader.newBuilder().blockNumber(height).build())
+        .build();
+  }
+
+  @Test
+  public void shouldCacheByHeightOnlyIfFinal() {
+    final BlockCache blockCache = new BlockCache(
+        statusFunction("{\"Type\":\"dpos\",\"Status\":{\"LibNo\":10}}", 20L), 100, 0L, 0L,
+        TimeUnit.MILLISECONDS);
+
+    // not final yet, but it triggers finality refresh
+    final Block notFinal = newBlock(5L);
+    blockCache.put(notFinal);
+    assertNotNull(blockCache.getBlock(notFinal.getHash()));
+    assertNull(blockCache.getBlock(5L));
+    assertEquals(10L, blockCache.getLastIrreversibleHeight());
+
+    final Block fin = newBlock(10L);
+    blockCache.put(fin);
+    assertEquals(fin, blockCache.getBlock(10L));
+
+    final Block recent = newBlock(11L);
+    blockCache.put(recent);
+    assertNull(blockCache.getBlock(11L));
+    assertNotNull(blockCache.getBlock(recent.getHash()));
+  }
+
+  @Test
+  public void shouldCacheMetadata() {
+    final BlockCache blockCache =
+        new BlockCache(statusFunction("{\"Type\":\"raft\"}", 20L), 100, 0L, 0L,
+            TimeUnit.MILLISECONDS);
+    blockCache.updateFinality(BlockchainStatus.newBuilder()
+        .bestHeight(20L)
+        .consensus("{\"Type\":\"raft\"}")
+        .build());
+
+    final BlockMetadata blockMetadata = BlockMetadata.newBuilder()
+        .blockHash(new BlockHash(BytesValue.of(randomUUID().toString().getBytes())))
+        .blockHeader(BlockHeader.newBuilder().blockNumber(20L).build())
+        .build();
+    blockCache.put(blockMetadata);
+    assertEquals(blockMetadata, blockCache.getBlockMetadata(blockMetadata.getBlockHash()));
+    assertEquals(blockMetadata, blockCache.getBlockMetadata(20L));
+    assertNull(blockCache.getBlock(20L));
+  }
+
+  @Test
+  public void shouldEvictLeastRecentlyUsed() {
+    final BlockCache blockCache =
+        new BlockCache(statusFunction("", 0L), 2, 0L, 1L, TimeUnit.MINUTES);
+    final Block first = newBlock(1L);
+    final Block second = newBlock(2L);
+    final Block third = newBlock(3L);
+    blockCache.put(first);
+    blockCache.put(second);
+    blockCache.getBlock(first.getHash());
+    blockCache.put(third);
+
+    assertNotNull(blockCache.getBlock(first.getHash()));
+    assertNull(blockCache.getBlock(second.getHash()));
+    assertNotNull(blockCache.getBlock(third.getHash()));
+    assertEquals(1L, blockCache.getStats().getEvictionCount());
+    assertEquals(2, blockCache.getStats().getSize());
+  }
+
+  @Test
+  public void shouldBoundByBytes() {
+    final BlockCache blockCache = new BlockCache(statusFunction("", 0L), 100,
+        2 * BlockCache.BLOCK_BASE_BYTES, 1L, TimeUnit.MINUTES);
+    for (long i = 0L; i < 5L; ++i) {
+      blockCache.put(newBlock(i));
+    }
+    assertEquals(2, blockCache.getStats().getSize());
+    assertEquals(2 * BlockCache.BLOCK_BASE_BYTES, blockCache.getStats().getEstimatedBytes());
+  }
+
+  @Test
+  public void shouldChargeFinalBlockOnce() {
+    final BlockCache blockCache = new BlockCache(statusFunction("{\"Type\":\"raft\"}", 20L),
+        2, 0L, 1L, TimeUnit.MINUTES);
+    blockCache.updateFinality(BlockchainStatus.newBuilder()
+        .bestHeight(20L)
+        .consensus("{\"Type\":\"raft\"}")
+        .build());
+    final Block first = newBlock(1L);
+    blockCache.put(first);
+    assertEquals(first, blockCache.getBlock(1L));
+    assertEquals(1, blockCache.getStats().getSize());
+    assertEquals(BlockCache.BLOCK_BASE_BYTES, blockCache.getStats().getEstimatedBytes());
+
+    blockCache.put(newBlock(2L));
+    assertEquals(0L, blockCache.getStats().getEvictionCount());
+
+    // a height alias is evicted with its block
+    blockCache.put(newBlock(3L));
+    assertNull(blockCache.getBlock(1L));
+    assertEquals(1L, blockCache.getStats().getEvictionCount());
+  }
+
+  @Test
+  public void testStats() {
+    final BlockCache blockCache =
+        new BlockCache(statusFunction("", 0L), 10, 0L, 1L, TimeUnit.MINUTES);
+    final Block block = newBlock(1L);
+    blockCache.getBlock(block.getHash());
+    blockCache.put(block);
+    blockCache.getBlock(block.getHash());
+    blockCache.getBlock(block.getHash());
+
+    final BlockCache.Stats stats = blockCache.getStats();
+    assertEquals(2L, stats.getHitCount());
+    assertEquals(1L, stats.getMissCount());
+  }
+
+  @Test
+  public void testParseLastIrreversibleHeight() {
+    assertEquals(7L, BlockCache.parseLastIrreversibleHeight(BlockchainStatus.newBuilder()
+        .bestHeight(9L).consensus("{\"Type\":\"dpos\",\"Status\":{\"LibNo\":7}}").build()));
+    assertEquals(9L, BlockCache.parseLastIrreversibleHeight(BlockchainStatus.newBuilder()
+        .bestHeight(9L).consensus("{\"Type\":\"sbp\"}").build()));
+    assertEquals(-1L, BlockCache.parseLastIrreversibleHeight(BlockchainStatus.newBuilder()
+        .bestHeight(9L).consensus("").build()));
+    assertEquals(-1L, BlockCache.parseLastIrreversibleHeight(BlockchainStatus.newBuilder()
+        .bestHeight(9L).consensus("{invalid").build()));
+  }
+
+}
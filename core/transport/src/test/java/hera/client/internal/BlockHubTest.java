@@ -0,0 +1,288 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+import com.google.common.util.concurrent.SettableFuture;
+import hera.AbstractTestCase;
+import hera.api.function.Function1;
+import hera.api.model.Block;
+import hera.api.model.BlockHeader;
+import hera.api.model.StreamObserver;
+import hera.api.model.Subscription;
+import hera.client.stream.OverflowPolicy;
+import hera.exception.StreamOverflowException;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+
+public class BlockHubTest extends AbstractTestCase {
+
+  protected final AtomicReference<StreamObserver<Block>> upstream = new AtomicReference<>();
+
+  protected final AtomicInteger subscribed = new AtomicInteger(0);
+
+  protected final AtomicInteger unsubscribed = new AtomicInteger(0);
+
+  protected final Function1<StreamObserver<Block>, Future<Subscription<Block>>> subscribeFunction =
+      new Function1<StreamObserver<Block>, Future<Subscription<Block>>>() {
+        @Override
+        public Future<Subscription<Block>> apply(final StreamObserver<Block> observer) {
+          subscribed.incrementAndGet();
+          upstream.set(observer);
+          return HerajFutures.<Subscription<Block>>success(new Subscription<Block>() {
+            protected final AtomicBoolean closed = new AtomicBoolean(false);
+
+            @Override
+            public void unsubscribe() {
+              if (closed.compareAndSet(false, true)) {
+                unsubscribed.incrementAndGet();
+              }
+            }
+
+            @Override
+            public boolean isUnsubscribed() {
+              return closed.get();
+            }
+
+            @Override
+            public int getQueueDepth() {
+              return 0;
+            }
+
+            @Override
+            public long getDropCount() {
+              return 0L;
+            }
+          });
+        }
+      };
+
+  protected class RecordingObserver implements StreamObserver<Block> {
+
+    protected final List<Block> received = new CopyOnWriteArrayList<>();
+
+    protected final AtomicReference<Throwable> error = new AtomicReference<>();
+
+    @Override
+    public void onNext(final Block block) {
+      received.add(block);
+    }
+
+    @Override
+    public void onError(final Throwable t) {
+      error.set(t);
+    }
+
+    @Override
+    public void onCompleted() {
+    }
+  }
+
+  // blocks until released
+  protected class SlowObserver extends RecordingObserver {
+
+    protected final CountDownLatch latch = new CountDownLatch(1);
+
+    @Override
+    public void onNext(final Block block) {
+      try {
+        latch.await(5L, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      super.onNext(block);
+    }
+  }
+
+  protected Block newBlock(final long height) {
+    return Block.newBuilder()
+        .blockHeader(BlockHeader.newBuilder().blockNumber(height).build())
+        .build();
+  }
+
+  protected void await(final List<?> list, final int count) throws Exception {
+    final long deadline = System.currentTimeMillis() + 5000L;
+    while (list.size() < count && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10L);
+    }
+    assertEquals(count, list.size());
+  }
+
+  @Test
+  public void shouldShareSameBlockAmongSubscribers() throws Exception {
+    final BlockHub blockHub = new BlockHub(subscribeFunction, 4, OverflowPolicy.FAIL);
+    final RecordingObserver first = new RecordingObserver();
+    final RecordingObserver second = new RecordingObserver();
+    blockHub.subscribe(first);
+    blockHub.subscribe(second);
+    assertEquals(1, subscribed.get());
+    assertEquals(2, blockHub.getSubscriberCount());
+
+    final Block block = newBlock(1L);
+    upstream.get().onNext(block);
+    await(first.received, 1);
+    await(second.received, 1);
+    assertSame(first.received.get(0), second.received.get(0));
+  }
+
+  @Test
+  public void shouldIsolateAndEvictSlowSubscriber() throws Exception {
+    final BlockHub blockHub = new BlockHub(subscribeFunction, 2, OverflowPolicy.FAIL);
+    final SlowObserver slow = new SlowObserver();
+    final RecordingObserver fast = new RecordingObserver();
+    final Subscription<Block> slowSubscription = blockHub.subscribe(slow);
+    blockHub.subscribe(fast);
+
+    // one is being delivered and two are queued
+    for (long height = 1L; height <= 3L; ++height) {
+      upstream.get().onNext(newBlock(height));
+      Thread.sleep(50L);
+    }
+    await(fast.received, 3);
+    assertEquals(2L, blockHub.getMaxLag());
+
+    upstream.get().onNext(newBlock(4L));
+    await(fast.received, 4);
+    assertTrue(slowSubscription.isUnsubscribed());
+    assertEquals(1, blockHub.getSubscriberCount());
+    assertEquals(3L, slowSubscription.getDropCount());
+
+    slow.latch.countDown();
+    await(slow.received, 1);
+    final long deadline = System.currentTimeMillis() + 5000L;
+    while (null == slow.error.get() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10L);
+    }
+    assertTrue(slow.error.get() instanceof StreamOverflowException);
+    assertEquals(0, unsubscribed.get());
+  }
+
+  @Test
+  public void shouldDropOldestForSlowSubscriber() throws Exception {
+    final BlockHub blockHub = new BlockHub(subscribeFunction, 2, OverflowPolicy.DROP_OLDEST);
+    final SlowObserver slow = new SlowObserver();
+    final Subscription<Block> subscription = blockHub.subscribe(slow);
+    for (long height = 1L; height <= 5L; ++height) {
+      upstream.get().onNext(newBlock(height));
+      Thread.sleep(20L);
+    }
+    assertEquals(2, subscription.getQueueDepth());
+    assertEquals(2L, subscription.getDropCount());
+
+    slow.latch.countDown();
+    await(slow.received, 3);
+    assertEquals(1L, slow.received.get(0).getBlockNumber());
+    assertEquals(4L, slow.received.get(1).getBlockNumber());
+    assertEquals(5L, slow.received.get(2).getBlockNumber());
+  }
+
+  @Test
+  public void shouldCloseUpstreamOnLastUnsubscribe() throws Exception {
+    final BlockHub blockHub = new BlockHub(subscribeFunction, 4, OverflowPolicy.FAIL);
+    final Subscription<Block> first = blockHub.subscribe(new RecordingObserver());
+    final Subscription<Block> second = blockHub.subscribe(new RecordingObserver());
+    first.unsubscribe();
+    assertEquals(0, unsubscribed.get());
+    second.unsubscribe();
+    assertEquals(1, unsubscribed.get());
+    assertEquals(0, blockHub.getSubscriberCount());
+
+    blockHub.subscribe(new RecordingObserver());
+    assertEquals(2, subscribed.get());
+  }
+
+  @Test
+  public void shouldFailSubscribersOnUpstreamError() throws Exception {
+    final BlockHub blockHub = new BlockHub(subscribeFunction, 4, OverflowPolicy.FAIL);
+    final RecordingObserver observer = new RecordingObserver();
+    final Subscription<Block> subscription = blockHub.subscribe(observer);
+    upstream.get().onError(new IllegalStateException());
+    final long deadline = System.currentTimeMillis() + 5000L;
+    while (null == observer.error.get() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10L);
+    }
+    assertTrue(observer.error.get() instanceof IllegalStateException);
+    assertTrue(subscription.isUnsubscribed());
+    assertEquals(0, blockHub.getSubscriberCount());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldNotBlockWhileOpening() throws Exception {
+    final SettableFuture<Subscription<Block>> opening = SettableFuture.create();
+    final BlockHub blockHub = new BlockHub(
+        new Function1<StreamObserver<Block>, Future<Subscription<Block>>>() {
+          @Override
+          public Future<Subscription<Block>> apply(final StreamObserver<Block> observer) {
+            subscribed.incrementAndGet();
+            upstream.set(observer);
+            return opening;
+          }
+        }, 4, OverflowPolicy.FAIL);
+    final ExecutorService executor = Executors.newCachedThreadPool();
+    final Callable<Subscription<Block>> subscribing = new Callable<Subscription<Block>>() {
+      @Override
+      public Subscription<Block> call() throws Exception {
+        return blockHub.subscribe(new RecordingObserver());
+      }
+    };
+    final Future<Subscription<Block>> first = executor.submit(subscribing);
+    final Future<Subscription<Block>> second = executor.submit(subscribing);
+
+    final long deadline = System.currentTimeMillis() + 5000L;
+    while (blockHub.getSubscriberCount() < 2 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10L);
+    }
+    assertEquals(2, blockHub.getSubscriberCount());
+    assertEquals(0L, blockHub.getMaxLag());
+    assertFalse(first.isDone());
+    assertFalse(second.isDone());
+
+    opening.set(mock(Subscription.class));
+    assertFalse(first.get(5L, TimeUnit.SECONDS).isUnsubscribed());
+    assertFalse(second.get(5L, TimeUnit.SECONDS).isUnsubscribed());
+    assertEquals(1, subscribed.get());
+    executor.shutdown();
+  }
+
+  @Test
+  public void shouldThrowOnOpeningFailure() throws Exception {
+    final BlockHub blockHub = new BlockHub(
+        new Function1<StreamObserver<Block>, Future<Subscription<Block>>>() {
+          @Override
+          public Future<Subscription<Block>> apply(final StreamObserver<Block> observer) {
+            return HerajFutures.fail(new IllegalStateException("connection refused"));
+          }
+        }, 4, OverflowPolicy.FAIL);
+    final RecordingObserver observer = new RecordingObserver();
+    try {
+      blockHub.subscribe(observer);
+      fail();
+    } catch (Exception e) {
+      // good we expected this
+    }
+    assertEquals(0, blockHub.getSubscriberCount());
+    Thread.sleep(100L);
+    assertNull(observer.error.get());
+  }
+
+}
@@ -0,0 +1,101 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import hera.AbstractTestCase;
+import hera.api.function.Function2;
+import hera.api.model.BlockHeader;
+import hera.api.model.BlockMetadata;
+import hera.exception.RpcException;
+import hera.exception.RpcExceptionConverter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import org.junit.Test;
+
+public class BlockMetadataRangeIteratorTest extends AbstractTestCase {
+
+  // heights requested
+  protected final List<Long> requested = new CopyOnWriteArrayList<>();
+
+  // lists backward from a height like a server does
+  protected final Function2<Long, Integer, Future<List<BlockMetadata>>> listFunction =
+      new Function2<Long, Integer, Future<List<BlockMetadata>>>() {
+        @Override
+        public Future<List<BlockMetadata>> apply(final Long height, final Integer size) {
+          requested.add(height);
+          final List<BlockMetadata> blockMetadatas = new ArrayList<>();
+          for (long i = height; i > height - size && i >= 0L; --i) {
+            blockMetadatas.add(newBlockMetadata(i));
+          }
+          return HerajFutures.success(blockMetadatas);
+        }
+      };
+
+  protected BlockMetadata newBlockMetadata(final long height) {
+    return BlockMetadata.newBuilder()
+        .blockHeader(BlockHeader.newBuilder().blockNumber(height).build())
+        .build();
+  }
+
+  @Test
+  public void shouldDeliverInOrderPageByPage() {
+    final BlockMetadataRangeIterator iterator = new BlockMetadataRangeIterator(listFunction,
+        5L, 29L, 10, new RpcExceptionConverter());
+
+    long expected = 5L;
+    while (iterator.hasNext()) {
+      assertEquals(expected, iterator.next().getBlockHeader().getBlockNumber());
+      ++expected;
+    }
+    assertEquals(30L, expected);
+    assertEquals(3, requested.size());
+    assertEquals(14L, (long) requested.get(0));
+    assertEquals(24L, (long) requested.get(1));
+    assertEquals(29L, (long) requested.get(2));
+  }
+
+  @Test
+  public void shouldRequestLazily() {
+    final BlockMetadataRangeIterator iterator = new BlockMetadataRangeIterator(listFunction,
+        0L, 999L, 10, new RpcExceptionConverter());
+    assertEquals(0, requested.size());
+
+    iterator.next();
+    // a current page and a next one
+    assertEquals(2, requested.size());
+  }
+
+  @Test
+  public void shouldThrowFailureInOrder() {
+    final BlockMetadataRangeIterator iterator = new BlockMetadataRangeIterator(
+        new Function2<Long, Integer, Future<List<BlockMetadata>>>() {
+          @Override
+          public Future<List<BlockMetadata>> apply(final Long height, final Integer size) {
+            if (19L == height) {
+              throw new IllegalStateException("channel closed");
+            }
+            return listFunction.apply(height, size);
+          }
+        }, 0L, 29L, 10, new RpcExceptionConverter());
+
+    for (long height = 0L; height < 10L; ++height) {
+      assertEquals(height, iterator.next().getBlockHeader().getBlockNumber());
+    }
+    try {
+      iterator.hasNext();
+      fail();
+    } catch (RpcException e) {
+      // good we expected this
+    }
+    assertFalse(iterator.hasNext());
+  }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.common.util.concurrent.SettableFuture;
+import hera.AbstractTestCase;
+import hera.api.function.Function1;
+import hera.api.model.Block;
+import hera.api.model.BlockHeader;
+import hera.exception.RpcException;
+import hera.exception.RpcExceptionConverter;
+import io.grpc.Status;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import org.junit.Test;
+
+public class BlockRangeIteratorTest extends AbstractTestCase {
+
+  protected final Map<Long, SettableFuture<Block>> requested = new ConcurrentHashMap<>();
+
+  protected final Function1<Long, Future<Block>> blockFunction =
+      new Function1<Long, Future<Block>>() {
+        @Override
+        public Future<Block> apply(final Long height) {
+          final SettableFuture<Block> future = SettableFuture.create();
+          requested.put(height, future);
+          return future;
+        }
+      };
+
+  protected Block newBlock(final long height) {
+    return Block.newBuilder()
+        .blockHeader(BlockHeader.newBuilder().blockNumber(height).build())
+        .build();
+  }
+
+  protected void completeAll() {
+    for (final Map.Entry<Long, SettableFuture<Block>> entry : requested.entrySet()) {
+      entry.getValue().set(newBlock(entry.getKey()));
+    }
+  }
+
+  @Test
+  public void shouldDeliverInOrder() {
+    final BlockRangeIterator iterator =
+        new BlockRangeIterator(new Function1<Long, Future<Block>>() {
+          @Override
+          public Future<Block> apply(final Long height) {
+            return HerajFutures.success(newBlock(height));
+          }
+        }, 10L, 109L, 8, new RpcExceptionConverter());
+
+    long expected = 10L;
+    while (iterator.hasNext()) {
+      assertEquals(expected, iterator.next().getBlockNumber());
+      ++expected;
+    }
+    assertEquals(110L, expected);
+  }
+
+  @Test
+  public void shouldPrefetchWithBound() {
+    final BlockRangeIterator iterator =
+        new BlockRangeIterator(blockFunction, 0L, 99L, 4, new RpcExceptionConverter());
+
+    // complete later blocks first
+    requested.clear();
+    iterator.fill();
+    assertEquals(4, requested.size());
+    for (long height = 3L; height >= 0L; --height) {
+      requested.get(height).set(newBlock(height));
+    }
+    assertEquals(0L, iterator.next().getBlockNumber());
+    assertEquals(5, requested.size());
+    assertEquals(4, iterator.prefetched.size());
+  }
+
+  @Test
+  public void shouldThrowFailureOnItsTurn() {
+    final BlockRangeIterator iterator =
+        new BlockRangeIterator(blockFunction, 0L, 9L, 4, new RpcExceptionConverter());
+    iterator.fill();
+    requested.get(1L).setException(Status.UNAVAILABLE.asRuntimeException());
+    completeAll();
+
+    assertEquals(0L, iterator.next().getBlockNumber());
+    try {
+      iterator.next();
+      fail();
+    } catch (RpcException e) {
+      // good we expected this
+    }
+    assertTrue(!iterator.hasNext());
+    assertTrue(requested.get(3L).isDone());
+  }
+
+  @Test
+  public void shouldCancelOnClose() {
+    final BlockRangeIterator iterator =
+        new BlockRangeIterator(blockFunction, 0L, 9L, 4, new RpcExceptionConverter());
+    iterator.fill();
+
+    iterator.close();
+    for (final SettableFuture<Block> future : requested.values()) {
+      assertTrue(future.isCancelled());
+    }
+    try {
+      iterator.next();
+      fail();
+    } catch (NoSuchElementException e) {
+      // good we expected this
+    }
+  }
+
+}
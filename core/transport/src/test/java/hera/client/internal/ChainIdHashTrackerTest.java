@@ -0,0 +1,154 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.internal;
+
+import static java.util.UUID.randomUUID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import hera.AbstractTestCase;
+import hera.api.ChainIdHashHolder;
+import hera.api.function.Function0;
+import hera.api.function.Function1;
+import hera.api.model.BlockHeader;
+import hera.api.model.BlockMetadata;
+import hera.api.model.BlockchainStatus;
+import hera.api.model.BytesValue;
+import hera.api.model.ChainIdHash;
+import hera.api.model.StreamObserver;
+import hera.api.model.Subscription;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+
+public class ChainIdHashTrackerTest extends AbstractTestCase {
+
+  protected final AtomicReference<ChainIdHash> current =
+      new AtomicReference<>(new ChainIdHash(BytesValue.of(randomUUID().toString().getBytes())));
+
+  protected final AtomicInteger requested = new AtomicInteger(0);
+
+  protected final AtomicReference<StreamObserver<BlockMetadata>> observer =
+      new AtomicReference<>();
+
+  protected final AtomicInteger subscribed = new AtomicInteger(0);
+
+  protected final ChainIdHashHolder holder = new ChainIdHashHolder() {
+    protected volatile ChainIdHash cached;
+
+    @Override
+    public ChainIdHash getCachedChainIdHash() {
+      return cached;
+    }
+
+    @Override
+    public void cacheChainIdHash(final ChainIdHash chainIdHash) {
+      cached = chainIdHash;
+    }
+  };
+
+  protected final Function0<Future<BlockchainStatus>> statusFunction =
+      new Function0<Future<BlockchainStatus>>() {
+        @Override
+        public Future<BlockchainStatus> apply() {
+          requested.incrementAndGet();
+          return HerajFutures.success(
+              BlockchainStatus.newBuilder().chainIdHash(current.get()).build());
+        }
+      };
+
+  protected final Function1<StreamObserver<BlockMetadata>,
+      Future<Subscription<BlockMetadata>>> subscribeFunction =
+          new Function1<StreamObserver<BlockMetadata>, Future<Subscription<BlockMetadata>>>() {
+            @Override
+            public Future<Subscription<BlockMetadata>> apply(
+                final StreamObserver<BlockMetadata> streamObserver) {
+              subscribed.incrementAndGet();
+              observer.set(streamObserver);
+              return HerajFutures.<Subscription<BlockMetadata>>success(
+                  new Subscription<BlockMetadata>() {
+                    @Override
+                    public void unsubscribe() {}
+
+                    @Override
+                    public boolean isUnsubscribed() {
+                      return false;
+                    }
+
+                    @Override
+                    public int getQueueDepth() {
+                      return 0;
+                    }
+
+                    @Override
+                    public long getDropCount() {
+                      return 0L;
+                    }
+                  });
+            }
+          };
+
+  protected BlockMetadata newBlockMetadata(final String chainId) {
+    return BlockMetadata.newBuilder()
+        .blockHeader(BlockHeader.newBuilder().chainId(BytesValue.of(chainId.getBytes())).build())
+        .build();
+  }
+
+  @Test
+  public void shouldRefreshOnChainIdChange() {
+    final ChainIdHashTracker tracker = new ChainIdHashTracker(statusFunction, subscribeFunction,
+        holder, 1L, TimeUnit.MINUTES);
+    tracker.trackWithStream();
+    assertEquals(current.get(), holder.getCachedChainIdHash());
+
+    observer.get().onNext(newBlockMetadata("chain"));
+    observer.get().onNext(newBlockMetadata("chain"));
+    assertEquals(2, requested.get());
+
+    current.set(new ChainIdHash(BytesValue.of(randomUUID().toString().getBytes())));
+    observer.get().onNext(newBlockMetadata("forked"));
+    assertEquals(3, requested.get());
+    assertEquals(current.get(), holder.getCachedChainIdHash());
+    tracker.close();
+  }
+
+  @Test
+  public void shouldResubscribeOnStreamError() throws Exception {
+    final ChainIdHashTracker tracker = new ChainIdHashTracker(statusFunction, subscribeFunction,
+        holder, 10L, TimeUnit.MILLISECONDS);
+    tracker.trackWithStream();
+    observer.get().onError(new IllegalStateException());
+
+    final long deadline = System.currentTimeMillis() + 3000L;
+    while (subscribed.get() < 2 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10L);
+    }
+    assertEquals(2, subscribed.get());
+    tracker.close();
+  }
+
+  @Test
+  public void shouldRefreshWithPolling() throws Exception {
+    final ChainIdHashTracker tracker = new ChainIdHashTracker(statusFunction, subscribeFunction,
+        holder, 10L, TimeUnit.MILLISECONDS);
+    tracker.trackWithPolling();
+    current.set(new ChainIdHash(BytesValue.of(randomUUID().toString().getBytes())));
+
+    final long deadline = System.currentTimeMillis() + 3000L;
+    while (!current.get().equals(holder.getCachedChainIdHash())
+        && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10L);
+    }
+    assertEquals(current.get(), holder.getCachedChainIdHash());
+
+    tracker.close();
+    final int requestedOnClose = requested.get();
+    Thread.sleep(100L);
+    assertTrue(requested.get() <= requestedOnClose + 1);
+  }
+
+}
@@ -0,0 +1,149 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import hera.AbstractTestCase;
+import hera.api.function.Function1;
+import hera.api.model.Aer;
+import hera.api.model.BytesValue;
+import hera.api.model.RawTransaction;
+import hera.api.model.Transaction;
+import hera.api.model.TxCommitResult;
+import hera.api.model.TxHash;
+import hera.exception.RpcCommitException;
+import io.grpc.Status;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class CommitBatcherTest extends AbstractTestCase {
+
+  protected final List<List<Transaction>> requested = new CopyOnWriteArrayList<>();
+
+  protected Transaction newTransaction(final long nonce) {
+    final RawTransaction rawTransaction = RawTransaction.newBuilder()
+        .chainIdHash(chainIdHash)
+        .from(accountAddress)
+        .to(accountAddress)
+        .amount(Aer.ZERO)
+        .nonce(nonce)
+        .build();
+    return Transaction.newBuilder().rawTransaction(rawTransaction).build();
+  }
+
+  protected Function1<List<Transaction>, Future<List<TxCommitResult>>> batchCommitFunction(
+      final long rejectedNonce) {
+    return new Function1<List<Transaction>, Future<List<TxCommitResult>>>() {
+      @Override
+      public Future<List<TxCommitResult>> apply(final List<Transaction> transactions) {
+        requested.add(transactions);
+        final List<TxCommitResult> results = new ArrayList<>();
+        for (final Transaction transaction : transactions) {
+          final boolean rejected = rejectedNonce == transaction.getNonce().longValue();
+          results.add(TxCommitResult.newBuilder()
+              .txHash(new TxHash(BytesValue.of(new byte[] {transaction.getNonce().byteValue()})))
+              .status(rejected ? TxCommitResult.Status.NONCE_TOO_LOW : TxCommitResult.Status.OK)
+              .build());
+        }
+        return HerajFutures.success(results);
+      }
+    };
+  }
+
+  @Test
+  public void shouldSendOnFull() throws Exception {
+    final CommitBatcher batcher =
+        new CommitBatcher(batchCommitFunction(-1L), 3, 1L, TimeUnit.MINUTES);
+
+    final List<Future<TxHash>> futures = new ArrayList<>();
+    for (int i = 0; i < 3; ++i) {
+      futures.add(batcher.commit(newTransaction(i)));
+    }
+
+    for (final Future<TxHash> future : futures) {
+      assertNotNull(future.get(1L, TimeUnit.SECONDS));
+    }
+    assertEquals(1, requested.size());
+    assertEquals(3, requested.get(0).size());
+    for (int i = 0; i < 3; ++i) {
+      assertEquals(i, requested.get(0).get(i).getNonce().longValue());
+    }
+  }
+
+  @Test
+  public void shouldSendAfterWindow() throws Exception {
+    final CommitBatcher batcher =
+        new CommitBatcher(batchCommitFunction(-1L), 100, 50L, TimeUnit.MILLISECONDS);
+
+    final Future<TxHash> first = batcher.commit(newTransaction(1L));
+    final Future<TxHash> second = batcher.commit(newTransaction(2L));
+    assertTrue(!first.isDone());
+
+    assertNotNull(first.get(1L, TimeUnit.SECONDS));
+    assertNotNull(second.get(1L, TimeUnit.SECONDS));
+    assertEquals(1, requested.size());
+  }
+
+  @Test
+  public void shouldFailRejectedOnly() throws Exception {
+    final CommitBatcher batcher =
+        new CommitBatcher(batchCommitFunction(2L), 2, 1L, TimeUnit.MINUTES);
+
+    final Future<TxHash> accepted = batcher.commit(newTransaction(1L));
+    final Future<TxHash> rejected = batcher.commit(newTransaction(2L));
+
+    assertNotNull(accepted.get(1L, TimeUnit.SECONDS));
+    try {
+      rejected.get(1L, TimeUnit.SECONDS);
+      fail();
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof RpcCommitException);
+      assertEquals(RpcCommitException.CommitStatus.NONCE_TOO_LOW,
+          ((RpcCommitException) e.getCause()).getCommitStatus());
+    }
+  }
+
+  @Test
+  public void shouldFailAllOnRequestFailure() throws Exception {
+    final CommitBatcher batcher = new CommitBatcher(
+        new Function1<List<Transaction>, Future<List<TxCommitResult>>>() {
+          @Override
+          public Future<List<TxCommitResult>> apply(final List<Transaction> transactions) {
+            return HerajFutures.fail(Status.UNAVAILABLE.asRuntimeException());
+          }
+        }, 2, 1L, TimeUnit.MINUTES);
+
+    final Future<TxHash> first = batcher.commit(newTransaction(1L));
+    final Future<TxHash> second = batcher.commit(newTransaction(2L));
+    for (final Future<TxHash> future : new Future[] {first, second}) {
+      try {
+        future.get(1L, TimeUnit.SECONDS);
+        fail();
+      } catch (ExecutionException e) {
+        // good we expected this
+      }
+    }
+  }
+
+  @Test
+  public void testFlush() throws Exception {
+    final CommitBatcher batcher =
+        new CommitBatcher(batchCommitFunction(-1L), 100, 1L, TimeUnit.MINUTES);
+
+    final Future<TxHash> future = batcher.commit(newTransaction(1L));
+    batcher.flush();
+    assertNotNull(future.get(1L, TimeUnit.SECONDS));
+  }
+
+}
@@ -5,11 +5,14 @@
 package hera.client.internal;
 
 import static hera.api.model.BytesValue.of;
+import static hera.client.ClientConstants.CONTRACT_INTERFACE_CACHE;
 import static hera.util.TransportUtils.copyFrom;
 import static java.util.UUID.randomUUID;
 import static org.junit.Assert.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.powermock.api.mockito.PowerMockito.when;
 
 import com.google.common.util.concurrent.ListenableFuture;
@@ -43,6 +46,7 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.Future;
 import org.junit.Test;
 import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.reactivestreams.Publisher;
 import types.AergoRPCServiceGrpc.AergoRPCServiceFutureStub;
 import types.AergoRPCServiceGrpc.AergoRPCServiceStub;
 import types.Blockchain;
@@ -178,6 +182,45 @@ public class ContractBaseTemplateTest extends AbstractTestCase {
     assertNotNull(contractInterface.get());
   }
 
+  @Test
+  public void testGetContractInterfaceWithCache() throws Exception {
+    final AergoRPCServiceFutureStub futureService = mock(AergoRPCServiceFutureStub.class);
+    ListenableFuture<Blockchain.ABI> mockListenableFuture =
+        service.submit(new Callable<Blockchain.ABI>() {
+          @Override
+          public Blockchain.ABI call() throws Exception {
+            return Blockchain.ABI.newBuilder().build();
+          }
+        });
+    when(futureService.getABI(any(Rpc.SingleBytes.class))).thenReturn(mockListenableFuture);
+    final Future<TxHash> future =
+        HerajFutures.success(new TxHash(BytesValue.of(randomUUID().toString().getBytes())));
+    TransactionBaseTemplate mockTransactionBaseTemplate = mock(TransactionBaseTemplate.class);
+    when(mockTransactionBaseTemplate.getCommitFunction())
+        .thenReturn(new Function1<Transaction, Future<TxHash>>() {
+          @Override
+          public Future<TxHash> apply(Transaction t) {
+            return future;
+          }
+        });
+
+    final ContractBaseTemplate contractBaseTemplate = supplyContractBaseTemplate(futureService);
+    contractBaseTemplate.transactionBaseTemplate = mockTransactionBaseTemplate;
+    contractBaseTemplate.contextProvider.put(context.withKeyValue(CONTRACT_INTERFACE_CACHE, "true"));
+
+    assertNotNull(contractBaseTemplate.getContractInterfaceFunction().apply(contractAddress).get());
+    assertNotNull(contractBaseTemplate.getContractInterfaceFunction().apply(contractAddress).get());
+    verify(futureService, times(1)).getABI(any(Rpc.SingleBytes.class));
+
+    // re-deploy invalidates a cached one
+    contractBaseTemplate.getReDeployFunction()
+        .apply(new AergoKeyGenerator().create(), contractAddress,
+            ContractDefinition.newBuilder().encodedContract(encodedContract).build(), 0L, fee)
+        .get();
+    assertNotNull(contractBaseTemplate.getContractInterfaceFunction().apply(contractAddress).get());
+    verify(futureService, times(2)).getABI(any(Rpc.SingleBytes.class));
+  }
+
   @Test
   public void testExecute() throws Exception {
     final AergoRPCServiceFutureStub futureService = mock(AergoRPCServiceFutureStub.class);
@@ -259,4 +302,15 @@ public class ContractBaseTemplateTest extends AbstractTestCase {
     assertNotNull(subscription);
   }
 
+  @Test
+  public void testEventPublisher() {
+    final AergoRPCServiceStub streamService = mock(AergoRPCServiceStub.class);
+    final ContractBaseTemplate contractBaseTemplate = supplyContractBaseTemplate(streamService);
+
+    final EventFilter eventFilter = EventFilter.newBuilder(contractAddress).build();
+    final Publisher<Event> publisher =
+        contractBaseTemplate.getEventPublisherFunction().apply(eventFilter);
+    assertNotNull(publisher);
+  }
+
 }
@@ -0,0 +1,92 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.internal;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import hera.AbstractTestCase;
+import hera.api.model.ContractAddress;
+import hera.api.model.ContractFunction;
+import hera.api.model.ContractInterface;
+import hera.api.model.StateVariable;
+import hera.key.AergoKeyGenerator;
+import java.util.ArrayList;
+import org.junit.Test;
+
+public class ContractInterfaceCacheTest extends AbstractTestCase {
+
+  protected ContractInterface newContractInterface(final ContractAddress contractAddress) {
+    return new ContractInterface(contractAddress, "v1", "lua",
+        asList(new ContractFunction("get", asList("key"), false, true, false)),
+        new ArrayList<StateVariable>());
+  }
+
+  protected ContractAddress newContractAddress() {
+    return new AergoKeyGenerator().create().getAddress().adapt(ContractAddress.class);
+  }
+
+  @Test
+  public void shouldCacheAndInvalidate() {
+    final ContractInterfaceCache cache = new ContractInterfaceCache(10);
+    assertNull(cache.get(chainIdHash, contractAddress));
+
+    cache.put(chainIdHash, newContractInterface(contractAddress), false);
+    assertNotNull(cache.get(chainIdHash, contractAddress));
+
+    cache.invalidate(chainIdHash, contractAddress);
+    assertNull(cache.get(chainIdHash, contractAddress));
+    assertEquals(2L, cache.getMissCount());
+    assertEquals(1L, cache.getHitCount());
+  }
+
+  @Test
+  public void shouldNotCacheWhileRedeploying() {
+    final ContractInterfaceCache cache = new ContractInterfaceCache(10);
+    cache.put(chainIdHash, newContractInterface(contractAddress), false);
+    final long generation = cache.getGeneration();
+
+    cache.beginRedeploy(chainIdHash, contractAddress);
+    assertNull(cache.get(chainIdHash, contractAddress));
+    cache.put(chainIdHash, newContractInterface(contractAddress), false, cache.getGeneration());
+    assertNull(cache.get(chainIdHash, contractAddress));
+
+    // fetched before a redeployment is confirmed
+    cache.endRedeploy(chainIdHash, contractAddress);
+    cache.put(chainIdHash, newContractInterface(contractAddress), false, generation);
+    assertNull(cache.get(chainIdHash, contractAddress));
+
+    cache.put(chainIdHash, newContractInterface(contractAddress), false, cache.getGeneration());
+    assertNotNull(cache.get(chainIdHash, contractAddress));
+  }
+
+  @Test
+  public void shouldBeBounded() {
+    final ContractInterfaceCache cache = new ContractInterfaceCache(2);
+    final ContractAddress first = newContractAddress();
+    cache.put(chainIdHash, newContractInterface(first), false);
+    cache.put(chainIdHash, newContractInterface(newContractAddress()), false);
+    cache.put(chainIdHash, newContractInterface(newContractAddress()), false);
+    assertEquals(2, cache.size());
+    assertNull(cache.get(chainIdHash, first));
+  }
+
+  @Test
+  public void shouldDeduplicateIdenticalAbi() {
+    final ContractInterfaceCache cache = new ContractInterfaceCache(10);
+    final ContractAddress other = newContractAddress();
+    final ContractInterface first =
+        cache.put(chainIdHash, newContractInterface(contractAddress), true);
+    final ContractInterface second = cache.put(chainIdHash, newContractInterface(other), true);
+
+    assertEquals(other, second.getAddress());
+    assertSame(first.getFunctions().get(0), second.getFunctions().get(0));
+    assertEquals(second, cache.get(chainIdHash, other));
+  }
+
+}
@@ -0,0 +1,247 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.internal;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+import com.google.common.util.concurrent.SettableFuture;
+import hera.AbstractTestCase;
+import hera.api.function.Function2;
+import hera.api.model.BigNumber;
+import hera.api.model.ContractAddress;
+import hera.api.model.Event;
+import hera.api.model.EventFilter;
+import hera.api.model.StreamObserver;
+import hera.api.model.Subscription;
+import hera.key.AergoKeyGenerator;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class EventHubTest extends AbstractTestCase {
+
+  protected final Map<ContractAddress, StreamObserver<Event>> upstreams =
+      new ConcurrentHashMap<>();
+
+  protected final AtomicInteger subscribed = new AtomicInteger(0);
+
+  protected final AtomicInteger unsubscribed = new AtomicInteger(0);
+
+  protected final Function2<EventFilter, StreamObserver<Event>,
+      Future<Subscription<Event>>> subscribeFunction = new Function2<EventFilter,
+          StreamObserver<Event>, Future<Subscription<Event>>>() {
+        @Override
+        public Future<Subscription<Event>> apply(final EventFilter filter,
+            final StreamObserver<Event> observer) {
+          subscribed.incrementAndGet();
+          upstreams.put(filter.getContractAddress(), observer);
+          return HerajFutures.<Subscription<Event>>success(new Subscription<Event>() {
+            protected final AtomicBoolean closed = new AtomicBoolean(false);
+
+            @Override
+            public void unsubscribe() {
+              if (closed.compareAndSet(false, true)) {
+                unsubscribed.incrementAndGet();
+              }
+            }
+
+            @Override
+            public boolean isUnsubscribed() {
+              return closed.get();
+            }
+
+            @Override
+            public int getQueueDepth() {
+              return 0;
+            }
+
+            @Override
+            public long getDropCount() {
+              return 0L;
+            }
+          });
+        }
+      };
+
+  protected class RecordingObserver implements StreamObserver<Event> {
+
+    protected final List<Event> received = new CopyOnWriteArrayList<>();
+
+    protected final AtomicBoolean failed = new AtomicBoolean(false);
+
+    @Override
+    public void onNext(final Event event) {
+      received.add(event);
+    }
+
+    @Override
+    public void onError(final Throwable t) {
+      failed.set(true);
+    }
+
+    @Override
+    public void onCompleted() {}
+  }
+
+  protected Event newEvent(final ContractAddress from, final String name, final Object... args) {
+    return Event.newBuilder().from(from).name(name).args(asList(args)).build();
+  }
+
+  @Test
+  public void shouldShareUpstreamAndMatchOnClient() throws Exception {
+    final EventHub eventHub = new EventHub(subscribeFunction);
+    final RecordingObserver any = new RecordingObserver();
+    final RecordingObserver named = new RecordingObserver();
+    final RecordingObserver withArgs = new RecordingObserver();
+    eventHub.subscribe(EventFilter.newBuilder(contractAddress).build(), any);
+    eventHub.subscribe(EventFilter.newBuilder(contractAddress).eventName("transfer").build(),
+        named);
+    eventHub.subscribe(EventFilter.newBuilder(contractAddress).eventName("transfer")
+        .args("alice", 10).build(), withArgs);
+    assertEquals(1, subscribed.get());
+    assertEquals(1, eventHub.getUpstreamCount());
+
+    final StreamObserver<Event> upstream = upstreams.get(contractAddress);
+    upstream.onNext(newEvent(contractAddress, "approve", "alice", 10));
+    upstream.onNext(newEvent(contractAddress, "transfer", "bob", 10));
+    upstream.onNext(newEvent(contractAddress, "transfer", "alice", new BigDecimal("10.0"), 1));
+
+    assertEquals(3, any.received.size());
+    assertEquals(2, named.received.size());
+    assertEquals(1, withArgs.received.size());
+  }
+
+  @Test
+  public void shouldCloseUpstreamOnLastUnsubscribe() throws Exception {
+    final EventHub eventHub = new EventHub(subscribeFunction);
+    final Subscription<Event> first =
+        eventHub.subscribe(EventFilter.newBuilder(contractAddress).build(),
+            new RecordingObserver());
+    final Subscription<Event> second =
+        eventHub.subscribe(EventFilter.newBuilder(contractAddress).build(),
+            new RecordingObserver());
+
+    first.unsubscribe();
+    assertEquals(0, unsubscribed.get());
+    second.unsubscribe();
+    assertEquals(1, unsubscribed.get());
+    assertEquals(0, eventHub.getUpstreamCount());
+
+    // a new listener opens a new upstream
+    eventHub.subscribe(EventFilter.newBuilder(contractAddress).build(), new RecordingObserver());
+    assertEquals(2, subscribed.get());
+  }
+
+  @Test
+  public void shouldFailListenersOfFailedUpstreamOnly() throws Exception {
+    final ContractAddress other =
+        new AergoKeyGenerator().create().getAddress().adapt(ContractAddress.class);
+    final EventHub eventHub = new EventHub(subscribeFunction);
+    final RecordingObserver failing = new RecordingObserver();
+    final RecordingObserver alive = new RecordingObserver();
+    final Subscription<Event> subscription =
+        eventHub.subscribe(EventFilter.newBuilder(contractAddress).build(), failing);
+    eventHub.subscribe(EventFilter.newBuilder(other).build(), alive);
+    assertEquals(2, eventHub.getUpstreamCount());
+
+    upstreams.get(contractAddress).onError(new IllegalStateException());
+    assertTrue(failing.failed.get());
+    assertTrue(subscription.isUnsubscribed());
+    assertFalse(alive.failed.get());
+    assertEquals(1, eventHub.getUpstreamCount());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldNotBlockOtherContractsWhileOpening() throws Exception {
+    final ContractAddress other =
+        new AergoKeyGenerator().create().getAddress().adapt(ContractAddress.class);
+    final SettableFuture<Subscription<Event>> opening = SettableFuture.create();
+    final EventHub eventHub = new EventHub(new Function2<EventFilter, StreamObserver<Event>,
+        Future<Subscription<Event>>>() {
+      @Override
+      public Future<Subscription<Event>> apply(final EventFilter filter,
+          final StreamObserver<Event> observer) {
+        if (contractAddress.equals(filter.getContractAddress())) {
+          upstreams.put(contractAddress, observer);
+          return opening;
+        }
+        return subscribeFunction.apply(filter, observer);
+      }
+    });
+    final ExecutorService executor = Executors.newCachedThreadPool();
+    final Callable<Subscription<Event>> subscribing = new Callable<Subscription<Event>>() {
+      @Override
+      public Subscription<Event> call() throws Exception {
+        return eventHub.subscribe(EventFilter.newBuilder(contractAddress).build(),
+            new RecordingObserver());
+      }
+    };
+    final Future<Subscription<Event>> first = executor.submit(subscribing);
+    final Future<Subscription<Event>> second = executor.submit(subscribing);
+
+    final RecordingObserver failing = new RecordingObserver();
+    eventHub.subscribe(EventFilter.newBuilder(other).build(), failing);
+    upstreams.get(other).onError(new IllegalStateException());
+    assertTrue(failing.failed.get());
+    assertFalse(first.isDone());
+    assertFalse(second.isDone());
+
+    opening.set(mock(Subscription.class));
+    assertFalse(first.get(5L, TimeUnit.SECONDS).isUnsubscribed());
+    assertFalse(second.get(5L, TimeUnit.SECONDS).isUnsubscribed());
+    assertEquals(1, eventHub.getUpstreamCount());
+    executor.shutdown();
+  }
+
+  @Test
+  public void shouldThrowOnOpeningFailure() throws Exception {
+    final EventHub eventHub = new EventHub(new Function2<EventFilter, StreamObserver<Event>,
+        Future<Subscription<Event>>>() {
+      @Override
+      public Future<Subscription<Event>> apply(final EventFilter filter,
+          final StreamObserver<Event> observer) {
+        return HerajFutures.fail(new IllegalStateException("connection refused"));
+      }
+    });
+    final RecordingObserver observer = new RecordingObserver();
+    try {
+      eventHub.subscribe(EventFilter.newBuilder(contractAddress).build(), observer);
+      fail();
+    } catch (Exception e) {
+      // good we expected this
+    }
+    assertFalse(observer.failed.get());
+    assertEquals(0, eventHub.getUpstreamCount());
+  }
+
+  @Test
+  public void testMatcher() {
+    final EventHub.Matcher matcher = new EventHub.Matcher(EventFilter.newBuilder(contractAddress)
+        .args(new BigNumber("100"), 1L, true, null).build());
+    assertTrue(matcher.matches(newEvent(contractAddress, "any", new BigNumber("100"), 1, true,
+        null)));
+    assertFalse(matcher.matches(newEvent(contractAddress, "any", new BigNumber("100"), 1, true)));
+    assertFalse(matcher.matches(newEvent(contractAddress, "any", new BigNumber("100"), 2, true,
+        null)));
+    assertFalse(matcher.matches(newEvent(contractAddress, "any", "100", 1, true, null)));
+  }
+
+}
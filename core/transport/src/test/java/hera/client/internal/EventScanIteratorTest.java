@@ -0,0 +1,149 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.common.util.concurrent.SettableFuture;
+import hera.AbstractTestCase;
+import hera.api.function.Function1;
+import hera.api.model.Event;
+import hera.api.model.EventFilter;
+import hera.exception.RpcException;
+import hera.exception.RpcExceptionConverter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class EventScanIteratorTest extends AbstractTestCase {
+
+  protected final List<EventFilter> requested = new CopyOnWriteArrayList<>();
+
+  // a server failing on a range wider than a limit; two events per block, in reverse order
+  protected Function1<EventFilter, Future<List<Event>>> supplyFunction(final long rangeLimit) {
+    return new Function1<EventFilter, Future<List<Event>>>() {
+      @Override
+      public Future<List<Event>> apply(final EventFilter filter) {
+        requested.add(filter);
+        if (filter.getToBlockNumber() - filter.getFromBlockNumber() + 1 > rangeLimit) {
+          return HerajFutures.fail(new IllegalStateException("Too many results"));
+        }
+        final List<Event> events = new ArrayList<>();
+        for (long height = filter.getToBlockNumber(); height >= filter.getFromBlockNumber();
+            --height) {
+          events.add(newEvent(height, 1));
+          events.add(newEvent(height, 0));
+        }
+        return HerajFutures.success(events);
+      }
+    };
+  }
+
+  protected Event newEvent(final long height, final int index) {
+    return Event.newBuilder().from(contractAddress).blockNumber(height).index(index).build();
+  }
+
+  protected EventFilter newFilter(final long from, final long to, final boolean decending) {
+    return EventFilter.newBuilder(contractAddress).fromBlockNumber(from).toBlockNumber(to)
+        .decending(decending).build();
+  }
+
+  @Test
+  public void shouldDeliverInOrder() {
+    final EventScanIterator iterator = new EventScanIterator(supplyFunction(100L),
+        newFilter(10L, 59L, false), 7, 3, 0, new RpcExceptionConverter());
+    long expectedHeight = 10L;
+    int expectedIndex = 0;
+    while (iterator.hasNext()) {
+      final Event event = iterator.next();
+      assertEquals(expectedHeight, event.getBlockNumber());
+      assertEquals(expectedIndex, event.getIndex());
+      expectedHeight += expectedIndex;
+      expectedIndex = 1 - expectedIndex;
+    }
+    assertEquals(60L, expectedHeight);
+    assertEquals(8, requested.size());
+  }
+
+  @Test
+  public void shouldDeliverInDescendingOrder() {
+    final EventScanIterator iterator = new EventScanIterator(supplyFunction(100L),
+        newFilter(0L, 20L, true), 4, 2, 0, new RpcExceptionConverter());
+    long expectedHeight = 20L;
+    int expectedIndex = 1;
+    while (iterator.hasNext()) {
+      final Event event = iterator.next();
+      assertEquals(expectedHeight, event.getBlockNumber());
+      assertEquals(expectedIndex, event.getIndex());
+      expectedHeight -= (1 - expectedIndex);
+      expectedIndex = 1 - expectedIndex;
+    }
+    assertEquals(-1L, expectedHeight);
+    assertTrue(requested.get(0).isDecending());
+  }
+
+  @Test
+  public void shouldHalveOversizedChunk() {
+    final EventScanIterator iterator = new EventScanIterator(supplyFunction(3L),
+        newFilter(0L, 99L, false), 16, 2, 0, new RpcExceptionConverter());
+    int count = 0;
+    long lastHeight = -1L;
+    while (iterator.hasNext()) {
+      final Event event = iterator.next();
+      assertTrue(lastHeight <= event.getBlockNumber());
+      lastHeight = event.getBlockNumber();
+      ++count;
+    }
+    assertEquals(200, count);
+    assertEquals(3, iterator.chunkSize);
+  }
+
+  @Test
+  public void shouldBoundParallelism() {
+    final List<SettableFuture<List<Event>>> futures = new CopyOnWriteArrayList<>();
+    final EventScanIterator iterator = new EventScanIterator(
+        new Function1<EventFilter, Future<List<Event>>>() {
+          @Override
+          public Future<List<Event>> apply(final EventFilter filter) {
+            final SettableFuture<List<Event>> future = SettableFuture.create();
+            futures.add(future);
+            return future;
+          }
+        }, newFilter(0L, 999L, false), 10, 4, 0, new RpcExceptionConverter());
+    iterator.fill();
+    assertEquals(4, futures.size());
+    iterator.close();
+    assertTrue(futures.get(0).isCancelled());
+    assertFalse(iterator.hasNext());
+  }
+
+  @Test
+  public void shouldThrowAfterRetryingSingleBlock() {
+    final AtomicInteger count = new AtomicInteger(0);
+    final EventScanIterator iterator = new EventScanIterator(
+        new Function1<EventFilter, Future<List<Event>>>() {
+          @Override
+          public Future<List<Event>> apply(final EventFilter filter) {
+            count.incrementAndGet();
+            throw new IllegalStateException();
+          }
+        }, newFilter(5L, 5L, false), 10, 4, 2, new RpcExceptionConverter());
+    try {
+      iterator.hasNext();
+      fail();
+    } catch (RpcException e) {
+      // good we expected this
+    }
+    assertEquals(3, count.get());
+    assertFalse(iterator.hasNext());
+  }
+
+}
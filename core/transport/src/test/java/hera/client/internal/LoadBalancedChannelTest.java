@@ -0,0 +1,170 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.internal;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import hera.AbstractTestCase;
+import hera.client.internal.LoadBalancedChannel.Endpoint;
+import io.grpc.CallOptions;
+import io.grpc.ClientCall;
+import io.grpc.Context;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.Status;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import types.AergoRPCServiceGrpc;
+
+public class LoadBalancedChannelTest extends AbstractTestCase {
+
+  @SuppressWarnings("unchecked")
+  protected Endpoint mockEndpoint(final String name) {
+    final ManagedChannel channel = mock(ManagedChannel.class);
+    when(channel.newCall(any(), any())).thenReturn(mock(ClientCall.class));
+    return new Endpoint(name, channel);
+  }
+
+  @Test
+  public void testPreferLowerLatency() {
+    final Endpoint slow = mockEndpoint("slow");
+    final Endpoint fast = mockEndpoint("fast");
+    slow.record(TimeUnit.MILLISECONDS.toNanos(100L));
+    fast.record(TimeUnit.MILLISECONDS.toNanos(1L));
+    final LoadBalancedChannel channel =
+        new LoadBalancedChannel(asList(slow, fast), 1L, TimeUnit.MINUTES);
+
+    for (int i = 0; i < 10; ++i) {
+      assertEquals(fast, channel.choose(AergoRPCServiceGrpc.getGetBlockMethod()));
+    }
+  }
+
+  @Test
+  public void testPreferLessInFlight() {
+    final Endpoint busy = mockEndpoint("busy");
+    final Endpoint idle = mockEndpoint("idle");
+    busy.inFlight.set(10);
+    final LoadBalancedChannel channel =
+        new LoadBalancedChannel(asList(busy, idle), 1L, TimeUnit.MINUTES);
+
+    assertEquals(idle, channel.choose(AergoRPCServiceGrpc.getGetBlockMethod()));
+  }
+
+  @Test
+  public void testPinCommit() {
+    final Endpoint first = mockEndpoint("first");
+    final Endpoint second = mockEndpoint("second");
+    first.record(TimeUnit.MILLISECONDS.toNanos(100L));
+    second.record(TimeUnit.MILLISECONDS.toNanos(1L));
+    final LoadBalancedChannel channel =
+        new LoadBalancedChannel(asList(first, second), 1L, TimeUnit.MINUTES);
+
+    assertEquals(first, channel.choose(AergoRPCServiceGrpc.getCommitTXMethod()));
+  }
+
+  @Test
+  public void testAvoidRoutedEndpoint() {
+    final Endpoint fast = mockEndpoint("fast");
+    final Endpoint slow = mockEndpoint("slow");
+    fast.record(TimeUnit.MILLISECONDS.toNanos(1L));
+    slow.record(TimeUnit.MILLISECONDS.toNanos(100L));
+    final LoadBalancedChannel channel =
+        new LoadBalancedChannel(asList(fast, slow), 1L, TimeUnit.MINUTES);
+
+    final Set<String> routed = new HashSet<>();
+    final Context context = Context.current()
+        .withValue(LoadBalancedChannel.ROUTED_ENDPOINTS, routed);
+    final Context previous = context.attach();
+    try {
+      channel.newCall(AergoRPCServiceGrpc.getGetBlockMethod(), CallOptions.DEFAULT);
+      channel.newCall(AergoRPCServiceGrpc.getGetBlockMethod(), CallOptions.DEFAULT);
+    } finally {
+      context.detach(previous);
+    }
+    assertEquals(2, routed.size());
+    // every endpoint is routed, choose by cost
+    assertEquals(fast, channel.choose(AergoRPCServiceGrpc.getGetBlockMethod(), routed));
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void testEjectOnUnavailable() {
+    final Endpoint first = mockEndpoint("first");
+    final Endpoint second = mockEndpoint("second");
+    second.record(TimeUnit.MILLISECONDS.toNanos(100L));
+    final LoadBalancedChannel channel =
+        new LoadBalancedChannel(asList(first, second), 1L, TimeUnit.MINUTES);
+
+    final ClientCall<?, ?> call =
+        channel.newCall(AergoRPCServiceGrpc.getGetBlockMethod(), CallOptions.DEFAULT);
+    call.start(mock(ClientCall.Listener.class), new Metadata());
+    assertEquals(1, first.getInFlight());
+
+    final ArgumentCaptor<ClientCall.Listener> captor =
+        ArgumentCaptor.forClass(ClientCall.Listener.class);
+    final ClientCall<?, ?> delegate = first.getChannel().newCall(null, null);
+    verify(delegate).start(captor.capture(), any(Metadata.class));
+    captor.getValue().onClose(Status.UNAVAILABLE, new Metadata());
+
+    assertEquals(0, first.getInFlight());
+    assertTrue(first.isEjected(System.nanoTime()));
+    for (int i = 0; i < 10; ++i) {
+      assertEquals(second, channel.choose(AergoRPCServiceGrpc.getGetBlockMethod()));
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void testRecordLatency() {
+    final Endpoint endpoint = mockEndpoint("endpoint");
+    final LoadBalancedChannel channel =
+        new LoadBalancedChannel(asList(endpoint), 1L, TimeUnit.MINUTES);
+
+    final ClientCall<?, ?> call =
+        channel.newCall(AergoRPCServiceGrpc.getGetBlockMethod(), CallOptions.DEFAULT);
+    call.start(mock(ClientCall.Listener.class), new Metadata());
+    final ArgumentCaptor<ClientCall.Listener> captor =
+        ArgumentCaptor.forClass(ClientCall.Listener.class);
+    final ClientCall<?, ?> delegate = endpoint.getChannel().newCall(null, null);
+    verify(delegate).start(captor.capture(), any(Metadata.class));
+    captor.getValue().onClose(Status.OK, new Metadata());
+
+    assertNotEquals(0.0d, endpoint.getLatency(), 0.0d);
+  }
+
+  @Test
+  public void testFactoryWithMultipleEndpoints() {
+    final ManagedChannel channel = new ManagedChannelFactory()
+        .apply(context.withKeyValue("endpoint", "localhost:7845, localhost:8845"));
+    try {
+      assertTrue(channel instanceof LoadBalancedChannel);
+      assertEquals(2, ((LoadBalancedChannel) channel).getEndpoints().size());
+    } finally {
+      channel.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testFactoryWithSingleEndpoint() {
+    final ManagedChannel channel = new ManagedChannelFactory()
+        .apply(context.withKeyValue("endpoint", "localhost:7845"));
+    try {
+      assertTrue(!(channel instanceof LoadBalancedChannel));
+    } finally {
+      channel.shutdownNow();
+    }
+  }
+
+}
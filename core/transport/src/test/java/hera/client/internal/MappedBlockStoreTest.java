@@ -0,0 +1,199 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.internal;
+
+import static java.util.UUID.randomUUID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.protobuf.ByteString;
+import hera.AbstractTestCase;
+import hera.api.function.Function0;
+import hera.api.model.Block;
+import hera.api.model.BlockchainStatus;
+import hera.api.model.BytesValue;
+import hera.api.model.Transaction;
+import hera.api.model.TxHash;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import types.Blockchain;
+
+public class MappedBlockStoreTest extends AbstractTestCase {
+
+  protected Function0<Future<BlockchainStatus>> statusFunction(final long libNo) {
+    return new Function0<Future<BlockchainStatus>>() {
+      @Override
+      public Future<BlockchainStatus> apply() {
+        return HerajFutures.success(BlockchainStatus.newBuilder()
+            .bestHeight(libNo + 10L)
+            .consensus("{\"Type\":\"dpos\",\"Status\":{\"LibNo\":" + libNo + "}}")
+            .build());
+      }
+    };
+  }
+
+  protected MappedBlockStore open(final Path directory, final int segmentSize) {
+    final MappedBlockStore blockStore = new MappedBlockStore(directory, segmentSize,
+        statusFunction(1000L), 0L, TimeUnit.MILLISECONDS);
+    // refresh finality once
+    blockStore.put(newBlock(Long.MAX_VALUE, 0));
+    return blockStore;
+  }
+
+  protected ByteString randomHash() {
+    return ByteString.copyFrom(BytesValue.of(randomUUID().toString().getBytes()).getValue(), 0,
+        32);
+  }
+
+  protected Blockchain.Block newBlock(final long height, final int txCount) {
+    final Blockchain.BlockBody.Builder body = Blockchain.BlockBody.newBuilder();
+    for (int i = 0; i < txCount; ++i) {
+      body.addTxs(Blockchain.Tx.newBuilder()
+          .setHash(randomHash())
+          .setBody(Blockchain.TxBody.newBuilder().setNonce(i + 1L).build())
+          .build());
+    }
+    return Blockchain.Block.newBuilder()
+        .setHash(randomHash())
+        .setHeader(Blockchain.BlockHeader.newBuilder().setBlockNo(height).build())
+        .setBody(body)
+        .build();
+  }
+
+  protected TxHash txHashOf(final Blockchain.Block rpcBlock, final int index) {
+    return new TxHash(BytesValue.of(rpcBlock.getBody().getTxs(index).getHash().toByteArray()));
+  }
+
+  @Test
+  public void shouldStoreOnlyFinalBlock() throws Exception {
+    final MappedBlockStore blockStore = new MappedBlockStore(
+        Files.createTempDirectory("heraj-store"), 4096, statusFunction(10L), 0L,
+        TimeUnit.MILLISECONDS);
+
+    // not final yet, but it triggers finality refresh
+    assertFalse(blockStore.put(newBlock(5L, 1)));
+    assertEquals(10L, blockStore.getLastIrreversibleHeight());
+
+    final Blockchain.Block rpcBlock = newBlock(5L, 1);
+    assertTrue(blockStore.put(rpcBlock));
+    assertFalse(blockStore.put(newBlock(5L, 1)));
+    assertFalse(blockStore.put(newBlock(11L, 1)));
+
+    final Block stored = blockStore.getBlock(5L);
+    assertNotNull(stored);
+    assertEquals(5L, stored.getBlockNumber());
+    assertEquals(BytesValue.of(rpcBlock.getHash().toByteArray()),
+        stored.getHash().getBytesValue());
+    assertNull(blockStore.getBlock(11L));
+    assertEquals(1L, blockStore.getStats().getBlockCount());
+    blockStore.close();
+  }
+
+  @Test
+  public void shouldFindTransactionByHash() throws Exception {
+    final MappedBlockStore blockStore = open(Files.createTempDirectory("heraj-store"), 4096);
+    Blockchain.Block target = null;
+    for (long height = 0L; height < 10L; ++height) {
+      final Blockchain.Block rpcBlock = newBlock(height, 3);
+      assertTrue(blockStore.put(rpcBlock));
+      if (4L == height) {
+        target = rpcBlock;
+      }
+    }
+
+    final Transaction transaction = blockStore.getTransaction(txHashOf(target, 2));
+    assertNotNull(transaction);
+    assertEquals(txHashOf(target, 2), transaction.getHash());
+    assertEquals(2, transaction.getIndexInBlock());
+    assertEquals(Long.valueOf(3L), transaction.getNonce());
+    assertEquals(BytesValue.of(target.getHash().toByteArray()),
+        transaction.getBlockHash().getBytesValue());
+    assertNull(blockStore.getTransaction(new TxHash(BytesValue.of(randomHash().toByteArray()))));
+    blockStore.close();
+  }
+
+  @Test
+  public void shouldRollSegmentsAndGrowTransactionIndex() throws Exception {
+    final Path directory = Files.createTempDirectory("heraj-store");
+    final MappedBlockStore blockStore = open(directory, 4096);
+    final Blockchain.Block[] rpcBlocks = new Blockchain.Block[100];
+    for (int height = 0; height < rpcBlocks.length; ++height) {
+      rpcBlocks[height] = newBlock(height, 50);
+      assertTrue(blockStore.put(rpcBlocks[height]));
+    }
+    assertEquals(5000L, blockStore.getStats().getTransactionCount());
+    assertTrue(1 < blockStore.segments.size());
+    assertTrue(MappedBlockStore.INITIAL_TRANSACTION_CAPACITY < blockStore.transactionCapacity);
+
+    for (int height = 0; height < rpcBlocks.length; ++height) {
+      assertEquals(50, blockStore.getBlock(height).getTransactions().size());
+      for (int index = 0; index < 50; index += 7) {
+        final Transaction transaction =
+            blockStore.getTransaction(txHashOf(rpcBlocks[height], index));
+        assertEquals(index, transaction.getIndexInBlock());
+      }
+    }
+    blockStore.close();
+  }
+
+  @Test
+  public void shouldReopenStore() throws Exception {
+    final Path directory = Files.createTempDirectory("heraj-store");
+    final MappedBlockStore blockStore = open(directory, 4096);
+    final Blockchain.Block first = newBlock(3L, 2);
+    final Blockchain.Block second = newBlock(7L, 2);
+    blockStore.put(first);
+    blockStore.put(second);
+    blockStore.close();
+    assertNull(blockStore.getBlock(3L));
+
+    final MappedBlockStore reopened = open(directory, 4096);
+    assertEquals(2L, reopened.getStats().getBlockCount());
+    assertEquals(4L, reopened.getStats().getTransactionCount());
+    assertEquals(7L, reopened.getBlock(7L).getBlockNumber());
+    assertEquals(1, reopened.getTransaction(txHashOf(first, 1)).getIndexInBlock());
+
+    final Blockchain.Block third = newBlock(8L, 1);
+    assertTrue(reopened.put(third));
+    assertEquals(8L, reopened.getBlock(8L).getBlockNumber());
+    assertEquals(7L, reopened.getBlock(7L).getBlockNumber());
+    reopened.close();
+  }
+
+  @Test
+  public void shouldIgnoreBlockNotWritten() throws Exception {
+    final Path directory = Files.createTempDirectory("heraj-store");
+    final MappedBlockStore blockStore = open(directory, 4096);
+    blockStore.put(newBlock(3L, 2));
+    blockStore.put(newBlock(7L, 2));
+    blockStore.close();
+
+    // as if index pages reached a storage but segment pages didn't
+    try (final RandomAccessFile heightIndex =
+        new RandomAccessFile(directory.resolve("height.idx").toFile(), "r");
+        final RandomAccessFile segment =
+            new RandomAccessFile(directory.resolve("segment-00000000.dat").toFile(), "rw")) {
+      heightIndex.seek(16L + 8L * 3L);
+      segment.seek(heightIndex.readLong() - 1L);
+      segment.write(new byte[128]);
+      heightIndex.seek(16L + 8L * 7L);
+      segment.seek(heightIndex.readLong() - 1L);
+      segment.writeInt(Integer.MAX_VALUE);
+    }
+
+    final MappedBlockStore reopened = open(directory, 4096);
+    assertNull(reopened.getBlock(3L));
+    assertNull(reopened.getBlock(7L));
+    reopened.close();
+  }
+
+}
@@ -0,0 +1,279 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import hera.AbstractTestCase;
+import hera.api.function.Function1;
+import hera.api.model.Aer;
+import hera.api.model.Block;
+import hera.api.model.BlockHash;
+import hera.api.model.BlockHeader;
+import hera.api.model.BytesValue;
+import hera.api.model.ContractTxHash;
+import hera.api.model.ContractTxReceipt;
+import hera.api.model.RawTransaction;
+import hera.api.model.StreamObserver;
+import hera.api.model.Subscription;
+import hera.api.model.Transaction;
+import hera.api.model.Transaction.TxType;
+import hera.api.model.TxConfirmation;
+import hera.api.model.TxHash;
+import hera.exception.RpcException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+
+public class ReceiptWaiterTest extends AbstractTestCase {
+
+  protected final AtomicReference<StreamObserver<Block>> upstream = new AtomicReference<>();
+
+  protected final AtomicInteger subscribed = new AtomicInteger(0);
+
+  protected final AtomicInteger unsubscribed = new AtomicInteger(0);
+
+  protected final AtomicInteger receiptRequested = new AtomicInteger(0);
+
+  // transactions already in blocks
+  protected final List<Transaction> included = new ArrayList<>();
+
+  protected final Function1<StreamObserver<Block>, Future<Subscription<Block>>> subscribeFunction =
+      new Function1<StreamObserver<Block>, Future<Subscription<Block>>>() {
+        @Override
+        public Future<Subscription<Block>> apply(final StreamObserver<Block> observer) {
+          subscribed.incrementAndGet();
+          upstream.set(observer);
+          return HerajFutures.<Subscription<Block>>success(new Subscription<Block>() {
+            protected final AtomicBoolean closed = new AtomicBoolean(false);
+
+            @Override
+            public void unsubscribe() {
+              if (closed.compareAndSet(false, true)) {
+                unsubscribed.incrementAndGet();
+              }
+            }
+
+            @Override
+            public boolean isUnsubscribed() {
+              return closed.get();
+            }
+
+            @Override
+            public int getQueueDepth() {
+              return 0;
+            }
+
+            @Override
+            public long getDropCount() {
+              return 0L;
+            }
+          });
+        }
+      };
+
+  protected final Function1<TxHash, Future<Transaction>> transactionInBlockFunction =
+      new Function1<TxHash, Future<Transaction>>() {
+        @Override
+        public Future<Transaction> apply(final TxHash txHash) {
+          for (final Transaction transaction : included) {
+            if (transaction.getHash().equals(txHash)) {
+              return HerajFutures.success(transaction);
+            }
+          }
+          return HerajFutures.fail(new RpcException("tx not found"));
+        }
+      };
+
+  protected final Function1<ContractTxHash, Future<ContractTxReceipt>> receiptFunction =
+      new Function1<ContractTxHash, Future<ContractTxReceipt>>() {
+        @Override
+        public Future<ContractTxReceipt> apply(final ContractTxHash contractTxHash) {
+          receiptRequested.incrementAndGet();
+          return HerajFutures.success(ContractTxReceipt.newBuilder()
+              .txHash(TxHash.of(contractTxHash.getBytesValue()))
+              .status("SUCCESS")
+              .build());
+        }
+      };
+
+  protected ReceiptWaiter newReceiptWaiter() {
+    return new ReceiptWaiter(subscribeFunction, transactionInBlockFunction, receiptFunction);
+  }
+
+  protected TxHash txHashOf(final int seed) {
+    return TxHash.of(BytesValue.of(("tx" + seed).getBytes()));
+  }
+
+  protected Transaction newTransaction(final int seed, final TxType txType) {
+    final RawTransaction rawTransaction = RawTransaction.newBuilder()
+        .chainIdHash(chainIdHash)
+        .from(accountAddress)
+        .to(accountAddress)
+        .amount(Aer.ZERO)
+        .nonce(1L)
+        .type(txType)
+        .build();
+    return Transaction.newBuilder()
+        .rawTransaction(rawTransaction)
+        .hash(txHashOf(seed))
+        .blockHash(BlockHash.of(BytesValue.of("block".getBytes())))
+        .confirmed(true)
+        .build();
+  }
+
+  protected Block newBlock(final Transaction... transactions) {
+    return Block.newBuilder()
+        .blockHeader(BlockHeader.newBuilder().blockNumber(1L).build())
+        .transactions(Arrays.asList(transactions))
+        .build();
+  }
+
+  @Test
+  public void shouldShareOneStream() throws Exception {
+    final ReceiptWaiter receiptWaiter = newReceiptWaiter();
+    final List<ListenableFuture<TxConfirmation>> futures = new ArrayList<>();
+    for (int i = 0; i < 1000; ++i) {
+      futures.add(receiptWaiter.await(txHashOf(i), 10L, TimeUnit.SECONDS));
+    }
+    assertEquals(1, subscribed.get());
+    assertEquals(1000, receiptWaiter.getPendingCount());
+
+    final Transaction first = newTransaction(3, TxType.TRANSFER);
+    final Transaction second = newTransaction(700, TxType.TRANSFER);
+    upstream.get().onNext(newBlock(first, newTransaction(5000, TxType.TRANSFER), second));
+    assertSame(first, futures.get(3).get().getTransaction());
+    assertNull(futures.get(3).get().getReceipt());
+    assertSame(second, futures.get(700).get().getTransaction());
+    assertEquals(0, receiptRequested.get());
+    assertEquals(998, receiptWaiter.getPendingCount());
+
+    for (final ListenableFuture<TxConfirmation> future : futures) {
+      future.cancel(false);
+    }
+    assertEquals(0, receiptWaiter.getPendingCount());
+    assertEquals(1, unsubscribed.get());
+    assertFalse(receiptWaiter.isStreaming());
+  }
+
+  @Test
+  public void shouldFetchReceiptOfContractTransaction() throws Exception {
+    final ReceiptWaiter receiptWaiter = newReceiptWaiter();
+    final ListenableFuture<TxConfirmation> first =
+        receiptWaiter.await(txHashOf(1), 10L, TimeUnit.SECONDS);
+    final ListenableFuture<TxConfirmation> second =
+        receiptWaiter.await(txHashOf(1), 10L, TimeUnit.SECONDS);
+    assertEquals(1, subscribed.get());
+
+    upstream.get().onNext(newBlock(newTransaction(1, TxType.CALL)));
+    assertEquals("SUCCESS", first.get().getReceipt().getStatus());
+    assertEquals(txHashOf(1), second.get().getReceipt().getTxHash());
+    assertEquals(1, receiptRequested.get());
+    assertEquals(1, unsubscribed.get());
+  }
+
+  @Test
+  public void shouldConfirmTransactionAlreadyIncluded() throws Exception {
+    final Transaction transaction = newTransaction(1, TxType.TRANSFER);
+    included.add(transaction);
+    final ReceiptWaiter receiptWaiter = newReceiptWaiter();
+    final TxConfirmation confirmation =
+        receiptWaiter.await(txHashOf(1), 10L, TimeUnit.SECONDS).get(1L, TimeUnit.SECONDS);
+    assertSame(transaction, confirmation.getTransaction());
+    assertEquals(0, receiptWaiter.getPendingCount());
+    assertFalse(receiptWaiter.isStreaming());
+  }
+
+  @Test
+  public void shouldTimeout() throws Exception {
+    final ReceiptWaiter receiptWaiter = newReceiptWaiter();
+    final ListenableFuture<TxConfirmation> future =
+        receiptWaiter.await(txHashOf(1), 50L, TimeUnit.MILLISECONDS);
+    try {
+      future.get(5L, TimeUnit.SECONDS);
+      fail();
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof TimeoutException);
+    }
+    // a waiter is removed by a listener of a future, maybe after get() returns
+    final long deadline = System.currentTimeMillis() + 5000L;
+    while (0 == unsubscribed.get() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10L);
+    }
+    assertEquals(0, receiptWaiter.getPendingCount());
+    assertEquals(1, unsubscribed.get());
+  }
+
+  @Test
+  public void shouldReopenStreamOnError() throws Exception {
+    final ReceiptWaiter receiptWaiter = newReceiptWaiter();
+    final ListenableFuture<TxConfirmation> first =
+        receiptWaiter.await(txHashOf(1), 10L, TimeUnit.SECONDS);
+    final ListenableFuture<TxConfirmation> second =
+        receiptWaiter.await(txHashOf(2), 10L, TimeUnit.SECONDS);
+    upstream.get().onError(new IllegalStateException("stream broken"));
+    assertFalse(first.isDone());
+    assertTrue(receiptWaiter.isStreaming());
+
+    // included while a stream is broken
+    final Transaction transaction = newTransaction(1, TxType.TRANSFER);
+    included.add(transaction);
+    assertSame(transaction, first.get(5L, TimeUnit.SECONDS).getTransaction());
+    assertEquals(2, subscribed.get());
+    assertEquals(1, unsubscribed.get());
+
+    final Transaction other = newTransaction(2, TxType.TRANSFER);
+    upstream.get().onNext(newBlock(other));
+    assertSame(other, second.get().getTransaction());
+    assertFalse(receiptWaiter.isStreaming());
+    assertEquals(2, unsubscribed.get());
+  }
+
+  @Test
+  public void shouldNotBlockWhileOpeningStream() throws Exception {
+    final SettableFuture<Subscription<Block>> opening = SettableFuture.create();
+    final AtomicInteger opened = new AtomicInteger(0);
+    final ReceiptWaiter receiptWaiter = new ReceiptWaiter(
+        new Function1<StreamObserver<Block>, Future<Subscription<Block>>>() {
+          @Override
+          public Future<Subscription<Block>> apply(final StreamObserver<Block> observer) {
+            opened.incrementAndGet();
+            upstream.set(observer);
+            return opening;
+          }
+        }, transactionInBlockFunction, receiptFunction);
+    final Transaction transaction = newTransaction(1, TxType.TRANSFER);
+    included.add(transaction);
+
+    final ListenableFuture<TxConfirmation> first =
+        receiptWaiter.await(txHashOf(1), 10L, TimeUnit.SECONDS);
+    final ListenableFuture<TxConfirmation> second =
+        receiptWaiter.await(txHashOf(2), 10L, TimeUnit.SECONDS);
+    assertEquals(1, opened.get());
+    // looked up once a stream is open
+    assertFalse(first.isDone());
+
+    opening.set(subscribeFunction.apply(upstream.get()).get());
+    assertSame(transaction, first.get(1L, TimeUnit.SECONDS).getTransaction());
+    second.cancel(false);
+    assertFalse(receiptWaiter.isStreaming());
+  }
+
+}
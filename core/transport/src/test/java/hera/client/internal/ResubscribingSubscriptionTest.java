@@ -0,0 +1,276 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.internal;
+
+import static hera.client.ClientConstants.STREAM_RESUBSCRIPTION_INTERVAL;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import hera.AbstractTestCase;
+import hera.api.function.Function0;
+import hera.api.function.Function1;
+import hera.api.function.Function2;
+import hera.api.model.BlockchainStatus;
+import hera.api.model.StreamObserver;
+import hera.api.model.Subscription;
+import hera.util.conf.InMemoryConfiguration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+
+public class ResubscribingSubscriptionTest extends AbstractTestCase {
+
+  protected final List<StreamObserver<Long>> observers = new CopyOnWriteArrayList<>();
+
+  protected final List<Long> received = new CopyOnWriteArrayList<>();
+
+  protected final AtomicLong bestHeight = new AtomicLong(0L);
+
+  protected final Function1<StreamObserver<Long>, Future<Subscription<Long>>> subscribeFunction =
+      new Function1<StreamObserver<Long>, Future<Subscription<Long>>>() {
+        @Override
+        public Future<Subscription<Long>> apply(final StreamObserver<Long> observer) {
+          observers.add(observer);
+          return HerajFutures.<Subscription<Long>>success(new Subscription<Long>() {
+            protected volatile boolean unsubscribed = false;
+
+            @Override
+            public void unsubscribe() {
+              unsubscribed = true;
+            }
+
+            @Override
+            public boolean isUnsubscribed() {
+              return unsubscribed;
+            }
+
+            @Override
+            public int getQueueDepth() {
+              return 0;
+            }
+
+            @Override
+            public long getDropCount() {
+              return 1L;
+            }
+          });
+        }
+      };
+
+  protected final Function0<Future<BlockchainStatus>> statusFunction =
+      new Function0<Future<BlockchainStatus>>() {
+        @Override
+        public Future<BlockchainStatus> apply() {
+          return HerajFutures.success(
+              BlockchainStatus.newBuilder().bestHeight(bestHeight.get()).build());
+        }
+      };
+
+  // an item is its height; a live item is pushed to a new stream while backfilling
+  protected final Function2<Long, Long, Iterator<Long>> backfillFunction =
+      new Function2<Long, Long, Iterator<Long>>() {
+        @Override
+        public Iterator<Long> apply(final Long fromHeight, final Long toHeight) {
+          observers.get(observers.size() - 1).onNext(toHeight + 1);
+          final List<Long> items = new ArrayList<>();
+          for (long height = fromHeight; height <= toHeight; ++height) {
+            items.add(height);
+          }
+          return items.iterator();
+        }
+      };
+
+  protected final Function1<Long, Long> identity = new Function1<Long, Long>() {
+    @Override
+    public Long apply(final Long item) {
+      return item;
+    }
+  };
+
+  protected final Function1<Long, Object> idFunction = new Function1<Long, Object>() {
+    @Override
+    public Object apply(final Long item) {
+      return item;
+    }
+  };
+
+  protected final StreamObserver<Long> observer = new StreamObserver<Long>() {
+    @Override
+    public void onNext(final Long item) {
+      received.add(item);
+    }
+
+    @Override
+    public void onError(final Throwable t) {}
+
+    @Override
+    public void onCompleted() {}
+  };
+
+  protected ResubscribingSubscription<Long> supplySubscription() throws Exception {
+    return new ResubscribingSubscription<>(subscribeFunction, statusFunction, backfillFunction,
+        identity, idFunction, observer, 10L, 20L, TimeUnit.MILLISECONDS).start();
+  }
+
+  protected void awaitSubscribed(final int count) throws Exception {
+    final long deadline = System.currentTimeMillis() + 5000L;
+    while (observers.size() < count && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10L);
+    }
+    assertEquals(count, observers.size());
+  }
+
+  protected void awaitReceived(final int count) throws Exception {
+    final long deadline = System.currentTimeMillis() + 5000L;
+    while (received.size() < count && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10L);
+    }
+    assertEquals(count, received.size());
+  }
+
+  @Test
+  public void shouldBackfillGapOnResubscription() throws Exception {
+    final ResubscribingSubscription<Long> subscription = supplySubscription();
+    observers.get(0).onNext(1L);
+    observers.get(0).onNext(2L);
+
+    bestHeight.set(5L);
+    observers.get(0).onError(new IllegalStateException());
+    awaitSubscribed(2);
+    awaitReceived(6);
+    assertEquals(asList(1L, 2L, 3L, 4L, 5L, 6L), received);
+    assertEquals(6L, subscription.getLastHeight());
+
+    // an item from a failed stream and a duplicated one are skipped
+    observers.get(0).onNext(7L);
+    observers.get(1).onNext(6L);
+    observers.get(1).onNext(7L);
+    assertEquals(asList(1L, 2L, 3L, 4L, 5L, 6L, 7L), received);
+    assertEquals(2L, subscription.getDropCount());
+  }
+
+  @Test
+  public void shouldNotBackfillIfNothingDelivered() throws Exception {
+    supplySubscription();
+    bestHeight.set(5L);
+    observers.get(0).onCompleted();
+    awaitSubscribed(2);
+
+    observers.get(1).onNext(6L);
+    assertEquals(asList(6L), received);
+  }
+
+  @Test
+  public void shouldNotResubscribeAfterUnsubscribe() throws Exception {
+    final ResubscribingSubscription<Long> subscription = supplySubscription();
+    subscription.unsubscribe();
+    assertTrue(subscription.isUnsubscribed());
+
+    observers.get(0).onError(new IllegalStateException());
+    observers.get(0).onNext(1L);
+    Thread.sleep(100L);
+    assertEquals(1, observers.size());
+    assertTrue(received.isEmpty());
+  }
+
+  @Test
+  public void shouldReplayFromHeightThenGoLive() throws Exception {
+    bestHeight.set(4L);
+    final Subscription<Long> subscription = ResubscribingSubscription.subscribe(
+        new InMemoryConfiguration(), subscribeFunction, statusFunction, backfillFunction,
+        identity, idFunction, 2L, observer);
+    assertTrue(subscription instanceof ResubscribingSubscription);
+    awaitReceived(4);
+    assertEquals(asList(2L, 3L, 4L, 5L), received);
+
+    observers.get(0).onNext(5L);
+    observers.get(0).onNext(6L);
+    assertEquals(asList(2L, 3L, 4L, 5L, 6L), received);
+  }
+
+  @Test
+  public void shouldReplayAgainOnPendingOverflow() throws Exception {
+    bestHeight.set(3L);
+    final AtomicInteger replayCount = new AtomicInteger(0);
+    final Function2<Long, Long, Iterator<Long>> overflowingBackfill =
+        new Function2<Long, Long, Iterator<Long>>() {
+          @Override
+          public Iterator<Long> apply(final Long fromHeight, final Long toHeight) {
+            if (0 == replayCount.getAndIncrement()) {
+              // more live items than held ones while replaying
+              for (long height = toHeight + 1; height <= toHeight + 3; ++height) {
+                bestHeight.set(height);
+                observers.get(0).onNext(height);
+              }
+            }
+            final List<Long> items = new ArrayList<>();
+            for (long height = fromHeight; height <= toHeight; ++height) {
+              items.add(height);
+            }
+            return items.iterator();
+          }
+        };
+    final ResubscribingSubscription<Long> subscription = new ResubscribingSubscription<>(
+        subscribeFunction, statusFunction, overflowingBackfill, identity, idFunction, observer);
+    subscription.maxPendingSize = 2;
+    subscription.start(1L);
+    awaitReceived(6);
+    assertEquals(asList(1L, 2L, 3L, 4L, 5L, 6L), received);
+    assertEquals(2, replayCount.get());
+    assertEquals(0, subscription.getQueueDepth());
+  }
+
+  @Test
+  public void shouldDeliverFailureIfNotResubscribing() throws Exception {
+    final AtomicReference<Throwable> error = new AtomicReference<>();
+    final ResubscribingSubscription<Long> subscription = new ResubscribingSubscription<>(
+        subscribeFunction, statusFunction, backfillFunction, identity, idFunction,
+        new StreamObserver<Long>() {
+          @Override
+          public void onNext(final Long item) {
+            received.add(item);
+          }
+
+          @Override
+          public void onError(final Throwable t) {
+            error.set(t);
+          }
+
+          @Override
+          public void onCompleted() {}
+        }).start(0L);
+    awaitReceived(2);
+    observers.get(0).onError(new IllegalStateException());
+    assertTrue(error.get() instanceof IllegalStateException);
+    assertTrue(subscription.isUnsubscribed());
+    Thread.sleep(100L);
+    assertEquals(1, observers.size());
+  }
+
+  @Test
+  public void shouldSubscribeAsItIsIfNotConfigured() throws Exception {
+    final Subscription<Long> plain = ResubscribingSubscription.subscribe(
+        new InMemoryConfiguration(), subscribeFunction, statusFunction, backfillFunction,
+        identity, idFunction, observer);
+    assertFalse(plain instanceof ResubscribingSubscription);
+
+    final InMemoryConfiguration configuration = new InMemoryConfiguration();
+    configuration.define(STREAM_RESUBSCRIPTION_INTERVAL, "10");
+    final Subscription<Long> resubscribing = ResubscribingSubscription.subscribe(configuration,
+        subscribeFunction, statusFunction, backfillFunction, identity, idFunction, observer);
+    assertTrue(resubscribing instanceof ResubscribingSubscription);
+    resubscribing.unsubscribe();
+  }
+
+}
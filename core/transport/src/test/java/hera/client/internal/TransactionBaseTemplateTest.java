@@ -5,10 +5,18 @@
 package hera.client.internal;
 
 import static hera.api.model.BytesValue.of;
+import static hera.client.ClientConstants.COMMIT_BATCH_SIZE;
+import static hera.client.ClientConstants.COMMIT_BATCH_WINDOW;
+import static java.util.Arrays.asList;
 import static java.util.UUID.randomUUID;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.util.concurrent.ListenableFuture;
@@ -18,14 +26,19 @@ import hera.api.model.Aer;
 import hera.api.model.Aer.Unit;
 import hera.api.model.RawTransaction;
 import hera.api.model.Transaction;
+import hera.api.model.TxCommitResult;
 import hera.api.model.TxHash;
+import hera.exception.RpcCommitException;
+import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import org.junit.Test;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import types.AergoRPCServiceGrpc.AergoRPCServiceFutureStub;
 import types.Blockchain;
 import types.Rpc;
+import types.Rpc.CommitStatus;
 
 @PrepareForTest({AergoRPCServiceFutureStub.class})
 public class TransactionBaseTemplateTest extends AbstractTestCase {
@@ -131,5 +144,72 @@ public class TransactionBaseTemplateTest extends AbstractTestCase {
     assertNotNull(txHash.get());
   }
 
-}
+  protected Transaction newTransaction(final long nonce) {
+    final RawTransaction rawTransaction = RawTransaction.newBuilder(chainIdHash)
+        .from(accountAddress)
+        .to(accountAddress)
+        .amount("1000", Unit.AER)
+        .nonce(nonce)
+        .build();
+    return Transaction.newBuilder()
+        .rawTransaction(rawTransaction)
+        .build();
+  }
 
+  protected void mockCommitResults(final AergoRPCServiceFutureStub aergoService) {
+    ListenableFuture<Rpc.CommitResultList> mockListenableFuture =
+        service.submit(new Callable<Rpc.CommitResultList>() {
+          @Override
+          public Rpc.CommitResultList call() throws Exception {
+            return Rpc.CommitResultList.newBuilder()
+                .addResults(Rpc.CommitResult.newBuilder().setError(CommitStatus.TX_OK).build())
+                .addResults(Rpc.CommitResult.newBuilder()
+                    .setError(CommitStatus.TX_NONCE_TOO_LOW).setDetail("nonce").build())
+                .build();
+          }
+        });
+    when(aergoService.commitTX(any(Blockchain.TxList.class))).thenReturn(mockListenableFuture);
+  }
+
+  @Test
+  public void testBatchCommit() throws Exception {
+    final AergoRPCServiceFutureStub aergoService = mock(AergoRPCServiceFutureStub.class);
+    mockCommitResults(aergoService);
+
+    final TransactionBaseTemplate transactionBaseTemplate =
+        supplyTransactionBaseTemplate(aergoService);
+
+    final List<TxCommitResult> commitResults = transactionBaseTemplate.getBatchCommitFunction()
+        .apply(asList(newTransaction(1L), newTransaction(2L))).get();
+    assertEquals(2, commitResults.size());
+    assertTrue(commitResults.get(0).isSuccess());
+    assertEquals(TxCommitResult.Status.NONCE_TOO_LOW, commitResults.get(1).getStatus());
+    assertEquals("nonce", commitResults.get(1).getMessage());
+  }
+
+  @Test
+  public void testCommitInBatch() throws Exception {
+    final AergoRPCServiceFutureStub aergoService = mock(AergoRPCServiceFutureStub.class);
+    mockCommitResults(aergoService);
+
+    final TransactionBaseTemplate transactionBaseTemplate =
+        supplyTransactionBaseTemplate(aergoService);
+    transactionBaseTemplate.contextProvider.put(context
+        .withKeyValue(COMMIT_BATCH_SIZE, "2")
+        .withKeyValue(COMMIT_BATCH_WINDOW, "10000"));
+
+    final Future<TxHash> first =
+        transactionBaseTemplate.getCommitFunction().apply(newTransaction(1L));
+    final Future<TxHash> second =
+        transactionBaseTemplate.getCommitFunction().apply(newTransaction(2L));
+    assertNotNull(first.get());
+    try {
+      second.get();
+      fail();
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof RpcCommitException);
+    }
+    verify(aergoService, times(1)).commitTX(any(Blockchain.TxList.class));
+  }
+
+}
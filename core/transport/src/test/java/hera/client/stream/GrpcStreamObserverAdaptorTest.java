@@ -0,0 +1,216 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.stream;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import hera.AbstractTestCase;
+import hera.api.function.Function1;
+import hera.api.model.StreamObserver;
+import hera.exception.StreamOverflowException;
+import hera.transport.ModelConverter;
+import io.grpc.Context;
+import io.grpc.stub.ClientCallStreamObserver;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+
+public class GrpcStreamObserverAdaptorTest extends AbstractTestCase {
+
+  protected final ModelConverter<Integer, Integer> converter = new ModelConverter<>(
+      new Function1<Integer, Integer>() {
+        @Override
+        public Integer apply(final Integer value) {
+          return value;
+        }
+      }, new Function1<Integer, Integer>() {
+        @Override
+        public Integer apply(final Integer value) {
+          return value;
+        }
+      });
+
+  // blocks on a first item until released
+  protected class GatedObserver implements StreamObserver<Integer> {
+
+    protected final CountDownLatch entered = new CountDownLatch(1);
+
+    protected final CountDownLatch released = new CountDownLatch(1);
+
+    protected final CountDownLatch terminated = new CountDownLatch(1);
+
+    protected final List<Integer> received = new CopyOnWriteArrayList<>();
+
+    protected final AtomicReference<Throwable> error = new AtomicReference<>();
+
+    @Override
+    public void onNext(final Integer value) {
+      entered.countDown();
+      try {
+        released.await(5L, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      received.add(value);
+    }
+
+    @Override
+    public void onError(final Throwable t) {
+      error.set(t);
+      terminated.countDown();
+    }
+
+    @Override
+    public void onCompleted() {
+      terminated.countDown();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  protected GrpcStreamObserverAdaptor<Object, Integer, Integer> supplyAdaptor(
+      final Context.CancellableContext context, final StreamObserver<Integer> observer,
+      final int bufferSize, final OverflowPolicy overflowPolicy,
+      final ClientCallStreamObserver<Object> requestStream) {
+    final GrpcStreamObserverAdaptor<Object, Integer, Integer> adaptor =
+        new GrpcStreamObserverAdaptor<>(context, observer, converter, bufferSize, overflowPolicy);
+    adaptor.beforeStart(requestStream);
+    return adaptor;
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldPauseStreamWhenBufferIsFull() throws Exception {
+    final ClientCallStreamObserver<Object> requestStream = mock(ClientCallStreamObserver.class);
+    final GatedObserver observer = new GatedObserver();
+    final GrpcStreamObserverAdaptor<Object, Integer, Integer> adaptor = supplyAdaptor(
+        Context.current().withCancellation(), observer, 3, OverflowPolicy.BLOCK, requestStream);
+    verify(requestStream).disableAutoInboundFlowControl();
+
+    // first one requested by grpc; fill up to a buffer size
+    adaptor.onNext(0);
+    verify(requestStream).request(2);
+    assertTrue(observer.entered.await(5L, TimeUnit.SECONDS));
+    adaptor.onNext(1);
+    adaptor.onNext(2);
+    verify(requestStream).request(1);
+    adaptor.onNext(3);
+    assertEquals(3, adaptor.getQueueDepth());
+    verify(requestStream).request(2);
+    verify(requestStream, times(1)).request(1);
+
+    adaptor.onCompleted();
+    observer.released.countDown();
+    assertTrue(observer.terminated.await(5L, TimeUnit.SECONDS));
+    assertEquals(asList(0, 1, 2, 3), observer.received);
+    assertEquals(0L, adaptor.getDropCount());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldDropOldest() throws Exception {
+    final ClientCallStreamObserver<Object> requestStream = mock(ClientCallStreamObserver.class);
+    final GatedObserver observer = new GatedObserver();
+    final GrpcStreamObserverAdaptor<Object, Integer, Integer> adaptor =
+        supplyAdaptor(Context.current().withCancellation(), observer, 2,
+            OverflowPolicy.DROP_OLDEST, requestStream);
+
+    adaptor.onNext(0);
+    assertTrue(observer.entered.await(5L, TimeUnit.SECONDS));
+    for (int i = 1; i <= 5; ++i) {
+      adaptor.onNext(i);
+    }
+    assertEquals(2, adaptor.getQueueDepth());
+    assertEquals(3L, adaptor.getDropCount());
+
+    adaptor.onCompleted();
+    observer.released.countDown();
+    assertTrue(observer.terminated.await(5L, TimeUnit.SECONDS));
+    assertEquals(asList(0, 4, 5), observer.received);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldKeepLatest() throws Exception {
+    final ClientCallStreamObserver<Object> requestStream = mock(ClientCallStreamObserver.class);
+    final GatedObserver observer = new GatedObserver();
+    final GrpcStreamObserverAdaptor<Object, Integer, Integer> adaptor =
+        supplyAdaptor(Context.current().withCancellation(), observer, 2,
+            OverflowPolicy.KEEP_LATEST, requestStream);
+
+    adaptor.onNext(0);
+    assertTrue(observer.entered.await(5L, TimeUnit.SECONDS));
+    for (int i = 1; i <= 5; ++i) {
+      adaptor.onNext(i);
+    }
+    assertEquals(1, adaptor.getQueueDepth());
+    assertEquals(4L, adaptor.getDropCount());
+
+    adaptor.onCompleted();
+    observer.released.countDown();
+    assertTrue(observer.terminated.await(5L, TimeUnit.SECONDS));
+    assertEquals(asList(0, 5), observer.received);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldFailOnOverflow() throws Exception {
+    final ClientCallStreamObserver<Object> requestStream = mock(ClientCallStreamObserver.class);
+    final Context.CancellableContext context = Context.current().withCancellation();
+    final GatedObserver observer = new GatedObserver();
+    final GrpcStreamObserverAdaptor<Object, Integer, Integer> adaptor =
+        supplyAdaptor(context, observer, 1, OverflowPolicy.FAIL, requestStream);
+
+    adaptor.onNext(0);
+    assertTrue(observer.entered.await(5L, TimeUnit.SECONDS));
+    adaptor.onNext(1);
+    adaptor.onNext(2);
+    assertTrue(context.isCancelled());
+    assertEquals(0, adaptor.getQueueDepth());
+    assertEquals(2L, adaptor.getDropCount());
+
+    // a cancellation error from grpc is ignored
+    adaptor.onError(new IllegalStateException());
+    observer.released.countDown();
+    assertTrue(observer.terminated.await(5L, TimeUnit.SECONDS));
+    assertTrue(observer.error.get() instanceof StreamOverflowException);
+    assertEquals(asList(0), observer.received);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldDiscardOnUnsubscribe() throws Exception {
+    final ClientCallStreamObserver<Object> requestStream = mock(ClientCallStreamObserver.class);
+    final Context.CancellableContext context = Context.current().withCancellation();
+    final GatedObserver observer = new GatedObserver();
+    final GrpcStreamObserverAdaptor<Object, Integer, Integer> adaptor =
+        supplyAdaptor(context, observer, 4, OverflowPolicy.BLOCK, requestStream);
+    final GrpcStreamSubscription<Integer> subscription =
+        new GrpcStreamSubscription<>(context, adaptor);
+
+    adaptor.onNext(0);
+    assertTrue(observer.entered.await(5L, TimeUnit.SECONDS));
+    adaptor.onNext(1);
+    assertEquals(1, subscription.getQueueDepth());
+
+    subscription.unsubscribe();
+    assertTrue(subscription.isUnsubscribed());
+    assertEquals(0, subscription.getQueueDepth());
+    assertEquals(0L, subscription.getDropCount());
+
+    adaptor.onError(new IllegalStateException());
+    observer.released.countDown();
+    assertTrue(observer.terminated.await(5L, TimeUnit.SECONDS));
+    assertEquals(asList(0), observer.received);
+  }
+
+}
@@ -0,0 +1,156 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client.stream;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import hera.AbstractTestCase;
+import hera.api.function.Function1;
+import hera.exception.RpcException;
+import hera.transport.ModelConverter;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+public class GrpcStreamPublisherTest extends AbstractTestCase {
+
+  protected final ModelConverter<Integer, Integer> converter = new ModelConverter<>(
+      new Function1<Integer, Integer>() {
+        @Override
+        public Integer apply(final Integer value) {
+          return value;
+        }
+      }, new Function1<Integer, Integer>() {
+        @Override
+        public Integer apply(final Integer value) {
+          return value;
+        }
+      });
+
+  @SuppressWarnings("unchecked")
+  protected final ClientCallStreamObserver<Object> requestStream =
+      mock(ClientCallStreamObserver.class);
+
+  protected final AtomicReference<io.grpc.stub.StreamObserver<Integer>> responseObserver =
+      new AtomicReference<>();
+
+  protected final GrpcStreamPublisher<Object, Integer, Integer> publisher =
+      new GrpcStreamPublisher<Object, Integer, Integer>(converter) {
+        @SuppressWarnings("unchecked")
+        @Override
+        protected void startCall(final io.grpc.stub.StreamObserver<Integer> observer) {
+          ((ClientResponseObserver<Object, Integer>) observer).beforeStart(requestStream);
+          responseObserver.set(observer);
+        }
+      };
+
+  protected class RecordingSubscriber implements Subscriber<Integer> {
+
+    protected final List<Integer> received = new CopyOnWriteArrayList<>();
+
+    protected final AtomicReference<Subscription> subscription = new AtomicReference<>();
+
+    protected final AtomicReference<Throwable> error = new AtomicReference<>();
+
+    protected final AtomicBoolean completed = new AtomicBoolean(false);
+
+    @Override
+    public void onSubscribe(final Subscription s) {
+      subscription.set(s);
+    }
+
+    @Override
+    public void onNext(final Integer value) {
+      received.add(value);
+    }
+
+    @Override
+    public void onError(final Throwable t) {
+      error.set(t);
+    }
+
+    @Override
+    public void onComplete() {
+      completed.set(true);
+    }
+  }
+
+  @Test
+  public void shouldMapDemandToFlowControl() {
+    final RecordingSubscriber subscriber = new RecordingSubscriber();
+    publisher.subscribe(subscriber);
+    verify(requestStream).disableAutoInboundFlowControl();
+
+    // grpc requested 1 on start
+    subscriber.subscription.get().request(3L);
+    verify(requestStream).request(2);
+
+    for (int i = 0; i < 4; ++i) {
+      responseObserver.get().onNext(i);
+    }
+    responseObserver.get().onCompleted();
+    assertEquals(asList(0, 1, 2), subscriber.received);
+    assertFalse(subscriber.completed.get());
+
+    subscriber.subscription.get().request(1L);
+    assertEquals(asList(0, 1, 2, 3), subscriber.received);
+    assertTrue(subscriber.completed.get());
+  }
+
+  @Test
+  public void shouldNotStartCallIfCancelledOnSubscribe() {
+    final RecordingSubscriber subscriber = new RecordingSubscriber() {
+      @Override
+      public void onSubscribe(final Subscription s) {
+        s.cancel();
+      }
+    };
+    publisher.subscribe(subscriber);
+    assertEquals(null, responseObserver.get());
+  }
+
+  @Test
+  public void shouldStopOnCancel() {
+    final RecordingSubscriber subscriber = new RecordingSubscriber();
+    publisher.subscribe(subscriber);
+    subscriber.subscription.get().cancel();
+    subscriber.subscription.get().request(5L);
+    verify(requestStream, never()).request(4);
+
+    responseObserver.get().onNext(0);
+    responseObserver.get().onError(new IllegalStateException());
+    assertTrue(subscriber.received.isEmpty());
+    assertEquals(null, subscriber.error.get());
+  }
+
+  @Test
+  public void shouldDeliverConvertedError() {
+    final RecordingSubscriber subscriber = new RecordingSubscriber();
+    publisher.subscribe(subscriber);
+    responseObserver.get().onError(new IllegalStateException());
+    assertTrue(subscriber.error.get() instanceof RpcException);
+  }
+
+  @Test
+  public void shouldFailOnNonPositiveRequest() {
+    final RecordingSubscriber subscriber = new RecordingSubscriber();
+    publisher.subscribe(subscriber);
+    subscriber.subscription.get().request(0L);
+    assertTrue(subscriber.error.get() instanceof IllegalArgumentException);
+  }
+
+}
@@ -0,0 +1,158 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.strategy;
+
+import static hera.api.function.Functions.identify;
+import static hera.client.ClientConstants.BLOCK_GET_BLOCK_BY_HEIGHT;
+import static hera.client.ClientConstants.TRANSACTION_COMMIT;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.common.util.concurrent.SettableFuture;
+import hera.AbstractTestCase;
+import hera.api.function.Function0;
+import hera.api.model.internal.Time;
+import hera.client.internal.HerajFutures;
+import io.grpc.Status;
+import java.util.HashSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class BackoffRetryStrategyTest extends AbstractTestCase {
+
+  protected final Time base = Time.of(10L, TimeUnit.MILLISECONDS);
+
+  protected final Time max = Time.of(50L, TimeUnit.MILLISECONDS);
+
+  protected Function0<Future<Integer>> failing(final AtomicInteger tried, final int failCount,
+      final Status status, final String identity) {
+    return identify(new Function0<Future<Integer>>() {
+      @Override
+      public Future<Integer> apply() {
+        if (tried.getAndIncrement() < failCount) {
+          return HerajFutures.fail(status.asRuntimeException());
+        }
+        return HerajFutures.success(0);
+      }
+    }, identity);
+  }
+
+  @Test
+  public void testRetry() throws Exception {
+    final AtomicInteger tried = new AtomicInteger(0);
+    final BackoffRetryStrategy strategy = new BackoffRetryStrategy(3, base, max);
+
+    final Integer ret = strategy
+        .apply(failing(tried, 2, Status.UNAVAILABLE, BLOCK_GET_BLOCK_BY_HEIGHT)).apply()
+        .get(1L, TimeUnit.SECONDS);
+    assertEquals(Integer.valueOf(0), ret);
+    assertEquals(3, tried.get());
+  }
+
+  @Test
+  public void shouldNotBlockCaller() {
+    final AtomicInteger tried = new AtomicInteger(0);
+    final BackoffRetryStrategy strategy =
+        new BackoffRetryStrategy(1, Time.of(1L, TimeUnit.SECONDS), Time.of(1L, TimeUnit.SECONDS));
+
+    final Future<Integer> future = strategy
+        .apply(failing(tried, 1, Status.UNAVAILABLE, BLOCK_GET_BLOCK_BY_HEIGHT)).apply();
+    assertTrue(!future.isDone());
+    future.cancel(true);
+  }
+
+  @Test
+  public void shouldFailAfterCount() throws Exception {
+    final AtomicInteger tried = new AtomicInteger(0);
+    final BackoffRetryStrategy strategy = new BackoffRetryStrategy(2, base, max);
+
+    try {
+      strategy.apply(failing(tried, 10, Status.UNAVAILABLE, BLOCK_GET_BLOCK_BY_HEIGHT)).apply()
+          .get(1L, TimeUnit.SECONDS);
+      fail();
+    } catch (ExecutionException e) {
+      assertEquals(Status.Code.UNAVAILABLE, Status.fromThrowable(e.getCause()).getCode());
+    }
+    assertEquals(3, tried.get());
+  }
+
+  @Test
+  public void shouldNotRetryNonIdempotent() throws Exception {
+    final AtomicInteger tried = new AtomicInteger(0);
+    final BackoffRetryStrategy strategy = new BackoffRetryStrategy(3, base, max);
+
+    try {
+      strategy.apply(failing(tried, 1, Status.UNAVAILABLE, TRANSACTION_COMMIT)).apply().get();
+      fail();
+    } catch (ExecutionException e) {
+      // good we expected this
+    }
+    assertEquals(1, tried.get());
+  }
+
+  @Test
+  public void shouldNotRetryNonTransientError() throws Exception {
+    final AtomicInteger tried = new AtomicInteger(0);
+    final BackoffRetryStrategy strategy = new BackoffRetryStrategy(3, base, max);
+
+    try {
+      strategy.apply(failing(tried, 1, Status.INVALID_ARGUMENT, BLOCK_GET_BLOCK_BY_HEIGHT))
+          .apply().get(1L, TimeUnit.SECONDS);
+      fail();
+    } catch (ExecutionException e) {
+      // good we expected this
+    }
+    assertEquals(1, tried.get());
+  }
+
+  @Test
+  public void shouldRespectRetryBudget() throws Exception {
+    final AtomicInteger tried = new AtomicInteger(0);
+    final RetryBudget budget = new RetryBudget(Time.of(10L, TimeUnit.SECONDS), 0.0d, 1);
+    final BackoffRetryStrategy strategy = new BackoffRetryStrategy(3, base, max,
+        new HashSet<>(asList(BLOCK_GET_BLOCK_BY_HEIGHT)), budget);
+
+    try {
+      strategy.apply(failing(tried, 10, Status.UNAVAILABLE, BLOCK_GET_BLOCK_BY_HEIGHT)).apply()
+          .get(1L, TimeUnit.SECONDS);
+      fail();
+    } catch (ExecutionException e) {
+      // good we expected this
+    }
+    assertEquals(2, tried.get());
+  }
+
+  @Test
+  public void shouldStopOnCancel() throws Exception {
+    final SettableFuture<Integer> attempt = SettableFuture.create();
+    final BackoffRetryStrategy strategy = new BackoffRetryStrategy(3, base, max);
+
+    final Future<Integer> future = strategy.apply(identify(new Function0<Future<Integer>>() {
+      @Override
+      public Future<Integer> apply() {
+        return attempt;
+      }
+    }, BLOCK_GET_BLOCK_BY_HEIGHT)).apply();
+    future.cancel(true);
+    assertTrue(attempt.isCancelled());
+  }
+
+  @Test
+  public void testNextInterval() {
+    final BackoffRetryStrategy strategy = new BackoffRetryStrategy(3, base, max);
+    long interval = base.toMilliseconds();
+    for (int i = 0; i < 100; ++i) {
+      interval = strategy.nextInterval(interval);
+      assertTrue(base.toMilliseconds() <= interval);
+      assertTrue(interval <= max.toMilliseconds());
+    }
+  }
+
+}
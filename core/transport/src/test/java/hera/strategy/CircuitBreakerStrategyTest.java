@@ -0,0 +1,167 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.strategy;
+
+import static hera.api.function.Functions.identify;
+import static hera.client.ClientConstants.BLOCK_GET_BLOCK_BY_HASH;
+import static hera.client.ClientConstants.BLOCK_GET_BLOCK_BY_HEIGHT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import hera.AbstractTestCase;
+import hera.api.function.Function0;
+import hera.api.model.internal.Time;
+import hera.client.internal.HerajFutures;
+import hera.exception.CircuitBreakerOpenException;
+import hera.exception.DecoratorChainException;
+import hera.strategy.CircuitBreakerStrategy.State;
+import io.grpc.Status;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+
+public class CircuitBreakerStrategyTest extends AbstractTestCase {
+
+  protected final AtomicLong clock = new AtomicLong(0L);
+
+  protected CircuitBreakerStrategy newStrategy() {
+    return new CircuitBreakerStrategy(0.5d, 1.0d, Time.of(1L, TimeUnit.SECONDS),
+        Time.of(10L, TimeUnit.SECONDS), 4, 4, 2) {
+      @Override
+      protected long now() {
+        return clock.get();
+      }
+    };
+  }
+
+  protected Function0<Future<Integer>> function(final AtomicInteger called,
+      final AtomicBoolean fail, final Status status, final String identity) {
+    return identify(new Function0<Future<Integer>>() {
+      @Override
+      public Future<Integer> apply() {
+        called.incrementAndGet();
+        if (fail.get()) {
+          return HerajFutures.fail(status.asRuntimeException());
+        }
+        return HerajFutures.success(0);
+      }
+    }, identity);
+  }
+
+  protected void callIgnoringError(final Function0<?> f, final int count) {
+    for (int i = 0; i < count; ++i) {
+      f.apply();
+    }
+  }
+
+  @Test
+  public void shouldOpenOnFailureRate() {
+    final CircuitBreakerStrategy strategy = newStrategy();
+    final AtomicInteger called = new AtomicInteger(0);
+    final AtomicBoolean fail = new AtomicBoolean(true);
+    final Function0<Future<Integer>> wrapped = strategy
+        .apply(function(called, fail, Status.UNAVAILABLE, BLOCK_GET_BLOCK_BY_HASH));
+
+    callIgnoringError(wrapped, 4);
+    assertEquals(State.OPEN, strategy.getState(BLOCK_GET_BLOCK_BY_HASH));
+    assertEquals(State.CLOSED, strategy.getState(BLOCK_GET_BLOCK_BY_HEIGHT));
+
+    try {
+      wrapped.apply();
+      fail();
+    } catch (DecoratorChainException e) {
+      assertTrue(e.getCause() instanceof CircuitBreakerOpenException);
+    }
+    assertEquals(4, called.get());
+  }
+
+  @Test
+  public void shouldNotOpenOnResponseError() {
+    final CircuitBreakerStrategy strategy = newStrategy();
+    final AtomicInteger called = new AtomicInteger(0);
+    final Function0<Future<Integer>> wrapped = strategy
+        .apply(function(called, new AtomicBoolean(true), Status.NOT_FOUND,
+            BLOCK_GET_BLOCK_BY_HASH));
+
+    callIgnoringError(wrapped, 10);
+    assertEquals(State.CLOSED, strategy.getState(BLOCK_GET_BLOCK_BY_HASH));
+    assertEquals(10, called.get());
+  }
+
+  @Test
+  public void shouldOpenOnSlowCall() {
+    final CircuitBreakerStrategy strategy = newStrategy();
+    final Function0<Integer> wrapped = strategy.apply(identify(new Function0<Integer>() {
+      @Override
+      public Integer apply() {
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2L));
+        return 0;
+      }
+    }, BLOCK_GET_BLOCK_BY_HASH));
+
+    callIgnoringError(wrapped, 4);
+    assertEquals(State.OPEN, strategy.getState(BLOCK_GET_BLOCK_BY_HASH));
+  }
+
+  @Test
+  public void shouldCloseAfterProbes() {
+    final CircuitBreakerStrategy strategy = newStrategy();
+    final AtomicInteger called = new AtomicInteger(0);
+    final AtomicBoolean fail = new AtomicBoolean(true);
+    final Function0<Future<Integer>> wrapped = strategy
+        .apply(function(called, fail, Status.UNAVAILABLE, BLOCK_GET_BLOCK_BY_HASH));
+    callIgnoringError(wrapped, 4);
+
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(10L));
+    assertEquals(State.HALF_OPEN, strategy.getState(BLOCK_GET_BLOCK_BY_HASH));
+    fail.set(false);
+    callIgnoringError(wrapped, 1);
+    assertEquals(State.HALF_OPEN, strategy.getState(BLOCK_GET_BLOCK_BY_HASH));
+    callIgnoringError(wrapped, 1);
+    assertEquals(State.CLOSED, strategy.getState(BLOCK_GET_BLOCK_BY_HASH));
+    assertEquals(6, called.get());
+  }
+
+  @Test
+  public void shouldReopenOnProbeFailure() {
+    final CircuitBreakerStrategy strategy = newStrategy();
+    final AtomicInteger called = new AtomicInteger(0);
+    final AtomicBoolean fail = new AtomicBoolean(true);
+    final Function0<Future<Integer>> wrapped = strategy
+        .apply(function(called, fail, Status.UNAVAILABLE, BLOCK_GET_BLOCK_BY_HASH));
+    callIgnoringError(wrapped, 4);
+
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(10L));
+    callIgnoringError(wrapped, 1);
+    assertEquals(State.OPEN, strategy.getState(BLOCK_GET_BLOCK_BY_HASH));
+    assertEquals(5, called.get());
+  }
+
+  @Test
+  public void shouldRecordThrownFailure() {
+    final CircuitBreakerStrategy strategy = newStrategy();
+    final Function0<Integer> wrapped = strategy.apply(identify(new Function0<Integer>() {
+      @Override
+      public Integer apply() {
+        throw new DecoratorChainException(Status.UNAVAILABLE.asRuntimeException());
+      }
+    }, BLOCK_GET_BLOCK_BY_HASH));
+
+    for (int i = 0; i < 4; ++i) {
+      try {
+        wrapped.apply();
+        fail();
+      } catch (DecoratorChainException e) {
+        // good we expected this
+      }
+    }
+    assertEquals(State.OPEN, strategy.getStates().get(BLOCK_GET_BLOCK_BY_HASH));
+  }
+
+}
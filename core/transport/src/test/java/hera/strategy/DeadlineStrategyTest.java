@@ -0,0 +1,122 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.strategy;
+
+import static hera.api.function.Functions.identify;
+import static hera.client.ClientConstants.BLOCK_GET_BLOCK_BY_HEIGHT;
+import static hera.client.ClientConstants.BLOCK_SUBSCRIBE_BLOCK;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.common.util.concurrent.SettableFuture;
+import hera.AbstractTestCase;
+import hera.api.function.Function0;
+import hera.client.internal.HerajFutures;
+import io.grpc.Context;
+import io.grpc.Deadline;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+
+public class DeadlineStrategyTest extends AbstractTestCase {
+
+  @Test
+  public void testDeadlineBound() throws Exception {
+    final AtomicReference<Deadline> deadline = new AtomicReference<>();
+    final Integer ret = new DeadlineStrategy(1000L).apply(new Function0<Future<Integer>>() {
+
+      @Override
+      public Future<Integer> apply() {
+        deadline.set(Context.current().getDeadline());
+        return HerajFutures.success(0);
+      }
+    }).apply().get();
+
+    assertEquals(Integer.valueOf(0), ret);
+    assertNotNull(deadline.get());
+    assertTrue(deadline.get().timeRemaining(TimeUnit.MILLISECONDS) <= 1000L);
+  }
+
+  @Test
+  public void shouldCancelOnTimeout() {
+    final SettableFuture<Integer> never = SettableFuture.create();
+    final AtomicReference<Context> context = new AtomicReference<>();
+    try {
+      new DeadlineStrategy(100L).apply(new Function0<Future<Integer>>() {
+
+        @Override
+        public Future<Integer> apply() {
+          context.set(Context.current());
+          return never;
+        }
+      }).apply();
+      fail();
+    } catch (Exception e) {
+      // good we expected this
+    }
+    assertTrue(never.isCancelled());
+    assertTrue(context.get().isCancelled());
+  }
+
+  @Test
+  public void testNestedCallShareDeadline() throws Exception {
+    final AtomicReference<Deadline> inner = new AtomicReference<>();
+    final Function0<Future<Integer>> nested =
+        new DeadlineStrategy(10000L).apply(new Function0<Future<Integer>>() {
+
+          @Override
+          public Future<Integer> apply() {
+            inner.set(Context.current().getDeadline());
+            return HerajFutures.success(0);
+          }
+        });
+
+    new DeadlineStrategy(100L).apply(new Function0<Future<Integer>>() {
+
+      @Override
+      public Future<Integer> apply() {
+        return nested.apply();
+      }
+    }).apply().get();
+
+    assertTrue(inner.get().timeRemaining(TimeUnit.MILLISECONDS) <= 100L);
+  }
+
+  @Test
+  public void testIdentityPreserved() throws Exception {
+    final AtomicReference<Deadline> deadline = new AtomicReference<>();
+    new DeadlineStrategy(1000L).apply(identify(new Function0<Future<Integer>>() {
+
+      @Override
+      public Future<Integer> apply() {
+        deadline.set(Context.current().getDeadline());
+        return HerajFutures.success(0);
+      }
+    }, BLOCK_GET_BLOCK_BY_HEIGHT)).apply().get();
+
+    assertNotNull(deadline.get());
+  }
+
+  @Test
+  public void testSubscriptionWithoutDeadline() throws Exception {
+    final AtomicReference<Deadline> deadline = new AtomicReference<>();
+    final Function0<Future<Integer>> subscription = identify(new Function0<Future<Integer>>() {
+
+      @Override
+      public Future<Integer> apply() {
+        deadline.set(Context.current().getDeadline());
+        return HerajFutures.success(0);
+      }
+    }, BLOCK_SUBSCRIBE_BLOCK);
+    new DeadlineStrategy(1000L).apply(subscription).apply().get();
+
+    assertNull(deadline.get());
+  }
+
+}
@@ -0,0 +1,204 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.strategy;
+
+import static hera.api.function.Functions.identify;
+import static hera.client.ClientConstants.BLOCK_GET_BLOCK_BY_HASH;
+import static hera.client.ClientConstants.HEDGEABLE_OPERATIONS;
+import static hera.client.ClientConstants.TRANSACTION_COMMIT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.common.util.concurrent.SettableFuture;
+import hera.AbstractTestCase;
+import hera.api.function.Function0;
+import hera.api.model.internal.Time;
+import hera.client.internal.HerajFutures;
+import hera.client.internal.LoadBalancedChannel;
+import io.grpc.Status;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class HedgingStrategyTest extends AbstractTestCase {
+
+  protected final Time delay = Time.of(50L, TimeUnit.MILLISECONDS);
+
+  protected HedgingStrategy newStrategy() {
+    return new HedgingStrategy(0.95d, delay);
+  }
+
+  protected Function0<Future<Integer>> function(final List<SettableFuture<Integer>> attempts,
+      final String identity) {
+    return identify(new Function0<Future<Integer>>() {
+      @Override
+      public Future<Integer> apply() {
+        final SettableFuture<Integer> attempt = SettableFuture.create();
+        attempts.add(attempt);
+        return attempt;
+      }
+    }, identity);
+  }
+
+  @Test
+  public void shouldNotHedgeOnFastResponse() throws Exception {
+    final List<SettableFuture<Integer>> attempts = new CopyOnWriteArrayList<>();
+    final Future<Integer> future =
+        newStrategy().apply(function(attempts, BLOCK_GET_BLOCK_BY_HASH)).apply();
+    attempts.get(0).set(1);
+
+    assertEquals(Integer.valueOf(1), future.get(1L, TimeUnit.SECONDS));
+    Thread.sleep(2 * HedgingStrategy.DEFAULT_INITIAL_DELAY.toMilliseconds());
+    assertEquals(1, attempts.size());
+  }
+
+  @Test
+  public void shouldTakeHedgedResponse() throws Exception {
+    final List<SettableFuture<Integer>> attempts = new CopyOnWriteArrayList<>();
+    final Future<Integer> future =
+        newStrategy().apply(function(attempts, BLOCK_GET_BLOCK_BY_HASH)).apply();
+
+    final long timeout = System.currentTimeMillis() + 1000L;
+    while (attempts.size() < 2 && System.currentTimeMillis() < timeout) {
+      Thread.sleep(10L);
+    }
+    assertEquals(2, attempts.size());
+    attempts.get(1).set(2);
+
+    assertEquals(Integer.valueOf(2), future.get(1L, TimeUnit.SECONDS));
+    assertTrue(attempts.get(0).isCancelled());
+  }
+
+  @Test
+  public void shouldWaitForOtherOnFailure() throws Exception {
+    final List<SettableFuture<Integer>> attempts = new CopyOnWriteArrayList<>();
+    final Future<Integer> future =
+        newStrategy().apply(function(attempts, BLOCK_GET_BLOCK_BY_HASH)).apply();
+
+    final long timeout = System.currentTimeMillis() + 1000L;
+    while (attempts.size() < 2 && System.currentTimeMillis() < timeout) {
+      Thread.sleep(10L);
+    }
+    attempts.get(0).setException(Status.UNAVAILABLE.asRuntimeException());
+    assertTrue(!future.isDone());
+    attempts.get(1).set(2);
+
+    assertEquals(Integer.valueOf(2), future.get(1L, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void shouldFailWithoutHedgeOnEarlyFailure() throws Exception {
+    final List<SettableFuture<Integer>> attempts = new CopyOnWriteArrayList<>();
+    final Future<Integer> future =
+        newStrategy().apply(function(attempts, BLOCK_GET_BLOCK_BY_HASH)).apply();
+    attempts.get(0).setException(Status.UNAVAILABLE.asRuntimeException());
+
+    try {
+      future.get(1L, TimeUnit.SECONDS);
+      fail();
+    } catch (ExecutionException e) {
+      // good we expected this
+    }
+    Thread.sleep(2 * HedgingStrategy.DEFAULT_INITIAL_DELAY.toMilliseconds());
+    assertEquals(1, attempts.size());
+  }
+
+  @Test
+  public void shouldNotHedgeNonReadOperation() throws Exception {
+    final List<SettableFuture<Integer>> attempts = new CopyOnWriteArrayList<>();
+    final Future<Integer> future =
+        newStrategy().apply(function(attempts, TRANSACTION_COMMIT)).apply();
+
+    Thread.sleep(2 * HedgingStrategy.DEFAULT_INITIAL_DELAY.toMilliseconds());
+    assertEquals(1, attempts.size());
+    assertTrue(future == attempts.get(0));
+  }
+
+  @Test
+  public void shouldCancelAllAttempts() throws Exception {
+    final List<SettableFuture<Integer>> attempts = new CopyOnWriteArrayList<>();
+    final Future<Integer> future =
+        newStrategy().apply(function(attempts, BLOCK_GET_BLOCK_BY_HASH)).apply();
+
+    future.cancel(true);
+    assertTrue(attempts.get(0).isCancelled());
+    Thread.sleep(2 * HedgingStrategy.DEFAULT_INITIAL_DELAY.toMilliseconds());
+    assertEquals(1, attempts.size());
+  }
+
+  @Test
+  public void shouldShareRoutedEndpoints() throws Exception {
+    final List<Set<String>> routed = new CopyOnWriteArrayList<>();
+    final List<SettableFuture<Integer>> attempts = new CopyOnWriteArrayList<>();
+    final Future<Integer> future = newStrategy().apply(identify(new Function0<Future<Integer>>() {
+      @Override
+      public Future<Integer> apply() {
+        routed.add(LoadBalancedChannel.ROUTED_ENDPOINTS.get());
+        final SettableFuture<Integer> attempt = SettableFuture.create();
+        attempts.add(attempt);
+        return attempt;
+      }
+    }, BLOCK_GET_BLOCK_BY_HASH)).apply();
+
+    final long timeout = System.currentTimeMillis() + 1000L;
+    while (attempts.size() < 2 && System.currentTimeMillis() < timeout) {
+      Thread.sleep(10L);
+    }
+    attempts.get(1).set(2);
+    future.get(1L, TimeUnit.SECONDS);
+
+    assertNotNull(routed.get(0));
+    assertTrue(routed.get(0) == routed.get(1));
+  }
+
+  @Test
+  public void shouldUsePercentileAsDelay() throws Exception {
+    final HedgingStrategy strategy = newStrategy();
+    for (int i = 0; i < HedgingStrategy.MIN_SAMPLES; ++i) {
+      final Future<Integer> future = strategy.apply(identify(new Function0<Future<Integer>>() {
+        @Override
+        public Future<Integer> apply() {
+          return HerajFutures.success(0);
+        }
+      }, BLOCK_GET_BLOCK_BY_HASH)).apply();
+      future.get();
+    }
+    // every latency is much less than min delay
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(delay.toMilliseconds()),
+        strategy.getDelay(BLOCK_GET_BLOCK_BY_HASH));
+  }
+
+  @Test
+  public void shouldSamplePrimaryLosingToHedge() throws Exception {
+    final Time initialDelay = Time.of(20L, TimeUnit.MILLISECONDS);
+    final HedgingStrategy strategy = new HedgingStrategy(0.95d,
+        Time.of(1L, TimeUnit.MILLISECONDS), initialDelay, HEDGEABLE_OPERATIONS);
+    final AtomicInteger invoked = new AtomicInteger(0);
+    // a primary never responds and a hedge responds at once
+    final Function0<Future<Integer>> function = identify(new Function0<Future<Integer>>() {
+      @Override
+      public Future<Integer> apply() {
+        if (0 == invoked.getAndIncrement() % 2) {
+          return SettableFuture.create();
+        }
+        return HerajFutures.success(1);
+      }
+    }, BLOCK_GET_BLOCK_BY_HASH);
+    for (int i = 0; i < HedgingStrategy.MIN_SAMPLES; ++i) {
+      strategy.apply(function).apply().get(1L, TimeUnit.SECONDS);
+    }
+    // sampled up to a cancellation, not a latency of a hedge
+    assertTrue(TimeUnit.MILLISECONDS.toNanos(initialDelay.toMilliseconds())
+        <= strategy.getDelay(BLOCK_GET_BLOCK_BY_HASH));
+  }
+
+}
@@ -0,0 +1,53 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.strategy;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import hera.AbstractTestCase;
+import hera.api.model.internal.Time;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class RetryBudgetTest extends AbstractTestCase {
+
+  @Test
+  public void testMinRetries() {
+    final RetryBudget budget = new RetryBudget(Time.of(10L, TimeUnit.SECONDS), 0.0d, 2);
+    assertTrue(budget.tryRetry());
+    assertTrue(budget.tryRetry());
+    assertFalse(budget.tryRetry());
+  }
+
+  @Test
+  public void testPercentOfRequests() {
+    final RetryBudget budget = new RetryBudget(Time.of(10L, TimeUnit.SECONDS), 0.5d, 0);
+    for (int i = 0; i < 10; ++i) {
+      budget.onRequest();
+    }
+    for (int i = 0; i < 5; ++i) {
+      assertTrue(budget.tryRetry());
+    }
+    assertFalse(budget.tryRetry());
+  }
+
+  @Test
+  public void testWindowExpired() {
+    final long[] now = new long[] {0L};
+    final RetryBudget budget = new RetryBudget(Time.of(10L, TimeUnit.SECONDS), 0.0d, 1) {
+      @Override
+      protected long now() {
+        return now[0];
+      }
+    };
+    assertTrue(budget.tryRetry());
+    assertFalse(budget.tryRetry());
+
+    now[0] += TimeUnit.SECONDS.toNanos(11L);
+    assertTrue(budget.tryRetry());
+  }
+
+}
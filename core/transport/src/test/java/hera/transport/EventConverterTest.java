@@ -5,11 +5,21 @@
 package hera.transport;
 
 import static hera.util.TransportUtils.copyFrom;
+import static java.util.UUID.randomUUID;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
 import hera.AbstractTestCase;
+import hera.api.model.BigNumber;
+import hera.api.model.BlockHash;
+import hera.api.model.BytesValue;
+import hera.api.model.ContractAddress;
 import hera.api.model.Event;
+import hera.api.model.TxHash;
 import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 import org.junit.Test;
 import types.Blockchain;
 
@@ -27,4 +37,25 @@ public class EventConverterTest extends AbstractTestCase {
     assertNotNull(converted);
   }
 
+  @Test
+  public void testConvertToRpcModel() {
+    final ModelConverter<Event, Blockchain.Event> converter = new EventConverterFactory().create();
+
+    final Map<String, Object> map = new HashMap<>();
+    map.put("key", "value");
+    final Event domainEvent = Event.newBuilder()
+        .from(new ContractAddress(accountAddress.getBytesValue()))
+        .name("transfer")
+        .args(Arrays.<Object>asList(1, "text", null, true, new BigNumber("12345678901234567890"),
+            map))
+        .index(2)
+        .txHash(TxHash.of(BytesValue.of(randomUUID().toString().getBytes())))
+        .indexInBlock(3)
+        .blockHash(BlockHash.of(BytesValue.of(randomUUID().toString().getBytes())))
+        .blockNumber(100L)
+        .build();
+    final Blockchain.Event rpcEvent = converter.convertToRpcModel(domainEvent);
+    assertEquals(domainEvent, converter.convertToDomainModel(rpcEvent));
+  }
+
 }
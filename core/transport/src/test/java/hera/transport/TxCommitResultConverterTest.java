@@ -0,0 +1,35 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.transport;
+
+import static hera.util.TransportUtils.copyFrom;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import hera.AbstractTestCase;
+import hera.api.model.BytesValue;
+import hera.api.model.TxCommitResult;
+import org.junit.Test;
+import types.Rpc;
+
+public class TxCommitResultConverterTest extends AbstractTestCase {
+
+  @Test
+  public void testConvert() {
+    final ModelConverter<TxCommitResult, Rpc.CommitResult> converter =
+        new TxCommitResultConverterFactory().create();
+
+    final Rpc.CommitResult rpcCommitResult = Rpc.CommitResult.newBuilder()
+        .setHash(copyFrom(BytesValue.of(new byte[] {1, 2, 3})))
+        .setError(Rpc.CommitStatus.TX_INSUFFICIENT_BALANCE)
+        .setDetail("balance")
+        .build();
+    final TxCommitResult domainCommitResult = converter.convertToDomainModel(rpcCommitResult);
+    assertNotNull(domainCommitResult);
+    assertEquals(TxCommitResult.Status.INSUFFICIENT_BALANCE, domainCommitResult.getStatus());
+    assertEquals("balance", domainCommitResult.getMessage());
+  }
+
+}